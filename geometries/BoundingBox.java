@@ -0,0 +1,138 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Axis-aligned bounding box, used by acceleration structures to reject rays
+ * that cannot hit the bounded geometry
+ *
+ * @param minX lower x bound
+ * @param minY lower y bound
+ * @param minZ lower z bound
+ * @param maxX upper x bound
+ * @param maxY upper y bound
+ * @param maxZ upper z bound
+ * @author Raphael
+ */
+public record BoundingBox(double minX, double minY, double minZ,
+                          double maxX, double maxY, double maxZ) {
+
+    /**
+     * The box of an infinite geometry (e.g. a plane) - every ray may hit it
+     */
+    public static final BoundingBox UNBOUNDED = new BoundingBox(
+            Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+    /**
+     * Constructs the smallest box containing all the given points
+     *
+     * @param points the points to bound (at least one)
+     * @return the bounding box of the points
+     * @throws IllegalArgumentException if there are no points
+     */
+    public static BoundingBox of(Point... points) {
+        if (points.length == 0)
+            throw new IllegalArgumentException("Cannot bound an empty set of points");
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (Point p : points) {
+            minX = Math.min(minX, p.getX());
+            minY = Math.min(minY, p.getY());
+            minZ = Math.min(minZ, p.getZ());
+            maxX = Math.max(maxX, p.getX());
+            maxY = Math.max(maxY, p.getY());
+            maxZ = Math.max(maxZ, p.getZ());
+        }
+        return new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * Checks whether the box has finite extents
+     *
+     * @return true if all the bounds are finite numbers
+     */
+    public boolean isBounded() {
+        return Double.isFinite(minX) && Double.isFinite(minY) && Double.isFinite(minZ)
+                && Double.isFinite(maxX) && Double.isFinite(maxY) && Double.isFinite(maxZ);
+    }
+
+    /**
+     * Constructs the smallest box containing both this box and another one
+     *
+     * @param other the other box
+     * @return the union box
+     */
+    public BoundingBox union(BoundingBox other) {
+        return new BoundingBox(Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ));
+    }
+
+    /**
+     * Calculates the surface area of the box - the probability of a random ray
+     * hitting a box is proportional to it
+     *
+     * @return the surface area
+     */
+    public double surfaceArea() {
+        double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Checks whether a ray hits the box (slab test)
+     *
+     * @param ray the ray
+     * @return true if the ray enters the box at a non-negative distance
+     */
+    public boolean intersects(Ray ray) {
+        Point o = ray.origin();
+        Vector d = ray.direction();
+        return slab(o.getX(), 1 / d.getX(), o.getY(), 1 / d.getY(), o.getZ(), 1 / d.getZ(),
+                minX, minY, minZ, maxX, maxY, maxZ, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Slab test of a ray given by its origin and inverted direction components
+     * against box bounds. Uses only ordered comparisons so the NaN produced by an
+     * origin lying on a slab of an axis-parallel ray is ignored rather than
+     * propagated
+     *
+     * @param ox    ray origin x
+     * @param invDx inverse of ray direction x
+     * @param oy    ray origin y
+     * @param invDy inverse of ray direction y
+     * @param oz    ray origin z
+     * @param invDz inverse of ray direction z
+     * @param minX  lower x bound
+     * @param minY  lower y bound
+     * @param minZ  lower z bound
+     * @param maxX  upper x bound
+     * @param maxY  upper y bound
+     * @param maxZ  upper z bound
+     * @param tMax  the maximal distance of interest
+     * @return true if the ray enters the box within [0, tMax]
+     */
+    static boolean slab(double ox, double invDx, double oy, double invDy, double oz, double invDz,
+                        double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                        double tMax) {
+        double tNear = 0, tFar = tMax;
+        double t0 = (minX - ox) * invDx, t1 = (maxX - ox) * invDx;
+        if (t0 > t1) { double t = t0; t0 = t1; t1 = t; }
+        if (t0 > tNear) tNear = t0;
+        if (t1 < tFar) tFar = t1;
+        t0 = (minY - oy) * invDy;
+        t1 = (maxY - oy) * invDy;
+        if (t0 > t1) { double t = t0; t0 = t1; t1 = t; }
+        if (t0 > tNear) tNear = t0;
+        if (t1 < tFar) tFar = t1;
+        t0 = (minZ - oz) * invDz;
+        t1 = (maxZ - oz) * invDz;
+        if (t0 > t1) { double t = t0; t0 = t1; t1 = t; }
+        if (t0 > tNear) tNear = t0;
+        if (t1 < tFar) tFar = t1;
+        return tNear <= tFar;
+    }
+}
@@ -0,0 +1,941 @@
+package geometries;
+
+import primitives.ContentHash;
+import primitives.ContentHashable;
+import primitives.Point;
+import primitives.Ray;
+import primitives.SnapshotInput;
+import primitives.SnapshotOutput;
+import primitives.Vector;
+
+import java.io.IOException;
+import java.io.Serial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounding volume hierarchy over a collection of intersectables.
+ * <p>
+ * The tree is kept in flat arrays: node {@code n} has its box at
+ * {@code bounds[6n..6n+5]}; an inner node has its two children at
+ * {@code child[n]} and {@code child[n] + 1}, a leaf ({@code child[n] < 0}) owns
+ * the items {@code items[start[n] .. start[n] + count[n])}. Children are always
+ * stored after their parent, so a single backward sweep over the nodes refits
+ * the whole tree.
+ * <p>
+ * For animation the items may be replaced ({@link #set(int, Intersectable)})
+ * and the existing hierarchy refitted ({@link #refit()}) instead of rebuilt.
+ * Refitting keeps the topology, so its quality degrades as the geometry moves
+ * away from the configuration it was built for; once the surface area cost of
+ * the refitted tree exceeds the cost at build time by the rebuild threshold,
+ * {@link #refit()} falls back to a full rebuild. For edits while other
+ * threads are tracing, {@link #withItems(Map)} refits a copy instead, along
+ * the paths of the changed items only.
+ * <p>
+ * The tree is built top-down with the binned surface area heuristic; the items
+ * are partitioned in place in a single array, and the subtrees of large ranges
+ * are built in parallel by fork-join tasks.
+ *
+ * @author Raphael
+ */
+public final class BoundingVolumeHierarchy implements Intersectable, ContentHashable {
+    /**
+     * Ranges of at most this amount of items always become leaves
+     */
+    private static final int SMALL_LEAF_SIZE = 4;
+    /**
+     * Maximal amount of items in a leaf the surface area heuristic may choose
+     */
+    private static final int MAX_LEAF_SIZE = 16;
+    /**
+     * Amount of bins per axis for the binned surface area heuristic
+     */
+    private static final int BINS = 16;
+    /**
+     * Ranges larger than this are built by parallel tasks
+     */
+    private static final int PARALLEL_THRESHOLD = 4096;
+    /**
+     * Relative cost of visiting an inner node, for the surface area heuristic
+     */
+    private static final double TRAVERSAL_COST = 1;
+    /**
+     * Relative cost of intersecting a single item, for the surface area heuristic
+     */
+    private static final double INTERSECTION_COST = 1;
+
+    /**
+     * Pool running the parallel construction
+     */
+    private final ForkJoinPool pool;
+    /**
+     * The items by their original index
+     */
+    private final Intersectable[] originals;
+    /**
+     * Position of each original item in {@link #items} (bounded items) or
+     * -(position + 1) in {@link #unbounded} (unbounded items)
+     */
+    private final int[] slots;
+    /**
+     * Bounded items in leaf order
+     */
+    private Intersectable[] items;
+    /**
+     * Items without finite bounds, tested for every ray
+     */
+    private Intersectable[] unbounded;
+
+    /**
+     * Node boxes, 6 values per node
+     */
+    private double[] bounds;
+    /**
+     * Index of the first child of an inner node, -1 for a leaf
+     */
+    private int[] child;
+    /**
+     * Index of the first item of a leaf
+     */
+    private int[] start;
+    /**
+     * Amount of items in a leaf
+     */
+    private int[] count;
+    /**
+     * Amount of nodes in use
+     */
+    private int nodeCount;
+
+    /**
+     * Cost of the tree when it was last built
+     */
+    private double builtCost;
+    /**
+     * Allowed cost growth ratio before a refit falls back to a rebuild
+     */
+    private double rebuildThreshold = 1.5;
+    /**
+     * Whether an item changed between bounded and unbounded since the last build
+     */
+    private boolean topologyChanged = false;
+    /**
+     * Parent of every node (-1 for the root), null until an incremental update
+     * needs it; shared by the copies of the same build
+     */
+    private int[] parent;
+    /**
+     * Leaf holding every bounded item position, together with {@link #parent}
+     */
+    private int[] leafOf;
+
+    /**
+     * Constructs a hierarchy over the given items, built in the common pool
+     *
+     * @param items the intersectables to hold
+     */
+    public BoundingVolumeHierarchy(Intersectable... items) {
+        this(ForkJoinPool.commonPool(), items);
+    }
+
+    /**
+     * Constructs a hierarchy over the given items, built in the common pool
+     *
+     * @param items the intersectables to hold
+     */
+    public BoundingVolumeHierarchy(List<? extends Intersectable> items) {
+        this(ForkJoinPool.commonPool(), items);
+    }
+
+    /**
+     * Constructs a hierarchy over the given items
+     *
+     * @param pool  the pool running the construction (and later rebuilds)
+     * @param items the intersectables to hold
+     */
+    public BoundingVolumeHierarchy(ForkJoinPool pool, Intersectable... items) {
+        this.pool = pool;
+        this.originals = items.clone();
+        this.slots = new int[items.length];
+        build();
+    }
+
+    /**
+     * Constructs a hierarchy over the given items
+     *
+     * @param pool  the pool running the construction (and later rebuilds)
+     * @param items the intersectables to hold
+     */
+    public BoundingVolumeHierarchy(ForkJoinPool pool, List<? extends Intersectable> items) {
+        this(pool, items.toArray(new Intersectable[0]));
+    }
+
+    /**
+     * Constructs a hierarchy restored from a snapshot (see {@link #read(SnapshotInput)})
+     *
+     * @param originals        the items by their original index
+     * @param slots            the positions of the items in the leaves
+     * @param bounds           the node boxes
+     * @param child            the first children
+     * @param start            the leaf starts
+     * @param count            the leaf sizes
+     * @param builtCost        the cost of the tree when it was built
+     * @param rebuildThreshold the allowed cost growth before a rebuild
+     */
+    private BoundingVolumeHierarchy(Intersectable[] originals, int[] slots, double[] bounds, int[] child,
+                                    int[] start, int[] count, double builtCost, double rebuildThreshold) {
+        this.pool = ForkJoinPool.commonPool();
+        this.originals = originals;
+        this.slots = slots;
+        int bounded = 0;
+        for (int slot : slots) if (slot >= 0) ++bounded;
+        items = new Intersectable[bounded];
+        unbounded = new Intersectable[slots.length - bounded];
+        for (int i = 0; i < slots.length; ++i)
+            if (slots[i] >= 0) items[slots[i]] = originals[i];
+            else unbounded[-slots[i] - 1] = originals[i];
+        this.bounds = bounds;
+        this.child = child;
+        this.start = start;
+        this.count = count;
+        this.nodeCount = child.length;
+        this.builtCost = builtCost;
+        this.rebuildThreshold = rebuildThreshold;
+    }
+
+    /**
+     * Constructs a copy of a hierarchy sharing its topology, for
+     * {@link #withItems(Map)}
+     *
+     * @param source the copied hierarchy
+     */
+    private BoundingVolumeHierarchy(BoundingVolumeHierarchy source) {
+        this.pool = source.pool;
+        this.originals = source.originals.clone();
+        this.slots = source.slots.clone();
+        this.items = source.items.clone();
+        this.unbounded = source.unbounded.clone();
+        this.bounds = source.bounds.clone();
+        this.child = source.child;
+        this.start = source.start;
+        this.count = source.count;
+        this.nodeCount = source.nodeCount;
+        this.builtCost = source.builtCost;
+        this.rebuildThreshold = source.rebuildThreshold;
+        this.topologyChanged = source.topologyChanged;
+        source.links();
+        this.parent = source.parent;
+        this.leafOf = source.leafOf;
+    }
+
+    /**
+     * Writes the hierarchy into a snapshot - its items and its built tree
+     *
+     * @param out the snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    void write(SnapshotOutput out) throws IOException {
+        out.putInt(originals.length);
+        for (Intersectable item : originals) GeometrySnapshot.write(item, out);
+        out.putInts(slots).putDoubles(Arrays.copyOf(bounds, 6 * nodeCount))
+                .putInts(Arrays.copyOf(child, nodeCount)).putInts(Arrays.copyOf(start, nodeCount))
+                .putInts(Arrays.copyOf(count, nodeCount)).putDouble(builtCost).putDouble(rebuildThreshold);
+    }
+
+    /**
+     * Reads a hierarchy written by {@link #write(SnapshotOutput)}, without
+     * rebuilding its tree
+     *
+     * @param in the snapshot
+     * @return the hierarchy
+     * @throws IOException if the snapshot cannot be read or is corrupt
+     */
+    static BoundingVolumeHierarchy read(SnapshotInput in) throws IOException {
+        Intersectable[] originals = new Intersectable[in.getInt()];
+        for (int i = 0; i < originals.length; ++i) originals[i] = GeometrySnapshot.read(in);
+        int[] slots = in.getInts();
+        double[] bounds = in.getDoubles();
+        int[] child = in.getInts(), start = in.getInts(), count = in.getInts();
+        double builtCost = in.getDouble(), rebuildThreshold = in.getDouble();
+
+        int n = child.length, bounded = 0;
+        if (slots.length != originals.length || n == 0 || bounds.length != 6 * n || start.length != n
+                || count.length != n)
+            throw new IOException("Corrupt snapshot: hierarchy sizes");
+        boolean[] taken = new boolean[slots.length];
+        for (int slot : slots) if (slot >= 0) ++bounded;
+        for (int slot : slots) {
+            int index = slot >= 0 ? slot : bounded - slot - 1;
+            if (index >= slots.length || taken[index]) throw new IOException("Corrupt snapshot: hierarchy slots");
+            taken[index] = true;
+        }
+        for (int node = 0; node < n; ++node)
+            if (child[node] >= 0 ? child[node] <= node || child[node] + 1 >= n
+                    : start[node] < 0 || count[node] < 0 || start[node] + count[node] > bounded)
+                throw new IOException("Corrupt snapshot: hierarchy nodes");
+        return new BoundingVolumeHierarchy(originals, slots, bounds, child, start, count, builtCost, rebuildThreshold);
+    }
+
+    /**
+     * Sets the allowed growth of the tree cost (relative to the cost at build
+     * time) before {@link #refit()} rebuilds the tree instead
+     *
+     * @param threshold the ratio, must be at least 1
+     * @return the hierarchy itself
+     * @throws IllegalArgumentException if the threshold is less than 1
+     */
+    public BoundingVolumeHierarchy setRebuildThreshold(double threshold) {
+        if (threshold < 1)
+            throw new IllegalArgumentException("Rebuild threshold must be at least 1");
+        this.rebuildThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Returns the amount of items in the hierarchy
+     *
+     * @return the amount of items
+     */
+    public int size() {
+        return originals.length;
+    }
+
+    /**
+     * Returns an item by its original index
+     *
+     * @param index the index of the item in the constructor arguments
+     * @return the item
+     */
+    public Intersectable get(int index) {
+        return originals[index];
+    }
+
+    /**
+     * Replaces an item (e.g. a moved sphere or a deformed triangle). The boxes
+     * are not updated until the next {@link #refit()} or {@link #rebuild()}
+     *
+     * @param index the index of the item in the constructor arguments
+     * @param item  the new item
+     */
+    public void set(int index, Intersectable item) {
+        originals[index] = item;
+        int slot = slots[index];
+        if (slot >= 0 && item.getBoundingBox().isBounded())
+            items[slot] = item;
+        else if (slot < 0 && !item.getBoundingBox().isBounded())
+            unbounded[-slot - 1] = item;
+        else
+            topologyChanged = true;
+    }
+
+    /**
+     * Recalculates the boxes of the existing hierarchy bottom-up after items have
+     * moved. If the quality of the refitted tree became too poor, the tree is
+     * rebuilt
+     *
+     * @return true if the tree has been rebuilt, false if it has only been
+     * refitted
+     */
+    public boolean refit() {
+        if (topologyChanged) {
+            build();
+            return true;
+        }
+        for (int n = nodeCount - 1; n >= 0; --n) refitNode(n);
+        if (cost() > builtCost * rebuildThreshold) {
+            build();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a copy of the hierarchy with some items replaced, leaving the
+     * hierarchy itself untouched - so it may be replaced while other threads
+     * still trace rays through it. The copy shares the topology of the tree
+     * and only the boxes on the paths from the changed leaves to the root are
+     * refitted; the copy is rebuilt instead if an item changed between bounded
+     * and unbounded, or if the refitted tree became too poor (as in
+     * {@link #refit()})
+     *
+     * @param changes the new items by their original index
+     * @return the updated copy
+     * @throws IndexOutOfBoundsException if an index is not an item index
+     */
+    public BoundingVolumeHierarchy withItems(Map<Integer, ? extends Intersectable> changes) {
+        BoundingVolumeHierarchy copy = new BoundingVolumeHierarchy(this);
+        for (Map.Entry<Integer, ? extends Intersectable> change : changes.entrySet())
+            copy.set(change.getKey(), change.getValue());
+        if (copy.topologyChanged) {
+            copy.build();
+            return copy;
+        }
+        // the ancestors of the changed leaves, refitted children first
+        BitSet dirty = new BitSet(nodeCount);
+        for (int index : changes.keySet()) {
+            int slot = copy.slots[index];
+            if (slot < 0) continue;
+            for (int n = leafOf[slot]; n >= 0 && !dirty.get(n); n = parent[n]) dirty.set(n);
+        }
+        for (int n = dirty.previousSetBit(nodeCount - 1); n >= 0; n = dirty.previousSetBit(n - 1))
+            copy.refitNode(n);
+        if (copy.cost() > builtCost * rebuildThreshold) copy.build();
+        return copy;
+    }
+
+    /**
+     * Recalculates the box of a node from its items or from the boxes of its
+     * children
+     *
+     * @param n the index of the node
+     */
+    private void refitNode(int n) {
+        int o = 6 * n;
+        if (child[n] < 0) {
+            setEmpty(o);
+            for (int i = start[n], end = i + count[n]; i < end; ++i)
+                include(o, items[i].getBoundingBox());
+        } else {
+            int l = 6 * child[n], r = l + 6;
+            bounds[o] = Math.min(bounds[l], bounds[r]);
+            bounds[o + 1] = Math.min(bounds[l + 1], bounds[r + 1]);
+            bounds[o + 2] = Math.min(bounds[l + 2], bounds[r + 2]);
+            bounds[o + 3] = Math.max(bounds[l + 3], bounds[r + 3]);
+            bounds[o + 4] = Math.max(bounds[l + 4], bounds[r + 4]);
+            bounds[o + 5] = Math.max(bounds[l + 5], bounds[r + 5]);
+        }
+    }
+
+    /**
+     * Calculates the parents of the nodes and the leaves of the items, unless
+     * they are known already
+     */
+    private synchronized void links() {
+        if (parent != null) return;
+        int[] parents = new int[nodeCount];
+        int[] leaves = new int[items.length];
+        parents[0] = -1;
+        for (int n = 0; n < nodeCount; ++n)
+            if (child[n] >= 0) parents[child[n]] = parents[child[n] + 1] = n;
+            else for (int i = start[n], end = i + count[n]; i < end; ++i) leaves[i] = n;
+        leafOf = leaves;
+        parent = parents;
+    }
+
+    /**
+     * Builds the hierarchy from scratch over the current items
+     */
+    public void rebuild() {
+        build();
+    }
+
+    /**
+     * Builds the hierarchy from scratch over the current items
+     */
+    private void build() {
+        List<Intersectable> bounded = new ArrayList<>(originals.length);
+        List<Intersectable> infinite = new ArrayList<>();
+        for (int i = 0; i < originals.length; ++i) {
+            if (originals[i].getBoundingBox().isBounded()) {
+                slots[i] = bounded.size();
+                bounded.add(originals[i]);
+            } else {
+                infinite.add(originals[i]);
+                slots[i] = -infinite.size();
+            }
+        }
+        items = bounded.toArray(new Intersectable[0]);
+        unbounded = infinite.toArray(new Intersectable[0]);
+        topologyChanged = false;
+        parent = leafOf = null;
+
+        int n = items.length;
+        // original index of each position, so the slots can be fixed after partitioning
+        int[] order = new int[n];
+        for (int i = 0, k = 0; i < originals.length; ++i)
+            if (slots[i] >= 0) order[k++] = i;
+        double[] itemBounds = new double[6 * n];
+        pool.invoke(new BoundsTask(itemBounds, 0, n));
+
+        int capacity = Math.max(1, 2 * n - 1);
+        bounds = new double[6 * capacity];
+        child = new int[capacity];
+        start = new int[capacity];
+        count = new int[capacity];
+        AtomicInteger allocator = new AtomicInteger(1);
+        pool.invoke(new BuildTask(0, 0, n, itemBounds, order, allocator));
+        nodeCount = allocator.get();
+
+        for (int i = 0; i < n; ++i)
+            slots[order[i]] = i;
+        builtCost = cost();
+    }
+
+    /**
+     * Task filling the item boxes array, splitting large ranges in parallel
+     */
+    private final class BoundsTask extends RecursiveAction {
+        /**
+         * Serialization version (the tasks are never serialized)
+         */
+        @Serial
+        private static final long serialVersionUID = 1L;
+        /**
+         * The item boxes to fill
+         */
+        private final double[] itemBounds;
+        /**
+         * First item of the range
+         */
+        private final int from;
+        /**
+         * End of the range (exclusive)
+         */
+        private final int to;
+
+        /**
+         * Constructs a task over a range of items
+         *
+         * @param itemBounds the item boxes to fill
+         * @param from       first item of the range
+         * @param to         end of the range (exclusive)
+         */
+        BoundsTask(double[] itemBounds, int from, int to) {
+            this.itemBounds = itemBounds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PARALLEL_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BoundsTask(itemBounds, from, mid), new BoundsTask(itemBounds, mid, to));
+                return;
+            }
+            for (int i = from; i < to; ++i) {
+                BoundingBox box = items[i].getBoundingBox();
+                int o = 6 * i;
+                itemBounds[o] = box.minX();
+                itemBounds[o + 1] = box.minY();
+                itemBounds[o + 2] = box.minZ();
+                itemBounds[o + 3] = box.maxX();
+                itemBounds[o + 4] = box.maxY();
+                itemBounds[o + 5] = box.maxZ();
+            }
+        }
+    }
+
+    /**
+     * Task building a subtree. The two subtrees of a large range are built in
+     * parallel, small ranges are built sequentially by the task itself
+     */
+    private final class BuildTask extends RecursiveAction {
+        /**
+         * Serialization version (the tasks are never serialized)
+         */
+        @Serial
+        private static final long serialVersionUID = 1L;
+        /**
+         * The index of the (already allocated) subtree root
+         */
+        private final int node;
+        /**
+         * First item of the range
+         */
+        private final int from;
+        /**
+         * End of the range (exclusive)
+         */
+        private final int to;
+        /**
+         * The item boxes, permuted together with the items
+         */
+        private final double[] itemBounds;
+        /**
+         * The original indices, permuted together with the items
+         */
+        private final int[] order;
+        /**
+         * Shared node index allocator
+         */
+        private final AtomicInteger allocator;
+
+        /**
+         * Constructs a task building the subtree over a range of items
+         *
+         * @param node       the index of the (already allocated) subtree root
+         * @param from       first item of the range
+         * @param to         end of the range (exclusive)
+         * @param itemBounds the item boxes
+         * @param order      the original indices
+         * @param allocator  shared node index allocator
+         */
+        BuildTask(int node, int from, int to, double[] itemBounds, int[] order, AtomicInteger allocator) {
+            this.node = node;
+            this.from = from;
+            this.to = to;
+            this.itemBounds = itemBounds;
+            this.order = order;
+            this.allocator = allocator;
+        }
+
+        @Override
+        protected void compute() {
+            int mid = split(node, from, to, itemBounds, order);
+            if (mid < 0) return;
+            int left = allocator.getAndAdd(2);
+            child[node] = left;
+            if (to - from > PARALLEL_THRESHOLD)
+                invokeAll(new BuildTask(left, from, mid, itemBounds, order, allocator),
+                        new BuildTask(left + 1, mid, to, itemBounds, order, allocator));
+            else {
+                buildSubtree(left, from, mid, itemBounds, order, allocator);
+                buildSubtree(left + 1, mid, to, itemBounds, order, allocator);
+            }
+        }
+    }
+
+    /**
+     * Sequentially builds a subtree over a range of items
+     *
+     * @param node       the index of the (already allocated) subtree root
+     * @param from       first item of the range
+     * @param to         end of the range (exclusive)
+     * @param itemBounds the item boxes, permuted together with the items
+     * @param order      the original indices, permuted together with the items
+     * @param allocator  shared node index allocator
+     */
+    private void buildSubtree(int node, int from, int to, double[] itemBounds, int[] order, AtomicInteger allocator) {
+        int mid = split(node, from, to, itemBounds, order);
+        if (mid < 0) return;
+        int left = allocator.getAndAdd(2);
+        child[node] = left;
+        buildSubtree(left, from, mid, itemBounds, order, allocator);
+        buildSubtree(left + 1, mid, to, itemBounds, order, allocator);
+    }
+
+    /**
+     * Calculates the box of a node over a range of items and decides how to
+     * split it. The item centers are distributed into {@link #BINS} equal bins
+     * along each axis and the bin boundary with the lowest surface area cost is
+     * chosen; the range is then partitioned in place around it.
+     *
+     * @param node       the index of the node
+     * @param from       first item of the range
+     * @param to         end of the range (exclusive)
+     * @param itemBounds the item boxes, permuted together with the items
+     * @param order      the original indices, permuted together with the items
+     * @return the first item of the right part, or -1 if the node was made a leaf
+     */
+    private int split(int node, int from, int to, double[] itemBounds, int[] order) {
+        int o = 6 * node;
+        setEmpty(o);
+        double[] cMin = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] cMax = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = from; i < to; ++i) {
+            int b = 6 * i;
+            for (int a = 0; a < 3; ++a) {
+                bounds[o + a] = Math.min(bounds[o + a], itemBounds[b + a]);
+                bounds[o + a + 3] = Math.max(bounds[o + a + 3], itemBounds[b + a + 3]);
+                double c = itemBounds[b + a] + itemBounds[b + a + 3];
+                if (c < cMin[a]) cMin[a] = c;
+                if (c > cMax[a]) cMax[a] = c;
+            }
+        }
+
+        int size = to - from;
+        if (size <= SMALL_LEAF_SIZE) return leaf(node, from, size);
+
+        double[] scale = new double[3];
+        double[] binBounds = new double[3 * BINS * 6];
+        int[] binCount = new int[3 * BINS];
+        for (int b = 0; b < 3 * BINS; ++b) {
+            binBounds[6 * b] = binBounds[6 * b + 1] = binBounds[6 * b + 2] = Double.POSITIVE_INFINITY;
+            binBounds[6 * b + 3] = binBounds[6 * b + 4] = binBounds[6 * b + 5] = Double.NEGATIVE_INFINITY;
+        }
+        for (int a = 0; a < 3; ++a)
+            scale[a] = cMax[a] > cMin[a] ? BINS / (cMax[a] - cMin[a]) : 0;
+        for (int i = from; i < to; ++i)
+            for (int a = 0; a < 3; ++a) {
+                if (scale[a] == 0) continue;
+                int b = a * BINS + bin(centroid(itemBounds, i, a), cMin[a], scale[a]);
+                ++binCount[b];
+                for (int k = 0; k < 3; ++k) {
+                    binBounds[6 * b + k] = Math.min(binBounds[6 * b + k], itemBounds[6 * i + k]);
+                    binBounds[6 * b + k + 3] = Math.max(binBounds[6 * b + k + 3], itemBounds[6 * i + k + 3]);
+                }
+            }
+
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1, bestBin = -1;
+        double[] rightCost = new double[BINS];
+        double[] box = new double[6];
+        for (int a = 0; a < 3; ++a) {
+            if (scale[a] == 0) continue;
+            // right sweep: cost of the bins b..BINS-1
+            emptyBox(box);
+            int n = 0;
+            for (int b = BINS - 1; b > 0; --b) {
+                n += binCount[a * BINS + b];
+                growBox(box, binBounds, 6 * (a * BINS + b));
+                rightCost[b] = n == 0 ? Double.NaN : boxArea(box) * n;
+            }
+            // left sweep: cost of the bins 0..b plus the right part
+            emptyBox(box);
+            n = 0;
+            for (int b = 0; b < BINS - 1; ++b) {
+                n += binCount[a * BINS + b];
+                growBox(box, binBounds, 6 * (a * BINS + b));
+                double cost = boxArea(box) * n + rightCost[b + 1];
+                if (n > 0 && cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = a;
+                    bestBin = b;
+                }
+            }
+        }
+
+        // all the centers coincide - any split is as good as any other
+        if (bestAxis < 0) return (from + to) >>> 1;
+
+        double splitCost = TRAVERSAL_COST + INTERSECTION_COST * bestCost / area(node);
+        if (size <= MAX_LEAF_SIZE && splitCost >= size * INTERSECTION_COST)
+            return leaf(node, from, size);
+
+        int i = from, j = to - 1;
+        while (i <= j) {
+            if (bin(centroid(itemBounds, i, bestAxis), cMin[bestAxis], scale[bestAxis]) <= bestBin) ++i;
+            else swap(i, j--, itemBounds, order);
+        }
+        return i;
+    }
+
+    /**
+     * Makes a node a leaf over a range of items
+     *
+     * @param node the index of the node
+     * @param from first item of the range
+     * @param size amount of items
+     * @return -1 (no split)
+     */
+    private int leaf(int node, int from, int size) {
+        child[node] = -1;
+        start[node] = from;
+        count[node] = size;
+        return -1;
+    }
+
+    /**
+     * Calculates the bin of an item center
+     *
+     * @param centroid the (doubled) center coordinate
+     * @param min      the minimal (doubled) center coordinate in the range
+     * @param scale    amount of bins per unit of (doubled) coordinate
+     * @return the bin index
+     */
+    private static int bin(double centroid, double min, double scale) {
+        return Math.min(BINS - 1, (int) ((centroid - min) * scale));
+    }
+
+    /**
+     * Resets a temporary box to the empty (inverted) box
+     *
+     * @param box the box
+     */
+    private static void emptyBox(double[] box) {
+        box[0] = box[1] = box[2] = Double.POSITIVE_INFINITY;
+        box[3] = box[4] = box[5] = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Grows a temporary box to include a box in an array
+     *
+     * @param box   the box
+     * @param boxes the array of boxes
+     * @param o     offset of the box to include
+     */
+    private static void growBox(double[] box, double[] boxes, int o) {
+        for (int k = 0; k < 3; ++k) {
+            box[k] = Math.min(box[k], boxes[o + k]);
+            box[k + 3] = Math.max(box[k + 3], boxes[o + k + 3]);
+        }
+    }
+
+    /**
+     * Calculates the surface area of a temporary box
+     *
+     * @param box the box
+     * @return the surface area, 0 for an empty box
+     */
+    private static double boxArea(double[] box) {
+        if (box[0] > box[3]) return 0;
+        double dx = box[3] - box[0], dy = box[4] - box[1], dz = box[5] - box[2];
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Returns the doubled center coordinate of an item box along an axis
+     *
+     * @param itemBounds the item boxes
+     * @param i          the item position
+     * @param axis       the axis
+     * @return min + max of the box along the axis
+     */
+    private static double centroid(double[] itemBounds, int i, int axis) {
+        return itemBounds[6 * i + axis] + itemBounds[6 * i + axis + 3];
+    }
+
+    /**
+     * Swaps two items together with their boxes and original indices
+     *
+     * @param i          first position
+     * @param j          second position
+     * @param itemBounds the item boxes
+     * @param order      the original indices
+     */
+    private void swap(int i, int j, double[] itemBounds, int[] order) {
+        Intersectable item = items[i];
+        items[i] = items[j];
+        items[j] = item;
+        int index = order[i];
+        order[i] = order[j];
+        order[j] = index;
+        for (int a = 0; a < 6; ++a) {
+            double v = itemBounds[6 * i + a];
+            itemBounds[6 * i + a] = itemBounds[6 * j + a];
+            itemBounds[6 * j + a] = v;
+        }
+    }
+
+    /**
+     * Resets a node box to the empty (inverted) box
+     *
+     * @param o offset of the box in {@link #bounds}
+     */
+    private void setEmpty(int o) {
+        bounds[o] = bounds[o + 1] = bounds[o + 2] = Double.POSITIVE_INFINITY;
+        bounds[o + 3] = bounds[o + 4] = bounds[o + 5] = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Grows a node box to include another box
+     *
+     * @param o   offset of the box in {@link #bounds}
+     * @param box the box to include
+     */
+    private void include(int o, BoundingBox box) {
+        bounds[o] = Math.min(bounds[o], box.minX());
+        bounds[o + 1] = Math.min(bounds[o + 1], box.minY());
+        bounds[o + 2] = Math.min(bounds[o + 2], box.minZ());
+        bounds[o + 3] = Math.max(bounds[o + 3], box.maxX());
+        bounds[o + 4] = Math.max(bounds[o + 4], box.maxY());
+        bounds[o + 5] = Math.max(bounds[o + 5], box.maxZ());
+    }
+
+    /**
+     * Calculates the surface area of a node box
+     *
+     * @param n the node index
+     * @return the surface area
+     */
+    private double area(int n) {
+        int o = 6 * n;
+        double dx = bounds[o + 3] - bounds[o], dy = bounds[o + 4] - bounds[o + 1], dz = bounds[o + 5] - bounds[o + 2];
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Calculates the expected cost of tracing a ray through the tree according
+     * to the surface area heuristic, relative to the root box
+     *
+     * @return the cost of the tree
+     */
+    public double cost() {
+        if (items.length == 0) return 0;
+        double rootArea = area(0);
+        if (rootArea <= 0) return items.length * INTERSECTION_COST;
+        double sum = 0;
+        for (int n = 0; n < nodeCount; ++n)
+            sum += area(n) * (child[n] < 0 ? count[n] * INTERSECTION_COST : TRAVERSAL_COST);
+        return sum / rootArea;
+    }
+
+    /**
+     * Feeds the items into a content hash
+     *
+     * @param hash the hash to feed
+     * @throws IllegalStateException if an item cannot be content hashed
+     */
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add("BoundingVolumeHierarchy").add(originals.length);
+        for (Intersectable item : originals) {
+            if (!(item instanceof ContentHashable hashable))
+                throw new IllegalStateException(item.getClass().getName() + " cannot be content hashed");
+            hash.add(hashable);
+        }
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        if (unbounded.length > 0) return BoundingBox.UNBOUNDED;
+        if (items.length == 0) return new BoundingBox(0, 0, 0, 0, 0, 0);
+        return new BoundingBox(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        List<GeoPoint> result = null;
+        for (Intersectable item : unbounded)
+            result = merge(result, item.findGeoIntersections(ray, maxDistance));
+        if (items.length == 0) return result;
+
+        Point origin = ray.origin();
+        Vector direction = ray.direction();
+        double ox = origin.getX(), oy = origin.getY(), oz = origin.getZ();
+        double invDx = 1 / direction.getX(), invDy = 1 / direction.getY(), invDz = 1 / direction.getZ();
+
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int n = stack[--top];
+            int o = 6 * n;
+            if (!BoundingBox.slab(ox, invDx, oy, invDy, oz, invDz,
+                    bounds[o], bounds[o + 1], bounds[o + 2], bounds[o + 3], bounds[o + 4], bounds[o + 5],
+                    maxDistance))
+                continue;
+            if (child[n] < 0) {
+                for (int i = start[n], end = i + count[n]; i < end; ++i)
+                    result = merge(result, items[i].findGeoIntersections(ray, maxDistance));
+            } else {
+                if (top + 2 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                stack[top++] = child[n] + 1;
+                stack[top++] = child[n];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Appends intersections to a result list, creating it on demand
+     *
+     * @param result the result so far (may be null)
+     * @param points the intersections to append (may be null)
+     * @return the result list, null if there are no intersections at all
+     */
+    private static List<GeoPoint> merge(List<GeoPoint> result, List<GeoPoint> points) {
+        if (points == null || points.isEmpty()) return result;
+        if (result == null) result = new ArrayList<>(points.size());
+        result.addAll(points);
+        return result;
+    }
+}
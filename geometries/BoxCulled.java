@@ -0,0 +1,90 @@
+package geometries;
+
+import primitives.ContentHash;
+import primitives.ContentHashable;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+/**
+ * Wrapper of an intersectable that tests rays against its bounding box first,
+ * for complex geometries held in flat lists (e.g. {@link Geometries}): rays
+ * that clearly miss the box skip the expensive intersection altogether. The
+ * box is calculated once, when wrapping.
+ *
+ * @author Raphael
+ */
+public final class BoxCulled implements Intersectable, ContentHashable {
+    /**
+     * The wrapped intersectable
+     */
+    private final Intersectable geometry;
+    /**
+     * The box of the wrapped intersectable
+     */
+    private final BoundingBox box;
+
+    /**
+     * Wraps an intersectable
+     *
+     * @param geometry the intersectable, with finite bounds
+     * @throws IllegalArgumentException if the intersectable is unbounded
+     */
+    public BoxCulled(Intersectable geometry) {
+        this.box = geometry.getBoundingBox();
+        if (!box.isBounded())
+            throw new IllegalArgumentException("Cannot cull an unbounded geometry");
+        this.geometry = geometry;
+    }
+
+    /**
+     * Wraps an intersectable if it has finite bounds - an unbounded one would
+     * only pay for the useless box test
+     *
+     * @param geometry the intersectable
+     * @return the wrapper, or the intersectable itself if it is unbounded
+     */
+    public static Intersectable of(Intersectable geometry) {
+        return geometry.getBoundingBox().isBounded() ? new BoxCulled(geometry) : geometry;
+    }
+
+    /**
+     * Returns the wrapped intersectable
+     *
+     * @return the intersectable
+     */
+    public Intersectable getGeometry() {
+        return geometry;
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        Point o = ray.origin();
+        Vector d = ray.direction();
+        if (!BoundingBox.slab(o.getX(), 1 / d.getX(), o.getY(), 1 / d.getY(), o.getZ(), 1 / d.getZ(),
+                box.minX(), box.minY(), box.minZ(), box.maxX(), box.maxY(), box.maxZ(), maxDistance))
+            return null;
+        return geometry.findGeoIntersections(ray, maxDistance);
+    }
+
+    /**
+     * Feeds the wrapped intersectable into a content hash - culling does not
+     * change the traced colors
+     *
+     * @param hash the hash to feed
+     * @throws IllegalStateException if the intersectable cannot be content hashed
+     */
+    @Override
+    public void hash(ContentHash hash) {
+        if (!(geometry instanceof ContentHashable hashable))
+            throw new IllegalStateException(geometry.getClass().getName() + " cannot be content hashed");
+        hashable.hash(hash);
+    }
+}
@@ -0,0 +1,374 @@
+package geometries;
+
+import primitives.ContentHash;
+import primitives.ContentHashable;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static primitives.Util.alignZero;
+
+/**
+ * A constructive solid geometry node: the union, the intersection or the
+ * difference of two solids - closed geometries such as spheres and cylinders,
+ * {@link Plane} half-spaces (the side opposite to the normal) and other nodes.
+ * <p>
+ * A ray is intersected with every solid as a list of the intervals of the ray
+ * inside it, and the lists of the two children are merged by the boolean
+ * operation; the boundaries of the resulting intervals are the intersections.
+ * The intervals are kept in per-thread pooled arrays used as a stack (every
+ * node pushes its list and the parent replaces the lists of its children by
+ * the merged one), so a ray through a deep tree allocates no lists but the
+ * ones of the leaves and the result. A closed leaf is entered at its first
+ * intersection unless the amount of its intersections is odd, in which case
+ * the ray starts inside it.
+ * <p>
+ * Every node holds the box of its solid - the union of the boxes of the
+ * children for a union, their overlap for an intersection, the box of the
+ * first child for a difference - and skips a child whose box the ray misses.
+ * An empty interval list of the first child ends the evaluation of an
+ * intersection or a difference without the second one.
+ *
+ * @author Raphael
+ */
+public final class Csg implements Intersectable, ContentHashable {
+    /**
+     * The boolean operations
+     */
+    public enum Operation {
+        /**
+         * Inside either solid
+         */
+        UNION,
+        /**
+         * Inside both solids
+         */
+        INTERSECTION,
+        /**
+         * Inside the first solid but not the second one
+         */
+        DIFFERENCE
+    }
+
+    /**
+     * Pooled interval arrays of a thread: the boundaries of the intervals
+     * (entries and exits alternately) by distance, with their geometries and
+     * points - a null geometry for a ray starting inside or ending inside
+     */
+    private static final class Intervals {
+        /**
+         * The distances of the boundaries
+         */
+        private double[] distances = new double[64];
+        /**
+         * The geometries of the boundaries
+         */
+        private Geometry[] geometries = new Geometry[64];
+        /**
+         * The points of the boundaries
+         */
+        private Point[] points = new Point[64];
+        /**
+         * The top of the stack
+         */
+        private int top;
+
+        /**
+         * Makes room for boundaries
+         *
+         * @param size the amount of boundaries needed in the arrays
+         */
+        private void ensure(int size) {
+            if (size <= distances.length) return;
+            int capacity = Math.max(size, distances.length * 2);
+            distances = Arrays.copyOf(distances, capacity);
+            geometries = Arrays.copyOf(geometries, capacity);
+            points = Arrays.copyOf(points, capacity);
+        }
+
+        /**
+         * Pushes a boundary
+         *
+         * @param distance the distance of the boundary
+         * @param geometry the geometry of the boundary
+         * @param point    the point of the boundary
+         */
+        private void push(double distance, Geometry geometry, Point point) {
+            ensure(top + 1);
+            distances[top] = distance;
+            geometries[top] = geometry;
+            points[top++] = point;
+        }
+    }
+
+    /**
+     * The interval arrays of the threads
+     */
+    private static final ThreadLocal<Intervals> POOL = ThreadLocal.withInitial(Intervals::new);
+
+    /**
+     * The operation
+     */
+    private final Operation operation;
+    /**
+     * The first solid
+     */
+    private final Intersectable first;
+    /**
+     * The second solid
+     */
+    private final Intersectable second;
+    /**
+     * The box of the first solid
+     */
+    private final BoundingBox firstBox;
+    /**
+     * The box of the second solid
+     */
+    private final BoundingBox secondBox;
+    /**
+     * The box of the result, null if it is empty
+     */
+    private final BoundingBox box;
+
+    /**
+     * Constructs a node
+     *
+     * @param operation the operation
+     * @param first     the first solid
+     * @param second    the second solid
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public Csg(Operation operation, Intersectable first, Intersectable second) {
+        if (operation == null || first == null || second == null)
+            throw new IllegalArgumentException("Operation and solids cannot be null");
+        this.operation = operation;
+        this.first = first;
+        this.second = second;
+        firstBox = first.getBoundingBox();
+        secondBox = second.getBoundingBox();
+        box = switch (operation) {
+            case UNION -> firstBox.union(secondBox);
+            case DIFFERENCE -> firstBox;
+            case INTERSECTION -> {
+                BoundingBox overlap = new BoundingBox(Math.max(firstBox.minX(), secondBox.minX()),
+                        Math.max(firstBox.minY(), secondBox.minY()), Math.max(firstBox.minZ(), secondBox.minZ()),
+                        Math.min(firstBox.maxX(), secondBox.maxX()), Math.min(firstBox.maxY(), secondBox.maxY()),
+                        Math.min(firstBox.maxZ(), secondBox.maxZ()));
+                yield overlap.minX() > overlap.maxX() || overlap.minY() > overlap.maxY()
+                        || overlap.minZ() > overlap.maxZ() ? null : overlap;
+            }
+        };
+    }
+
+    /**
+     * Constructs the union of two solids
+     *
+     * @param first  the first solid
+     * @param second the second solid
+     * @return the union
+     */
+    public static Csg union(Intersectable first, Intersectable second) {
+        return new Csg(Operation.UNION, first, second);
+    }
+
+    /**
+     * Constructs the intersection of two solids
+     *
+     * @param first  the first solid
+     * @param second the second solid
+     * @return the intersection
+     */
+    public static Csg intersection(Intersectable first, Intersectable second) {
+        return new Csg(Operation.INTERSECTION, first, second);
+    }
+
+    /**
+     * Constructs the difference of two solids
+     *
+     * @param first  the solid
+     * @param second the removed solid
+     * @return the difference
+     */
+    public static Csg difference(Intersectable first, Intersectable second) {
+        return new Csg(Operation.DIFFERENCE, first, second);
+    }
+
+    /**
+     * Returns the operation
+     *
+     * @return the operation
+     */
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Returns the first solid
+     *
+     * @return the first solid
+     */
+    public Intersectable getFirst() {
+        return first;
+    }
+
+    /**
+     * Returns the second solid
+     *
+     * @return the second solid
+     */
+    public Intersectable getSecond() {
+        return second;
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        // an empty solid has no intersections anyway
+        return box != null ? box : new BoundingBox(0, 0, 0, 0, 0, 0);
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        if (box == null || box.isBounded() && !box.intersects(ray)) return null;
+        Intervals pool = POOL.get();
+        int base = pool.top;
+        try {
+            int count = intervals(ray, pool);
+            List<GeoPoint> result = null;
+            for (int i = base; i < base + count; ++i) {
+                double t = pool.distances[i];
+                if (alignZero(t - maxDistance) > 0) break;
+                if (pool.geometries[i] == null) continue;
+                if (result == null) result = new ArrayList<>(2);
+                result.add(new GeoPoint(pool.geometries[i], pool.points[i]));
+            }
+            return result;
+        } finally {
+            pool.top = base;
+        }
+    }
+
+    /**
+     * Pushes the intervals of a ray inside the solid of the node
+     *
+     * @param ray  the ray
+     * @param pool the pooled arrays
+     * @return the amount of pushed boundaries
+     */
+    private int intervals(Ray ray, Intervals pool) {
+        if (box == null) return 0;
+        int base = pool.top;
+        int firstCount = intervals(first, firstBox, ray, pool);
+        if (firstCount == 0 && operation != Operation.UNION) return 0;
+        int secondCount = intervals(second, secondBox, ray, pool);
+        if (secondCount == 0) {
+            if (operation != Operation.INTERSECTION) return firstCount;
+            pool.top = base;
+            return 0;
+        }
+        if (firstCount == 0) return secondCount; // the union is the second solid
+
+        // merge the two lists above them, then move the result down
+        int a = base, firstEnd = base + firstCount, b = firstEnd, secondEnd = firstEnd + secondCount;
+        pool.ensure(secondEnd + firstCount + secondCount);
+        int out = secondEnd;
+        boolean inFirst = false, inSecond = false, inside = false;
+        while (a < firstEnd || b < secondEnd) {
+            int from;
+            if (b >= secondEnd || a < firstEnd && pool.distances[a] <= pool.distances[b]) {
+                from = a++;
+                inFirst = !inFirst;
+            } else {
+                from = b++;
+                inSecond = !inSecond;
+            }
+            boolean now = switch (operation) {
+                case UNION -> inFirst || inSecond;
+                case INTERSECTION -> inFirst && inSecond;
+                case DIFFERENCE -> inFirst && !inSecond;
+            };
+            if (now == inside) continue;
+            inside = now;
+            pool.distances[out] = pool.distances[from];
+            pool.geometries[out] = pool.geometries[from];
+            pool.points[out++] = pool.points[from];
+        }
+        int count = out - secondEnd;
+        System.arraycopy(pool.distances, secondEnd, pool.distances, base, count);
+        System.arraycopy(pool.geometries, secondEnd, pool.geometries, base, count);
+        System.arraycopy(pool.points, secondEnd, pool.points, base, count);
+        pool.top = base + count;
+        return count;
+    }
+
+    /**
+     * Pushes the intervals of a ray inside a child solid
+     *
+     * @param solid    the solid
+     * @param solidBox the box of the solid
+     * @param ray      the ray
+     * @param pool     the pooled arrays
+     * @return the amount of pushed boundaries
+     */
+    private static int intervals(Intersectable solid, BoundingBox solidBox, Ray ray, Intervals pool) {
+        if (solidBox.isBounded() && !solidBox.intersects(ray)) return 0;
+        if (solid instanceof Csg node) return node.intervals(ray, pool);
+
+        List<GeoPoint> hits = solid.findGeoIntersections(ray);
+        int hitCount = hits == null ? 0 : hits.size();
+        boolean inside;
+        Point p0 = ray.origin();
+        if (solid instanceof Plane plane) {
+            // a half-space: inside behind the plane, or heading behind it from the plane
+            Point q = plane.point;
+            Vector n = plane.normal;
+            double side = alignZero(n.getX() * (p0.getX() - q.getX()) + n.getY() * (p0.getY() - q.getY())
+                    + n.getZ() * (p0.getZ() - q.getZ()));
+            inside = side == 0 ? n.dotProduct(ray.direction()) < 0 : side < 0;
+        } else inside = hitCount % 2 == 1;
+        if (hitCount == 0 && !inside) return 0;
+
+        int base = pool.top;
+        if (inside) pool.push(0, null, null);
+        int start = pool.top;
+        for (int i = 0; i < hitCount; ++i) {
+            GeoPoint hit = hits.get(i);
+            pool.push(hit.point().distance(p0), hit.geometry(), hit.point());
+        }
+        // the hits of a composite leaf come in any order
+        for (int i = start + 1; i < pool.top; ++i)
+            for (int j = i; j > start && pool.distances[j - 1] > pool.distances[j]; --j) {
+                double t = pool.distances[j];
+                pool.distances[j] = pool.distances[j - 1];
+                pool.distances[j - 1] = t;
+                Geometry g = pool.geometries[j];
+                pool.geometries[j] = pool.geometries[j - 1];
+                pool.geometries[j - 1] = g;
+                Point p = pool.points[j];
+                pool.points[j] = pool.points[j - 1];
+                pool.points[j - 1] = p;
+            }
+        if ((pool.top - base) % 2 == 1) pool.push(Double.POSITIVE_INFINITY, null, null);
+        return pool.top - base;
+    }
+
+    /**
+     * Feeds the node into a content hash
+     *
+     * @param hash the hash
+     * @throws IllegalStateException if a solid cannot be content hashed
+     */
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add("Csg").add(operation.name());
+        for (Intersectable solid : new Intersectable[]{first, second}) {
+            if (!(solid instanceof ContentHashable hashable))
+                throw new IllegalStateException(solid.getClass().getName() + " cannot be content hashed");
+            hash.add(hashable);
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package geometries;
 
+import primitives.ContentHash;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Util;
 import primitives.Vector;
 
+import java.util.List;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
 /**
  * Represents a cylinder in 3D space.
  * A cylinder is defined by a central axis ray, a radius, and a height.
@@ -16,7 +22,7 @@ public class Cylinder extends Tube {
     /**
      * The height of the cylinder along its axis.
      */
-    private final double height;
+    final double height;
 
     /**
      * Constructs a cylinder with a central axis ray, radius, and height.
@@ -34,6 +40,34 @@ public class Cylinder extends Tube {
         this.height = height;
     }
 
+    @Override
+    public void hash(ContentHash hash) {
+        super.hash(hash);
+        hash.add(height);
+    }
+
+    /**
+     * Returns the box of the two bases of the cylinder. A base disc of radius r
+     * perpendicular to the unit axis d extends r·sqrt(1 - d<sub>i</sub><sup>2</sup>)
+     * from its center along each axis i
+     *
+     * @return the bounding box
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        Point bottom = axisRay.origin();
+        Vector d = axisRay.direction();
+        Point top = bottom.add(d.scale(height));
+        double ex = radius * Math.sqrt(Math.max(0, 1 - d.getX() * d.getX()));
+        double ey = radius * Math.sqrt(Math.max(0, 1 - d.getY() * d.getY()));
+        double ez = radius * Math.sqrt(Math.max(0, 1 - d.getZ() * d.getZ()));
+        return new BoundingBox(
+                Math.min(bottom.getX(), top.getX()) - ex, Math.min(bottom.getY(), top.getY()) - ey,
+                Math.min(bottom.getZ(), top.getZ()) - ez,
+                Math.max(bottom.getX(), top.getX()) + ex, Math.max(bottom.getY(), top.getY()) + ey,
+                Math.max(bottom.getZ(), top.getZ()) + ez);
+    }
+
     /**
      * Returns the normal vector to the cylinder at the given point.
      * <p>
@@ -67,4 +101,82 @@ public class Cylinder extends Tube {
         Point closestPoint = axisRay.origin().add(axisRay.direction().scale(t));
         return point.subtract(closestPoint).normalize();
     }
+
+    /**
+     * Checks whether a root of the tube equation is an intersection with the
+     * side - in range and between the two bases
+     *
+     * @param t           the root
+     * @param pd          the axial coordinate of the ray origin
+     * @param vd          the axial component of the ray direction
+     * @param maxDistance the maximal distance of the intersections
+     * @return true if the root is on the side
+     */
+    private boolean onSide(double t, double pd, double vd, double maxDistance) {
+        if (t <= 0 || alignZero(t - maxDistance) > 0) return false;
+        double axial = alignZero(pd + t * vd);
+        return axial > 0 && alignZero(axial - height) < 0;
+    }
+
+    /**
+     * Finds the intersections with the side - the ones of the tube between the
+     * two bases - and with the base discs. A cylinder is convex, so there are
+     * at most two of them. They are kept as ray parameters in locals, and the
+     * points are only built for the result
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximal distance of the intersections
+     * @return the intersections by distance, or null if there are none
+     */
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        Point p0 = ray.origin();
+        Point bottom = axisRay.origin();
+        Vector v = ray.direction();
+        Vector d = axisRay.direction();
+        double dx = p0.getX() - bottom.getX(), dy = p0.getY() - bottom.getY(), dz = p0.getZ() - bottom.getZ();
+        double pd = dx * d.getX() + dy * d.getY() + dz * d.getZ();
+        double vd = v.getX() * d.getX() + v.getY() * d.getY() + v.getZ() * d.getZ();
+        // the parameters of the hits, 0 for none
+        double first = 0, second = 0;
+
+        // the side - the tube equation solved as by QuadraticSolver.tube, a
+        // ray parallel to the axis never crosses it
+        double a = 1 - vd * vd;
+        if (!isZero(a)) {
+            double h = v.getX() * dx + v.getY() * dy + v.getZ() * dz - vd * pd;
+            double c = dx * dx + dy * dy + dz * dz - pd * pd - radiusSquared;
+            double discriminant = alignZero(h * h - a * c);
+            if (discriminant > 0) {
+                double q = -(h + Math.copySign(Math.sqrt(discriminant), h));
+                double t1 = alignZero(q / a), t2 = alignZero(c / q);
+                if (onSide(t1, pd, vd, maxDistance)) first = t1;
+                if (onSide(t2, pd, vd, maxDistance)) {
+                    if (first == 0) first = t2;
+                    else second = t2;
+                }
+            }
+        }
+
+        // the bottom (0) and the top (1) bases
+        if (!isZero(vd))
+            for (int cap = 0; cap < 2 && second == 0; ++cap) {
+                double base = cap == 0 ? 0 : height;
+                double t = alignZero((base - pd) / vd);
+                if (t <= 0 || alignZero(t - maxDistance) > 0) continue;
+                double rx = dx + t * v.getX() - base * d.getX();
+                double ry = dy + t * v.getY() - base * d.getY();
+                double rz = dz + t * v.getZ() - base * d.getZ();
+                if (alignZero(rx * rx + ry * ry + rz * rz - radiusSquared) > 0) continue;
+                if (first == 0) first = t;
+                else second = t;
+            }
+
+        if (first == 0) return null;
+        if (second == 0) return List.of(new GeoPoint(this, ray.getPoint(first)));
+        double near = Math.min(first, second), far = Math.max(first, second);
+        return isZero(far - near) // through the rim of a base
+                ? List.of(new GeoPoint(this, ray.getPoint(near)))
+                : List.of(new GeoPoint(this, ray.getPoint(near)), new GeoPoint(this, ray.getPoint(far)));
+    }
 }
@@ -0,0 +1,349 @@
+package geometries;
+
+import primitives.ContentHash;
+import primitives.ContentHashable;
+import primitives.Point;
+
+/**
+ * A signed distance function: the distance of a point from a surface, negative
+ * inside it. The marching of {@link SignedDistanceField} relies on the function
+ * never overestimating the distance (a Lipschitz bound of 1).
+ * <p>
+ * Any lambda is a distance function; the shapes and the combinations built
+ * here are also content hashable, so scenes made of them can be content hashed
+ * (see {@link SignedDistanceField#hash(ContentHash)}).
+ *
+ * @author Raphael
+ */
+@FunctionalInterface
+public interface DistanceFunction {
+    /**
+     * Calculates the signed distance of a point
+     *
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @param z the z coordinate of the point
+     * @return the distance from the surface, negative inside
+     */
+    double distance(double x, double y, double z);
+
+    /**
+     * Constructs a ball
+     *
+     * @param center the center
+     * @param radius the radius
+     * @return the distance function
+     * @throws IllegalArgumentException if the radius is not positive
+     */
+    static DistanceFunction ball(Point center, double radius) {
+        if (radius <= 0) throw new IllegalArgumentException("Radius must be positive");
+        return new Ball(center.getX(), center.getY(), center.getZ(), radius);
+    }
+
+    /**
+     * Constructs an axis-aligned box
+     *
+     * @param center the center
+     * @param halfX  half the size along the X axis
+     * @param halfY  half the size along the Y axis
+     * @param halfZ  half the size along the Z axis
+     * @return the distance function
+     * @throws IllegalArgumentException if a size is not positive
+     */
+    static DistanceFunction box(Point center, double halfX, double halfY, double halfZ) {
+        if (halfX <= 0 || halfY <= 0 || halfZ <= 0) throw new IllegalArgumentException("Sizes must be positive");
+        return new Box(center.getX(), center.getY(), center.getZ(), halfX, halfY, halfZ);
+    }
+
+    /**
+     * Constructs a torus around an axis parallel to the Z axis
+     *
+     * @param center the center
+     * @param major  the radius of the ring
+     * @param minor  the radius of the tube around the ring
+     * @return the distance function
+     * @throws IllegalArgumentException if a radius is not positive
+     */
+    static DistanceFunction torus(Point center, double major, double minor) {
+        if (major <= 0 || minor <= 0) throw new IllegalArgumentException("Radii must be positive");
+        return new Torus(center.getX(), center.getY(), center.getZ(), major, minor);
+    }
+
+    /**
+     * Constructs a Menger sponge: a cube with the middle crosses removed
+     * recursively
+     *
+     * @param center     the center of the cube
+     * @param half       half the size of the cube
+     * @param iterations the depth of the recursion
+     * @return the distance function
+     * @throws IllegalArgumentException if the size is not positive or the
+     *                                  depth is negative
+     */
+    static DistanceFunction mengerSponge(Point center, double half, int iterations) {
+        if (half <= 0) throw new IllegalArgumentException("Size must be positive");
+        if (iterations < 0) throw new IllegalArgumentException("Iterations must not be negative");
+        return new MengerSponge(center.getX(), center.getY(), center.getZ(), half, iterations);
+    }
+
+    /**
+     * Combines the function with another one into their union
+     *
+     * @param other the other function
+     * @return the union
+     */
+    default DistanceFunction union(DistanceFunction other) {
+        return new Union(this, other);
+    }
+
+    /**
+     * Combines the function with another one into their intersection
+     *
+     * @param other the other function
+     * @return the intersection
+     */
+    default DistanceFunction intersect(DistanceFunction other) {
+        return new Intersection(this, other);
+    }
+
+    /**
+     * Removes another shape from the shape of the function
+     *
+     * @param other the removed shape
+     * @return the difference
+     */
+    default DistanceFunction subtract(DistanceFunction other) {
+        return new Difference(this, other);
+    }
+
+    /**
+     * Blends the function with another one: a union whose seams are rounded
+     * over the given distance (polynomial smooth minimum)
+     *
+     * @param other     the other function
+     * @param smoothing the width of the blend
+     * @return the blend
+     * @throws IllegalArgumentException if the width is not positive
+     */
+    default DistanceFunction blend(DistanceFunction other, double smoothing) {
+        if (smoothing <= 0) throw new IllegalArgumentException("Smoothing must be positive");
+        return new Blend(this, other, smoothing);
+    }
+
+    /**
+     * Feeds a distance function into a content hash
+     *
+     * @param hash     the hash
+     * @param function the function
+     * @throws IllegalStateException if the function is not content hashable
+     */
+    private static void hash(ContentHash hash, DistanceFunction function) {
+        if (!(function instanceof ContentHashable hashable))
+            throw new IllegalStateException(function.getClass().getName() + " cannot be content hashed");
+        hash.add(hashable);
+    }
+
+    /**
+     * A ball
+     *
+     * @param cx     the x coordinate of the center
+     * @param cy     the y coordinate of the center
+     * @param cz     the z coordinate of the center
+     * @param radius the radius
+     */
+    record Ball(double cx, double cy, double cz, double radius) implements DistanceFunction, ContentHashable {
+        @Override
+        public double distance(double x, double y, double z) {
+            double dx = x - cx, dy = y - cy, dz = z - cz;
+            return Math.sqrt(dx * dx + dy * dy + dz * dz) - radius;
+        }
+
+        @Override
+        public void hash(ContentHash hash) {
+            hash.add("Ball").add(cx).add(cy).add(cz).add(radius);
+        }
+    }
+
+    /**
+     * An axis-aligned box
+     *
+     * @param cx    the x coordinate of the center
+     * @param cy    the y coordinate of the center
+     * @param cz    the z coordinate of the center
+     * @param halfX half the size along the X axis
+     * @param halfY half the size along the Y axis
+     * @param halfZ half the size along the Z axis
+     */
+    record Box(double cx, double cy, double cz, double halfX, double halfY, double halfZ)
+            implements DistanceFunction, ContentHashable {
+        @Override
+        public double distance(double x, double y, double z) {
+            double qx = Math.abs(x - cx) - halfX, qy = Math.abs(y - cy) - halfY, qz = Math.abs(z - cz) - halfZ;
+            double ox = Math.max(qx, 0), oy = Math.max(qy, 0), oz = Math.max(qz, 0);
+            return Math.sqrt(ox * ox + oy * oy + oz * oz) + Math.min(Math.max(qx, Math.max(qy, qz)), 0);
+        }
+
+        @Override
+        public void hash(ContentHash hash) {
+            hash.add("Box").add(cx).add(cy).add(cz).add(halfX).add(halfY).add(halfZ);
+        }
+    }
+
+    /**
+     * A torus around an axis parallel to the Z axis
+     *
+     * @param cx    the x coordinate of the center
+     * @param cy    the y coordinate of the center
+     * @param cz    the z coordinate of the center
+     * @param major the radius of the ring
+     * @param minor the radius of the tube around the ring
+     */
+    record Torus(double cx, double cy, double cz, double major, double minor)
+            implements DistanceFunction, ContentHashable {
+        @Override
+        public double distance(double x, double y, double z) {
+            double dx = x - cx, dy = y - cy, dz = z - cz;
+            double ring = Math.sqrt(dx * dx + dy * dy) - major;
+            return Math.sqrt(ring * ring + dz * dz) - minor;
+        }
+
+        @Override
+        public void hash(ContentHash hash) {
+            hash.add("Torus").add(cx).add(cy).add(cz).add(major).add(minor);
+        }
+    }
+
+    /**
+     * A Menger sponge: every iteration removes the crosses of a 3 times finer
+     * lattice from the cube
+     *
+     * @param cx         the x coordinate of the center
+     * @param cy         the y coordinate of the center
+     * @param cz         the z coordinate of the center
+     * @param half       half the size of the cube
+     * @param iterations the depth of the recursion
+     */
+    record MengerSponge(double cx, double cy, double cz, double half, int iterations)
+            implements DistanceFunction, ContentHashable {
+        @Override
+        public double distance(double x, double y, double z) {
+            // in the unit cube [-1, 1]³
+            double px = (x - cx) / half, py = (y - cy) / half, pz = (z - cz) / half;
+            double qx = Math.abs(px) - 1, qy = Math.abs(py) - 1, qz = Math.abs(pz) - 1;
+            double ox = Math.max(qx, 0), oy = Math.max(qy, 0), oz = Math.max(qz, 0);
+            double d = Math.sqrt(ox * ox + oy * oy + oz * oz) + Math.min(Math.max(qx, Math.max(qy, qz)), 0);
+            double scale = 1;
+            for (int i = 0; i < iterations; ++i) {
+                // the position inside the cell of the lattice, in [-1, 1]
+                double ax = cell(px * scale), ay = cell(py * scale), az = cell(pz * scale);
+                scale *= 3;
+                double rx = Math.abs(1 - 3 * Math.abs(ax)), ry = Math.abs(1 - 3 * Math.abs(ay)),
+                        rz = Math.abs(1 - 3 * Math.abs(az));
+                double cross = (Math.min(Math.max(rx, ry), Math.min(Math.max(ry, rz), Math.max(rz, rx))) - 1) / scale;
+                d = Math.max(d, cross);
+            }
+            return d * half;
+        }
+
+        /**
+         * Folds a coordinate into a cell of size 2
+         *
+         * @param value the coordinate
+         * @return the coordinate within the cell, in [-1, 1)
+         */
+        private static double cell(double value) {
+            return value - 2 * Math.floor(value / 2) - 1;
+        }
+
+        @Override
+        public void hash(ContentHash hash) {
+            hash.add("MengerSponge").add(cx).add(cy).add(cz).add(half).add(iterations);
+        }
+    }
+
+    /**
+     * The union of two shapes
+     *
+     * @param first  the first shape
+     * @param second the second shape
+     */
+    record Union(DistanceFunction first, DistanceFunction second) implements DistanceFunction, ContentHashable {
+        @Override
+        public double distance(double x, double y, double z) {
+            return Math.min(first.distance(x, y, z), second.distance(x, y, z));
+        }
+
+        @Override
+        public void hash(ContentHash hash) {
+            hash.add("Union");
+            DistanceFunction.hash(hash, first);
+            DistanceFunction.hash(hash, second);
+        }
+    }
+
+    /**
+     * The intersection of two shapes
+     *
+     * @param first  the first shape
+     * @param second the second shape
+     */
+    record Intersection(DistanceFunction first, DistanceFunction second)
+            implements DistanceFunction, ContentHashable {
+        @Override
+        public double distance(double x, double y, double z) {
+            return Math.max(first.distance(x, y, z), second.distance(x, y, z));
+        }
+
+        @Override
+        public void hash(ContentHash hash) {
+            hash.add("Intersection");
+            DistanceFunction.hash(hash, first);
+            DistanceFunction.hash(hash, second);
+        }
+    }
+
+    /**
+     * A shape with another one removed
+     *
+     * @param first  the shape
+     * @param second the removed shape
+     */
+    record Difference(DistanceFunction first, DistanceFunction second)
+            implements DistanceFunction, ContentHashable {
+        @Override
+        public double distance(double x, double y, double z) {
+            return Math.max(first.distance(x, y, z), -second.distance(x, y, z));
+        }
+
+        @Override
+        public void hash(ContentHash hash) {
+            hash.add("Difference");
+            DistanceFunction.hash(hash, first);
+            DistanceFunction.hash(hash, second);
+        }
+    }
+
+    /**
+     * A union with rounded seams
+     *
+     * @param first     the first shape
+     * @param second    the second shape
+     * @param smoothing the width of the blend
+     */
+    record Blend(DistanceFunction first, DistanceFunction second, double smoothing)
+            implements DistanceFunction, ContentHashable {
+        @Override
+        public double distance(double x, double y, double z) {
+            double d1 = first.distance(x, y, z), d2 = second.distance(x, y, z);
+            double h = Math.clamp(0.5 + 0.5 * (d2 - d1) / smoothing, 0.0, 1.0);
+            return d2 + (d1 - d2) * h - smoothing * h * (1 - h);
+        }
+
+        @Override
+        public void hash(ContentHash hash) {
+            hash.add("Blend").add(smoothing);
+            DistanceFunction.hash(hash, first);
+            DistanceFunction.hash(hash, second);
+        }
+    }
+}
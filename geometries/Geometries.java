@@ -0,0 +1,87 @@
+package geometries;
+
+import primitives.ContentHash;
+import primitives.ContentHashable;
+import primitives.Ray;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Composite of intersectables tested one after the other (a flat list)
+ *
+ * @author Raphael
+ */
+public class Geometries implements Intersectable, ContentHashable {
+    /**
+     * The intersectables of the composite
+     */
+    private final List<Intersectable> geometries = new ArrayList<>();
+
+    /**
+     * Constructs a composite of the given intersectables
+     *
+     * @param geometries the intersectables
+     */
+    public Geometries(Intersectable... geometries) {
+        Collections.addAll(this.geometries, geometries);
+    }
+
+    /**
+     * Adds intersectables to the composite
+     *
+     * @param geometries the intersectables to add
+     * @return the composite itself
+     */
+    public Geometries add(Intersectable... geometries) {
+        Collections.addAll(this.geometries, geometries);
+        return this;
+    }
+
+    /**
+     * Returns the intersectables of the composite
+     *
+     * @return unmodifiable list of the intersectables
+     */
+    public List<Intersectable> getGeometries() {
+        return Collections.unmodifiableList(geometries);
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        List<GeoPoint> result = null;
+        for (Intersectable geometry : geometries) {
+            List<GeoPoint> points = geometry.findGeoIntersections(ray, maxDistance);
+            if (points == null) continue;
+            if (result == null) result = new ArrayList<>(points);
+            else result.addAll(points);
+        }
+        return result;
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        if (geometries.isEmpty()) return new BoundingBox(0, 0, 0, 0, 0, 0);
+        BoundingBox box = geometries.get(0).getBoundingBox();
+        for (int i = 1; i < geometries.size() && box.isBounded(); ++i)
+            box = box.union(geometries.get(i).getBoundingBox());
+        return box.isBounded() ? box : BoundingBox.UNBOUNDED;
+    }
+
+    /**
+     * Feeds the intersectables into a content hash
+     *
+     * @param hash the hash to feed
+     * @throws IllegalStateException if an intersectable cannot be content hashed
+     */
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add("Geometries").add(geometries.size());
+        for (Intersectable geometry : geometries) {
+            if (!(geometry instanceof ContentHashable hashable))
+                throw new IllegalStateException(geometry.getClass().getName() + " cannot be content hashed");
+            hash.add(hashable);
+        }
+    }
+}
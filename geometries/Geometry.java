@@ -1,5 +1,9 @@
 package geometries;
 
+import primitives.Color;
+import primitives.ContentHash;
+import primitives.ContentHashable;
+import primitives.Material;
 import primitives.Point;
 import primitives.Vector;
 
@@ -9,7 +13,16 @@ import primitives.Vector;
  *
  * @author Raphael
  */
-public abstract class Geometry implements Intersectable {
+public abstract class Geometry implements Intersectable, ContentHashable {
+    /**
+     * The color the geometry emits by itself
+     */
+    protected Color emission = Color.BLACK;
+    /**
+     * The material of the geometry
+     */
+    private Material material = new Material();
+
     /**
      * Explicit empty default constructor to satisfy Javadoc generator
      */
@@ -22,6 +35,55 @@ public abstract class Geometry implements Intersectable {
      * @param point the point on the geometry
      * @return the normal vector at the given point
      */
-    abstract Vector getNormal(Point point);
+    public abstract Vector getNormal(Point point);
+
+    /**
+     * Returns the color the geometry emits by itself
+     *
+     * @return the emission color
+     */
+    public Color getEmission() {
+        return emission;
+    }
+
+    /**
+     * Sets the color the geometry emits by itself
+     *
+     * @param emission the emission color
+     * @return the geometry itself
+     */
+    public Geometry setEmission(Color emission) {
+        this.emission = emission;
+        return this;
+    }
 
-}
\ No newline at end of file
+    /**
+     * Returns the material of the geometry
+     *
+     * @return the material
+     */
+    public Material getMaterial() {
+        return material;
+    }
+
+    /**
+     * Sets the material of the geometry
+     *
+     * @param material the material
+     * @return the geometry itself
+     */
+    public Geometry setMaterial(Material material) {
+        this.material = material;
+        return this;
+    }
+
+    /**
+     * Feeds the emission and the material into a content hash, for the
+     * implementations of {@link #hash(ContentHash)}
+     *
+     * @param hash the hash to feed
+     */
+    protected void hashAppearance(ContentHash hash) {
+        hash.add(emission).add(material);
+    }
+}
@@ -0,0 +1,216 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.SnapshotInput;
+import primitives.SnapshotOutput;
+import primitives.Vector;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes intersectables into snapshots and reads them back.
+ * <p>
+ * Every intersectable is written as a type tag followed by its data - the
+ * shapes with their derived data (such as the plane of a polygon), the
+ * acceleration structures with their built trees - and the appearance of a
+ * geometry. Reading restores the objects as they were, through package
+ * constructors that skip the validation and the construction work of the
+ * public ones.
+ *
+ * @author Raphael
+ */
+public final class GeometrySnapshot {
+    /**
+     * Type tag of a {@link Sphere}
+     */
+    private static final int SPHERE = 1;
+    /**
+     * Type tag of a {@link Plane}
+     */
+    private static final int PLANE = 2;
+    /**
+     * Type tag of a {@link Triangle}
+     */
+    private static final int TRIANGLE = 3;
+    /**
+     * Type tag of a {@link Polygon}
+     */
+    private static final int POLYGON = 4;
+    /**
+     * Type tag of a {@link Tube}
+     */
+    private static final int TUBE = 5;
+    /**
+     * Type tag of a {@link Cylinder}
+     */
+    private static final int CYLINDER = 6;
+    /**
+     * Type tag of a {@link TriangleMesh}
+     */
+    private static final int TRIANGLE_MESH = 7;
+    /**
+     * Type tag of a {@link Geometries} composite
+     */
+    private static final int GEOMETRIES = 8;
+    /**
+     * Type tag of a {@link BoundingVolumeHierarchy}
+     */
+    private static final int BOUNDING_VOLUME_HIERARCHY = 9;
+    /**
+     * Type tag of a {@link BoxCulled} wrapper
+     */
+    private static final int BOX_CULLED = 10;
+    /**
+     * Type tag of a {@link Quadric}
+     */
+    private static final int QUADRIC = 11;
+    /**
+     * Type tag of a {@link Csg} node
+     */
+    private static final int CSG = 12;
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private GeometrySnapshot() {
+    }
+
+    /**
+     * Writes an intersectable into a snapshot
+     *
+     * @param geometry the intersectable
+     * @param out      the snapshot
+     * @throws IOException           if the snapshot cannot be written
+     * @throws IllegalStateException if the intersectable (or a part of it)
+     *                               cannot be written into a snapshot
+     */
+    public static void write(Intersectable geometry, SnapshotOutput out) throws IOException {
+        Class<?> type = geometry.getClass();
+        if (type == Sphere.class) {
+            Sphere sphere = (Sphere) geometry;
+            out.putInt(SPHERE).putPoint(sphere.center).putDouble(sphere.radius);
+        } else if (type == Plane.class) {
+            Plane plane = (Plane) geometry;
+            out.putInt(PLANE).putPoint(plane.point).putPoint(plane.normal);
+        } else if (type == Triangle.class || type == Polygon.class) {
+            Polygon polygon = (Polygon) geometry;
+            out.putInt(type == Triangle.class ? TRIANGLE : POLYGON).putInt(polygon.vertices.size());
+            for (Point vertex : polygon.vertices) out.putPoint(vertex);
+            out.putPoint(polygon.plane.point).putPoint(polygon.plane.normal);
+        } else if (type == Tube.class || type == Cylinder.class) {
+            Tube tube = (Tube) geometry;
+            out.putInt(type == Tube.class ? TUBE : CYLINDER).putPoint(tube.axisRay.origin())
+                    .putPoint(tube.axisRay.direction()).putDouble(tube.radius);
+            if (tube instanceof Cylinder cylinder) out.putDouble(cylinder.height);
+        } else if (type == Quadric.class) {
+            Quadric quadric = (Quadric) geometry;
+            out.putInt(QUADRIC).putDoubles(new double[]{quadric.xx, quadric.yy, quadric.zz, quadric.xy,
+                    quadric.xz, quadric.yz, quadric.x, quadric.y, quadric.z, quadric.w});
+        } else if (type == TriangleMesh.class) {
+            out.putInt(TRIANGLE_MESH);
+            ((TriangleMesh) geometry).write(out);
+        } else if (type == Geometries.class) {
+            List<Intersectable> items = ((Geometries) geometry).getGeometries();
+            out.putInt(GEOMETRIES).putInt(items.size());
+            for (Intersectable item : items) write(item, out);
+        } else if (type == BoundingVolumeHierarchy.class) {
+            out.putInt(BOUNDING_VOLUME_HIERARCHY);
+            ((BoundingVolumeHierarchy) geometry).write(out);
+        } else if (type == Csg.class) {
+            Csg node = (Csg) geometry;
+            out.putInt(CSG).putInt(node.getOperation().ordinal());
+            write(node.getFirst(), out);
+            write(node.getSecond(), out);
+        } else if (type == BoxCulled.class) {
+            out.putInt(BOX_CULLED);
+            write(((BoxCulled) geometry).getGeometry(), out);
+        } else {
+            throw new IllegalStateException(type.getName() + " cannot be written into a snapshot");
+        }
+        if (geometry instanceof Geometry shape)
+            out.putColor(shape.getEmission()).putMaterial(shape.getMaterial());
+    }
+
+    /**
+     * Reads an intersectable written by {@link #write(Intersectable, SnapshotOutput)}
+     *
+     * @param in the snapshot
+     * @return the intersectable
+     * @throws IOException if the snapshot cannot be read or is corrupt
+     */
+    public static Intersectable read(SnapshotInput in) throws IOException {
+        int tag = in.getInt();
+        Intersectable geometry = switch (tag) {
+            case SPHERE -> new Sphere(in.getPoint(), positive(in.getDouble()));
+            case PLANE -> new Plane(in.getPoint(), in.getVector(), true);
+            case TRIANGLE, POLYGON -> {
+                int size = in.getInt();
+                if (size < 3 || tag == TRIANGLE && size != 3)
+                    throw new IOException("Corrupt snapshot: polygon size " + size);
+                Point[] vertices = new Point[size];
+                for (int v = 0; v < size; ++v) vertices[v] = in.getPoint();
+                // the plane of a polygon is usually anchored at its first vertex
+                Point anchor = in.getPoint();
+                Plane plane = new Plane(anchor.equals(vertices[0]) ? vertices[0] : anchor, in.getVector(), true);
+                yield tag == TRIANGLE ? new Triangle(List.of(vertices), plane) : new Polygon(List.of(vertices), plane);
+            }
+            case TUBE, CYLINDER -> {
+                Ray axis = new Ray(in.getPoint(), in.getVector());
+                double radius = positive(in.getDouble());
+                yield tag == TUBE ? new Tube(axis, radius) : new Cylinder(axis, radius, positive(in.getDouble()));
+            }
+            case QUADRIC -> {
+                double[] q = in.getDoubles();
+                if (q.length != 10) throw new IOException("Corrupt snapshot: quadric size " + q.length);
+                try {
+                    yield new Quadric(new double[][]{
+                            {q[0], q[3], q[4], q[6]},
+                            {q[3], q[1], q[5], q[7]},
+                            {q[4], q[5], q[2], q[8]},
+                            {q[6], q[7], q[8], q[9]}});
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Corrupt snapshot: " + e.getMessage(), e);
+                }
+            }
+            case TRIANGLE_MESH -> TriangleMesh.read(in);
+            case GEOMETRIES -> {
+                Intersectable[] items = new Intersectable[in.getInt()];
+                for (int i = 0; i < items.length; ++i) items[i] = read(in);
+                yield new Geometries(items);
+            }
+            case BOUNDING_VOLUME_HIERARCHY -> BoundingVolumeHierarchy.read(in);
+            case BOX_CULLED -> {
+                Intersectable wrapped = read(in);
+                if (!wrapped.getBoundingBox().isBounded())
+                    throw new IOException("Corrupt snapshot: unbounded culled geometry");
+                yield new BoxCulled(wrapped);
+            }
+            case CSG -> {
+                int operation = in.getInt();
+                if (operation < 0 || operation >= Csg.Operation.values().length)
+                    throw new IOException("Corrupt snapshot: unknown operation " + operation);
+                yield new Csg(Csg.Operation.values()[operation], read(in), read(in));
+            }
+            default -> throw new IOException("Corrupt snapshot: unknown geometry type " + tag);
+        };
+        if (geometry instanceof Geometry shape) {
+            shape.setEmission(in.getColor());
+            shape.setMaterial(in.getMaterial());
+        }
+        return geometry;
+    }
+
+    /**
+     * Checks a size read from a snapshot
+     *
+     * @param value the size
+     * @return the size
+     * @throws IOException if the size is not positive
+     */
+    private static double positive(double value) throws IOException {
+        if (!(value > 0)) throw new IOException("Corrupt snapshot: non-positive size " + value);
+        return value;
+    }
+}
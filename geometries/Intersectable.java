@@ -10,10 +10,54 @@ import java.util.List;
  */
 public interface Intersectable {
     /**
-     * Function findGeoIntersections finds the intersection points of a ray with the geometry.
+     * An intersection point together with the geometry it lies on
+     *
+     * @param geometry the intersected geometry
+     * @param point    the intersection point
+     */
+    record GeoPoint(Geometry geometry, Point point) {
+    }
+
+    /**
+     * Function findIntersections finds the intersection points of a ray with the geometry.
      *
      * @param ray - the ray that intersects the geometry
-     * @return a list of intersection points
+     * @return a list of intersection points, null if there are none
+     */
+    default List<Point> findIntersections(Ray ray) {
+        List<GeoPoint> geoPoints = findGeoIntersections(ray);
+        return geoPoints == null ? null : geoPoints.stream().map(GeoPoint::point).toList();
+    }
+
+    /**
+     * Finds the intersection points of a ray with the geometry, together with the
+     * intersected geometries
+     *
+     * @param ray the ray that intersects the geometry
+     * @return a list of intersections, null if there are none
+     */
+    default List<GeoPoint> findGeoIntersections(Ray ray) {
+        return findGeoIntersections(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Finds the intersection points of a ray with the geometry up to a given
+     * distance from the ray origin (e.g. the distance to a light source)
+     *
+     * @param ray         the ray that intersects the geometry
+     * @param maxDistance the maximal distance of the intersections
+     * @return a list of intersections, null if there are none
+     */
+    List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance);
+
+    /**
+     * Returns the axis-aligned box bounding the geometry, used by acceleration
+     * structures to skip it for rays that miss the box
+     *
+     * @return the bounding box, {@link BoundingBox#UNBOUNDED} if the geometry is
+     * infinite or its bounds are not known
      */
-    List<Point> findIntersections(Ray ray);
+    default BoundingBox getBoundingBox() {
+        return BoundingBox.UNBOUNDED;
+    }
 }
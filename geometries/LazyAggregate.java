@@ -0,0 +1,311 @@
+package geometries;
+
+import primitives.ContentHash;
+import primitives.ContentHashable;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounding volume hierarchy over a collection of intersectables that is built
+ * on demand, while rendering.
+ * <p>
+ * Constructing the aggregate only calculates its bounding box. A node is
+ * split into its two children the first time a ray enters its box, so the
+ * parts of the scene no ray ever reaches are never organized at all, and the
+ * first pixels come out as soon as the scene is loaded.
+ * <p>
+ * The construction of a node is published without locks: the render thread
+ * that first enters an unbuilt node claims it by a compare-and-set and builds
+ * its children, while the other threads entering it meanwhile test its items
+ * directly instead of waiting. So no node is ever built twice and no ray is
+ * ever blocked. Each node is split at the middle of the centers of its items
+ * along their widest axis, which costs time linear in its size.
+ *
+ * @author Raphael
+ */
+public class LazyAggregate implements Intersectable, ContentHashable {
+    /**
+     * Nodes of at most this amount of items are never split
+     */
+    private static final int LEAF_SIZE = 4;
+
+    /**
+     * The items by their original order (at the root only, for the content
+     * hash)
+     */
+    private final Intersectable[] originals;
+    /**
+     * Items without finite bounds, tested for every ray (at the root only)
+     */
+    private final Intersectable[] unbounded;
+    /**
+     * The root of the hierarchy, null if there are no bounded items
+     */
+    private final Node root;
+    /**
+     * Amount of nodes split so far in the whole hierarchy
+     */
+    private final AtomicInteger builtNodes = new AtomicInteger();
+
+    /**
+     * Constructs an aggregate over the given items
+     *
+     * @param items the intersectables to hold
+     */
+    public LazyAggregate(Intersectable... items) {
+        this.originals = items.clone();
+        List<Intersectable> bounded = new ArrayList<>(items.length);
+        List<Intersectable> infinite = new ArrayList<>();
+        for (Intersectable item : items)
+            (item.getBoundingBox().isBounded() ? bounded : infinite).add(item);
+        unbounded = infinite.toArray(new Intersectable[0]);
+        double[] boxes = new double[6 * bounded.size()];
+        for (int i = 0; i < bounded.size(); ++i) {
+            BoundingBox box = bounded.get(i).getBoundingBox();
+            boxes[6 * i] = box.minX();
+            boxes[6 * i + 1] = box.minY();
+            boxes[6 * i + 2] = box.minZ();
+            boxes[6 * i + 3] = box.maxX();
+            boxes[6 * i + 4] = box.maxY();
+            boxes[6 * i + 5] = box.maxZ();
+        }
+        root = bounded.isEmpty() ? null : new Node(bounded.toArray(new Intersectable[0]), boxes);
+    }
+
+    /**
+     * Constructs an aggregate over the given items
+     *
+     * @param items the intersectables to hold
+     */
+    public LazyAggregate(List<? extends Intersectable> items) {
+        this(items.toArray(new Intersectable[0]));
+    }
+
+    /**
+     * Returns the amount of items in the aggregate
+     *
+     * @return the amount of items
+     */
+    public int size() {
+        return originals.length;
+    }
+
+    /**
+     * Returns the amount of nodes built (split into children) so far
+     *
+     * @return the amount of built nodes
+     */
+    public int getBuiltNodes() {
+        return builtNodes.get();
+    }
+
+    /**
+     * A node of the hierarchy
+     */
+    private final class Node {
+        /**
+         * The node is not built yet
+         */
+        private static final int UNBUILT = 0;
+        /**
+         * A thread is building the node
+         */
+        private static final int BUILDING = 1;
+        /**
+         * The children of the node are published
+         */
+        private static final int BUILT = 2;
+
+        /**
+         * The box of the items, 6 values
+         */
+        private final double[] bounds = new double[6];
+        /**
+         * The items of the node - dropped once the children are published,
+         * except for leaves
+         */
+        private volatile Intersectable[] items;
+        /**
+         * The boxes of the items, 6 values per item - dropped once the
+         * children are published
+         */
+        private double[] boxes;
+        /**
+         * The state of the node, claimed by the building thread
+         */
+        private final AtomicInteger state = new AtomicInteger(UNBUILT);
+        /**
+         * The two children, null until built
+         */
+        private volatile Node[] children = null;
+
+        /**
+         * Constructs a node over items, calculating their box
+         *
+         * @param items the bounded items (at least one)
+         * @param boxes the boxes of the items, 6 values per item
+         */
+        Node(Intersectable[] items, double[] boxes) {
+            this.items = items;
+            bounds[0] = bounds[1] = bounds[2] = Double.POSITIVE_INFINITY;
+            bounds[3] = bounds[4] = bounds[5] = Double.NEGATIVE_INFINITY;
+            for (int o = 0; o < boxes.length; o += 6)
+                for (int a = 0; a < 3; ++a) {
+                    bounds[a] = Math.min(bounds[a], boxes[o + a]);
+                    bounds[a + 3] = Math.max(bounds[a + 3], boxes[o + a + 3]);
+                }
+            if (items.length <= LEAF_SIZE) state.set(BUILT);
+            else this.boxes = boxes;
+        }
+
+        /**
+         * Returns the children of the node, building them if no other thread
+         * is doing so
+         *
+         * @return the children, or null if the node is a leaf or is being built
+         * by another thread
+         */
+        Node[] children() {
+            Node[] built = children;
+            if (built != null || state.get() != UNBUILT || !state.compareAndSet(UNBUILT, BUILDING))
+                return built;
+            built = split(items, boxes);
+            children = built;
+            state.set(BUILT);
+            boxes = null;
+            if (built != null) {
+                items = null;
+                builtNodes.incrementAndGet();
+            }
+            return built;
+        }
+
+        /**
+         * Returns the items of a node without children
+         *
+         * @return the items, or null if the children have been published
+         * meanwhile
+         */
+        Intersectable[] items() {
+            return items;
+        }
+    }
+
+    /**
+     * Splits items into two nodes at the middle of the item centers along
+     * their widest axis
+     *
+     * @param items the items
+     * @param boxes the boxes of the items, 6 values per item
+     * @return the two nodes, or null if the items cannot be separated
+     */
+    private Node[] split(Intersectable[] items, double[] boxes) {
+        int n = items.length;
+        double[] min = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] max = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = 0; i < n; ++i)
+            for (int a = 0; a < 3; ++a) {
+                double center = boxes[6 * i + a] + boxes[6 * i + a + 3];
+                min[a] = Math.min(min[a], center);
+                max[a] = Math.max(max[a], center);
+            }
+        int axis = 0;
+        for (int a = 1; a < 3; ++a)
+            if (max[a] - min[a] > max[axis] - min[axis]) axis = a;
+        // all the centers coincide - no split separates anything
+        if (max[axis] <= min[axis]) return null;
+
+        double middle = (min[axis] + max[axis]) / 2;
+        Intersectable[] sorted = new Intersectable[n];
+        double[] sortedBoxes = new double[6 * n];
+        int left = 0, right = n;
+        for (int i = 0; i < n; ++i) {
+            int to = boxes[6 * i + axis] + boxes[6 * i + axis + 3] < middle ? left++ : --right;
+            sorted[to] = items[i];
+            System.arraycopy(boxes, 6 * i, sortedBoxes, 6 * to, 6);
+        }
+        return new Node[]{
+                new Node(Arrays.copyOfRange(sorted, 0, left), Arrays.copyOfRange(sortedBoxes, 0, 6 * left)),
+                new Node(Arrays.copyOfRange(sorted, left, n), Arrays.copyOfRange(sortedBoxes, 6 * left, 6 * n))};
+    }
+
+    /**
+     * Feeds the items into a content hash
+     *
+     * @param hash the hash to feed
+     * @throws IllegalStateException if an item cannot be content hashed
+     */
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add("LazyAggregate").add(originals.length);
+        for (Intersectable item : originals) {
+            if (!(item instanceof ContentHashable hashable))
+                throw new IllegalStateException(item.getClass().getName() + " cannot be content hashed");
+            hash.add(hashable);
+        }
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        if (unbounded.length > 0) return BoundingBox.UNBOUNDED;
+        if (root == null) return new BoundingBox(0, 0, 0, 0, 0, 0);
+        double[] b = root.bounds;
+        return new BoundingBox(b[0], b[1], b[2], b[3], b[4], b[5]);
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        List<GeoPoint> result = null;
+        for (Intersectable item : unbounded)
+            result = merge(result, item.findGeoIntersections(ray, maxDistance));
+        if (root == null) return result;
+
+        Point origin = ray.origin();
+        Vector direction = ray.direction();
+        double ox = origin.getX(), oy = origin.getY(), oz = origin.getZ();
+        double invDx = 1 / direction.getX(), invDy = 1 / direction.getY(), invDz = 1 / direction.getZ();
+
+        Node[] stack = new Node[64];
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            Node node = stack[--top];
+            double[] b = node.bounds;
+            if (!BoundingBox.slab(ox, invDx, oy, invDy, oz, invDz, b[0], b[1], b[2], b[3], b[4], b[5], maxDistance))
+                continue;
+            Node[] children = node.children();
+            Intersectable[] items = children == null ? node.items() : null;
+            // the children were published between the two reads
+            if (children == null && items == null) children = node.children();
+            if (children == null) {
+                for (Intersectable item : items)
+                    result = merge(result, item.findGeoIntersections(ray, maxDistance));
+            } else {
+                if (top + 2 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                stack[top++] = children[1];
+                stack[top++] = children[0];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Appends intersections to a result list, creating it on demand
+     *
+     * @param result the result so far (may be null)
+     * @param points the intersections to append (may be null)
+     * @return the result list, null if there are no intersections at all
+     */
+    private static List<GeoPoint> merge(List<GeoPoint> result, List<GeoPoint> points) {
+        if (points == null || points.isEmpty()) return result;
+        if (result == null) result = new ArrayList<>(points.size());
+        result.addAll(points);
+        return result;
+    }
+}
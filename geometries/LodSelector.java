@@ -0,0 +1,328 @@
+package geometries;
+
+import primitives.Color;
+import primitives.ContentHash;
+import primitives.ContentHashable;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Levels of detail of a geometry (e.g. a mesh and its simplifications), one of
+ * which is intersected by every ray according to the footprint of the ray.
+ * <p>
+ * Every level has a feature size - the size of its smallest details (e.g. its
+ * average edge length). A ray with differentials (see {@link Ray.Differentials})
+ * uses the coarsest level whose features are not larger than its footprint at
+ * the distance of the geometry, since finer details would fall within a single
+ * ray anyway. Rays without differentials (e.g. shadow rays) use the finest
+ * level.
+ * <p>
+ * An instance may instead be pinned to a single level by its projected size
+ * from the camera ({@link #pin(Point, double)}) - then all its rays, shadow
+ * rays included, see the same level, and the finer levels are never touched.
+ * <p>
+ * The instances of a crowd share the levels of a single selector, each one at
+ * its own offset ({@link #translate(Vector)}): the rays are moved back by the
+ * offset to intersect the shared levels, and the hits are moved forth again.
+ * So the levels are stored once, whatever the amount of instances.
+ *
+ * @author Raphael
+ */
+public final class LodSelector implements Intersectable, ContentHashable {
+    /**
+     * The levels, from the finest
+     */
+    private final List<Intersectable> levels = new ArrayList<>();
+    /**
+     * Feature size of every level, increasing
+     */
+    private final List<Double> featureSizes = new ArrayList<>();
+    /**
+     * The box of all the levels
+     */
+    private BoundingBox box = null;
+    /**
+     * The level used for all the rays, -1 to select by the ray footprints
+     */
+    private int pinned = -1;
+    /**
+     * The offset of the levels (null for none)
+     */
+    private final Vector offset;
+    /**
+     * The opposite of the offset, moving the rays to the levels (null for none)
+     */
+    private final Vector back;
+
+    /**
+     * Constructs a selector with its finest level
+     *
+     * @param finest      the finest level
+     * @param featureSize the size of the details of the level
+     * @throws IllegalArgumentException if the feature size is negative
+     */
+    public LodSelector(Intersectable finest, double featureSize) {
+        offset = back = null;
+        addLevel(finest, featureSize);
+    }
+
+    /**
+     * Constructs an instance of a selector at an offset, sharing its levels
+     *
+     * @param selector the selector
+     * @param offset   the offset
+     */
+    private LodSelector(LodSelector selector, Vector offset) {
+        this.offset = selector.offset == null ? offset : selector.offset.add(offset);
+        back = this.offset.scale(-1);
+        levels.addAll(selector.levels);
+        featureSizes.addAll(selector.featureSizes);
+        box = place(levels.getFirst().getBoundingBox());
+        for (int l = 1; l < levels.size(); ++l) box = box.union(place(levels.get(l).getBoundingBox()));
+    }
+
+    /**
+     * Constructs a selector over a mesh and its simplifications, each with a
+     * quarter of the triangles of the previous one (see
+     * {@link TriangleMesh#simplify(int)}). The feature size of a level is its
+     * average edge length
+     *
+     * @param mesh   the finest level
+     * @param levels the amount of levels, fewer if the mesh cannot be reduced
+     *               that far
+     * @return the selector
+     * @throws IllegalArgumentException if the amount of levels is not positive
+     */
+    public static LodSelector of(TriangleMesh mesh, int levels) {
+        if (levels < 1) throw new IllegalArgumentException("Amount of levels must be positive");
+        LodSelector selector = new LodSelector(mesh, mesh.getFeatureSize());
+        double featureSize = mesh.getFeatureSize();
+        for (int l = 1; l < levels && mesh.getTriangleCount() >= 4; ++l) {
+            TriangleMesh coarser = mesh.simplify(mesh.getTriangleCount() / 4);
+            if (coarser.getTriangleCount() >= mesh.getTriangleCount()) break;
+            mesh = coarser;
+            featureSize = Math.max(mesh.getFeatureSize(), Math.nextUp(featureSize));
+            selector.addLevel(mesh, featureSize);
+        }
+        return selector;
+    }
+
+    /**
+     * Adds a coarser level
+     *
+     * @param level       the level
+     * @param featureSize the size of the details of the level, larger than the
+     *                    sizes of the previous levels
+     * @return the selector itself
+     * @throws IllegalArgumentException if the feature size is negative or not
+     *                                  larger than the previous one
+     */
+    public LodSelector addLevel(Intersectable level, double featureSize) {
+        if (featureSize < 0)
+            throw new IllegalArgumentException("Feature size must not be negative");
+        if (!featureSizes.isEmpty() && featureSize <= featureSizes.getLast())
+            throw new IllegalArgumentException("Levels must be added from the finest");
+        levels.add(level);
+        featureSizes.add(featureSize);
+        box = box == null ? place(level.getBoundingBox()) : box.union(place(level.getBoundingBox()));
+        return this;
+    }
+
+    /**
+     * Creates an instance of the selector at an offset. The instance shares
+     * the levels (not copied, whatever their size) and is not pinned
+     *
+     * @param offset the offset
+     * @return the instance
+     */
+    public LodSelector translate(Vector offset) {
+        return new LodSelector(this, offset);
+    }
+
+    /**
+     * Moves the box of a level by the offset of the selector
+     *
+     * @param levelBox the box of the level
+     * @return the box of the level where the selector places it
+     */
+    private BoundingBox place(BoundingBox levelBox) {
+        if (offset == null) return levelBox;
+        double dx = offset.getX(), dy = offset.getY(), dz = offset.getZ();
+        return new BoundingBox(levelBox.minX() + dx, levelBox.minY() + dy, levelBox.minZ() + dz,
+                levelBox.maxX() + dx, levelBox.maxY() + dy, levelBox.maxZ() + dz);
+    }
+
+    /**
+     * Chooses the level for a ray
+     *
+     * @param ray the ray
+     * @return the level index
+     */
+    public int select(Ray ray) {
+        if (pinned >= 0) return pinned;
+        Ray.Differentials differentials = ray.differentials();
+        if (differentials == null || levels.size() == 1 || !box.isBounded()) return 0;
+        double footprint = differentials.footprint(distance(ray.origin()));
+        int level = 0;
+        while (level + 1 < levels.size() && featureSizes.get(level + 1) <= footprint) ++level;
+        return level;
+    }
+
+    /**
+     * Pins the selector to the level matching its projected size: the coarsest
+     * level whose features are not larger than a pixel at the distance of the
+     * geometry from the camera
+     *
+     * @param eye        the camera location
+     * @param pixelAngle the angle one pixel subtends (radians) - the view
+     *                   plane width over its distance and the resolution
+     * @return the pinned level index
+     * @throws IllegalArgumentException if the pixel angle is not positive
+     */
+    public int pin(Point eye, double pixelAngle) {
+        if (pixelAngle <= 0) throw new IllegalArgumentException("Pixel angle must be positive");
+        double pixel = box.isBounded() ? distance(eye) * pixelAngle : 0;
+        int level = 0;
+        while (level + 1 < levels.size() && featureSizes.get(level + 1) <= pixel) ++level;
+        pinned = level;
+        return level;
+    }
+
+    /**
+     * Returns to selecting the level by the ray footprints
+     *
+     * @return the selector itself
+     */
+    public LodSelector unpin() {
+        pinned = -1;
+        return this;
+    }
+
+    /**
+     * Returns a level, without the offset of the selector
+     *
+     * @param level the level index
+     * @return the level
+     */
+    public Intersectable getLevel(int level) {
+        return levels.get(level);
+    }
+
+    /**
+     * Calculates the distance from a point to the box of the levels - the
+     * nearest possible distance of a hit
+     *
+     * @param p the point
+     * @return the distance, 0 inside the box
+     */
+    private double distance(Point p) {
+        double dx = Math.max(0, Math.max(box.minX() - p.getX(), p.getX() - box.maxX()));
+        double dy = Math.max(0, Math.max(box.minY() - p.getY(), p.getY() - box.maxY()));
+        double dz = Math.max(0, Math.max(box.minZ() - p.getZ(), p.getZ() - box.maxZ()));
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    /**
+     * Returns the amount of levels
+     *
+     * @return the amount of levels
+     */
+    public int size() {
+        return levels.size();
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        Intersectable level = levels.get(select(ray));
+        if (offset == null) return level.findGeoIntersections(ray, maxDistance);
+        // the distances along the moved ray are the same
+        return place(level.findGeoIntersections(new Ray(ray.origin().add(back), ray.direction()), maxDistance));
+    }
+
+    /**
+     * Moves the hits of a level by the offset of the selector
+     *
+     * @param hits the hits of the level, null for none
+     * @return the hits where the selector places them, null for none
+     */
+    private List<GeoPoint> place(List<GeoPoint> hits) {
+        if (hits == null) return null;
+        List<GeoPoint> placed = new ArrayList<>(hits.size());
+        for (GeoPoint hit : hits) placed.add(new GeoPoint(new Placed(hit.geometry()), hit.point().add(offset)));
+        return placed;
+    }
+
+    /**
+     * A geometry of a level, where the selector places it - its normals are
+     * looked up at the points moved back by the offset
+     */
+    private final class Placed extends Geometry {
+        /**
+         * The geometry of the level
+         */
+        private final Geometry geometry;
+
+        /**
+         * Constructs a placed geometry
+         *
+         * @param geometry the geometry of the level
+         */
+        Placed(Geometry geometry) {
+            this.geometry = geometry;
+        }
+
+        @Override
+        public Vector getNormal(Point point) {
+            return geometry.getNormal(point.add(back));
+        }
+
+        @Override
+        public Color getEmission() {
+            return geometry.getEmission();
+        }
+
+        @Override
+        public Material getMaterial() {
+            return geometry.getMaterial();
+        }
+
+        @Override
+        public void hash(ContentHash hash) {
+            geometry.hash(hash);
+            hash.add(offset);
+        }
+
+        @Override
+        public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+            return place(geometry.findGeoIntersections(new Ray(ray.origin().add(back), ray.direction()),
+                    maxDistance));
+        }
+    }
+
+    /**
+     * Feeds the levels into a content hash
+     *
+     * @param hash the hash to feed
+     * @throws IllegalStateException if a level cannot be content hashed
+     */
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add("LodSelector").add(levels.size()).add(pinned);
+        if (offset != null) hash.add(offset);
+        for (int l = 0; l < levels.size(); ++l) {
+            if (!(levels.get(l) instanceof ContentHashable hashable))
+                throw new IllegalStateException(levels.get(l).getClass().getName() + " cannot be content hashed");
+            hash.add(hashable).add(featureSizes.get(l));
+        }
+    }
+}
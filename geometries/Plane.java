@@ -1,11 +1,15 @@
 package geometries;
 
+import primitives.ContentHash;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
 import java.util.List;
 
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
 /**
  * Represents a plane in 3D space.
  * Each plane is defined by a point and a normal vector.
@@ -16,12 +20,12 @@ public class Plane extends Geometry {
     /**
      * A point on the plane.
      */
-    private final Point point;
+    final Point point;
 
     /**
      * A vector perpendicular (normal) to the plane.
      */
-    private final Vector normal;
+    final Vector normal;
 
     /**
      * Constructs a plane using three points.
@@ -48,8 +52,19 @@ public class Plane extends Geometry {
      * @param normal the normal vector to the plane (must not be null)
      */
     public Plane(Point point, Vector normal) {
+        this(point, normal.normalize(), true);
+    }
+
+    /**
+     * Constructs a plane using a point and a unit normal vector, as it is
+     *
+     * @param point      the reference point on the plane
+     * @param unitNormal the normal vector to the plane, already normalized
+     * @param normalized marks the normal as normalized
+     */
+    Plane(Point point, Vector unitNormal, boolean normalized) {
         this.point = point;
-        this.normal = normal.normalize();
+        this.normal = unitNormal;
     }
 
     /**
@@ -63,10 +78,33 @@ public class Plane extends Geometry {
         return normal;
     }
 
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add("Plane").add(point).add(normal);
+        hashAppearance(hash);
+    }
 
     @Override
-    public List<Point> findIntersections(Ray ray) {
-        return null;
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        Point p0 = ray.origin();
+        Vector v = ray.direction();
+        double nv = normal.dotProduct(v);
+        // the ray is parallel to the plane or starts at the reference point
+        if (isZero(nv) || point.equals(p0)) return null;
+
+        double t = alignZero((normal.getX() * (point.getX() - p0.getX()) + normal.getY() * (point.getY() - p0.getY())
+                + normal.getZ() * (point.getZ() - p0.getZ())) / nv);
+        return t > 0 && alignZero(t - maxDistance) <= 0 ? List.of(new GeoPoint(this, ray.getPoint(t))) : null;
+    }
+
+    /**
+     * A plane is infinite - every ray not parallel to it hits it
+     *
+     * @return {@link BoundingBox#UNBOUNDED}
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        return BoundingBox.UNBOUNDED;
     }
 
 }
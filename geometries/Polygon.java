@@ -1,11 +1,13 @@
 package geometries;
 
+import primitives.ContentHash;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
 import java.util.List;
 
+import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
 
@@ -52,6 +54,20 @@ public class Polygon extends Geometry {
      *                                  </ul>
      */
     public Polygon(Point... vertices) {
+        this(true, vertices);
+    }
+
+    /**
+     * Polygon constructor with optional validation of the vertices
+     *
+     * @param validate whether to check that the polygon is planar and convex
+     * @param vertices list of vertices according to their order by edge path
+     * @throws IllegalArgumentException if there are less than 3 vertices, the
+     *                                  first three lay in a line, or (when
+     *                                  validating) in the cases of
+     *                                  {@link #Polygon(Point...)}
+     */
+    private Polygon(boolean validate, Point... vertices) {
         if (vertices.length < 3)
             throw new IllegalArgumentException("A polygon can't have less than 3 vertices");
         this.vertices = List.of(vertices);
@@ -61,7 +77,7 @@ public class Polygon extends Geometry {
         // polygon with this plane.
         // The plane holds the invariant normal (orthogonal unit) vector to the polygon
         plane = new Plane(vertices[0], vertices[1], vertices[2]);
-        if (size == 3) return; // no need for more tests for a Triangle
+        if (size == 3 || !validate) return; // no need for more tests for a Triangle
 
         Vector n = plane.getNormal(vertices[0]);
         // Subtracting any subsequent points will throw an IllegalArgumentException
@@ -89,13 +105,75 @@ public class Polygon extends Geometry {
         }
     }
 
+    /**
+     * Constructs a polygon with its plane, as restored from a snapshot
+     *
+     * @param vertices the vertices
+     * @param plane    the plane of the vertices
+     */
+    Polygon(List<Point> vertices, Plane plane) {
+        this.vertices = vertices;
+        this.plane = plane;
+        this.size = vertices.size();
+    }
+
+    /**
+     * Constructs a polygon from trusted vertices - e.g. of an asset validated
+     * when it was exported - skipping the O(n) planarity and convexity checks
+     * of {@link #Polygon(Point...)}. The vertices must be ordered by edge path,
+     * coplanar and convex; otherwise the intersections are undefined
+     *
+     * @param vertices list of vertices according to their order by edge path
+     * @return the polygon
+     * @throws IllegalArgumentException if there are less than 3 vertices or the
+     *                                  first three lay in a line
+     */
+    public static Polygon trusted(Point... vertices) {
+        return new Polygon(false, vertices);
+    }
+
     @Override
     public Vector getNormal(Point point) {
         return plane.getNormal(point);
     }
 
     @Override
-    public List<Point> findIntersections(Ray ray) {
-        return null;
+    public void hash(ContentHash hash) {
+        hash.add(getClass().getSimpleName()).add(size);
+        for (Point vertex : vertices) hash.add(vertex);
+        hashAppearance(hash);
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return BoundingBox.of(vertices.toArray(new Point[size]));
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        List<GeoPoint> planeIntersections = plane.findGeoIntersections(ray, maxDistance);
+        if (planeIntersections == null) return null;
+
+        // the point is inside if it is on the same side of all the edges, as seen
+        // from the ray origin (which is not on the plane, hence not on any edge);
+        // the sides are the signs of v·(v1×v2), computed without vectors
+        Point p0 = ray.origin();
+        Vector v = ray.direction();
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+        Point last = vertices.get(size - 1);
+        double x1 = last.getX() - p0.getX(), y1 = last.getY() - p0.getY(), z1 = last.getZ() - p0.getZ();
+        boolean positive = false;
+        for (int i = 0; i < size; ++i) {
+            Point vertex = vertices.get(i);
+            double x2 = vertex.getX() - p0.getX(), y2 = vertex.getY() - p0.getY(), z2 = vertex.getZ() - p0.getZ();
+            double s = alignZero(vx * (y1 * z2 - z1 * y2) + vy * (z1 * x2 - x1 * z2) + vz * (x1 * y2 - y1 * x2));
+            if (s == 0) return null; // on an edge line
+            if (i == 0) positive = s > 0;
+            else if (positive != s > 0) return null;
+            x1 = x2;
+            y1 = y2;
+            z1 = z2;
+        }
+        return List.of(new GeoPoint(this, planeIntersections.get(0).point()));
     }
 }
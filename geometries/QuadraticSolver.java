@@ -0,0 +1,119 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * Ray intersection of the quadric surfaces, shared by {@link Sphere},
+ * {@link Tube}, {@link Cylinder} and {@link Quadric}.
+ * <p>
+ * Along a ray p(t) = p<sub>0</sub> + t·v a quadric is an equation
+ * a·t<sup>2</sup> + 2·h·t + c = 0. Its roots are found by the numerically
+ * stable form: q = -(h + sign(h)·sqrt(h<sup>2</sup> - a·c)) gives one root
+ * q / a and the other one c / q, so the subtraction of two close numbers (and
+ * the loss of the near root of a far surface) is avoided. The specialized
+ * shapes only compute the coefficients in their own (cheaper) way.
+ *
+ * @author Raphael
+ */
+final class QuadraticSolver {
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private QuadraticSolver() {
+    }
+
+    /**
+     * Finds the intersections of a ray with a quadric surface, given the
+     * coefficients of the surface equation along the ray. A linear equation
+     * (a = 0) has a single root; a tangent root is not an intersection
+     *
+     * @param geometry    the intersected geometry
+     * @param ray         the ray
+     * @param a           the coefficient of t<sup>2</sup>
+     * @param h           half the coefficient of t
+     * @param c           the constant coefficient
+     * @param maxDistance the maximal distance of the intersections
+     * @return the intersections in (0, maxDistance] by distance, or null if
+     * there are none
+     */
+    static List<GeoPoint> intersections(Geometry geometry, Ray ray, double a, double h, double c,
+                                        double maxDistance) {
+        // the roots are kept in locals - an array per ray would be allocated
+        double t1, t2;
+        if (isZero(a)) {
+            if (isZero(h)) return null;
+            t1 = t2 = alignZero(-c / (2 * h));
+        } else {
+            double discriminant = alignZero(h * h - a * c);
+            if (discriminant <= 0) return null;
+            double q = -(h + Math.copySign(Math.sqrt(discriminant), h));
+            double r1 = q / a, r2 = c / q;
+            t1 = alignZero(Math.min(r1, r2));
+            t2 = alignZero(Math.max(r1, r2));
+        }
+        boolean near = t1 > 0 && alignZero(t1 - maxDistance) <= 0;
+        boolean far = t2 != t1 && t2 > 0 && alignZero(t2 - maxDistance) <= 0;
+        if (near && far)
+            return List.of(new GeoPoint(geometry, ray.getPoint(t1)), new GeoPoint(geometry, ray.getPoint(t2)));
+        if (near) return List.of(new GeoPoint(geometry, ray.getPoint(t1)));
+        if (far) return List.of(new GeoPoint(geometry, ray.getPoint(t2)));
+        return null;
+    }
+
+    /**
+     * Finds the intersections of a ray with a sphere
+     *
+     * @param geometry      the intersected geometry
+     * @param ray           the ray
+     * @param center        the center of the sphere
+     * @param radiusSquared the square of the radius
+     * @param maxDistance   the maximal distance of the intersections
+     * @return the intersections in (0, maxDistance] by distance, or null if
+     * there are none
+     */
+    static List<GeoPoint> sphere(Geometry geometry, Ray ray, Point center, double radiusSquared,
+                                 double maxDistance) {
+        Point p0 = ray.origin();
+        Vector v = ray.direction();
+        double dx = p0.getX() - center.getX(), dy = p0.getY() - center.getY(), dz = p0.getZ() - center.getZ();
+        double h = v.getX() * dx + v.getY() * dy + v.getZ() * dz;
+        return intersections(geometry, ray, 1, h, dx * dx + dy * dy + dz * dz - radiusSquared, maxDistance);
+    }
+
+    /**
+     * Finds the intersections of a ray with an infinite tube. The distance from
+     * the axis only depends on the components perpendicular to the axis, so the
+     * axial components are subtracted from the ones of the sphere equation
+     *
+     * @param geometry      the intersected geometry
+     * @param ray           the ray
+     * @param axis          the axis of the tube
+     * @param radiusSquared the square of the radius
+     * @param maxDistance   the maximal distance of the intersections
+     * @return the intersections in (0, maxDistance] by distance, or null if
+     * there are none (in particular for a ray parallel to the axis)
+     */
+    static List<GeoPoint> tube(Geometry geometry, Ray ray, Ray axis, double radiusSquared,
+                               double maxDistance) {
+        Point p0 = ray.origin();
+        Point origin = axis.origin();
+        Vector v = ray.direction();
+        Vector d = axis.direction();
+        double dx = p0.getX() - origin.getX(), dy = p0.getY() - origin.getY(), dz = p0.getZ() - origin.getZ();
+        double vd = v.getX() * d.getX() + v.getY() * d.getY() + v.getZ() * d.getZ();
+        double a = 1 - vd * vd;
+        if (isZero(a)) return null; // parallel to the axis: inside or outside all along
+        double pd = dx * d.getX() + dy * d.getY() + dz * d.getZ();
+        double h = v.getX() * dx + v.getY() * dy + v.getZ() * dz - vd * pd;
+        double c = dx * dx + dy * dy + dz * dz - pd * pd - radiusSquared;
+        return intersections(geometry, ray, a, h, c, maxDistance);
+    }
+}
@@ -0,0 +1,353 @@
+package geometries;
+
+import primitives.ContentHash;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * A general quadric surface - ellipsoid, cone, paraboloid, hyperboloid and so
+ * on - given by a symmetric 4×4 matrix Q: the points p for which
+ * (p, 1)·Q·(p, 1)<sup>T</sup> = 0.
+ * <p>
+ * Along a ray the equation is quadratic in the distance and solved by the
+ * {@link QuadraticSolver} shared with {@link Sphere} and {@link Tube}. The
+ * construction recognizes the spheres and the circular tubes among the
+ * quadrics and intersects them through the specialized code of those shapes,
+ * which needs fewer operations than the general matrix products. The normal is
+ * the gradient of the quadratic form, so it points to the positive side - the
+ * outside of a sphere or an ellipsoid given with a positive upper 3×3 block.
+ *
+ * @author Raphael
+ */
+public class Quadric extends Geometry {
+    /**
+     * The kinds of quadrics with specialized intersection code
+     */
+    private enum Kind {
+        /**
+         * A sphere
+         */
+        SPHERE,
+        /**
+         * An infinite circular tube
+         */
+        TUBE,
+        /**
+         * Any other quadric
+         */
+        GENERAL
+    }
+
+    /**
+     * The upper 3×3 block of the matrix (the quadratic terms)
+     */
+    final double xx, yy, zz, xy, xz, yz;
+    /**
+     * The last column of the matrix (half the linear terms)
+     */
+    final double x, y, z;
+    /**
+     * The last element of the matrix (the constant term)
+     */
+    final double w;
+    /**
+     * The recognized kind of the quadric
+     */
+    private final Kind kind;
+    /**
+     * The center of a sphere, or a point on the axis of a tube
+     */
+    private final Point center;
+    /**
+     * The axis of a tube
+     */
+    private final Ray axis;
+    /**
+     * The square of the radius of a sphere or a tube
+     */
+    private final double radiusSquared;
+
+    /**
+     * Constructs a quadric from its matrix
+     *
+     * @param matrix the symmetric 4×4 matrix
+     * @throws IllegalArgumentException if the matrix is not a symmetric 4×4
+     *                                  matrix, or has no quadratic terms
+     */
+    public Quadric(double[][] matrix) {
+        if (matrix == null || matrix.length != 4)
+            throw new IllegalArgumentException("A quadric needs a 4x4 matrix");
+        for (int i = 0; i < 4; ++i) {
+            if (matrix[i] == null || matrix[i].length != 4)
+                throw new IllegalArgumentException("A quadric needs a 4x4 matrix");
+            for (int j = 0; j < i; ++j)
+                if (!isZero(matrix[i][j] - matrix[j][i]))
+                    throw new IllegalArgumentException("The matrix of a quadric must be symmetric");
+        }
+        xx = matrix[0][0];
+        yy = matrix[1][1];
+        zz = matrix[2][2];
+        xy = matrix[0][1];
+        xz = matrix[0][2];
+        yz = matrix[1][2];
+        x = matrix[0][3];
+        y = matrix[1][3];
+        z = matrix[2][3];
+        w = matrix[3][3];
+        if (isZero(xx) && isZero(yy) && isZero(zz) && isZero(xy) && isZero(xz) && isZero(yz))
+            throw new IllegalArgumentException("A quadric must have quadratic terms");
+
+        // a sphere: λ·|p - c|² - λr² with the same λ on the diagonal
+        double lambda = (xx + yy + zz) / 3;
+        if (isZero(xy) && isZero(xz) && isZero(yz) && isZero(xx - lambda) && isZero(yy - lambda)
+                && isZero(zz - lambda)) {
+            Point c = new Point(-x / lambda, -y / lambda, -z / lambda);
+            double r2 = c.distanceSquared(Point.ZERO) - w / lambda;
+            if (alignZero(r2) > 0) {
+                kind = Kind.SPHERE;
+                center = c;
+                axis = null;
+                radiusSquared = r2;
+                return;
+            }
+        }
+
+        // a tube: λ·(I - d·d^T) as the quadratic terms, linear terms perpendicular to d
+        lambda = (xx + yy + zz) / 2;
+        double dxx = 1 - xx / lambda, dyy = 1 - yy / lambda, dzz = 1 - zz / lambda;
+        double dxy = -xy / lambda, dxz = -xz / lambda, dyz = -yz / lambda;
+        Vector d = isZero(lambda) ? null : dxx >= dyy && dxx >= dzz ? direction(dxx, dxy, dxz)
+                : dyy >= dzz ? direction(dxy, dyy, dyz) : direction(dxz, dyz, dzz);
+        if (d != null && isZero(dxx - d.getX() * d.getX()) && isZero(dyy - d.getY() * d.getY())
+                && isZero(dzz - d.getZ() * d.getZ()) && isZero(dxy - d.getX() * d.getY())
+                && isZero(dxz - d.getX() * d.getZ()) && isZero(dyz - d.getY() * d.getZ())
+                && isZero((x * d.getX() + y * d.getY() + z * d.getZ()) / lambda)) {
+            Point c = new Point(-x / lambda, -y / lambda, -z / lambda);
+            double r2 = c.distanceSquared(Point.ZERO) - w / lambda;
+            if (alignZero(r2) > 0) {
+                kind = Kind.TUBE;
+                center = c;
+                axis = new Ray(c, d);
+                radiusSquared = r2;
+                return;
+            }
+        }
+
+        kind = Kind.GENERAL;
+        center = null;
+        axis = null;
+        radiusSquared = 0;
+    }
+
+    /**
+     * Takes the axis of a tube from a column of d·d<sup>T</sup>
+     *
+     * @param cx the first element of the column
+     * @param cy the second element of the column
+     * @param cz the third element of the column
+     * @return the unit axis, or null if the column is zero
+     */
+    private static Vector direction(double cx, double cy, double cz) {
+        if (isZero(cx) && isZero(cy) && isZero(cz)) return null;
+        return new Vector(cx, cy, cz).normalize();
+    }
+
+    /**
+     * Constructs an axis-aligned ellipsoid
+     *
+     * @param center the center
+     * @param rx     the radius along the X axis
+     * @param ry     the radius along the Y axis
+     * @param rz     the radius along the Z axis
+     * @return the ellipsoid
+     * @throws IllegalArgumentException if a radius is not positive
+     */
+    public static Quadric ellipsoid(Point center, double rx, double ry, double rz) {
+        if (rx <= 0 || ry <= 0 || rz <= 0)
+            throw new IllegalArgumentException("Radii must be positive");
+        double a = 1 / (rx * rx), b = 1 / (ry * ry), c = 1 / (rz * rz);
+        double cx = center.getX(), cy = center.getY(), cz = center.getZ();
+        return new Quadric(new double[][]{
+                {a, 0, 0, -a * cx},
+                {0, b, 0, -b * cy},
+                {0, 0, c, -c * cz},
+                {-a * cx, -b * cy, -c * cz, a * cx * cx + b * cy * cy + c * cz * cz - 1}});
+    }
+
+    /**
+     * Constructs an infinite double cone
+     *
+     * @param axis  the axis, starting at the apex
+     * @param slope the tangent of the half opening angle
+     * @return the cone
+     * @throws IllegalArgumentException if the slope is not positive
+     */
+    public static Quadric cone(Ray axis, double slope) {
+        if (slope <= 0) throw new IllegalArgumentException("Slope must be positive");
+        return around(axis, -slope * slope, 0, 0);
+    }
+
+    /**
+     * Constructs an infinite circular paraboloid: the points at a distance r
+     * from the axis are r<sup>2</sup> / focal away from the vertex along it
+     *
+     * @param axis  the axis, starting at the vertex
+     * @param focal the scale of the paraboloid (four times the focal length)
+     * @return the paraboloid
+     * @throws IllegalArgumentException if the scale is not positive
+     */
+    public static Quadric paraboloid(Ray axis, double focal) {
+        if (focal <= 0) throw new IllegalArgumentException("Focal scale must be positive");
+        return around(axis, 0, -focal, 0);
+    }
+
+    /**
+     * Constructs a circular hyperboloid of one sheet: a waist of the given
+     * radius at the axis origin, widening like a cone of the given slope
+     *
+     * @param axis   the axis, starting at the center of the waist
+     * @param radius the radius of the waist
+     * @param slope  the tangent of the half opening angle of the asymptotic cone
+     * @return the hyperboloid
+     * @throws IllegalArgumentException if the radius or the slope is not positive
+     */
+    public static Quadric hyperboloid(Ray axis, double radius, double slope) {
+        if (radius <= 0 || slope <= 0)
+            throw new IllegalArgumentException("Radius and slope must be positive");
+        return around(axis, -slope * slope, 0, -radius * radius);
+    }
+
+    /**
+     * Constructs an infinite circular tube as a quadric
+     *
+     * @param axis   the axis
+     * @param radius the radius
+     * @return the tube
+     * @throws IllegalArgumentException if the radius is not positive
+     */
+    public static Quadric tube(Ray axis, double radius) {
+        if (radius <= 0) throw new IllegalArgumentException("Radius must be positive");
+        return around(axis, 0, 0, -radius * radius);
+    }
+
+    /**
+     * Constructs a quadric of revolution: for q = p - o, the axial distance
+     * s = q·d and the square r<sup>2</sup> = |q|<sup>2</sup> - s<sup>2</sup>
+     * of the distance from the axis, the points with
+     * r<sup>2</sup> + axial·s<sup>2</sup> + linear·s + constant = 0
+     *
+     * @param axis     the axis (origin o, direction d)
+     * @param axial    the coefficient of s<sup>2</sup>
+     * @param linear   the coefficient of s
+     * @param constant the constant term
+     * @return the quadric
+     */
+    private static Quadric around(Ray axis, double axial, double linear, double constant) {
+        Point o = axis.origin();
+        Vector d = axis.direction();
+        double[] dd = {d.getX(), d.getY(), d.getZ()};
+        double[] oo = {o.getX(), o.getY(), o.getZ()};
+        // A = I + (axial - 1)·d·d^T; in p the linear terms are -A·o + linear/2·d
+        double[][] matrix = new double[4][4];
+        double constantTerm = constant;
+        for (int i = 0; i < 3; ++i)
+            for (int j = 0; j < 3; ++j)
+                matrix[i][j] = (i == j ? 1 : 0) + (axial - 1) * dd[i] * dd[j];
+        for (int i = 0; i < 3; ++i) {
+            double ao = 0;
+            for (int j = 0; j < 3; ++j) ao += matrix[i][j] * oo[j];
+            matrix[i][3] = matrix[3][i] = -ao + linear / 2 * dd[i];
+            constantTerm += ao * oo[i] - linear * dd[i] * oo[i];
+        }
+        matrix[3][3] = constantTerm;
+        return new Quadric(matrix);
+    }
+
+    /**
+     * Tells whether the quadric has been recognized as a sphere or a tube,
+     * whose rays are intersected by the specialized code
+     *
+     * @return true if the quadric uses a specialized intersection
+     */
+    public boolean isSpecialized() {
+        return kind != Kind.GENERAL;
+    }
+
+    /**
+     * Returns the normal - the normalized gradient of the quadratic form
+     *
+     * @param point the point on the surface
+     * @return the unit normal
+     * @throws IllegalArgumentException if the gradient vanishes at the point
+     *                                  (the apex of a cone)
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        double px = point.getX(), py = point.getY(), pz = point.getZ();
+        return new Vector(xx * px + xy * py + xz * pz + x,
+                xy * px + yy * py + yz * pz + y,
+                xz * px + yz * py + zz * pz + z).normalize();
+    }
+
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add("Quadric").add(xx).add(yy).add(zz).add(xy).add(xz).add(yz).add(x).add(y).add(z).add(w);
+        hashAppearance(hash);
+    }
+
+    /**
+     * Returns the box of an ellipsoid (a definite upper 3×3 block A): around
+     * the center m = -A<sup>-1</sup>·b the surface is
+     * (p - m)·A·(p - m) = k, which extends sqrt(k·(A<sup>-1</sup>)<sub>ii</sub>)
+     * along the axis i. Any other quadric is unbounded
+     *
+     * @return the bounding box
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        double minor = xx * yy - xy * xy;
+        double det = xx * (yy * zz - yz * yz) - xy * (xy * zz - yz * xz) + xz * (xy * yz - yy * xz);
+        boolean definite = minor > 0 && (xx > 0 ? det > 0 : det < 0) && !isZero(det);
+        if (!definite) return BoundingBox.UNBOUNDED;
+        // the inverse by the adjugate
+        double ixx = (yy * zz - yz * yz) / det, iyy = (xx * zz - xz * xz) / det, izz = minor / det;
+        double ixy = (xz * yz - xy * zz) / det, ixz = (xy * yz - xz * yy) / det, iyz = (xy * xz - xx * yz) / det;
+        double mx = -(ixx * x + ixy * y + ixz * z);
+        double my = -(ixy * x + iyy * y + iyz * z);
+        double mz = -(ixz * x + iyz * y + izz * z);
+        double k = -(x * mx + y * my + z * mz) - w;
+        double ex = Math.sqrt(Math.max(0, k * ixx));
+        double ey = Math.sqrt(Math.max(0, k * iyy));
+        double ez = Math.sqrt(Math.max(0, k * izz));
+        return new BoundingBox(mx - ex, my - ey, mz - ez, mx + ex, my + ey, mz + ez);
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        return switch (kind) {
+            case SPHERE -> QuadraticSolver.sphere(this, ray, center, radiusSquared, maxDistance);
+            case TUBE -> QuadraticSolver.tube(this, ray, axis, radiusSquared, maxDistance);
+            case GENERAL -> {
+                Point p0 = ray.origin();
+                Vector v = ray.direction();
+                double px = p0.getX(), py = p0.getY(), pz = p0.getZ();
+                double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+                // A·v and A·p + b
+                double avx = xx * vx + xy * vy + xz * vz, avy = xy * vx + yy * vy + yz * vz,
+                        avz = xz * vx + yz * vy + zz * vz;
+                double gx = xx * px + xy * py + xz * pz + x, gy = xy * px + yy * py + yz * pz + y,
+                        gz = xz * px + yz * py + zz * pz + z;
+                double a = vx * avx + vy * avy + vz * avz;
+                double h = vx * gx + vy * gy + vz * gz;
+                double c = px * gx + py * gy + pz * gz + x * px + y * py + z * pz + w;
+                yield QuadraticSolver.intersections(this, ray, a, h, c, maxDistance);
+            }
+        };
+    }
+}
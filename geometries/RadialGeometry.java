@@ -10,38 +10,7 @@ public abstract class RadialGeometry extends Geometry {
     /**
      * The radius of the radial geometry.
      */
-    protected final dopackage geometries;
-
-    /**
-     * Abstract class representing radial geometric shapes.
-     * Implements the Geometry interface.
-     *
-     * @author Raphael
-     */
-    public abstract class RadialGeometry extends Geometry {
-        /**
-         * The radius of the radial geometry.
-         */
-        protected final double radius;
-
-        /**
-         * The square of the radius (precomputed for optimization).
-         */
-        protected final double radiusSquared;
-
-        /**
-         * Constructs a RadialGeometry with the given radius.
-         *
-         * @param radius the radius of the shape
-         * @throws IllegalArgumentException if radius is not positive
-         */
-        public RadialGeometry(double radius) {
-            if (radius <= 0)
-                throw new IllegalArgumentException("Radius must be positive");
-            this.radius = radius;
-            this.radiusSquared = radius * radius;
-        }
-    }uble radius;
+    protected final double radius;
 
     /**
      * The square of the radius (precomputed for optimization).
@@ -60,4 +29,4 @@ public abstract class RadialGeometry extends Geometry {
         this.radius = radius;
         this.radiusSquared = radius * radius;
     }
-}
\ No newline at end of file
+}
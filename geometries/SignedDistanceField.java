@@ -0,0 +1,369 @@
+package geometries;
+
+import primitives.ContentHash;
+import primitives.ContentHashable;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static primitives.Util.alignZero;
+
+/**
+ * A procedural shape given by a signed distance function (blends, fractals),
+ * intersected by sphere tracing: a ray advances by the distance of its current
+ * point from the surface, which cannot skip the surface.
+ * <p>
+ * The march is clipped to the interval of the ray inside the bounding box and
+ * to a maximal amount of steps, so the cost per ray stays bounded. The steps
+ * are over-relaxed (longer than the distance by a factor) while consecutive
+ * unbounding spheres overlap; when they stop overlapping the step has skipped
+ * too far, it is undone and the rest of the march uses plain steps.
+ * <p>
+ * Optionally, the distances are cached at the points of a lattice over the
+ * bounding box, in bricks of 8<sup>3</sup> points allocated when first reached
+ * by a ray (a sparse brick map). Since the distance cannot change faster than
+ * the position, the distance at a lattice point minus the distance to it is a
+ * safe step; near the surface, where this bound becomes too short, the
+ * function is evaluated exactly.
+ *
+ * @author Raphael
+ */
+public class SignedDistanceField extends Geometry {
+    /**
+     * Amount of lattice points along every side of a brick of the cache
+     */
+    private static final int BRICK = 8;
+
+    /**
+     * The distance function
+     */
+    private final DistanceFunction function;
+    /**
+     * The box containing the surface
+     */
+    private final BoundingBox bounds;
+    /**
+     * Maximal amount of steps per ray
+     */
+    private int maxSteps = 256;
+    /**
+     * Distance from the surface considered as a hit
+     */
+    private double tolerance = 1e-4;
+    /**
+     * The over-relaxation factor of the steps
+     */
+    private double relaxation = 1.6;
+    /**
+     * The distance cache, or null if disabled
+     */
+    private BrickMap cache;
+    /**
+     * Amount of marched rays
+     */
+    private final LongAdder rays = new LongAdder();
+    /**
+     * Amount of marching steps
+     */
+    private final LongAdder steps = new LongAdder();
+
+    /**
+     * Cache of the distances at the points of a lattice, in lazily allocated
+     * bricks
+     */
+    private final class BrickMap {
+        /**
+         * The distance between neighbouring lattice points
+         */
+        private final double spacing;
+        /**
+         * Amount of lattice points along each axis
+         */
+        private final int nx, ny, nz;
+        /**
+         * Amount of bricks along each axis
+         */
+        private final int bx, by;
+        /**
+         * The bricks (null until first reached), of distances (NaN until
+         * first computed)
+         */
+        private final AtomicReferenceArray<float[]> bricks;
+
+        /**
+         * Constructs an empty cache
+         *
+         * @param resolution amount of lattice cells along the longest side of
+         *                   the bounding box
+         */
+        BrickMap(int resolution) {
+            double sizeX = bounds.maxX() - bounds.minX(), sizeY = bounds.maxY() - bounds.minY(),
+                    sizeZ = bounds.maxZ() - bounds.minZ();
+            spacing = Math.max(sizeX, Math.max(sizeY, sizeZ)) / resolution;
+            nx = (int) Math.ceil(sizeX / spacing) + 1;
+            ny = (int) Math.ceil(sizeY / spacing) + 1;
+            nz = (int) Math.ceil(sizeZ / spacing) + 1;
+            bx = (nx + BRICK - 1) / BRICK;
+            by = (ny + BRICK - 1) / BRICK;
+            bricks = new AtomicReferenceArray<>(bx * by * ((nz + BRICK - 1) / BRICK));
+        }
+
+        /**
+         * Calculates a safe signed step from a point: the cached distance at
+         * the nearest lattice point, reduced by the distance to it, or the exact
+         * distance near the surface
+         *
+         * @param x the x coordinate of the point
+         * @param y the y coordinate of the point
+         * @param z the z coordinate of the point
+         * @return a signed distance that does not exceed the real one
+         */
+        double distance(double x, double y, double z) {
+            int i = (int) Math.round((x - bounds.minX()) / spacing);
+            int j = (int) Math.round((y - bounds.minY()) / spacing);
+            int k = (int) Math.round((z - bounds.minZ()) / spacing);
+            if (i < 0 || j < 0 || k < 0 || i >= nx || j >= ny || k >= nz) return function.distance(x, y, z);
+            int index = (i / BRICK) + bx * ((j / BRICK) + by * (k / BRICK));
+            float[] brick = bricks.get(index);
+            if (brick == null) {
+                float[] fresh = new float[BRICK * BRICK * BRICK];
+                Arrays.fill(fresh, Float.NaN);
+                brick = bricks.compareAndSet(index, null, fresh) ? fresh : bricks.get(index);
+            }
+            double gx = bounds.minX() + i * spacing, gy = bounds.minY() + j * spacing,
+                    gz = bounds.minZ() + k * spacing;
+            int cell = (i % BRICK) + BRICK * ((j % BRICK) + BRICK * (k % BRICK));
+            double cached = brick[cell];
+            if (Double.isNaN(cached)) brick[cell] = (float) (cached = function.distance(gx, gy, gz));
+            double dx = x - gx, dy = y - gy, dz = z - gz;
+            double bound = Math.abs(cached) - Math.sqrt(dx * dx + dy * dy + dz * dz);
+            // near the surface the bound is too short to be worth it
+            return bound > spacing ? Math.copySign(bound, cached) : function.distance(x, y, z);
+        }
+    }
+
+    /**
+     * Constructs a procedural shape
+     *
+     * @param function the signed distance function of the surface
+     * @param bounds   a box containing the surface
+     * @throws IllegalArgumentException if the box is not bounded
+     */
+    public SignedDistanceField(DistanceFunction function, BoundingBox bounds) {
+        if (function == null) throw new IllegalArgumentException("Distance function cannot be null");
+        if (bounds == null || !bounds.isBounded())
+            throw new IllegalArgumentException("A distance field needs a bounded box");
+        this.function = function;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Sets the maximal amount of marching steps per ray
+     *
+     * @param maxSteps the amount of steps
+     * @return the shape itself
+     * @throws IllegalArgumentException if the amount is not positive
+     */
+    public SignedDistanceField setMaxSteps(int maxSteps) {
+        if (maxSteps < 1) throw new IllegalArgumentException("Steps must be positive");
+        this.maxSteps = maxSteps;
+        return this;
+    }
+
+    /**
+     * Sets the distance from the surface considered as a hit
+     *
+     * @param tolerance the distance
+     * @return the shape itself
+     * @throws IllegalArgumentException if the distance is not positive
+     */
+    public SignedDistanceField setTolerance(double tolerance) {
+        if (tolerance <= 0) throw new IllegalArgumentException("Tolerance must be positive");
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    /**
+     * Sets the over-relaxation factor of the steps (1 for plain sphere
+     * tracing)
+     *
+     * @param relaxation the factor, in [1, 2)
+     * @return the shape itself
+     * @throws IllegalArgumentException if the factor is out of range
+     */
+    public SignedDistanceField setRelaxation(double relaxation) {
+        if (!(relaxation >= 1 && relaxation < 2))
+            throw new IllegalArgumentException("Relaxation must be in [1, 2)");
+        this.relaxation = relaxation;
+        return this;
+    }
+
+    /**
+     * Enables the cache of distances on a lattice over the bounding box, or
+     * disables it
+     *
+     * @param resolution amount of lattice cells along the longest side of the
+     *                   box, 0 to disable the cache
+     * @return the shape itself
+     * @throws IllegalArgumentException if the resolution is negative
+     */
+    public SignedDistanceField setCache(int resolution) {
+        if (resolution < 0) throw new IllegalArgumentException("Resolution must not be negative");
+        cache = resolution == 0 ? null : new BrickMap(resolution);
+        return this;
+    }
+
+    /**
+     * Returns the average amount of marching steps per ray since the last
+     * {@link #resetStatistics()}, counting the rays that hit the bounding box
+     *
+     * @return steps per ray
+     */
+    public double getStepsPerRay() {
+        long count = rays.sum();
+        return count == 0 ? 0 : (double) steps.sum() / count;
+    }
+
+    /**
+     * Resets the step counters
+     */
+    public void resetStatistics() {
+        rays.reset();
+        steps.reset();
+    }
+
+    /**
+     * Evaluates the distance at a point, through the cache if enabled
+     *
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @param z the z coordinate of the point
+     * @return the signed distance (or a safe lower bound of it)
+     */
+    private double distance(double x, double y, double z) {
+        BrickMap map = cache;
+        return map == null ? function.distance(x, y, z) : map.distance(x, y, z);
+    }
+
+    /**
+     * Returns the normal: the gradient of the distance function, by central
+     * differences at the corners of a tetrahedron
+     *
+     * @param point the point on the surface
+     * @return the unit normal
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        double x = point.getX(), y = point.getY(), z = point.getZ(), h = tolerance;
+        double d1 = function.distance(x + h, y - h, z - h), d2 = function.distance(x - h, y - h, z + h);
+        double d3 = function.distance(x - h, y + h, z - h), d4 = function.distance(x + h, y + h, z + h);
+        return new Vector(d1 - d2 - d3 + d4, -d1 - d2 + d3 + d4, -d1 + d2 - d3 + d4).normalize();
+    }
+
+    /**
+     * Feeds the shape into a content hash. The relaxation and the cache are
+     * left out - they change the cost of the marching, not the surface
+     *
+     * @param hash the hash
+     * @throws IllegalStateException if the distance function is not content
+     *                               hashable
+     */
+    @Override
+    public void hash(ContentHash hash) {
+        if (!(function instanceof ContentHashable hashable))
+            throw new IllegalStateException(function.getClass().getName() + " cannot be content hashed");
+        hash.add("SignedDistanceField").add(hashable).add(bounds.minX()).add(bounds.minY()).add(bounds.minZ())
+                .add(bounds.maxX()).add(bounds.maxY()).add(bounds.maxZ()).add(maxSteps).add(tolerance);
+        hashAppearance(hash);
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return bounds;
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        Point p0 = ray.origin();
+        Vector v = ray.direction();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+
+        // clip the march to the box
+        double tNear = 0, tFar = maxDistance;
+        double[] slab = {bounds.minX() - ox, bounds.maxX() - ox, vx, bounds.minY() - oy, bounds.maxY() - oy, vy,
+                bounds.minZ() - oz, bounds.maxZ() - oz, vz};
+        for (int axis = 0; axis < 9; axis += 3) {
+            double t0 = slab[axis] / slab[axis + 2], t1 = slab[axis + 1] / slab[axis + 2];
+            if (t0 > t1) {
+                double t = t0;
+                t0 = t1;
+                t1 = t;
+            }
+            if (t0 > tNear) tNear = t0; // NaN (origin on the slab of a parallel ray) is ignored
+            if (t1 < tFar) tFar = t1;
+        }
+        if (!(tNear <= tFar)) return null;
+        rays.increment();
+
+        // march from outside (sign 1) or inside (sign -1), toward the next crossing
+        double t = tNear;
+        double start = distance(ox + t * vx, oy + t * vy, oz + t * vz);
+        double sign;
+        // not armed while leaving a surface the march starts on
+        boolean armed = Math.abs(start) >= tolerance;
+        if (armed) sign = Math.signum(start);
+        else {
+            double ahead = function.distance(ox + (t + tolerance) * vx, oy + (t + tolerance) * vy,
+                    oz + (t + tolerance) * vz);
+            sign = ahead >= start ? 1 : -1;
+        }
+
+        List<GeoPoint> hits = null;
+        double omega = relaxation, previousRadius = 0, step = 0;
+        boolean relaxed = false;
+        int count = 0;
+        while (count < maxSteps && t <= tFar) {
+            double signed = sign * distance(ox + t * vx, oy + t * vy, oz + t * vz);
+            ++count;
+            double radius = Math.abs(signed);
+            if (relaxed && (signed < 0 || radius + previousRadius < step)) {
+                // crossed, or the unbounding spheres stopped overlapping: back to a plain step
+                t += step / omega - step;
+                step /= omega;
+                omega = 1;
+                relaxed = false;
+                continue;
+            }
+            if (!armed) {
+                if (signed >= tolerance) armed = true;
+                step = Math.max(radius, tolerance);
+                relaxed = false;
+            } else if (signed < tolerance) {
+                if (alignZero(t) > 0) {
+                    if (hits == null) hits = new ArrayList<>(2);
+                    hits.add(new GeoPoint(this, ray.getPoint(t)));
+                }
+                // continue on the other side of the surface
+                sign = -sign;
+                armed = false;
+                omega = relaxation;
+                step = tolerance;
+                relaxed = false;
+            } else {
+                step = signed * omega;
+                relaxed = omega > 1;
+            }
+            previousRadius = radius;
+            t += step;
+        }
+        steps.add(count);
+        return hits;
+    }
+}
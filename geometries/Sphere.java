@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.ContentHash;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -16,7 +17,7 @@ public class Sphere extends RadialGeometry {
     /**
      * The center point of the sphere.
      */
-    private final Point center;
+    final Point center;
 
     /**
      * Constructs a sphere with a center point and radius.
@@ -47,7 +48,19 @@ public class Sphere extends RadialGeometry {
     }
 
     @Override
-    public List<Point> findIntersections(Ray ray) {
-        return null;
+    public void hash(ContentHash hash) {
+        hash.add("Sphere").add(center).add(radius);
+        hashAppearance(hash);
     }
-}
\ No newline at end of file
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return new BoundingBox(center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius);
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        return QuadraticSolver.sphere(this, ray, center, radiusSquared, maxDistance);
+    }
+}
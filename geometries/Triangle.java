@@ -1,7 +1,6 @@
 package geometries;
 
 import primitives.Point;
-import primitives.Ray;
 
 import java.util.List;
 
@@ -23,8 +22,13 @@ public class Triangle extends Polygon {
         super(p1, p2, p3);
     }
 
-    @Override
-    public List<Point> findIntersections(Ray ray) {
-        return null;
+    /**
+     * Constructs a triangle with its plane, as restored from a snapshot
+     *
+     * @param vertices the 3 vertices
+     * @param plane    the plane of the vertices
+     */
+    Triangle(List<Point> vertices, Plane plane) {
+        super(vertices, plane);
     }
-}
\ No newline at end of file
+}
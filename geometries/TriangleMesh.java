@@ -0,0 +1,897 @@
+package geometries;
+
+import primitives.Color;
+import primitives.ContentHash;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.SnapshotInput;
+import primitives.SnapshotOutput;
+import primitives.Util;
+import primitives.Vector;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Indexed triangle mesh stored compactly: the vertex coordinates in a single
+ * float array, 3 vertex indices per triangle in an int array, and a bounding
+ * volume hierarchy over the triangles in flat arrays - a few dozen bytes per
+ * triangle instead of the several objects of a {@link Triangle}.
+ * <p>
+ * The intersections refer to lightweight faces created for the hit triangles
+ * only; a face shares the emission and the material of its mesh. Translated
+ * copies of a mesh ({@link #translate(Vector)}) share its triangles and the
+ * topology of its hierarchy.
+ * <p>
+ * {@link #simplify(int)} reduces the mesh by quadric error edge collapse
+ * [Garland and Heckbert, Surface Simplification Using Quadric Error Metrics,
+ * 1997], for levels of detail (see {@link LodSelector#of(TriangleMesh, int)}).
+ *
+ * @author Raphael
+ */
+public class TriangleMesh extends Geometry {
+    /**
+     * Maximal amount of triangles in a leaf of the hierarchy
+     */
+    private static final int LEAF_SIZE = 4;
+    /**
+     * Weight of the planes holding the boundary edges in place during
+     * simplification, relative to the surface planes
+     */
+    private static final double BOUNDARY_WEIGHT = 100;
+
+    /**
+     * Vertex coordinates, 3 per vertex
+     */
+    private final float[] positions;
+    /**
+     * Vertex indices, 3 per triangle
+     */
+    private final int[] indices;
+    /**
+     * Node boxes of the hierarchy, 6 values per node
+     */
+    private final float[] bounds;
+    /**
+     * Index of the first child of an inner node, -1 for a leaf
+     */
+    private final int[] child;
+    /**
+     * Index in {@link #order} of the first triangle of a leaf
+     */
+    private final int[] start;
+    /**
+     * Amount of triangles in a leaf
+     */
+    private final int[] count;
+    /**
+     * The triangles in leaf order
+     */
+    private final int[] order;
+
+    /**
+     * Constructs a mesh
+     *
+     * @param positions vertex coordinates, 3 per vertex
+     * @param indices   vertex indices, 3 per triangle
+     * @throws IllegalArgumentException if the arrays are not made of whole
+     *                                  vertices and triangles, there are no
+     *                                  triangles, or an index is out of range
+     */
+    public TriangleMesh(float[] positions, int[] indices) {
+        if (positions.length % 3 != 0 || indices.length % 3 != 0 || indices.length == 0)
+            throw new IllegalArgumentException("A mesh needs whole vertices and at least one triangle");
+        int vertices = positions.length / 3;
+        for (int index : indices)
+            if (index < 0 || index >= vertices)
+                throw new IllegalArgumentException("Vertex index out of range: " + index);
+        this.positions = positions.clone();
+        this.indices = indices.clone();
+
+        int triangles = indices.length / 3;
+        order = new int[triangles];
+        for (int t = 0; t < triangles; ++t) order[t] = t;
+        int capacity = 2 * triangles - 1;
+        float[] nodeBounds = new float[6 * capacity];
+        int[] nodeChild = new int[capacity];
+        int[] nodeStart = new int[capacity];
+        int[] nodeCount = new int[capacity];
+        double[] centers = new double[3 * triangles];
+        for (int t = 0; t < triangles; ++t)
+            for (int a = 0; a < 3; ++a)
+                centers[3 * t + a] = (coordinate(this.indices[3 * t], a) + coordinate(this.indices[3 * t + 1], a)
+                        + coordinate(this.indices[3 * t + 2], a)) / 3;
+        int nodes = build(0, 1, 0, triangles, centers, nodeBounds, nodeChild, nodeStart, nodeCount);
+        bounds = Arrays.copyOf(nodeBounds, 6 * nodes);
+        child = Arrays.copyOf(nodeChild, nodes);
+        start = Arrays.copyOf(nodeStart, nodes);
+        count = Arrays.copyOf(nodeCount, nodes);
+    }
+
+    /**
+     * Constructs a translated copy of a mesh, sharing its triangles and the
+     * topology of its hierarchy
+     *
+     * @param mesh the mesh
+     * @param dx   the offset along x
+     * @param dy   the offset along y
+     * @param dz   the offset along z
+     */
+    private TriangleMesh(TriangleMesh mesh, double dx, double dy, double dz) {
+        positions = new float[mesh.positions.length];
+        for (int i = 0; i < positions.length; i += 3) {
+            positions[i] = (float) (mesh.positions[i] + dx);
+            positions[i + 1] = (float) (mesh.positions[i + 1] + dy);
+            positions[i + 2] = (float) (mesh.positions[i + 2] + dz);
+        }
+        // rounding is monotonic, so the shifted boxes still bound the shifted vertices
+        bounds = new float[mesh.bounds.length];
+        for (int i = 0; i < bounds.length; i += 3) {
+            bounds[i] = (float) (mesh.bounds[i] + dx);
+            bounds[i + 1] = (float) (mesh.bounds[i + 1] + dy);
+            bounds[i + 2] = (float) (mesh.bounds[i + 2] + dz);
+        }
+        indices = mesh.indices;
+        child = mesh.child;
+        start = mesh.start;
+        count = mesh.count;
+        order = mesh.order;
+        emission = mesh.emission;
+        setMaterial(mesh.getMaterial());
+    }
+
+    /**
+     * Constructs a mesh restored from a snapshot (see {@link #read(SnapshotInput)})
+     *
+     * @param positions vertex coordinates
+     * @param indices   vertex indices
+     * @param bounds    node boxes
+     * @param child     first children
+     * @param start     leaf starts
+     * @param count     leaf sizes
+     * @param order     the triangles in leaf order
+     */
+    private TriangleMesh(float[] positions, int[] indices, float[] bounds, int[] child, int[] start, int[] count,
+                         int[] order) {
+        this.positions = positions;
+        this.indices = indices;
+        this.bounds = bounds;
+        this.child = child;
+        this.start = start;
+        this.count = count;
+        this.order = order;
+    }
+
+    /**
+     * Writes the mesh into a snapshot. The triangles and the hierarchy
+     * topology shared with translated copies are written once
+     *
+     * @param out the snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    void write(SnapshotOutput out) throws IOException {
+        out.putFloats(positions).putFloats(bounds);
+        if (!out.reference(indices))
+            out.putInts(indices).putInts(child).putInts(start).putInts(count).putInts(order);
+    }
+
+    /**
+     * Reads a mesh written by {@link #write(SnapshotOutput)}, without
+     * rebuilding its hierarchy
+     *
+     * @param in the snapshot
+     * @return the mesh (without its appearance)
+     * @throws IOException if the snapshot cannot be read or is corrupt
+     */
+    static TriangleMesh read(SnapshotInput in) throws IOException {
+        float[] positions = in.getFloats(), bounds = in.getFloats();
+        TriangleMesh topology = in.reference(TriangleMesh.class);
+        if (topology == null) {
+            int[] indices = in.getInts(), child = in.getInts(), start = in.getInts(), count = in.getInts(),
+                    order = in.getInts();
+            int n = child.length, triangles = indices.length / 3;
+            if (indices.length == 0 || indices.length % 3 != 0 || n == 0 || start.length != n
+                    || count.length != n || order.length != triangles)
+                throw new IOException("Corrupt snapshot: mesh sizes");
+            for (int node = 0; node < n; ++node)
+                if (child[node] >= 0 ? child[node] <= node || child[node] + 1 >= n
+                        : start[node] < 0 || count[node] < 0 || start[node] + count[node] > triangles)
+                    throw new IOException("Corrupt snapshot: mesh nodes");
+            for (int t : order)
+                if (t < 0 || t >= triangles) throw new IOException("Corrupt snapshot: mesh triangles");
+            topology = in.register(new TriangleMesh(positions, indices, bounds, child, start, count, order));
+        }
+        if (bounds.length != 6 * topology.child.length || positions.length % 3 != 0)
+            throw new IOException("Corrupt snapshot: mesh sizes");
+        for (int index : topology.indices)
+            if (index >= positions.length / 3 || index < 0) throw new IOException("Corrupt snapshot: mesh indices");
+        return topology.positions == positions ? topology : new TriangleMesh(positions, topology.indices, bounds,
+                topology.child, topology.start, topology.count, topology.order);
+    }
+
+    /**
+     * Constructs a mesh from vertex points
+     *
+     * @param vertices the vertices
+     * @param indices  vertex indices, 3 per triangle
+     * @return the mesh
+     * @throws IllegalArgumentException as {@link #TriangleMesh(float[], int[])}
+     */
+    public static TriangleMesh of(List<Point> vertices, int[] indices) {
+        float[] positions = new float[3 * vertices.size()];
+        for (int v = 0; v < vertices.size(); ++v) {
+            positions[3 * v] = (float) vertices.get(v).getX();
+            positions[3 * v + 1] = (float) vertices.get(v).getY();
+            positions[3 * v + 2] = (float) vertices.get(v).getZ();
+        }
+        return new TriangleMesh(positions, indices);
+    }
+
+    /**
+     * Builds the subtree of the hierarchy over a range of triangles, splitting
+     * at the median center along the widest axis of the centers
+     *
+     * @param node   the index of the subtree root
+     * @param next   the next free node index
+     * @param from   first triangle of the range (in {@link #order})
+     * @param to     end of the range (exclusive)
+     * @param c      the triangle centers, 3 per triangle
+     * @param nb     the node boxes to fill
+     * @param nChild the first children to fill
+     * @param nStart the leaf starts to fill
+     * @param nCount the leaf sizes to fill
+     * @return the next free node index after the subtree
+     */
+    private int build(int node, int next, int from, int to, double[] c,
+                      float[] nb, int[] nChild, int[] nStart, int[] nCount) {
+        int o = 6 * node;
+        nb[o] = nb[o + 1] = nb[o + 2] = Float.POSITIVE_INFINITY;
+        nb[o + 3] = nb[o + 4] = nb[o + 5] = Float.NEGATIVE_INFINITY;
+        double[] cMin = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] cMax = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = from; i < to; ++i) {
+            int t = order[i];
+            for (int k = 0; k < 3; ++k) {
+                int v = 3 * indices[3 * t + k];
+                for (int a = 0; a < 3; ++a) {
+                    nb[o + a] = Math.min(nb[o + a], positions[v + a]);
+                    nb[o + a + 3] = Math.max(nb[o + a + 3], positions[v + a]);
+                }
+            }
+            for (int a = 0; a < 3; ++a) {
+                cMin[a] = Math.min(cMin[a], c[3 * t + a]);
+                cMax[a] = Math.max(cMax[a], c[3 * t + a]);
+            }
+        }
+        if (to - from <= LEAF_SIZE) {
+            nChild[node] = -1;
+            nStart[node] = from;
+            nCount[node] = to - from;
+            return next;
+        }
+        int axis = 0;
+        for (int a = 1; a < 3; ++a)
+            if (cMax[a] - cMin[a] > cMax[axis] - cMin[axis]) axis = a;
+        int mid = (from + to) >>> 1;
+        select(from, to - 1, mid, axis, c);
+        nChild[node] = next;
+        next = build(nChild[node], next + 2, from, mid, c, nb, nChild, nStart, nCount);
+        return build(nChild[node] + 1, next, mid, to, c, nb, nChild, nStart, nCount);
+    }
+
+    /**
+     * Partially sorts a range of {@link #order} by the triangle centers along
+     * an axis, so that the k-th triangle is in place (quickselect)
+     *
+     * @param left  first position of the range
+     * @param right last position of the range (inclusive)
+     * @param k     the position to put in place
+     * @param axis  the axis
+     * @param c     the triangle centers
+     */
+    private void select(int left, int right, int k, int axis, double[] c) {
+        while (left < right) {
+            double pivot = c[3 * order[(left + right) >>> 1] + axis];
+            int i = left, j = right;
+            while (i <= j) {
+                while (c[3 * order[i] + axis] < pivot) ++i;
+                while (c[3 * order[j] + axis] > pivot) --j;
+                if (i <= j) {
+                    int t = order[i];
+                    order[i++] = order[j];
+                    order[j--] = t;
+                }
+            }
+            if (k <= j) right = j;
+            else if (k >= i) left = i;
+            else return;
+        }
+    }
+
+    /**
+     * Returns a vertex coordinate
+     *
+     * @param vertex the vertex index
+     * @param axis   the axis
+     * @return the coordinate
+     */
+    private double coordinate(int vertex, int axis) {
+        return positions[3 * vertex + axis];
+    }
+
+    /**
+     * Returns the amount of vertices
+     *
+     * @return the amount of vertices
+     */
+    public int getVertexCount() {
+        return positions.length / 3;
+    }
+
+    /**
+     * Returns the amount of triangles
+     *
+     * @return the amount of triangles
+     */
+    public int getTriangleCount() {
+        return indices.length / 3;
+    }
+
+    /**
+     * Returns a vertex
+     *
+     * @param vertex the vertex index
+     * @return the vertex
+     */
+    public Point getVertex(int vertex) {
+        return new Point(coordinate(vertex, 0), coordinate(vertex, 1), coordinate(vertex, 2));
+    }
+
+    /**
+     * Calculates the average length of the triangle edges - the size of the
+     * details of the mesh
+     *
+     * @return the average edge length
+     */
+    public double getFeatureSize() {
+        double sum = 0;
+        for (int t = 0; t < indices.length; t += 3)
+            for (int k = 0; k < 3; ++k) {
+                int a = indices[t + k], b = indices[t + (k + 1) % 3];
+                double dx = coordinate(a, 0) - coordinate(b, 0), dy = coordinate(a, 1) - coordinate(b, 1),
+                        dz = coordinate(a, 2) - coordinate(b, 2);
+                sum += Math.sqrt(dx * dx + dy * dy + dz * dz);
+            }
+        return sum / indices.length;
+    }
+
+    /**
+     * Returns the size of the arrays of the mesh (shared arrays included)
+     *
+     * @return the size in bytes
+     */
+    public long sizeInBytes() {
+        return 4L * (positions.length + indices.length + bounds.length + child.length + start.length
+                + count.length + order.length);
+    }
+
+    /**
+     * Creates a translated copy of the mesh, with the same appearance. The copy
+     * shares the triangles and the topology of the hierarchy, so only its
+     * vertices and boxes take memory
+     *
+     * @param offset the translation
+     * @return the translated mesh
+     */
+    public TriangleMesh translate(Vector offset) {
+        return new TriangleMesh(this, offset.getX(), offset.getY(), offset.getZ());
+    }
+
+    @Override
+    public TriangleMesh setEmission(Color emission) {
+        super.setEmission(emission);
+        return this;
+    }
+
+    @Override
+    public TriangleMesh setMaterial(Material material) {
+        super.setMaterial(material);
+        return this;
+    }
+
+    /**
+     * Calculates the unit normal of a triangle
+     *
+     * @param triangle the triangle index
+     * @return the normal, by the right-hand rule over the vertex order
+     */
+    private Vector normal(int triangle) {
+        int a = indices[3 * triangle], b = indices[3 * triangle + 1], c = indices[3 * triangle + 2];
+        double ux = coordinate(b, 0) - coordinate(a, 0), uy = coordinate(b, 1) - coordinate(a, 1),
+                uz = coordinate(b, 2) - coordinate(a, 2);
+        double vx = coordinate(c, 0) - coordinate(a, 0), vy = coordinate(c, 1) - coordinate(a, 1),
+                vz = coordinate(c, 2) - coordinate(a, 2);
+        return new Vector(uy * vz - uz * vy, uz * vx - ux * vz, ux * vy - uy * vx).normalize();
+    }
+
+    /**
+     * Returns the normal of the triangle nearest to a point. The intersections
+     * carry their triangles, so this linear search serves only points obtained
+     * otherwise
+     *
+     * @param point the point on the mesh
+     * @return the normal of the nearest triangle
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        int nearest = 0;
+        double best = Double.POSITIVE_INFINITY;
+        for (int t = 0; t < indices.length / 3; ++t) {
+            Vector n = normal(t);
+            double distance = Math.abs(n.dotProduct(point.subtract(getVertex(indices[3 * t]))));
+            double cx = 0, cy = 0, cz = 0;
+            for (int k = 0; k < 3; ++k) {
+                cx += coordinate(indices[3 * t + k], 0) / 3;
+                cy += coordinate(indices[3 * t + k], 1) / 3;
+                cz += coordinate(indices[3 * t + k], 2) / 3;
+            }
+            // prefer the plane through the point, then the nearest center
+            double score = distance * 1e6 + point.distanceSquared(new Point(cx, cy, cz));
+            if (score < best) {
+                best = score;
+                nearest = t;
+            }
+        }
+        return normal(nearest);
+    }
+
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add("TriangleMesh").add(positions.length).add(indices.length);
+        for (float coordinate : positions) hash.add(coordinate);
+        for (int index : indices) hash.add(index);
+        hashAppearance(hash);
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return new BoundingBox(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        Point origin = ray.origin();
+        Vector direction = ray.direction();
+        double ox = origin.getX(), oy = origin.getY(), oz = origin.getZ();
+        double dx = direction.getX(), dy = direction.getY(), dz = direction.getZ();
+        double invDx = 1 / dx, invDy = 1 / dy, invDz = 1 / dz;
+
+        List<GeoPoint> result = null;
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int n = stack[--top];
+            int o = 6 * n;
+            if (!BoundingBox.slab(ox, invDx, oy, invDy, oz, invDz,
+                    bounds[o], bounds[o + 1], bounds[o + 2], bounds[o + 3], bounds[o + 4], bounds[o + 5],
+                    maxDistance))
+                continue;
+            if (child[n] < 0) {
+                for (int i = start[n], end = i + count[n]; i < end; ++i) {
+                    double t = intersect(order[i], ox, oy, oz, dx, dy, dz);
+                    if (t > 0 && Util.alignZero(t - maxDistance) <= 0) {
+                        if (result == null) result = new ArrayList<>(2);
+                        result.add(new GeoPoint(new Face(order[i]), ray.getPoint(t)));
+                    }
+                }
+            } else {
+                if (top + 2 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                stack[top++] = child[n] + 1;
+                stack[top++] = child[n];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Intersects a ray with a triangle (Möller-Trumbore)
+     *
+     * @param triangle the triangle index
+     * @param ox       ray origin x
+     * @param oy       ray origin y
+     * @param oz       ray origin z
+     * @param dx       ray direction x
+     * @param dy       ray direction y
+     * @param dz       ray direction z
+     * @return the distance of the intersection, or NaN if there is none
+     */
+    private double intersect(int triangle, double ox, double oy, double oz, double dx, double dy, double dz) {
+        int a = 3 * indices[3 * triangle], b = 3 * indices[3 * triangle + 1], c = 3 * indices[3 * triangle + 2];
+        double ax = positions[a], ay = positions[a + 1], az = positions[a + 2];
+        double e1x = positions[b] - ax, e1y = positions[b + 1] - ay, e1z = positions[b + 2] - az;
+        double e2x = positions[c] - ax, e2y = positions[c + 1] - ay, e2z = positions[c + 2] - az;
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (Util.isZero(det)) return Double.NaN; // parallel to the triangle
+        double inv = 1 / det;
+        double sx = ox - ax, sy = oy - ay, sz = oz - az;
+        double u = (sx * px + sy * py + sz * pz) * inv;
+        if (u < 0 || u > 1) return Double.NaN;
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = (dx * qx + dy * qy + dz * qz) * inv;
+        if (v < 0 || u + v > 1) return Double.NaN;
+        return Util.alignZero((e2x * qx + e2y * qy + e2z * qz) * inv);
+    }
+
+    /**
+     * A triangle of the mesh hit by a ray - it has the appearance of the mesh
+     */
+    private final class Face extends Geometry {
+        /**
+         * The triangle index
+         */
+        private final int triangle;
+
+        /**
+         * Constructs a face
+         *
+         * @param triangle the triangle index
+         */
+        Face(int triangle) {
+            this.triangle = triangle;
+        }
+
+        @Override
+        public Vector getNormal(Point point) {
+            return normal(triangle);
+        }
+
+        @Override
+        public Color getEmission() {
+            return TriangleMesh.this.getEmission();
+        }
+
+        @Override
+        public Material getMaterial() {
+            return TriangleMesh.this.getMaterial();
+        }
+
+        @Override
+        public void hash(ContentHash hash) {
+            TriangleMesh.this.hash(hash);
+            hash.add(triangle);
+        }
+
+        @Override
+        public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+            Point o = ray.origin();
+            Vector d = ray.direction();
+            double t = intersect(triangle, o.getX(), o.getY(), o.getZ(), d.getX(), d.getY(), d.getZ());
+            return t > 0 && Util.alignZero(t - maxDistance) <= 0 ? List.of(new GeoPoint(this, ray.getPoint(t))) : null;
+        }
+    }
+
+    /**
+     * An edge collapse candidate
+     *
+     * @param cost     the quadric error of the collapse
+     * @param a        the kept vertex
+     * @param b        the removed vertex
+     * @param aVersion version of the kept vertex when the candidate was made
+     * @param bVersion version of the removed vertex when the candidate was made
+     * @param x        x of the new position of the kept vertex
+     * @param y        y of the new position
+     * @param z        z of the new position
+     */
+    private record Collapse(double cost, int a, int b, int aVersion, int bVersion, double x, double y, double z) {
+    }
+
+    /**
+     * Simplifies the mesh by collapsing the edges of the least quadric error
+     * one after the other. Each vertex accumulates the quadric of the planes of
+     * its original triangles (weighted by their areas); an edge collapses into
+     * the point minimizing the sum of the quadrics of its vertices. Boundary
+     * edges are held by additional perpendicular planes, and collapses that
+     * would flip a triangle are skipped
+     *
+     * @param targetTriangles the amount of triangles to reduce the mesh to
+     * @return the simplified mesh with the same appearance, or the mesh itself
+     * if it is not larger than the target
+     * @throws IllegalArgumentException if the target is not positive
+     */
+    public TriangleMesh simplify(int targetTriangles) {
+        if (targetTriangles < 1)
+            throw new IllegalArgumentException("Target amount of triangles must be positive");
+        int nf = indices.length / 3;
+        if (nf <= targetTriangles) return this;
+        int nv = positions.length / 3;
+        double[] pos = new double[3 * nv];
+        for (int i = 0; i < pos.length; ++i) pos[i] = positions[i];
+        int[] tri = indices.clone();
+        boolean[] faceRemoved = new boolean[nf];
+        boolean[] vertexRemoved = new boolean[nv];
+        int[] version = new int[nv];
+        double[] quadrics = new double[10 * nv];
+
+        // face planes, and the count of faces of every edge to find the boundary
+        Map<Long, Integer> edgeFaces = new HashMap<>();
+        for (int f = 0; f < nf; ++f) {
+            double[] plane = plane(pos, tri, f);
+            if (plane == null) continue;
+            for (int k = 0; k < 3; ++k) {
+                addQuadric(quadrics, tri[3 * f + k], plane[0], plane[1], plane[2], plane[3], plane[4]);
+                edgeFaces.merge(edgeKey(tri[3 * f + k], tri[3 * f + (k + 1) % 3], nv), 1, Integer::sum);
+            }
+        }
+        for (int f = 0; f < nf; ++f) {
+            double[] plane = plane(pos, tri, f);
+            if (plane == null) continue;
+            for (int k = 0; k < 3; ++k) {
+                int a = tri[3 * f + k], b = tri[3 * f + (k + 1) % 3];
+                if (edgeFaces.get(edgeKey(a, b, nv)) != 1) continue;
+                // the plane through the boundary edge perpendicular to its face
+                double ex = pos[3 * b] - pos[3 * a], ey = pos[3 * b + 1] - pos[3 * a + 1],
+                        ez = pos[3 * b + 2] - pos[3 * a + 2];
+                double px = ey * plane[2] - ez * plane[1], py = ez * plane[0] - ex * plane[2],
+                        pz = ex * plane[1] - ey * plane[0];
+                double length = Math.sqrt(px * px + py * py + pz * pz);
+                if (length == 0) continue;
+                px /= length;
+                py /= length;
+                pz /= length;
+                double d = -(px * pos[3 * a] + py * pos[3 * a + 1] + pz * pos[3 * a + 2]);
+                double weight = BOUNDARY_WEIGHT * (ex * ex + ey * ey + ez * ez);
+                addQuadric(quadrics, a, px, py, pz, d, weight);
+                addQuadric(quadrics, b, px, py, pz, d, weight);
+            }
+        }
+
+        // the faces around every vertex
+        int[][] faces = new int[nv][];
+        int[] faceCount = new int[nv];
+        for (int index : tri) ++faceCount[index];
+        for (int v = 0; v < nv; ++v) faces[v] = new int[Math.max(4, faceCount[v])];
+        Arrays.fill(faceCount, 0);
+        for (int f = 0; f < nf; ++f)
+            for (int k = 0; k < 3; ++k) {
+                int v = tri[3 * f + k];
+                faces[v][faceCount[v]++] = f;
+            }
+
+        PriorityQueue<Collapse> queue = new PriorityQueue<>((c1, c2) -> Double.compare(c1.cost, c2.cost));
+        for (long key : edgeFaces.keySet())
+            queue.add(collapse(quadrics, pos, version, (int) (key / nv), (int) (key % nv)));
+
+        int remaining = nf;
+        while (remaining > targetTriangles && !queue.isEmpty()) {
+            Collapse c = queue.poll();
+            int a = c.a, b = c.b;
+            if (vertexRemoved[a] || vertexRemoved[b] || version[a] != c.aVersion || version[b] != c.bVersion)
+                continue;
+            if (flips(pos, tri, faceRemoved, faces[a], faceCount[a], a, b, c)
+                    || flips(pos, tri, faceRemoved, faces[b], faceCount[b], b, a, c))
+                continue;
+
+            pos[3 * a] = c.x;
+            pos[3 * a + 1] = c.y;
+            pos[3 * a + 2] = c.z;
+            for (int i = 0; i < 10; ++i) quadrics[10 * a + i] += quadrics[10 * b + i];
+            vertexRemoved[b] = true;
+            for (int i = 0; i < faceCount[b]; ++i) {
+                int f = faces[b][i];
+                if (faceRemoved[f]) continue;
+                if (tri[3 * f] == a || tri[3 * f + 1] == a || tri[3 * f + 2] == a) {
+                    faceRemoved[f] = true;
+                    --remaining;
+                    continue;
+                }
+                for (int k = 0; k < 3; ++k)
+                    if (tri[3 * f + k] == b) tri[3 * f + k] = a;
+                if (faceCount[a] == faces[a].length) faces[a] = Arrays.copyOf(faces[a], 2 * faces[a].length);
+                faces[a][faceCount[a]++] = f;
+            }
+            // drop the removed faces of the kept vertex
+            int live = 0;
+            for (int i = 0; i < faceCount[a]; ++i)
+                if (!faceRemoved[faces[a][i]]) faces[a][live++] = faces[a][i];
+            faceCount[a] = live;
+            ++version[a];
+
+            // new candidates along the edges of the kept vertex
+            for (int i = 0; i < faceCount[a]; ++i) {
+                int f = faces[a][i];
+                for (int k = 0; k < 3; ++k) {
+                    int n = tri[3 * f + k];
+                    if (n != a) queue.add(collapse(quadrics, pos, version, a, n));
+                }
+            }
+        }
+
+        // compact the surviving vertices and triangles
+        int[] remap = new int[nv];
+        Arrays.fill(remap, -1);
+        float[] outPositions = new float[3 * nv];
+        int[] outIndices = new int[3 * remaining];
+        int vertices = 0, triangles = 0;
+        for (int f = 0; f < nf; ++f) {
+            if (faceRemoved[f]) continue;
+            for (int k = 0; k < 3; ++k) {
+                int v = tri[3 * f + k];
+                if (remap[v] < 0) {
+                    remap[v] = vertices;
+                    outPositions[3 * vertices] = (float) pos[3 * v];
+                    outPositions[3 * vertices + 1] = (float) pos[3 * v + 1];
+                    outPositions[3 * vertices + 2] = (float) pos[3 * v + 2];
+                    ++vertices;
+                }
+                outIndices[3 * triangles + k] = remap[v];
+            }
+            ++triangles;
+        }
+        TriangleMesh simplified = new TriangleMesh(Arrays.copyOf(outPositions, 3 * vertices),
+                Arrays.copyOf(outIndices, 3 * triangles));
+        simplified.emission = emission;
+        simplified.setMaterial(getMaterial());
+        return simplified;
+    }
+
+    /**
+     * Calculates the plane of a triangle during simplification
+     *
+     * @param pos the vertex positions
+     * @param tri the triangles
+     * @param f   the triangle index
+     * @return the unit normal, the plane offset and the triangle area, or null
+     * for a degenerate triangle
+     */
+    private static double[] plane(double[] pos, int[] tri, int f) {
+        int a = 3 * tri[3 * f], b = 3 * tri[3 * f + 1], c = 3 * tri[3 * f + 2];
+        double ux = pos[b] - pos[a], uy = pos[b + 1] - pos[a + 1], uz = pos[b + 2] - pos[a + 2];
+        double vx = pos[c] - pos[a], vy = pos[c + 1] - pos[a + 1], vz = pos[c + 2] - pos[a + 2];
+        double nx = uy * vz - uz * vy, ny = uz * vx - ux * vz, nz = ux * vy - uy * vx;
+        double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if (length == 0) return null;
+        nx /= length;
+        ny /= length;
+        nz /= length;
+        return new double[]{nx, ny, nz, -(nx * pos[a] + ny * pos[a + 1] + nz * pos[a + 2]), length / 2};
+    }
+
+    /**
+     * Adds the weighted quadric of a plane to a vertex quadric - the upper
+     * triangle of the 4x4 matrix (a b c d)ᵀ(a b c d), row by row
+     *
+     * @param quadrics the vertex quadrics, 10 values per vertex
+     * @param v        the vertex
+     * @param a        plane normal x
+     * @param b        plane normal y
+     * @param c        plane normal z
+     * @param d        plane offset
+     * @param w        the weight
+     */
+    private static void addQuadric(double[] quadrics, int v, double a, double b, double c, double d, double w) {
+        int q = 10 * v;
+        quadrics[q] += w * a * a;
+        quadrics[q + 1] += w * a * b;
+        quadrics[q + 2] += w * a * c;
+        quadrics[q + 3] += w * a * d;
+        quadrics[q + 4] += w * b * b;
+        quadrics[q + 5] += w * b * c;
+        quadrics[q + 6] += w * b * d;
+        quadrics[q + 7] += w * c * c;
+        quadrics[q + 8] += w * c * d;
+        quadrics[q + 9] += w * d * d;
+    }
+
+    /**
+     * Calculates the key of an undirected edge
+     *
+     * @param a  a vertex
+     * @param b  the other vertex
+     * @param nv the amount of vertices
+     * @return the key
+     */
+    private static long edgeKey(int a, int b, int nv) {
+        return a < b ? (long) a * nv + b : (long) b * nv + a;
+    }
+
+    /**
+     * Calculates the best collapse of an edge - into the point minimizing the
+     * summed quadric, or the best of the end points and the middle when the
+     * quadric has no well-defined minimum
+     *
+     * @param quadrics the vertex quadrics
+     * @param pos      the vertex positions
+     * @param version  the vertex versions
+     * @param a        the kept vertex
+     * @param b        the removed vertex
+     * @return the collapse
+     */
+    private static Collapse collapse(double[] quadrics, double[] pos, int[] version, int a, int b) {
+        double[] q = new double[10];
+        for (int i = 0; i < 10; ++i) q[i] = quadrics[10 * a + i] + quadrics[10 * b + i];
+        double ax = pos[3 * a], ay = pos[3 * a + 1], az = pos[3 * a + 2];
+        double bx = pos[3 * b], by = pos[3 * b + 1], bz = pos[3 * b + 2];
+        double mx = (ax + bx) / 2, my = (ay + by) / 2, mz = (az + bz) / 2;
+        double length2 = (ax - bx) * (ax - bx) + (ay - by) * (ay - by) + (az - bz) * (az - bz);
+
+        // solve the gradient of the quadric = 0 by Cramer's rule
+        double det = q[0] * (q[4] * q[7] - q[5] * q[5]) - q[1] * (q[1] * q[7] - q[5] * q[2])
+                + q[2] * (q[1] * q[5] - q[4] * q[2]);
+        if (Math.abs(det) > 1e-12 * Math.pow(q[0] + q[4] + q[7], 3)) {
+            double x = -(q[3] * (q[4] * q[7] - q[5] * q[5]) - q[1] * (q[6] * q[7] - q[5] * q[8])
+                    + q[2] * (q[6] * q[5] - q[4] * q[8])) / det;
+            double y = -(q[0] * (q[6] * q[7] - q[8] * q[5]) - q[3] * (q[1] * q[7] - q[5] * q[2])
+                    + q[2] * (q[1] * q[8] - q[6] * q[2])) / det;
+            double z = -(q[0] * (q[4] * q[8] - q[5] * q[6]) - q[1] * (q[1] * q[8] - q[6] * q[2])
+                    + q[3] * (q[1] * q[5] - q[4] * q[2])) / det;
+            // a far optimum means a nearly singular quadric - not to be trusted
+            double dx = x - mx, dy = y - my, dz = z - mz;
+            if (dx * dx + dy * dy + dz * dz <= 4 * length2)
+                return new Collapse(error(q, x, y, z), a, b, version[a], version[b], x, y, z);
+        }
+        double ea = error(q, ax, ay, az), eb = error(q, bx, by, bz), em = error(q, mx, my, mz);
+        if (ea <= eb && ea <= em) return new Collapse(ea, a, b, version[a], version[b], ax, ay, az);
+        if (eb <= em) return new Collapse(eb, a, b, version[a], version[b], bx, by, bz);
+        return new Collapse(em, a, b, version[a], version[b], mx, my, mz);
+    }
+
+    /**
+     * Evaluates a quadric at a point
+     *
+     * @param q the quadric
+     * @param x the point x
+     * @param y the point y
+     * @param z the point z
+     * @return the quadric error
+     */
+    private static double error(double[] q, double x, double y, double z) {
+        return q[0] * x * x + 2 * q[1] * x * y + 2 * q[2] * x * z + 2 * q[3] * x
+                + q[4] * y * y + 2 * q[5] * y * z + 2 * q[6] * y
+                + q[7] * z * z + 2 * q[8] * z + q[9];
+    }
+
+    /**
+     * Checks whether moving a vertex of a collapse would flip one of its
+     * triangles (other than the collapsing ones) or make it degenerate
+     *
+     * @param pos         the vertex positions
+     * @param tri         the triangles
+     * @param faceRemoved the removed triangles
+     * @param faces       the triangles around the vertex
+     * @param count       amount of triangles around the vertex
+     * @param v           the moved vertex
+     * @param other       the other vertex of the edge
+     * @param c           the collapse
+     * @return true if a triangle would flip
+     */
+    private static boolean flips(double[] pos, int[] tri, boolean[] faceRemoved, int[] faces, int count,
+                                 int v, int other, Collapse c) {
+        for (int i = 0; i < count; ++i) {
+            int f = faces[i];
+            if (faceRemoved[f]) continue;
+            int k = tri[3 * f] == v ? 0 : tri[3 * f + 1] == v ? 1 : 2;
+            int p = tri[3 * f + (k + 1) % 3], r = tri[3 * f + (k + 2) % 3];
+            if (p == other || r == other) continue;
+            double ux = pos[3 * p] - pos[3 * v], uy = pos[3 * p + 1] - pos[3 * v + 1], uz = pos[3 * p + 2] - pos[3 * v + 2];
+            double wx = pos[3 * r] - pos[3 * v], wy = pos[3 * r + 1] - pos[3 * v + 1], wz = pos[3 * r + 2] - pos[3 * v + 2];
+            double ox = uy * wz - uz * wy, oy = uz * wx - ux * wz, oz = ux * wy - uy * wx;
+            ux = pos[3 * p] - c.x;
+            uy = pos[3 * p + 1] - c.y;
+            uz = pos[3 * p + 2] - c.z;
+            wx = pos[3 * r] - c.x;
+            wy = pos[3 * r + 1] - c.y;
+            wz = pos[3 * r + 2] - c.z;
+            double nx = uy * wz - uz * wy, ny = uz * wx - ux * wz, nz = ux * wy - uy * wx;
+            if (ox * nx + oy * ny + oz * nz <= 0) return true;
+        }
+        return false;
+    }
+}
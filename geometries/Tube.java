@@ -1,9 +1,12 @@
 package geometries;
 
+import primitives.ContentHash;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.List;
+
 import static primitives.Util.isZero;
 
 /**
@@ -50,7 +53,23 @@ public class Tube extends RadialGeometry {
     }
 
     @Override
-    public java.util.List<primitives.Point> findIntersections(Ray ray) {
-        return null;
+    public void hash(ContentHash hash) {
+        hash.add(getClass().getSimpleName()).add(axisRay).add(radius);
+        hashAppearance(hash);
+    }
+
+    /**
+     * A tube is infinite along its axis
+     *
+     * @return {@link BoundingBox#UNBOUNDED}
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        return BoundingBox.UNBOUNDED;
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        return QuadraticSolver.tube(this, ray, axisRay, radiusSquared, maxDistance);
     }
 }
\ No newline at end of file
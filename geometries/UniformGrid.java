@@ -0,0 +1,365 @@
+package geometries;
+
+import primitives.ContentHash;
+import primitives.ContentHashable;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uniform grid (voxel) aggregate over a collection of intersectables.
+ * <p>
+ * The bounds of the scene are divided into equal cells; every cell lists the
+ * items whose boxes overlap it. A ray walks only the cells it pierces, in
+ * order, using a 3D digital differential analyzer. The resolution is chosen
+ * automatically so that there are about {@link #DENSITY} cells per item, with
+ * cube-like cells. An item spanning several cells is tested only once per ray
+ * thanks to a per-thread mailbox.
+ * <p>
+ * Grids suit scenes of many similar-sized objects (e.g. particle clouds); their
+ * build time is linear and a query touches few cells, while scenes with very
+ * uneven object density are better served by a
+ * {@link BoundingVolumeHierarchy}.
+ *
+ * @author Raphael
+ */
+public class UniformGrid implements Intersectable, ContentHashable {
+    /**
+     * Desired amount of cells per item
+     */
+    private static final double DENSITY = 3;
+    /**
+     * Maximal resolution along a single axis
+     */
+    private static final int MAX_RESOLUTION = 256;
+
+    /**
+     * Bounded items, indexed by the cell lists
+     */
+    private final Intersectable[] items;
+    /**
+     * Items without finite bounds, tested for every ray
+     */
+    private final Intersectable[] unbounded;
+    /**
+     * The grid bounds: min x, y, z and max x, y, z
+     */
+    private final double[] bounds = new double[6];
+    /**
+     * Amount of cells along each axis
+     */
+    private final int[] resolution = new int[3];
+    /**
+     * Cell size along each axis
+     */
+    private final double[] cellSize = new double[3];
+    /**
+     * Index in {@link #cellItems} of the first item of each cell; the items of
+     * cell c are {@code cellItems[cellStart[c] .. cellStart[c + 1])}
+     */
+    private final int[] cellStart;
+    /**
+     * Item indices of all the cells, cell after cell
+     */
+    private final int[] cellItems;
+    /**
+     * Per thread mailboxes - the last ray that has tested each item
+     */
+    private final ThreadLocal<Mailbox> mailboxes;
+
+    /**
+     * Per thread record of the items already tested by the current ray
+     */
+    private static final class Mailbox {
+        /**
+         * Ray stamp per item
+         */
+        private final int[] stamps;
+        /**
+         * Stamp of the current ray
+         */
+        private int ray = 0;
+
+        /**
+         * Constructs a mailbox for a given amount of items
+         *
+         * @param size amount of items
+         */
+        Mailbox(int size) {
+            stamps = new int[size];
+        }
+
+        /**
+         * Starts a new ray
+         */
+        void next() {
+            if (++ray == 0) { // wrapped around - old stamps may look current
+                Arrays.fill(stamps, 0);
+                ray = 1;
+            }
+        }
+
+        /**
+         * Marks an item as tested by the current ray
+         *
+         * @param item the item index
+         * @return true if the item has not been tested by the current ray yet
+         */
+        boolean mark(int item) {
+            if (stamps[item] == ray) return false;
+            stamps[item] = ray;
+            return true;
+        }
+    }
+
+    /**
+     * Constructs a grid over the given items
+     *
+     * @param items the intersectables to hold
+     */
+    public UniformGrid(Intersectable... items) {
+        List<Intersectable> bounded = new ArrayList<>(items.length);
+        List<Intersectable> infinite = new ArrayList<>();
+        for (Intersectable item : items)
+            (item.getBoundingBox().isBounded() ? bounded : infinite).add(item);
+        this.items = bounded.toArray(new Intersectable[0]);
+        this.unbounded = infinite.toArray(new Intersectable[0]);
+        int size = this.items.length;
+        mailboxes = ThreadLocal.withInitial(() -> new Mailbox(size));
+
+        double[] itemBounds = new double[6 * size];
+        bounds[0] = bounds[1] = bounds[2] = Double.POSITIVE_INFINITY;
+        bounds[3] = bounds[4] = bounds[5] = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; ++i) {
+            BoundingBox box = this.items[i].getBoundingBox();
+            double[] b = {box.minX(), box.minY(), box.minZ(), box.maxX(), box.maxY(), box.maxZ()};
+            System.arraycopy(b, 0, itemBounds, 6 * i, 6);
+            for (int a = 0; a < 3; ++a) {
+                bounds[a] = Math.min(bounds[a], b[a]);
+                bounds[a + 3] = Math.max(bounds[a + 3], b[a + 3]);
+            }
+        }
+        if (size == 0) {
+            cellStart = new int[1];
+            cellItems = new int[0];
+            return;
+        }
+
+        chooseResolution(size);
+        int cells = resolution[0] * resolution[1] * resolution[2];
+
+        // counting pass, then prefix sums, then filling pass
+        cellStart = new int[cells + 1];
+        int[] range = new int[6];
+        for (int i = 0; i < size; ++i) {
+            cellRange(itemBounds, i, range);
+            for (int z = range[2]; z <= range[5]; ++z)
+                for (int y = range[1]; y <= range[4]; ++y)
+                    for (int x = range[0]; x <= range[3]; ++x)
+                        ++cellStart[cell(x, y, z) + 1];
+        }
+        for (int c = 0; c < cells; ++c)
+            cellStart[c + 1] += cellStart[c];
+        cellItems = new int[cellStart[cells]];
+        int[] fill = Arrays.copyOf(cellStart, cells);
+        for (int i = 0; i < size; ++i) {
+            cellRange(itemBounds, i, range);
+            for (int z = range[2]; z <= range[5]; ++z)
+                for (int y = range[1]; y <= range[4]; ++y)
+                    for (int x = range[0]; x <= range[3]; ++x)
+                        cellItems[fill[cell(x, y, z)]++] = i;
+        }
+    }
+
+    /**
+     * Constructs a grid over the given items
+     *
+     * @param items the intersectables to hold
+     */
+    public UniformGrid(List<? extends Intersectable> items) {
+        this(items.toArray(new Intersectable[0]));
+    }
+
+    /**
+     * Chooses the grid resolution from the amount of items and the scene bounds:
+     * the cells are (nearly) cubes and their amount is about
+     * {@link #DENSITY} times the amount of items
+     *
+     * @param size amount of items
+     */
+    private void chooseResolution(int size) {
+        double[] extent = new double[3];
+        double maxExtent = 0;
+        for (int a = 0; a < 3; ++a) {
+            extent[a] = bounds[a + 3] - bounds[a];
+            maxExtent = Math.max(maxExtent, extent[a]);
+        }
+        // flat or point-like scenes still need a positive volume
+        double minExtent = maxExtent > 0 ? maxExtent * 1e-3 : 1;
+        double volume = 1;
+        for (int a = 0; a < 3; ++a) {
+            extent[a] = Math.max(extent[a], minExtent);
+            volume *= extent[a];
+        }
+        double cellsPerUnit = Math.cbrt(DENSITY * size / volume);
+        for (int a = 0; a < 3; ++a) {
+            resolution[a] = (int) Math.max(1, Math.min(MAX_RESOLUTION, Math.round(extent[a] * cellsPerUnit)));
+            // make the bounds exactly as large as the (possibly padded) extent
+            bounds[a + 3] = bounds[a] + extent[a];
+            cellSize[a] = extent[a] / resolution[a];
+        }
+    }
+
+    /**
+     * Calculates the range of cells overlapped by an item
+     *
+     * @param itemBounds the item boxes
+     * @param i          the item index
+     * @param range      output: min x, y, z cell and max x, y, z cell
+     */
+    private void cellRange(double[] itemBounds, int i, int[] range) {
+        for (int a = 0; a < 3; ++a) {
+            range[a] = clampCell(a, (itemBounds[6 * i + a] - bounds[a]) / cellSize[a]);
+            range[a + 3] = clampCell(a, (itemBounds[6 * i + a + 3] - bounds[a]) / cellSize[a]);
+        }
+    }
+
+    /**
+     * Converts a position in cell units along an axis to a valid cell index
+     *
+     * @param axis     the axis
+     * @param position the position in cell units from the lower grid bound
+     * @return the cell index
+     */
+    private int clampCell(int axis, double position) {
+        return Math.max(0, Math.min(resolution[axis] - 1, (int) position));
+    }
+
+    /**
+     * Calculates the linear index of a cell
+     *
+     * @param x the cell x index
+     * @param y the cell y index
+     * @param z the cell z index
+     * @return the linear cell index
+     */
+    private int cell(int x, int y, int z) {
+        return (z * resolution[1] + y) * resolution[0] + x;
+    }
+
+    /**
+     * Returns the amount of cells along each axis
+     *
+     * @return the resolution (x, y, z)
+     */
+    public int[] getResolution() {
+        return resolution.clone();
+    }
+
+    /**
+     * Feeds the items into a content hash
+     *
+     * @param hash the hash to feed
+     * @throws IllegalStateException if an item cannot be content hashed
+     */
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add("UniformGrid").add(items.length + unbounded.length);
+        for (Intersectable[] group : new Intersectable[][]{items, unbounded})
+            for (Intersectable item : group) {
+                if (!(item instanceof ContentHashable hashable))
+                    throw new IllegalStateException(item.getClass().getName() + " cannot be content hashed");
+                hash.add(hashable);
+            }
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        if (unbounded.length > 0) return BoundingBox.UNBOUNDED;
+        if (items.length == 0) return new BoundingBox(0, 0, 0, 0, 0, 0);
+        return new BoundingBox(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        List<GeoPoint> result = null;
+        for (Intersectable item : unbounded)
+            result = merge(result, item.findGeoIntersections(ray, maxDistance));
+        if (items.length == 0) return result;
+
+        Point origin = ray.origin();
+        Vector direction = ray.direction();
+        double[] o = {origin.getX(), origin.getY(), origin.getZ()};
+        double[] d = {direction.getX(), direction.getY(), direction.getZ()};
+
+        // distance at which the ray enters the grid
+        double tNear = 0, tFar = maxDistance;
+        for (int a = 0; a < 3; ++a) {
+            double inv = 1 / d[a];
+            double t0 = (bounds[a] - o[a]) * inv, t1 = (bounds[a + 3] - o[a]) * inv;
+            if (t0 > t1) { double t = t0; t0 = t1; t1 = t; }
+            if (t0 > tNear) tNear = t0;
+            if (t1 < tFar) tFar = t1;
+        }
+        if (tNear > tFar) return result;
+
+        // DDA set up: current cell, step direction, distance to the next cell
+        // boundary and distance between boundaries along each axis
+        int[] cell = new int[3], step = new int[3];
+        double[] tNext = new double[3], tDelta = new double[3];
+        for (int a = 0; a < 3; ++a) {
+            double entry = o[a] + d[a] * tNear;
+            cell[a] = clampCell(a, (entry - bounds[a]) / cellSize[a]);
+            if (d[a] > 0) {
+                step[a] = 1;
+                tDelta[a] = cellSize[a] / d[a];
+                tNext[a] = tNear + (bounds[a] + (cell[a] + 1) * cellSize[a] - entry) / d[a];
+            } else if (d[a] < 0) {
+                step[a] = -1;
+                tDelta[a] = -cellSize[a] / d[a];
+                tNext[a] = tNear + (bounds[a] + cell[a] * cellSize[a] - entry) / d[a];
+            } else {
+                step[a] = 0;
+                tDelta[a] = Double.POSITIVE_INFINITY;
+                tNext[a] = Double.POSITIVE_INFINITY;
+            }
+        }
+
+        Mailbox mailbox = mailboxes.get();
+        mailbox.next();
+        while (true) {
+            int c = cell(cell[0], cell[1], cell[2]);
+            for (int k = cellStart[c], end = cellStart[c + 1]; k < end; ++k) {
+                int item = cellItems[k];
+                if (mailbox.mark(item))
+                    result = merge(result, items[item].findGeoIntersections(ray, maxDistance));
+            }
+            int a = tNext[0] < tNext[1]
+                    ? (tNext[0] < tNext[2] ? 0 : 2)
+                    : (tNext[1] < tNext[2] ? 1 : 2);
+            if (tNext[a] > tFar) break;
+            cell[a] += step[a];
+            if (cell[a] < 0 || cell[a] >= resolution[a]) break;
+            tNext[a] += tDelta[a];
+        }
+        return result;
+    }
+
+    /**
+     * Appends intersections to a result list, creating it on demand
+     *
+     * @param result the result so far (may be null)
+     * @param points the intersections to append (may be null)
+     * @return the result list, null if there are no intersections at all
+     */
+    private static List<GeoPoint> merge(List<GeoPoint> result, List<GeoPoint> points) {
+        if (points == null || points.isEmpty()) return result;
+        if (result == null) result = new ArrayList<>(points.size());
+        result.addAll(points);
+        return result;
+    }
+}
@@ -0,0 +1,25 @@
+package lighting;
+
+import primitives.Color;
+
+/**
+ * Class AmbientLight represents the light that illuminates every point of the
+ * scene evenly
+ *
+ * @author Raphael
+ */
+public class AmbientLight extends Light {
+    /**
+     * No ambient light
+     */
+    public static final AmbientLight NONE = new AmbientLight(Color.BLACK);
+
+    /**
+     * Constructs an ambient light
+     *
+     * @param intensity the intensity of the light
+     */
+    public AmbientLight(Color intensity) {
+        super(intensity);
+    }
+}
@@ -0,0 +1,95 @@
+package lighting;
+
+import primitives.Color;
+import primitives.ContentHash;
+import primitives.Point;
+import primitives.Vector;
+
+import static primitives.Util.isZero;
+
+/**
+ * Abstract class AreaLight represents a light emitted by a flat surface rather
+ * than a single point, casting soft shadows.
+ * <p>
+ * The intensity and the direction of the light are those of a point light in
+ * the center of the surface; only the visibility of the light is estimated by
+ * shadow rays towards many points of the surface. The points are stratified:
+ * the surface is divided into n&times;n cells of equal area and every sample
+ * is jittered inside its own cell, which spreads the samples evenly and
+ * removes most of the noise of purely random sampling.
+ *
+ * @author Raphael
+ */
+public abstract class AreaLight extends PointLight {
+    /**
+     * First axis of the light surface (normalized)
+     */
+    protected final Vector uAxis;
+    /**
+     * Second axis of the light surface (normalized, orthogonal to the first)
+     */
+    protected final Vector vAxis;
+
+    /**
+     * Constructs an area light
+     *
+     * @param intensity the intensity of the light
+     * @param center    the center of the light surface
+     * @param uAxis     first axis of the light surface
+     * @param vAxis     second axis of the light surface
+     * @throws IllegalArgumentException if the axes are not orthogonal
+     */
+    protected AreaLight(Color intensity, Point center, Vector uAxis, Vector vAxis) {
+        super(intensity, center);
+        if (!isZero(uAxis.dotProduct(vAxis)))
+            throw new IllegalArgumentException("Light surface axes must be orthogonal");
+        this.uAxis = uAxis.normalize();
+        this.vAxis = vAxis.normalize();
+    }
+
+    /**
+     * Returns a point on the light surface
+     *
+     * @param n  amount of cells along each axis of the stratification grid
+     * @param i  the cell column (0 to n-1)
+     * @param j  the cell row (0 to n-1)
+     * @param du position of the point inside the cell along its first axis
+     *           (0 to 1)
+     * @param dv position of the point inside the cell along its second axis
+     *           (0 to 1)
+     * @return the point
+     */
+    public Point getSamplePoint(int n, int i, int j, double du, double dv) {
+        return samplePoint((i + du) / n, (j + dv) / n);
+    }
+
+    /**
+     * Maps the unit square onto the light surface, keeping the areas
+     * proportional
+     *
+     * @param u first coordinate (0 to 1)
+     * @param v second coordinate (0 to 1)
+     * @return the point on the light surface
+     */
+    protected abstract Point samplePoint(double u, double v);
+
+    /**
+     * Moves the center of the light along its axes
+     *
+     * @param u offset along the first axis
+     * @param v offset along the second axis
+     * @return the moved point
+     */
+    protected Point offset(double u, double v) {
+        Point point = position;
+        if (!isZero(u)) point = point.add(uAxis.scale(u));
+        if (!isZero(v)) point = point.add(vAxis.scale(v));
+        return point;
+    }
+
+    @Override
+    public void hash(ContentHash hash) {
+        super.hash(hash);
+        hash.add(uAxis).add(vAxis);
+    }
+}
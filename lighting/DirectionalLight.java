@@ -0,0 +1,51 @@
+package lighting;
+
+import primitives.Color;
+import primitives.ContentHash;
+import primitives.Point;
+import primitives.Vector;
+
+/**
+ * Class DirectionalLight represents a very far light (such as the sun) - all its
+ * rays are parallel and it does not attenuate with distance
+ *
+ * @author Raphael
+ */
+public class DirectionalLight extends Light implements LightSource {
+    /**
+     * The direction of the light
+     */
+    final Vector direction;
+
+    /**
+     * Constructs a directional light
+     *
+     * @param intensity the intensity of the light
+     * @param direction the direction of the light
+     */
+    public DirectionalLight(Color intensity, Vector direction) {
+        super(intensity);
+        this.direction = direction.normalize();
+    }
+
+    @Override
+    public void hash(ContentHash hash) {
+        super.hash(hash);
+        hash.add(direction);
+    }
+
+    @Override
+    public Color getIntensity(Point p) {
+        return intensity;
+    }
+
+    @Override
+    public Vector getL(Point p) {
+        return direction;
+    }
+
+    @Override
+    public double getDistance(Point p) {
+        return Double.POSITIVE_INFINITY;
+    }
+}
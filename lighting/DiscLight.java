@@ -0,0 +1,88 @@
+package lighting;
+
+import primitives.Color;
+import primitives.ContentHash;
+import primitives.Double3;
+import primitives.Point;
+import primitives.Util;
+import primitives.Vector;
+
+/**
+ * Class DiscLight represents a round area light (such as a lamp shade)
+ *
+ * @author Raphael
+ */
+public class DiscLight extends AreaLight {
+    /**
+     * The radius of the disc
+     */
+    final double radius;
+
+    /**
+     * Constructs a round light
+     *
+     * @param intensity the intensity of the light
+     * @param center    the center of the disc
+     * @param normal    the normal of the disc plane
+     * @param radius    the radius of the disc
+     * @throws IllegalArgumentException if the radius is not positive
+     */
+    public DiscLight(Color intensity, Point center, Vector normal, double radius) {
+        this(intensity, center, normal.orthogonal(), normal, radius);
+    }
+
+    /**
+     * Constructs a round light with the axes of its plane
+     *
+     * @param intensity the intensity of the light
+     * @param center    the center of the disc
+     * @param uAxis     first axis of the disc plane (orthogonal to the normal)
+     * @param normal    the normal of the disc plane
+     * @param radius    the radius of the disc
+     */
+    DiscLight(Color intensity, Point center, Vector uAxis, Vector normal, double radius) {
+        super(intensity, center, uAxis, normal.crossProduct(uAxis));
+        if (radius <= 0)
+            throw new IllegalArgumentException("Light radius must be positive");
+        this.radius = radius;
+    }
+
+    @Override
+    public DiscLight setKc(double kC) {
+        super.setKc(kC);
+        return this;
+    }
+
+    @Override
+    public DiscLight setKl(double kL) {
+        super.setKl(kL);
+        return this;
+    }
+
+    @Override
+    public DiscLight setKq(double kQ) {
+        super.setKq(kQ);
+        return this;
+    }
+
+    /**
+     * Maps the unit square onto the disc with the concentric mapping (see
+     * {@link Util#concentricDisk(double, double)}), which preserves the
+     * stratification
+     *
+     * @param u first coordinate (0 to 1)
+     * @param v second coordinate (0 to 1)
+     * @return the point on the disc
+     */
+    @Override
+    protected Point samplePoint(double u, double v) {
+        Double3 disc = Util.concentricDisk(u, v);
+        return offset(radius * disc.d1(), radius * disc.d2());
+    }
+
+    @Override
+    public void hash(ContentHash hash) {
+        super.hash(hash);
+        hash.add(radius);
+    }
+}
@@ -0,0 +1,41 @@
+package lighting;
+
+import primitives.Color;
+import primitives.ContentHash;
+import primitives.ContentHashable;
+
+/**
+ * Abstract class Light is the base of all the lights - it holds the light
+ * intensity
+ *
+ * @author Raphael
+ */
+abstract class Light implements ContentHashable {
+    /**
+     * The intensity of the light
+     */
+    protected final Color intensity;
+
+    /**
+     * Constructs a light
+     *
+     * @param intensity the intensity of the light
+     */
+    protected Light(Color intensity) {
+        this.intensity = intensity;
+    }
+
+    /**
+     * Returns the intensity of the light
+     *
+     * @return the intensity
+     */
+    public Color getIntensity() {
+        return intensity;
+    }
+
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add(getClass().getSimpleName()).add(intensity);
+    }
+}
@@ -0,0 +1,110 @@
+package lighting;
+
+import primitives.Color;
+import primitives.Point;
+import primitives.SnapshotInput;
+import primitives.SnapshotOutput;
+import primitives.Vector;
+
+import java.io.IOException;
+
+/**
+ * Writes light sources into snapshots and reads them back - every light as a
+ * type tag followed by its data
+ *
+ * @author Raphael
+ */
+public final class LightSnapshot {
+    /**
+     * Type tag of a {@link PointLight}
+     */
+    private static final int POINT = 1;
+    /**
+     * Type tag of a {@link SpotLight}
+     */
+    private static final int SPOT = 2;
+    /**
+     * Type tag of a {@link DirectionalLight}
+     */
+    private static final int DIRECTIONAL = 3;
+    /**
+     * Type tag of a {@link RectangleLight}
+     */
+    private static final int RECTANGLE = 4;
+    /**
+     * Type tag of a {@link DiscLight}
+     */
+    private static final int DISC = 5;
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private LightSnapshot() {
+    }
+
+    /**
+     * Writes a light source into a snapshot
+     *
+     * @param light the light source
+     * @param out   the snapshot
+     * @throws IOException           if the snapshot cannot be written
+     * @throws IllegalStateException if the light cannot be written into a
+     *                               snapshot
+     */
+    public static void write(LightSource light, SnapshotOutput out) throws IOException {
+        Class<?> type = light.getClass();
+        if (type == DirectionalLight.class) {
+            DirectionalLight directional = (DirectionalLight) light;
+            out.putInt(DIRECTIONAL).putColor(directional.intensity).putPoint(directional.direction);
+            return;
+        }
+        if (type != PointLight.class && type != SpotLight.class && type != RectangleLight.class
+                && type != DiscLight.class)
+            throw new IllegalStateException(type.getName() + " cannot be written into a snapshot");
+        PointLight point = (PointLight) light;
+        out.putInt(type == PointLight.class ? POINT : type == SpotLight.class ? SPOT
+                        : type == RectangleLight.class ? RECTANGLE : DISC)
+                .putColor(point.intensity).putPoint(point.position)
+                .putDouble(point.kC).putDouble(point.kL).putDouble(point.kQ);
+        switch (light) {
+            case SpotLight spot -> out.putPoint(spot.direction);
+            case RectangleLight rectangle -> out.putPoint(rectangle.uAxis).putPoint(rectangle.vAxis)
+                    .putDouble(rectangle.width).putDouble(rectangle.height);
+            case DiscLight disc -> out.putPoint(disc.uAxis).putPoint(disc.vAxis).putDouble(disc.radius);
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Reads a light source written by {@link #write(LightSource, SnapshotOutput)}
+     *
+     * @param in the snapshot
+     * @return the light source
+     * @throws IOException if the snapshot cannot be read or is corrupt
+     */
+    public static LightSource read(SnapshotInput in) throws IOException {
+        int tag = in.getInt();
+        if (tag == DIRECTIONAL) return new DirectionalLight(in.getColor(), in.getVector());
+        if (tag < POINT || tag > DISC) throw new IOException("Corrupt snapshot: unknown light type " + tag);
+        Color intensity = in.getColor();
+        Point position = in.getPoint();
+        double kC = in.getDouble(), kL = in.getDouble(), kQ = in.getDouble();
+        try {
+            PointLight light = switch (tag) {
+                case POINT -> new PointLight(intensity, position);
+                case SPOT -> new SpotLight(intensity, position, in.getVector());
+                case RECTANGLE -> new RectangleLight(intensity, position, in.getVector(), in.getVector(),
+                        in.getDouble(), in.getDouble());
+                default -> {
+                    Vector uAxis = in.getVector();
+                    yield new DiscLight(intensity, position, uAxis, uAxis.crossProduct(in.getVector()),
+                            in.getDouble());
+                }
+            };
+            return light.setKc(kC).setKl(kL).setKq(kQ);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt snapshot: " + e.getMessage(), e);
+        }
+    }
+}
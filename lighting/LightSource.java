@@ -0,0 +1,38 @@
+package lighting;
+
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+/**
+ * Interface LightSource is implemented by the lights that illuminate a point
+ * from a direction (i.e. every light except the ambient light)
+ *
+ * @author Raphael
+ */
+public interface LightSource {
+    /**
+     * Returns the intensity of the light at a point
+     *
+     * @param p the lighted point
+     * @return the intensity
+     */
+    Color getIntensity(Point p);
+
+    /**
+     * Returns the direction of the light towards a point
+     *
+     * @param p the lighted point
+     * @return normalized vector from the light to the point
+     */
+    Vector getL(Point p);
+
+    /**
+     * Returns the distance between the light and a point
+     *
+     * @param p the lighted point
+     * @return the distance ({@link Double#POSITIVE_INFINITY} for a light with no
+     * position)
+     */
+    double getDistance(Point p);
+}
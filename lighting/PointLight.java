@@ -0,0 +1,106 @@
+package lighting;
+
+import primitives.Color;
+import primitives.ContentHash;
+import primitives.Point;
+import primitives.Vector;
+
+/**
+ * Class PointLight represents a light (such as a bulb) that shines from a
+ * position in all the directions and attenuates with the distance
+ *
+ * @author Raphael
+ */
+public class PointLight extends Light implements LightSource {
+    /**
+     * The position of the light
+     */
+    protected final Point position;
+    /**
+     * Constant attenuation factor
+     */
+    double kC = 1;
+    /**
+     * Linear attenuation factor
+     */
+    double kL = 0;
+    /**
+     * Quadratic attenuation factor
+     */
+    double kQ = 0;
+
+    /**
+     * Constructs a point light
+     *
+     * @param intensity the intensity of the light
+     * @param position  the position of the light
+     */
+    public PointLight(Color intensity, Point position) {
+        super(intensity);
+        this.position = position;
+    }
+
+    /**
+     * Sets the constant attenuation factor
+     *
+     * @param kC the factor
+     * @return the light itself
+     */
+    public PointLight setKc(double kC) {
+        this.kC = kC;
+        return this;
+    }
+
+    /**
+     * Sets the linear attenuation factor
+     *
+     * @param kL the factor
+     * @return the light itself
+     */
+    public PointLight setKl(double kL) {
+        this.kL = kL;
+        return this;
+    }
+
+    /**
+     * Sets the quadratic attenuation factor
+     *
+     * @param kQ the factor
+     * @return the light itself
+     */
+    public PointLight setKq(double kQ) {
+        this.kQ = kQ;
+        return this;
+    }
+
+    /**
+     * Returns the position of the light (the center of an area light)
+     *
+     * @return the position
+     */
+    public Point getPosition() {
+        return position;
+    }
+
+    @Override
+    public void hash(ContentHash hash) {
+        super.hash(hash);
+        hash.add(position).add(kC).add(kL).add(kQ);
+    }
+
+    @Override
+    public Color getIntensity(Point p) {
+        double d2 = position.distanceSquared(p);
+        return intensity.reduce(kC + kL * Math.sqrt(d2) + kQ * d2);
+    }
+
+    @Override
+    public Vector getL(Point p) {
+        return p.subtract(position).normalize();
+    }
+
+    @Override
+    public double getDistance(Point p) {
+        return position.distance(p);
+    }
+}
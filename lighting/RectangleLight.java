@@ -0,0 +1,72 @@
+package lighting;
+
+import primitives.Color;
+import primitives.ContentHash;
+import primitives.Point;
+import primitives.Vector;
+
+/**
+ * Class RectangleLight represents a rectangular area light (such as a window or
+ * a ceiling panel)
+ *
+ * @author Raphael
+ */
+public class RectangleLight extends AreaLight {
+    /**
+     * Size of the rectangle along its first axis
+     */
+    final double width;
+    /**
+     * Size of the rectangle along its second axis
+     */
+    final double height;
+
+    /**
+     * Constructs a rectangular light
+     *
+     * @param intensity the intensity of the light
+     * @param center    the center of the rectangle
+     * @param uAxis     direction of the rectangle width
+     * @param vAxis     direction of the rectangle height, orthogonal to uAxis
+     * @param width     size of the rectangle along uAxis
+     * @param height    size of the rectangle along vAxis
+     * @throws IllegalArgumentException if the axes are not orthogonal or a size
+     *                                  is not positive
+     */
+    public RectangleLight(Color intensity, Point center, Vector uAxis, Vector vAxis, double width, double height) {
+        super(intensity, center, uAxis, vAxis);
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("Light size must be positive");
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public RectangleLight setKc(double kC) {
+        super.setKc(kC);
+        return this;
+    }
+
+    @Override
+    public RectangleLight setKl(double kL) {
+        super.setKl(kL);
+        return this;
+    }
+
+    @Override
+    public RectangleLight setKq(double kQ) {
+        super.setKq(kQ);
+        return this;
+    }
+
+    @Override
+    protected Point samplePoint(double u, double v) {
+        return offset((u - 0.5) * width, (v - 0.5) * height);
+    }
+
+    @Override
+    public void hash(ContentHash hash) {
+        super.hash(hash);
+        hash.add(width).add(height);
+    }
+}
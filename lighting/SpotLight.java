@@ -0,0 +1,61 @@
+package lighting;
+
+import primitives.Color;
+import primitives.ContentHash;
+import primitives.Point;
+import primitives.Vector;
+
+/**
+ * Class SpotLight represents a point light that shines mainly in one direction
+ *
+ * @author Raphael
+ */
+public class SpotLight extends PointLight {
+    /**
+     * The direction of the light
+     */
+    final Vector direction;
+
+    /**
+     * Constructs a spot light
+     *
+     * @param intensity the intensity of the light
+     * @param position  the position of the light
+     * @param direction the direction of the light
+     */
+    public SpotLight(Color intensity, Point position, Vector direction) {
+        super(intensity, position);
+        this.direction = direction.normalize();
+    }
+
+    @Override
+    public SpotLight setKc(double kC) {
+        super.setKc(kC);
+        return this;
+    }
+
+    @Override
+    public SpotLight setKl(double kL) {
+        super.setKl(kL);
+        return this;
+    }
+
+    @Override
+    public SpotLight setKq(double kQ) {
+        super.setKq(kQ);
+        return this;
+    }
+
+    @Override
+    public void hash(ContentHash hash) {
+        super.hash(hash);
+        hash.add(direction);
+    }
+
+    @Override
+    public Color getIntensity(Point p) {
+        if (p.equals(position)) return Color.BLACK;
+        double factor = direction.dotProduct(getL(p));
+        return factor <= 0 ? Color.BLACK : super.getIntensity(p).scale(factor);
+    }
+}
@@ -0,0 +1,98 @@
+package primitives;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static primitives.Util.concentricDisk;
+import static primitives.Util.isZero;
+
+/**
+ * Class Beam represents a cone of rays around an axis ray, such as the rays
+ * scattered by a glossy surface around the mirror direction.
+ * <p>
+ * The rays go from the origin of the axis through a target disc, orthogonal to
+ * the axis at distance 1 from the origin, so the radius of the disc is the
+ * tangent of the cone half-angle. The disc is parametrized by the unit square
+ * with the concentric mapping of Shirley and Chiu, which keeps equal areas and
+ * neighbourhoods: a grid on the square is a set of compact disc cells of equal
+ * area, suitable both for stratified sampling and for adaptive subdivision.
+ *
+ * @author Raphael
+ */
+public class Beam {
+    /**
+     * The axis of the beam
+     */
+    private final Ray axis;
+    /**
+     * First axis of the target disc (normalized)
+     */
+    private final Vector uAxis;
+    /**
+     * Second axis of the target disc (normalized)
+     */
+    private final Vector vAxis;
+    /**
+     * The radius of the target disc
+     */
+    private final double radius;
+
+    /**
+     * Constructs a beam
+     *
+     * @param axis   the axis ray
+     * @param radius the radius of the target disc at distance 1
+     * @throws IllegalArgumentException if the radius is not positive
+     */
+    public Beam(Ray axis, double radius) {
+        if (!(radius > 0)) throw new IllegalArgumentException("Beam radius must be positive");
+        this.axis = axis;
+        this.radius = radius;
+        uAxis = axis.direction().orthogonal();
+        vAxis = axis.direction().crossProduct(uAxis);
+    }
+
+    /**
+     * Returns the axis ray
+     *
+     * @return the axis
+     */
+    public Ray getAxis() {
+        return axis;
+    }
+
+    /**
+     * Returns the ray of the beam through a point of the target disc
+     *
+     * @param u first coordinate of the point on the unit square (0 to 1)
+     * @param v second coordinate of the point on the unit square (0 to 1)
+     * @return the ray
+     */
+    public Ray getRay(double u, double v) {
+        Double3 disc = concentricDisk(u, v);
+        double x = radius * disc.d1(), y = radius * disc.d2();
+        Vector direction = axis.direction();
+        if (!isZero(x)) direction = direction.add(uAxis.scale(x));
+        if (!isZero(y)) direction = direction.add(vAxis.scale(y));
+        return new Ray(axis.origin(), direction);
+    }
+
+    /**
+     * Generates stratified rays - one ray jittered inside every cell of a grid
+     * over the target disc
+     *
+     * @param grid amount of cells along each axis of the grid
+     * @return grid&times;grid rays
+     * @throws IllegalArgumentException if the grid size is not positive
+     */
+    public List<Ray> generateRays(int grid) {
+        if (grid < 1) throw new IllegalArgumentException("Grid size must be positive");
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Ray> rays = new ArrayList<>(grid * grid);
+        for (int j = 0; j < grid; ++j)
+            for (int i = 0; i < grid; ++i)
+                rays.add(getRay((i + random.nextDouble()) / grid, (j + random.nextDouble()) / grid));
+        return rays;
+    }
+}
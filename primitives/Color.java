@@ -0,0 +1,196 @@
+package primitives;
+
+/**
+ * Wrapper class for java.awt.Color. The constructors operate with non-negative
+ * RGB values; the colors are kept without an upper limit so light intensities
+ * may be summed, and are only clamped to 255 when converted for an image.
+ *
+ * @author Dan Zilberstein
+ */
+public class Color implements ContentHashable {
+    /**
+     * Black color = (0,0,0)
+     */
+    public static final Color BLACK = new Color();
+
+    /**
+     * The internal fields maintain RGB components as double numbers from 0 to
+     * whatever...
+     */
+    private final Double3 rgb;
+
+    /**
+     * Default constructor - to generate Black Color (privately)
+     */
+    private Color() {
+        rgb = Double3.ZERO;
+    }
+
+    /**
+     * Constructor to generate a color according to RGB components. Each component
+     * in range 0..255 (for printed white color) or more (for lights)
+     *
+     * @param r Red component
+     * @param g Green component
+     * @param b Blue component
+     * @throws IllegalArgumentException if a component is negative
+     */
+    public Color(double r, double g, double b) {
+        this(new Double3(r, g, b));
+    }
+
+    /**
+     * Constructor to generate a color according to RGB components. Each component
+     * in range 0..255 (for printed white color) or more (for lights)
+     *
+     * @param rgb triad of Red/Green/Blue components
+     * @throws IllegalArgumentException if a component is negative
+     */
+    private Color(Double3 rgb) {
+        if (rgb.d1() < 0 || rgb.d2() < 0 || rgb.d3() < 0)
+            throw new IllegalArgumentException("Negative color component is illegal");
+        this.rgb = rgb;
+    }
+
+    /**
+     * Constructor on base of java.awt.Color object
+     *
+     * @param other java.awt.Color's source object
+     */
+    public Color(java.awt.Color other) {
+        rgb = new Double3(other.getRed(), other.getGreen(), other.getBlue());
+    }
+
+    /**
+     * Returns the red component
+     *
+     * @return the red component
+     */
+    public double getRed() {
+        return rgb.d1();
+    }
+
+    /**
+     * Returns the green component
+     *
+     * @return the green component
+     */
+    public double getGreen() {
+        return rgb.d2();
+    }
+
+    /**
+     * Returns the blue component
+     *
+     * @return the blue component
+     */
+    public double getBlue() {
+        return rgb.d3();
+    }
+
+    /**
+     * Color getter - returns the color after converting it into java.awt.Color
+     * object During the conversion any component bigger than 255 is set to 255
+     *
+     * @return java.awt.Color object based on this Color RGB components
+     */
+    public java.awt.Color getColor() {
+        return new java.awt.Color(toRgb());
+    }
+
+    /**
+     * Packs the color into an integer (0xRRGGBB), clamping every component to
+     * 255
+     *
+     * @return the packed color
+     */
+    public int toRgb() {
+        int r = (int) Math.min(255, rgb.d1());
+        int g = (int) Math.min(255, rgb.d2());
+        int b = (int) Math.min(255, rgb.d3());
+        return r << 16 | g << 8 | b;
+    }
+
+    /**
+     * Unpacks a color packed by {@link #toRgb()}
+     *
+     * @param packed the packed color
+     * @return the color
+     */
+    public static Color fromRgb(int packed) {
+        return new Color(packed >> 16 & 0xFF, packed >> 8 & 0xFF, packed & 0xFF);
+    }
+
+    /**
+     * Operation of adding this and one or more other colors (by component)
+     *
+     * @param colors one or more other colors to add
+     * @return new Color object which is a result of the operation
+     */
+    public Color add(Color... colors) {
+        double rr = rgb.d1();
+        double rg = rgb.d2();
+        double rb = rgb.d3();
+        for (Color c : colors) {
+            rr += c.rgb.d1();
+            rg += c.rgb.d2();
+            rb += c.rgb.d3();
+        }
+        return new Color(rr, rg, rb);
+    }
+
+    /**
+     * Scale the color by a scalar triad per rgb
+     *
+     * @param k scale factor per rgb
+     * @return new Color object which is the result of the operation
+     */
+    public Color scale(Double3 k) {
+        if (k.d1() < 0.0 || k.d2() < 0.0 || k.d3() < 0.0)
+            throw new IllegalArgumentException("Can't scale a color by a negative number");
+        return new Color(rgb.product(k));
+    }
+
+    /**
+     * Scale the color by a scalar
+     *
+     * @param k scale factor
+     * @return new Color object which is the result of the operation
+     */
+    public Color scale(double k) {
+        if (k < 0.0) throw new IllegalArgumentException("Can't scale a color by a negative number");
+        return new Color(rgb.scale(k));
+    }
+
+    /**
+     * Scale the color by (1 / reduction factor)
+     *
+     * @param k reduction factor
+     * @return new Color object which is the result of the operation
+     */
+    public Color reduce(double k) {
+        if (k < 1) throw new IllegalArgumentException("Can't scale a color by a by a number lower than 1");
+        return new Color(rgb.reduce(k));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        return obj instanceof Color other && rgb.equals(other.rgb);
+    }
+
+    @Override
+    public int hashCode() {
+        return rgb.hashCode();
+    }
+
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add("Color").add(rgb);
+    }
+
+    @Override
+    public String toString() {
+        return "rgb:" + rgb;
+    }
+}
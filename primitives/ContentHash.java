@@ -0,0 +1,127 @@
+package primitives;
+
+/**
+ * Accumulator of a 64-bit content hash (fingerprint).
+ * <p>
+ * Unlike {@link Object#hashCode()}, the result depends only on the exact values
+ * fed into it and is stable between program runs, so it can be used as a key of
+ * persistent caches (e.g. rendered tiles stored on disk). Every value is mixed
+ * into the state with a strong avalanche function, so permuted or shifted
+ * inputs such as (1,2,3), (3,2,1) and (6,0,0) give unrelated hashes.
+ *
+ * @author Raphael
+ */
+public final class ContentHash {
+    /**
+     * Initial state of every hash
+     */
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The current state
+     */
+    private long state = SEED;
+
+    /**
+     * Constructs an empty hash
+     */
+    public ContentHash() {
+    }
+
+    /**
+     * Mixes 64 bits (the finalizer of SplitMix64)
+     *
+     * @param z the bits to mix
+     * @return the mixed bits
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Feeds a long number into the hash
+     *
+     * @param value the number
+     * @return the hash itself
+     */
+    public ContentHash add(long value) {
+        state = mix((state + SEED) ^ value);
+        return this;
+    }
+
+    /**
+     * Feeds a floating point number into the hash. Positive and negative zero
+     * are treated as the same number
+     *
+     * @param value the number
+     * @return the hash itself
+     */
+    public ContentHash add(double value) {
+        return add(Double.doubleToLongBits(value == 0 ? 0.0 : value));
+    }
+
+    /**
+     * Feeds a boolean into the hash
+     *
+     * @param value the boolean
+     * @return the hash itself
+     */
+    public ContentHash add(boolean value) {
+        return add(value ? 1L : 0L);
+    }
+
+    /**
+     * Feeds a string (e.g. a type tag) into the hash
+     *
+     * @param value the string
+     * @return the hash itself
+     */
+    public ContentHash add(String value) {
+        add((long) value.length());
+        for (int i = 0; i < value.length(); ++i)
+            add((long) value.charAt(i));
+        return this;
+    }
+
+    /**
+     * Feeds a triad of numbers into the hash
+     *
+     * @param value the triad
+     * @return the hash itself
+     */
+    public ContentHash add(Double3 value) {
+        return add(value.d1()).add(value.d2()).add(value.d3());
+    }
+
+    /**
+     * Feeds an object that knows how to hash its content into the hash
+     *
+     * @param value the object
+     * @return the hash itself
+     */
+    public ContentHash add(ContentHashable value) {
+        value.hash(this);
+        return this;
+    }
+
+    /**
+     * Returns the hash of everything fed so far
+     *
+     * @return the hash value
+     */
+    public long value() {
+        return mix(state);
+    }
+
+    /**
+     * Calculates the content hash of a single object
+     *
+     * @param value the object
+     * @return its content hash
+     */
+    public static long of(ContentHashable value) {
+        return new ContentHash().add(value).value();
+    }
+}
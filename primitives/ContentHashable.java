@@ -0,0 +1,18 @@
+package primitives;
+
+/**
+ * Interface ContentHashable is implemented by objects that can feed their whole
+ * content into a {@link ContentHash}, giving a hash that is stable between
+ * program runs
+ *
+ * @author Raphael
+ */
+public interface ContentHashable {
+    /**
+     * Feeds the content of the object (starting with a tag of its type) into a
+     * content hash
+     *
+     * @param hash the hash to feed
+     */
+    void hash(ContentHash hash);
+}
@@ -13,7 +13,7 @@ import static primitives.Util.isZero;
  * @param d3 first number
  * @author Dan Zilberstein
  */
-public record Double3(double d1, double d2, double d3) {
+public record Double3(double d1, double d2, double d3) implements ContentHashable {
 
     /**
      * Zero triad (0,0,0)
@@ -25,6 +25,12 @@ public record Double3(double d1, double d2, double d3) {
      */
     public static final Double3 ONE = new Double3(1, 1, 1);
 
+    /**
+     * Size of the grid cells used by {@link #hashCode()} (2<sup>-20</sup>), far
+     * larger than the tolerance of {@link #equals(Object)}
+     */
+    public static final double HASH_CELL = 0x1p-20;
+
     /**
      * Constructor to initialize Double3 based object the same number values
      *
@@ -43,9 +49,46 @@ public record Double3(double d1, double d2, double d3) {
                 && isZero(d3 - other.d3);
     }
 
+    /**
+     * The hash is the spatial hash of the grid cell holding the triad. The
+     * cells are centred on the multiples of {@link #HASH_CELL}, so their
+     * boundaries lie half a cell away from zero, from the integers and from
+     * every other short binary fraction - the coordinates that are common, and
+     * that computations land just beside. Triads equal within the tolerance of
+     * {@link #equals(Object)} fall in different cells only when they straddle
+     * such a boundary; structures that must find every equal triad (e.g.
+     * {@link VertexWelder}) probe neighbouring cells as well.
+     *
+     * @return the hash code
+     */
     @Override
     public int hashCode() {
-        return (int) Math.round(d1 + d2 + d3);
+        return spatialHash(cell(d1), cell(d2), cell(d3));
+    }
+
+    /**
+     * Calculates the index of the {@link #HASH_CELL} sized cell holding a
+     * number - the nearest multiple of the cell size
+     *
+     * @param value the number
+     * @return the cell index
+     */
+    static long cell(double value) {
+        return Math.round(value / HASH_CELL);
+    }
+
+    /**
+     * Calculates a well distributed hash of a 3D grid cell
+     *
+     * @param x the cell x index
+     * @param y the cell y index
+     * @param z the cell z index
+     * @return the hash of the cell
+     */
+    static int spatialHash(long x, long y, long z) {
+        long h = x * 0x9E3779B97F4A7C15L ^ y * 0xC2B2AE3D27D4EB4FL ^ z * 0x165667B19E3779F9L;
+        h = (h ^ (h >>> 29)) * 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ (h >>> 32));
     }
 
     @Override
@@ -53,6 +96,11 @@ public record Double3(double d1, double d2, double d3) {
         return "(" + d1 + "," + d2 + "," + d3 + ")";
     }
 
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add("Double3").add(this);
+    }
+
     /**
      * Sum two floating point triads into a new triad where each couple of numbers
      * is summarized
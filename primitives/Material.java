@@ -0,0 +1,294 @@
+package primitives;
+
+/**
+ * Material of a geometry - the coefficients of the Phong reflectance model and
+ * of the secondary (reflected and transmitted) rays
+ *
+ * @author Raphael
+ */
+public class Material implements ContentHashable {
+    /**
+     * Ambient attenuation coefficient
+     */
+    public Double3 kA = Double3.ONE;
+    /**
+     * Diffuse attenuation coefficient
+     */
+    public Double3 kD = Double3.ZERO;
+    /**
+     * Specular attenuation coefficient
+     */
+    public Double3 kS = Double3.ZERO;
+    /**
+     * Transmission (transparency) attenuation coefficient
+     */
+    public Double3 kT = Double3.ZERO;
+    /**
+     * Reflection attenuation coefficient
+     */
+    public Double3 kR = Double3.ZERO;
+    /**
+     * Shininess exponent of the specular highlight
+     */
+    public int nShininess = 0;
+    /**
+     * Index of refraction - 1 keeps transmitted rays straight
+     */
+    public double ior = 1;
+    /**
+     * Glossiness - radius of the cone of reflected rays at distance 1 (0 for a
+     * perfect mirror)
+     */
+    public double glossiness = 0;
+    /**
+     * Blurriness - radius of the cone of transmitted rays at distance 1 (0 for
+     * clear transparency)
+     */
+    public double blurriness = 0;
+    /**
+     * Texture modulating the diffuse coefficient, null for none
+     */
+    public MipmapTexture texture = null;
+    /**
+     * Planar texture mapping - the horizontal texture coordinate of a point is
+     * its dot product with this vector
+     */
+    public Vector textureU = null;
+    /**
+     * Planar texture mapping - the vertical texture coordinate of a point is
+     * its dot product with this vector
+     */
+    public Vector textureV = null;
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    public Material() {
+    }
+
+    /**
+     * Sets the ambient attenuation coefficient
+     *
+     * @param kA the coefficient per color component
+     * @return the material itself
+     */
+    public Material setKa(Double3 kA) {
+        this.kA = kA;
+        return this;
+    }
+
+    /**
+     * Sets the diffuse attenuation coefficient
+     *
+     * @param kD the coefficient for all the color components
+     * @return the material itself
+     */
+    public Material setKd(double kD) {
+        this.kD = new Double3(kD);
+        return this;
+    }
+
+    /**
+     * Sets the diffuse attenuation coefficient
+     *
+     * @param kD the coefficient per color component
+     * @return the material itself
+     */
+    public Material setKd(Double3 kD) {
+        this.kD = kD;
+        return this;
+    }
+
+    /**
+     * Sets the specular attenuation coefficient
+     *
+     * @param kS the coefficient for all the color components
+     * @return the material itself
+     */
+    public Material setKs(double kS) {
+        this.kS = new Double3(kS);
+        return this;
+    }
+
+    /**
+     * Sets the specular attenuation coefficient
+     *
+     * @param kS the coefficient per color component
+     * @return the material itself
+     */
+    public Material setKs(Double3 kS) {
+        this.kS = kS;
+        return this;
+    }
+
+    /**
+     * Sets the transmission attenuation coefficient
+     *
+     * @param kT the coefficient for all the color components
+     * @return the material itself
+     */
+    public Material setKt(double kT) {
+        this.kT = new Double3(kT);
+        return this;
+    }
+
+    /**
+     * Sets the transmission attenuation coefficient
+     *
+     * @param kT the coefficient per color component
+     * @return the material itself
+     */
+    public Material setKt(Double3 kT) {
+        this.kT = kT;
+        return this;
+    }
+
+    /**
+     * Sets the reflection attenuation coefficient
+     *
+     * @param kR the coefficient for all the color components
+     * @return the material itself
+     */
+    public Material setKr(double kR) {
+        this.kR = new Double3(kR);
+        return this;
+    }
+
+    /**
+     * Sets the reflection attenuation coefficient
+     *
+     * @param kR the coefficient per color component
+     * @return the material itself
+     */
+    public Material setKr(Double3 kR) {
+        this.kR = kR;
+        return this;
+    }
+
+    /**
+     * Sets the shininess exponent
+     *
+     * @param nShininess the exponent
+     * @return the material itself
+     */
+    public Material setShininess(int nShininess) {
+        this.nShininess = nShininess;
+        return this;
+    }
+
+    /**
+     * Sets the index of refraction of a transparent material
+     *
+     * @param ior the index of refraction (1 for no refraction)
+     * @return the material itself
+     * @throws IllegalArgumentException if the index is not positive
+     */
+    public Material setIor(double ior) {
+        if (ior <= 0) throw new IllegalArgumentException("Index of refraction must be positive");
+        this.ior = ior;
+        return this;
+    }
+
+    /**
+     * Sets the glossiness of the reflection
+     *
+     * @param glossiness radius of the cone of reflected rays at distance 1
+     * @return the material itself
+     * @throws IllegalArgumentException if the glossiness is negative
+     */
+    public Material setGlossiness(double glossiness) {
+        if (glossiness < 0) throw new IllegalArgumentException("Glossiness must not be negative");
+        this.glossiness = glossiness;
+        return this;
+    }
+
+    /**
+     * Sets the blurriness of the transmission
+     *
+     * @param blurriness radius of the cone of transmitted rays at distance 1
+     * @return the material itself
+     * @throws IllegalArgumentException if the blurriness is negative
+     */
+    public Material setBlurriness(double blurriness) {
+        if (blurriness < 0) throw new IllegalArgumentException("Blurriness must not be negative");
+        this.blurriness = blurriness;
+        return this;
+    }
+
+    /**
+     * Sets a texture modulating the diffuse coefficient, mapped by planar
+     * projection: a point p has the texture coordinates (p·u, p·v), so the
+     * length of the vectors is the amount of texture repetitions per unit
+     * of length
+     *
+     * @param texture the texture
+     * @param u       the vector of the horizontal texture coordinate
+     * @param v       the vector of the vertical texture coordinate
+     * @return the material itself
+     */
+    public Material setTexture(MipmapTexture texture, Vector u, Vector v) {
+        this.texture = texture;
+        this.textureU = u;
+        this.textureV = v;
+        return this;
+    }
+
+    /**
+     * Calculates the diffuse coefficient at a point, filtering the texture over
+     * the footprint of the ray hitting the point
+     *
+     * @param point         the point
+     * @param differentials the differentials of the point (as origin
+     *                      differentials, see
+     *                      {@link Ray.Differentials#transfer(Vector, Vector, double)}),
+     *                      null to read the finest texture level
+     * @return the diffuse coefficient
+     */
+    public Double3 diffuse(Point point, Ray.Differentials differentials) {
+        if (texture == null) return kD;
+        double footprint = 0;
+        if (differentials != null)
+            footprint = Math.max(footprint(differentials.dOdx()), footprint(differentials.dOdy()));
+        return kD.product(texture.sample(coordinate(point, textureU), coordinate(point, textureV), footprint));
+    }
+
+    /**
+     * Calculates the length of a point differential in texture coordinates
+     *
+     * @param dP the point differential
+     * @return the length
+     */
+    private double footprint(Double3 dP) {
+        double du = coordinate(dP, textureU), dv = coordinate(dP, textureV);
+        return Math.sqrt(du * du + dv * dv);
+    }
+
+    /**
+     * Calculates a texture coordinate
+     *
+     * @param xyz  the point differential
+     * @param axis the vector of the coordinate
+     * @return the coordinate
+     */
+    private static double coordinate(Double3 xyz, Vector axis) {
+        return xyz.d1() * axis.getX() + xyz.d2() * axis.getY() + xyz.d3() * axis.getZ();
+    }
+
+    /**
+     * Calculates a texture coordinate of a point
+     *
+     * @param point the point
+     * @param axis  the vector of the coordinate
+     * @return the coordinate
+     */
+    private static double coordinate(Point point, Vector axis) {
+        return point.x * axis.x + point.y * axis.y + point.z * axis.z;
+    }
+
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add("Material").add(kA).add(kD).add(kS).add(kT).add(kR).add(nShininess).add(ior)
+                .add(glossiness).add(blurriness).add(texture != null);
+        if (texture != null) hash.add(texture).add(textureU).add(textureV);
+    }
+}
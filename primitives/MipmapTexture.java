@@ -0,0 +1,226 @@
+package primitives;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Image texture with a chain of prefiltered levels (a mipmap) for lookups
+ * filtered by the footprint of the ray.
+ * <p>
+ * Level 0 is the image itself, every next level averages 2x2 texels of the
+ * previous one, down to a single texel. A lookup picks the levels whose texel
+ * size matches the footprint - the area of the texture a ray stands for - and
+ * interpolates trilinearly: bilinearly within the two nearest levels and
+ * linearly between them. A distant or minified surface thus reads a few texels
+ * of a small level instead of aliasing over the whole image. The texture
+ * repeats beyond the [0,1) range of the coordinates.
+ *
+ * @author Raphael
+ */
+public final class MipmapTexture implements ContentHashable {
+    /**
+     * Width of every level in texels
+     */
+    private final int[] widths;
+    /**
+     * Height of every level in texels
+     */
+    private final int[] heights;
+    /**
+     * Texels of every level, 3 reflectance components (0 to 1) per texel, row
+     * by row
+     */
+    private final float[][] levels;
+
+    /**
+     * Constructs a texture from its texels
+     *
+     * @param width  width of the image
+     * @param height height of the image
+     * @param rgb    the reflectance components (0 to 1) of the texels row by
+     *               row, 3 per texel
+     * @throws IllegalArgumentException if the size is not positive or does not
+     *                                  match the texels
+     */
+    public MipmapTexture(int width, int height, float[] rgb) {
+        if (width < 1 || height < 1)
+            throw new IllegalArgumentException("Texture size must be positive");
+        if (rgb.length != 3 * width * height)
+            throw new IllegalArgumentException("Texels do not match the texture size");
+        int count = 1;
+        for (int w = width, h = height; w > 1 || h > 1; w = Math.max(1, w / 2), h = Math.max(1, h / 2))
+            ++count;
+        widths = new int[count];
+        heights = new int[count];
+        levels = new float[count][];
+        widths[0] = width;
+        heights[0] = height;
+        levels[0] = rgb.clone();
+        for (int l = 1; l < count; ++l) {
+            widths[l] = Math.max(1, widths[l - 1] / 2);
+            heights[l] = Math.max(1, heights[l - 1] / 2);
+            levels[l] = downsample(levels[l - 1], widths[l - 1], heights[l - 1], widths[l], heights[l]);
+        }
+    }
+
+    /**
+     * Constructs a texture from all its levels
+     *
+     * @param widths  width of every level
+     * @param heights height of every level
+     * @param levels  texels of every level
+     */
+    private MipmapTexture(int[] widths, int[] heights, float[][] levels) {
+        this.widths = widths;
+        this.heights = heights;
+        this.levels = levels;
+    }
+
+    /**
+     * Constructs a texture from an image
+     *
+     * @param image the image (8 bits per component, taken as reflectance)
+     * @return the texture
+     */
+    public static MipmapTexture of(BufferedImage image) {
+        int width = image.getWidth(), height = image.getHeight();
+        float[] rgb = new float[3 * width * height];
+        for (int y = 0, p = 0; y < height; ++y)
+            for (int x = 0; x < width; ++x) {
+                int argb = image.getRGB(x, y);
+                rgb[p++] = ((argb >> 16) & 0xFF) / 255f;
+                rgb[p++] = ((argb >> 8) & 0xFF) / 255f;
+                rgb[p++] = (argb & 0xFF) / 255f;
+            }
+        return new MipmapTexture(width, height, rgb);
+    }
+
+    /**
+     * Averages the texels of a level into the next level
+     *
+     * @param src    the texels of the level
+     * @param width  width of the level
+     * @param height height of the level
+     * @param w      width of the next level
+     * @param h      height of the next level
+     * @return the texels of the next level
+     */
+    private static float[] downsample(float[] src, int width, int height, int w, int h) {
+        float[] dst = new float[3 * w * h];
+        for (int y = 0, p = 0; y < h; ++y) {
+            int y0 = Math.min(2 * y, height - 1), y1 = Math.min(2 * y + 1, height - 1);
+            for (int x = 0; x < w; ++x) {
+                int x0 = Math.min(2 * x, width - 1), x1 = Math.min(2 * x + 1, width - 1);
+                for (int c = 0; c < 3; ++c)
+                    dst[p++] = (src[3 * (y0 * width + x0) + c] + src[3 * (y0 * width + x1) + c]
+                            + src[3 * (y1 * width + x0) + c] + src[3 * (y1 * width + x1) + c]) / 4;
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Returns the amount of levels
+     *
+     * @return the amount of levels, at least 1
+     */
+    public int getLevels() {
+        return levels.length;
+    }
+
+    /**
+     * Calculates the (fractional) level matching a footprint - the level
+     * whose texels are as wide as the footprint
+     *
+     * @param footprint the width of the footprint in texture coordinates (1
+     *                  for the whole texture)
+     * @return the level, from 0 to the last level
+     */
+    public double level(double footprint) {
+        double texels = footprint * Math.max(widths[0], heights[0]);
+        return texels <= 1 ? 0 : Math.min(levels.length - 1, Math.log(texels) / Math.log(2));
+    }
+
+    /**
+     * Reads the texture filtered over a footprint (trilinear interpolation)
+     *
+     * @param u         the horizontal texture coordinate
+     * @param v         the vertical texture coordinate
+     * @param footprint the width of the footprint in texture coordinates (0
+     *                  for the finest level)
+     * @return the reflectance
+     */
+    public Double3 sample(double u, double v, double footprint) {
+        double level = level(footprint);
+        int l0 = (int) level;
+        double f = level - l0;
+        float[] rgb = new float[3];
+        bilinear(l0, u, v, 1 - f, rgb);
+        if (f > 0) bilinear(l0 + 1, u, v, f, rgb);
+        return new Double3(rgb[0], rgb[1], rgb[2]);
+    }
+
+    /**
+     * Adds the bilinear interpolation of a level at a point, weighted
+     *
+     * @param level  the level
+     * @param u      the horizontal texture coordinate
+     * @param v      the vertical texture coordinate
+     * @param weight the weight of the level
+     * @param rgb    the sum to add to
+     */
+    private void bilinear(int level, double u, double v, double weight, float[] rgb) {
+        int w = widths[level], h = heights[level];
+        float[] texels = levels[level];
+        double x = (u - Math.floor(u)) * w - 0.5, y = (v - Math.floor(v)) * h - 0.5;
+        int x0 = (int) Math.floor(x), y0 = (int) Math.floor(y);
+        double fx = x - x0, fy = y - y0;
+        int ax = Math.floorMod(x0, w), bx = Math.floorMod(x0 + 1, w);
+        int ay = Math.floorMod(y0, h), by = Math.floorMod(y0 + 1, h);
+        for (int c = 0; c < 3; ++c) {
+            double top = (1 - fx) * texels[3 * (ay * w + ax) + c] + fx * texels[3 * (ay * w + bx) + c];
+            double bottom = (1 - fx) * texels[3 * (by * w + ax) + c] + fx * texels[3 * (by * w + bx) + c];
+            rgb[c] += (float) (weight * ((1 - fy) * top + fy * bottom));
+        }
+    }
+
+    /**
+     * Writes the texture with all its levels into a snapshot
+     *
+     * @param out the snapshot
+     * @return the snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    SnapshotOutput write(SnapshotOutput out) throws IOException {
+        out.putInts(widths).putInts(heights);
+        for (float[] level : levels) out.putFloats(level);
+        return out;
+    }
+
+    /**
+     * Reads a texture written by {@link #write(SnapshotOutput)}, without
+     * recalculating its levels
+     *
+     * @param in the snapshot
+     * @return the texture
+     * @throws IOException if the snapshot cannot be read or is corrupt
+     */
+    static MipmapTexture read(SnapshotInput in) throws IOException {
+        int[] widths = in.getInts(), heights = in.getInts();
+        if (widths.length == 0 || widths.length != heights.length)
+            throw new IOException("Corrupt snapshot: texture levels");
+        float[][] levels = new float[widths.length][];
+        for (int l = 0; l < levels.length; ++l) {
+            levels[l] = in.getFloats();
+            if (levels[l].length != 3 * widths[l] * heights[l])
+                throw new IOException("Corrupt snapshot: texture size");
+        }
+        return new MipmapTexture(widths, heights, levels);
+    }
+
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add("MipmapTexture").add(widths[0]).add(heights[0]);
+        for (float component : levels[0]) hash.add(component);
+    }
+}
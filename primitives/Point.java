@@ -1 +1,163 @@
-Change access modifier
\ No newline at end of file
+package primitives;
+
+import static primitives.Util.isZero;
+
+/**
+ * Class Point represents a point in three-dimensional space.
+ * <p>
+ * The coordinates are held in fields of the point itself rather than in a
+ * separate triad, so a point is a single object the JIT can replace by its
+ * three scalars (escape analysis) when it does not leave the code creating it.
+ * The methods of points are final but {@link #add(Vector)} (which a
+ * {@link Vector} refines to a vector sum) and the identity methods, so their
+ * call sites stay monomorphic and inlinable. This is the shape of a value
+ * class: immutable, no identity-dependent behaviour.
+ *
+ * @author Raphael
+ */
+public class Point implements ContentHashable {
+    /**
+     * The origin of the coordinate system (0,0,0)
+     */
+    public static final Point ZERO = new Point(0, 0, 0);
+
+    /**
+     * The x coordinate of the point
+     */
+    final double x;
+    /**
+     * The y coordinate of the point
+     */
+    final double y;
+    /**
+     * The z coordinate of the point
+     */
+    final double z;
+
+    /**
+     * Constructs a Point with the specified x, y, and z coordinates.
+     *
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @param z The z-coordinate of the point.
+     */
+    public Point(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Constructs a Point with the specified Double3 object.
+     *
+     * @param xyz The Double3 object containing x, y, and z coordinates.
+     */
+    public Point(Double3 xyz) {
+        this(xyz.d1(), xyz.d2(), xyz.d3());
+    }
+
+    /**
+     * Returns the x-coordinate of the point.
+     *
+     * @return the x-coordinate
+     */
+    public final double getX() {
+        return x;
+    }
+
+    /**
+     * Returns the y-coordinate of the point.
+     *
+     * @return the y-coordinate
+     */
+    public final double getY() {
+        return y;
+    }
+
+    /**
+     * Returns the z-coordinate of the point.
+     *
+     * @return the z-coordinate
+     */
+    public final double getZ() {
+        return z;
+    }
+
+    /**
+     * Adds a vector to this point.
+     *
+     * @param vector The vector to add.
+     * @return The resulting point after moving this point by the vector.
+     */
+    public Point add(Vector vector) {
+        return new Point(x + vector.x, y + vector.y, z + vector.z);
+    }
+
+    /**
+     * Subtracts another point from this point.
+     *
+     * @param other The point to subtract.
+     * @return The vector from the other point to this point.
+     * @throws IllegalArgumentException if the points are the same (zero vector).
+     */
+    public final Vector subtract(Point other) {
+        return new Vector(x - other.x, y - other.y, z - other.z);
+    }
+
+    /**
+     * Computes the squared distance between this point and another point.
+     *
+     * @param other The other point.
+     * @return The squared distance between the points.
+     */
+    public final double distanceSquared(Point other) {
+        double dx = x - other.x;
+        double dy = y - other.y;
+        double dz = z - other.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Computes the distance between this point and another point.
+     *
+     * @param other The other point.
+     * @return The distance between the points.
+     */
+    public final double distance(Point other) {
+        return Math.sqrt(distanceSquared(other));
+    }
+
+    /**
+     * Checks if this Point is equal to another Object.
+     *
+     * @param obj The Object to compare with.
+     * @return true if the Objects are equal, false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        return obj instanceof Point other
+                && isZero(x - other.x) && isZero(y - other.y) && isZero(z - other.z);
+    }
+
+    @Override
+    public final int hashCode() {
+        // the hash of the equal triad (see Double3#hashCode())
+        return Double3.spatialHash(Double3.cell(x), Double3.cell(y), Double3.cell(z));
+    }
+
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add("Point").add(x).add(y).add(z);
+    }
+
+    /**
+     * Returns a string representation of this Point.
+     *
+     * @return The string representation of the Point.
+     */
+    @Override
+    public String toString() {
+        return "(" + x + "," + y + "," + z + ")";
+    }
+}
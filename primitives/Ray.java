@@ -1,11 +1,18 @@
 package primitives;
 
+import static primitives.Util.isZero;
+
 /**
  * a Class Ray; Represents a ray in three-dimensional space, defined by a direction vector and an origin point.
  *
  * @author Raphael
  */
-public class Ray {
+public class Ray implements ContentHashable {
+    /**
+     * Distance by which the origin of a secondary ray is moved off its surface
+     */
+    private static final double DELTA = 0.1;
+
     /**
      * Direction vector of the ray
      */
@@ -16,6 +23,199 @@ public class Ray {
      */
     private final Point origin; // Origin point of the ray
 
+    /**
+     * Differentials of the ray with respect to the image plane, null if the
+     * ray has none
+     */
+    private final Differentials differentials;
+
+    /**
+     * Differentials of a ray - the changes of its origin and (normalized)
+     * direction from one pixel to the next along the image columns (x) and
+     * rows (y). They describe the footprint of the ray - the area of the
+     * surfaces the ray stands for - and follow the ray through the camera,
+     * reflections and refractions [Igehy, Tracing Ray Differentials, 1999].
+     *
+     * @param dOdx change of the origin along x
+     * @param dOdy change of the origin along y
+     * @param dDdx change of the direction along x
+     * @param dDdy change of the direction along y
+     */
+    public record Differentials(Double3 dOdx, Double3 dOdy, Double3 dDdx, Double3 dDdy) {
+        /**
+         * Calculates the differentials of a ray from a pinhole (a single origin)
+         *
+         * @param d  the (not normalized) direction of the ray
+         * @param dx change of the not normalized direction along x
+         * @param dy change of the not normalized direction along y
+         * @return the differentials, of the normalized direction
+         */
+        public static Differentials pinhole(Vector d, Vector dx, Vector dy) {
+            return new Differentials(Double3.ZERO, Double3.ZERO, normalized(d, dx), normalized(d, dy));
+        }
+
+        /**
+         * Calculates the differential of a normalized direction, d/|d| changing
+         * by (dd·|d|² - d (d·dd)) / |d|³
+         *
+         * @param d  the direction
+         * @param dd change of the direction
+         * @return change of the normalized direction
+         */
+        private static Double3 normalized(Vector d, Vector dd) {
+            double l2 = d.lengthSquared();
+            double k = d.dotProduct(dd), l3 = l2 * Math.sqrt(l2);
+            return new Double3((dd.x * l2 - d.x * k) / l3, (dd.y * l2 - d.y * k) / l3, (dd.z * l2 - d.z * k) / l3);
+        }
+
+        /**
+         * Calculates the differentials of the point a ray hits a surface at,
+         * as the origin differentials of the continuing rays
+         *
+         * @param d      the direction of the ray
+         * @param normal the normal of the surface
+         * @param t      the distance of the hit from the ray origin
+         * @return the differentials with the hit point differentials as
+         * origin differentials (the direction differentials are kept)
+         */
+        public Differentials transfer(Vector d, Vector normal, double t) {
+            double dn = d.dotProduct(normal);
+            return new Differentials(transfer(dOdx, dDdx, d, normal, dn, t), transfer(dOdy, dDdy, d, normal, dn, t),
+                    dDdx, dDdy);
+        }
+
+        /**
+         * Calculates a hit point differential
+         *
+         * @param dO     the origin differential
+         * @param dD     the direction differential
+         * @param d      the direction of the ray
+         * @param normal the normal of the surface
+         * @param dn     dot product of the direction and the normal
+         * @param t      the distance of the hit from the ray origin
+         * @return the hit point differential
+         */
+        private static Double3 transfer(Double3 dO, Double3 dD, Vector d, Vector normal, double dn, double t) {
+            Double3 spread = dO.add(dD.scale(t));
+            // a grazing ray keeps the spread perpendicular to it
+            return isZero(dn) ? spread : spread.subtract(triad(d, dot(spread, normal) / dn));
+        }
+
+        /**
+         * Calculates the differentials of the mirror reflection of a ray, whose
+         * origin differentials are already transferred to the hit point
+         *
+         * @param d      the direction of the incoming ray
+         * @param normal the normal of the surface
+         * @param dNdx   change of the normal along x
+         * @param dNdy   change of the normal along y
+         * @return the differentials of the reflected ray
+         */
+        public Differentials reflect(Vector d, Vector normal, Double3 dNdx, Double3 dNdy) {
+            double dn = d.dotProduct(normal);
+            return new Differentials(dOdx, dOdy,
+                    reflect(dDdx, dNdx, d, normal, dn), reflect(dDdy, dNdy, d, normal, dn));
+        }
+
+        /**
+         * Calculates a reflected direction differential
+         *
+         * @param dD     the incoming direction differential
+         * @param dN     the normal differential
+         * @param d      the incoming direction
+         * @param normal the normal
+         * @param dn     dot product of the direction and the normal
+         * @return the reflected direction differential
+         */
+        private static Double3 reflect(Double3 dD, Double3 dN, Vector d, Vector normal, double dn) {
+            double dDn = dot(dD, normal) + dot(dN, d);
+            return dD.subtract(dN.scale(2 * dn).add(triad(normal, 2 * dDn)));
+        }
+
+        /**
+         * Calculates the differentials of the refraction of a ray, whose origin
+         * differentials are already transferred to the hit point
+         *
+         * @param d      the direction of the incoming ray
+         * @param normal the normal of the surface, against the incoming ray
+         * @param dNdx   change of the normal along x
+         * @param dNdy   change of the normal along y
+         * @param eta    ratio of the refraction indices (incoming / outgoing)
+         * @param t      the refracted direction
+         * @return the differentials of the refracted ray
+         */
+        public Differentials refract(Vector d, Vector normal, Double3 dNdx, Double3 dNdy, double eta, Vector t) {
+            double dn = d.dotProduct(normal);
+            double tn = t.dotProduct(normal);
+            double mu = eta * dn - tn;
+            double dMu = eta - eta * eta * dn / tn;
+            return new Differentials(dOdx, dOdy,
+                    refract(dDdx, dNdx, d, normal, dn, eta, mu, dMu), refract(dDdy, dNdy, d, normal, dn, eta, mu, dMu));
+        }
+
+        /**
+         * Calculates a refracted direction differential
+         *
+         * @param dD     the incoming direction differential
+         * @param dN     the normal differential
+         * @param d      the incoming direction
+         * @param normal the normal, against the incoming ray
+         * @param dn     dot product of the direction and the normal
+         * @param eta    ratio of the refraction indices
+         * @param mu     the normal factor of the refracted direction
+         * @param dMu    derivative of the normal factor by the dot product
+         * @return the refracted direction differential
+         */
+        private static Double3 refract(Double3 dD, Double3 dN, Vector d, Vector normal, double dn,
+                                       double eta, double mu, double dMu) {
+            double dDn = dot(dD, normal) + dot(dN, d);
+            return dD.scale(eta).subtract(dN.scale(mu).add(triad(normal, dMu * dDn)));
+        }
+
+        /**
+         * Calculates the width of the footprint of the ray at a distance from
+         * its origin, ignoring the inclination of the surface there
+         *
+         * @param t the distance
+         * @return the larger of the spreads along x and y
+         */
+        public double footprint(double t) {
+            return Math.max(length(dOdx.add(dDdx.scale(t))), length(dOdy.add(dDdy.scale(t))));
+        }
+
+        /**
+         * Calculates the dot product of a differential and a vector
+         *
+         * @param a the differential
+         * @param v the vector
+         * @return the dot product
+         */
+        private static double dot(Double3 a, Vector v) {
+            return a.d1() * v.getX() + a.d2() * v.getY() + a.d3() * v.getZ();
+        }
+
+        /**
+         * Scales a vector into a differential
+         *
+         * @param v     the vector
+         * @param scale the factor
+         * @return the scaled components of the vector
+         */
+        private static Double3 triad(Vector v, double scale) {
+            return new Double3(v.x * scale, v.y * scale, v.z * scale);
+        }
+
+        /**
+         * Calculates the length of a differential
+         *
+         * @param a the differential
+         * @return the length
+         */
+        private static double length(Double3 a) {
+            return Math.sqrt(a.d1() * a.d1() + a.d2() * a.d2() + a.d3() * a.d3());
+        }
+    }
+
     /**
      * Constructs a Ray with the specified direction vector and origin point.
      *
@@ -23,8 +223,49 @@ public class Ray {
      * @param origin    The origin point of the ray.
      */
     public Ray(Point origin, Vector direction) {
+        this(origin, direction, (Differentials) null);
+    }
+
+    /**
+     * Constructs a ray with differentials
+     *
+     * @param origin        the origin point of the ray
+     * @param direction     the direction vector of the ray
+     * @param differentials the differentials of the ray (null for none)
+     */
+    public Ray(Point origin, Vector direction, Differentials differentials) {
         this.direction = direction.normalize(); // Normalize the direction vector
         this.origin = origin;
+        this.differentials = differentials;
+    }
+
+    /**
+     * Constructs a secondary ray leaving a surface. The origin is moved slightly
+     * along the surface normal, to the side the ray leaves to, so that the ray
+     * does not hit the surface it starts on due to floating point errors.
+     *
+     * @param point     the point on the surface
+     * @param direction the direction of the ray
+     * @param normal    the normal to the surface at the point
+     */
+    public Ray(Point point, Vector direction, Vector normal) {
+        this(point, direction, normal, null);
+    }
+
+    /**
+     * Constructs a secondary ray with differentials leaving a surface (see
+     * {@link #Ray(Point, Vector, Vector)})
+     *
+     * @param point         the point on the surface
+     * @param direction     the direction of the ray
+     * @param normal        the normal to the surface at the point
+     * @param differentials the differentials of the ray (null for none)
+     */
+    public Ray(Point point, Vector direction, Vector normal, Differentials differentials) {
+        this.direction = direction.normalize();
+        double nv = normal.dotProduct(direction);
+        this.origin = isZero(nv) ? point : point.add(normal.scale(nv > 0 ? DELTA : -DELTA));
+        this.differentials = differentials;
     }
 
     /**
@@ -37,6 +278,11 @@ public class Ray {
         return "Ray [direction=" + direction + ", origin=" + origin + "]";
     }
 
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add("Ray").add(origin).add(direction);
+    }
+
     /**
      * Returns the direction vector of the ray.
      *
@@ -55,4 +301,24 @@ public class Ray {
     public Point origin() {
         return origin;
     }
+
+    /**
+     * Returns the differentials of the ray
+     *
+     * @return the differentials, or null if the ray has none
+     */
+    public Differentials differentials() {
+        return differentials;
+    }
+
+    /**
+     * Calculates a point on the ray at a given distance from its origin
+     *
+     * @param t the distance from the origin
+     * @return the point origin + t * direction
+     */
+    public Point getPoint(double t) {
+        return isZero(t) ? origin : new Point(origin.getX() + t * direction.getX(),
+                origin.getY() + t * direction.getY(), origin.getZ() + t * direction.getZ());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,302 @@
+package primitives;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary input of a snapshot written by {@link SnapshotOutput}, read from a
+ * channel through a direct little endian {@link ByteBuffer}.
+ * <p>
+ * A shared object is read by {@link #reference(Class)}: a non-negative index
+ * returns the object registered before, -1 means the object follows - the
+ * caller reads it and {@link #register(Object) registers} it.
+ *
+ * @author Raphael
+ */
+public final class SnapshotInput {
+    /**
+     * Size of the buffer
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The channel read from
+     */
+    private final ReadableByteChannel channel;
+    /**
+     * The buffer
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    /**
+     * The registered objects by their indices
+     */
+    private final List<Object> references = new ArrayList<>();
+
+    /**
+     * Constructs an input
+     *
+     * @param channel the channel read from
+     */
+    public SnapshotInput(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.limit(0);
+    }
+
+    /**
+     * Makes bytes available in the buffer
+     *
+     * @param bytes the amount of bytes needed (at most the buffer size)
+     * @throws IOException if the channel cannot be read or ends before
+     */
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) return;
+        buffer.compact();
+        while (buffer.position() < bytes)
+            if (channel.read(buffer) < 0) throw new EOFException("Truncated snapshot");
+        buffer.flip();
+    }
+
+    /**
+     * Reads an int
+     *
+     * @return the value
+     * @throws IOException if the channel cannot be read
+     */
+    public int getInt() throws IOException {
+        ensure(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    /**
+     * Reads a long
+     *
+     * @return the value
+     * @throws IOException if the channel cannot be read
+     */
+    public long getLong() throws IOException {
+        ensure(Long.BYTES);
+        return buffer.getLong();
+    }
+
+    /**
+     * Reads a double
+     *
+     * @return the value
+     * @throws IOException if the channel cannot be read
+     */
+    public double getDouble() throws IOException {
+        ensure(Double.BYTES);
+        return buffer.getDouble();
+    }
+
+    /**
+     * Reads a boolean
+     *
+     * @return the value
+     * @throws IOException if the channel cannot be read
+     */
+    public boolean getBoolean() throws IOException {
+        ensure(1);
+        return buffer.get() != 0;
+    }
+
+    /**
+     * Reads the length of an array or a string
+     *
+     * @return the length
+     * @throws IOException if the channel cannot be read or the length is
+     *                     negative
+     */
+    private int length() throws IOException {
+        int length = getInt();
+        if (length < 0) throw new IOException("Corrupt snapshot: negative length");
+        return length;
+    }
+
+    /**
+     * Reads a string
+     *
+     * @return the value
+     * @throws IOException if the channel cannot be read
+     */
+    public String getString() throws IOException {
+        byte[] bytes = new byte[length()];
+        for (int offset = 0; offset < bytes.length; ) {
+            ensure(1);
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.get(bytes, offset, length);
+            offset += length;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads an array of doubles
+     *
+     * @return the values
+     * @throws IOException if the channel cannot be read
+     */
+    public double[] getDoubles() throws IOException {
+        double[] values = new double[length()];
+        for (int offset = 0; offset < values.length; ) {
+            ensure(Double.BYTES);
+            int length = Math.min(buffer.remaining() / Double.BYTES, values.length - offset);
+            buffer.asDoubleBuffer().get(values, offset, length);
+            buffer.position(buffer.position() + length * Double.BYTES);
+            offset += length;
+        }
+        return values;
+    }
+
+    /**
+     * Reads an array of floats
+     *
+     * @return the values
+     * @throws IOException if the channel cannot be read
+     */
+    public float[] getFloats() throws IOException {
+        float[] values = new float[length()];
+        for (int offset = 0; offset < values.length; ) {
+            ensure(Float.BYTES);
+            int length = Math.min(buffer.remaining() / Float.BYTES, values.length - offset);
+            buffer.asFloatBuffer().get(values, offset, length);
+            buffer.position(buffer.position() + length * Float.BYTES);
+            offset += length;
+        }
+        return values;
+    }
+
+    /**
+     * Reads an array of ints
+     *
+     * @return the values
+     * @throws IOException if the channel cannot be read
+     */
+    public int[] getInts() throws IOException {
+        int[] values = new int[length()];
+        for (int offset = 0; offset < values.length; ) {
+            ensure(Integer.BYTES);
+            int length = Math.min(buffer.remaining() / Integer.BYTES, values.length - offset);
+            buffer.asIntBuffer().get(values, offset, length);
+            buffer.position(buffer.position() + length * Integer.BYTES);
+            offset += length;
+        }
+        return values;
+    }
+
+    /**
+     * Reads a triad of numbers. The common triads of zeros and ones are
+     * shared rather than allocated again
+     *
+     * @return the triad
+     * @throws IOException if the channel cannot be read
+     */
+    public Double3 getDouble3() throws IOException {
+        ensure(3 * Double.BYTES);
+        double d1 = buffer.getDouble(), d2 = buffer.getDouble(), d3 = buffer.getDouble();
+        if (d1 == 0 && d2 == 0 && d3 == 0) return Double3.ZERO;
+        if (d1 == 1 && d2 == 1 && d3 == 1) return Double3.ONE;
+        return new Double3(d1, d2, d3);
+    }
+
+    /**
+     * Reads a point
+     *
+     * @return the point
+     * @throws IOException if the channel cannot be read
+     */
+    public Point getPoint() throws IOException {
+        ensure(3 * Double.BYTES);
+        return new Point(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+    }
+
+    /**
+     * Reads a vector
+     *
+     * @return the vector
+     * @throws IOException if the channel cannot be read or the vector is zero
+     */
+    public Vector getVector() throws IOException {
+        try {
+            ensure(3 * Double.BYTES);
+            return new Vector(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt snapshot: zero vector", e);
+        }
+    }
+
+    /**
+     * Reads a color
+     *
+     * @return the color
+     * @throws IOException if the channel cannot be read
+     */
+    public Color getColor() throws IOException {
+        ensure(3 * Double.BYTES);
+        double r = buffer.getDouble(), g = buffer.getDouble(), b = buffer.getDouble();
+        return r == 0 && g == 0 && b == 0 ? Color.BLACK : new Color(r, g, b);
+    }
+
+    /**
+     * Reads a material, shared by all its owners
+     *
+     * @return the material
+     * @throws IOException if the channel cannot be read
+     */
+    public Material getMaterial() throws IOException {
+        Material shared = reference(Material.class);
+        if (shared != null) return shared;
+        Material material = register(new Material());
+        material.kA = getDouble3();
+        material.kD = getDouble3();
+        material.kS = getDouble3();
+        material.kT = getDouble3();
+        material.kR = getDouble3();
+        material.nShininess = getInt();
+        material.ior = getDouble();
+        material.glossiness = getDouble();
+        material.blurriness = getDouble();
+        if (getBoolean()) {
+            material.texture = MipmapTexture.read(this);
+            material.textureU = getVector();
+            material.textureV = getVector();
+        }
+        return material;
+    }
+
+    /**
+     * Reads the reference of a shared object
+     *
+     * @param type the type of the object
+     * @param <T>  the type of the object
+     * @return the object registered before, or null if the object follows
+     * @throws IOException if the channel cannot be read or the reference is
+     *                     invalid
+     */
+    public <T> T reference(Class<T> type) throws IOException {
+        int index = getInt();
+        if (index == -1) return null;
+        if (index < 0 || index >= references.size() || !type.isInstance(references.get(index)))
+            throw new IOException("Corrupt snapshot: bad reference " + index);
+        return type.cast(references.get(index));
+    }
+
+    /**
+     * Registers a shared object read after its reference, in the order of
+     * {@link SnapshotOutput#reference(Object)}
+     *
+     * @param object the object
+     * @param <T>    the type of the object
+     * @return the object
+     */
+    public <T> T register(T object) {
+        references.add(object);
+        return object;
+    }
+}
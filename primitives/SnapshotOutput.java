@@ -0,0 +1,274 @@
+package primitives;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Binary output of a snapshot (see {@link SnapshotInput}), written through a
+ * direct little endian {@link ByteBuffer} into a channel.
+ * <p>
+ * Arrays are copied in bulk through views of the buffer. Objects shared by
+ * many owners (materials, mesh topology) are written once: the first
+ * {@link #reference(Object)} of an object writes -1 and registers it, the next
+ * ones write its index.
+ *
+ * @author Raphael
+ */
+public final class SnapshotOutput {
+    /**
+     * Size of the buffer
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The channel written to
+     */
+    private final WritableByteChannel channel;
+    /**
+     * The buffer
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    /**
+     * The indices of the registered objects
+     */
+    private final Map<Object, Integer> references = new IdentityHashMap<>();
+
+    /**
+     * Constructs an output
+     *
+     * @param channel the channel written to
+     */
+    public SnapshotOutput(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Makes room in the buffer
+     *
+     * @param bytes the amount of bytes needed (at most the buffer size)
+     * @throws IOException if the channel cannot be written
+     */
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) flush();
+    }
+
+    /**
+     * Writes the buffered bytes to the channel
+     *
+     * @throws IOException if the channel cannot be written
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Writes an int
+     *
+     * @param value the value
+     * @return the output itself
+     * @throws IOException if the channel cannot be written
+     */
+    public SnapshotOutput putInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+        return this;
+    }
+
+    /**
+     * Writes a long
+     *
+     * @param value the value
+     * @return the output itself
+     * @throws IOException if the channel cannot be written
+     */
+    public SnapshotOutput putLong(long value) throws IOException {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+        return this;
+    }
+
+    /**
+     * Writes a double
+     *
+     * @param value the value
+     * @return the output itself
+     * @throws IOException if the channel cannot be written
+     */
+    public SnapshotOutput putDouble(double value) throws IOException {
+        ensure(Double.BYTES);
+        buffer.putDouble(value);
+        return this;
+    }
+
+    /**
+     * Writes a boolean
+     *
+     * @param value the value
+     * @return the output itself
+     * @throws IOException if the channel cannot be written
+     */
+    public SnapshotOutput putBoolean(boolean value) throws IOException {
+        ensure(1);
+        buffer.put((byte) (value ? 1 : 0));
+        return this;
+    }
+
+    /**
+     * Writes a string (UTF-8, preceded by its length)
+     *
+     * @param value the value
+     * @return the output itself
+     * @throws IOException if the channel cannot be written
+     */
+    public SnapshotOutput putString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        for (int offset = 0; offset < bytes.length; ) {
+            ensure(1);
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+        return this;
+    }
+
+    /**
+     * Writes an array of doubles (preceded by its length)
+     *
+     * @param values the values
+     * @return the output itself
+     * @throws IOException if the channel cannot be written
+     */
+    public SnapshotOutput putDoubles(double[] values) throws IOException {
+        putInt(values.length);
+        for (int offset = 0; offset < values.length; ) {
+            ensure(Double.BYTES);
+            int length = Math.min(buffer.remaining() / Double.BYTES, values.length - offset);
+            buffer.asDoubleBuffer().put(values, offset, length);
+            buffer.position(buffer.position() + length * Double.BYTES);
+            offset += length;
+        }
+        return this;
+    }
+
+    /**
+     * Writes an array of floats (preceded by its length)
+     *
+     * @param values the values
+     * @return the output itself
+     * @throws IOException if the channel cannot be written
+     */
+    public SnapshotOutput putFloats(float[] values) throws IOException {
+        putInt(values.length);
+        for (int offset = 0; offset < values.length; ) {
+            ensure(Float.BYTES);
+            int length = Math.min(buffer.remaining() / Float.BYTES, values.length - offset);
+            buffer.asFloatBuffer().put(values, offset, length);
+            buffer.position(buffer.position() + length * Float.BYTES);
+            offset += length;
+        }
+        return this;
+    }
+
+    /**
+     * Writes an array of ints (preceded by its length)
+     *
+     * @param values the values
+     * @return the output itself
+     * @throws IOException if the channel cannot be written
+     */
+    public SnapshotOutput putInts(int[] values) throws IOException {
+        putInt(values.length);
+        for (int offset = 0; offset < values.length; ) {
+            ensure(Integer.BYTES);
+            int length = Math.min(buffer.remaining() / Integer.BYTES, values.length - offset);
+            buffer.asIntBuffer().put(values, offset, length);
+            buffer.position(buffer.position() + length * Integer.BYTES);
+            offset += length;
+        }
+        return this;
+    }
+
+    /**
+     * Writes a triad of numbers
+     *
+     * @param value the triad
+     * @return the output itself
+     * @throws IOException if the channel cannot be written
+     */
+    public SnapshotOutput putDouble3(Double3 value) throws IOException {
+        ensure(3 * Double.BYTES);
+        buffer.putDouble(value.d1()).putDouble(value.d2()).putDouble(value.d3());
+        return this;
+    }
+
+    /**
+     * Writes a point (or a vector)
+     *
+     * @param value the point
+     * @return the output itself
+     * @throws IOException if the channel cannot be written
+     */
+    public SnapshotOutput putPoint(Point value) throws IOException {
+        ensure(3 * Double.BYTES);
+        buffer.putDouble(value.getX()).putDouble(value.getY()).putDouble(value.getZ());
+        return this;
+    }
+
+    /**
+     * Writes a color
+     *
+     * @param value the color
+     * @return the output itself
+     * @throws IOException if the channel cannot be written
+     */
+    public SnapshotOutput putColor(Color value) throws IOException {
+        ensure(3 * Double.BYTES);
+        buffer.putDouble(value.getRed()).putDouble(value.getGreen()).putDouble(value.getBlue());
+        return this;
+    }
+
+    /**
+     * Writes a material, once for all its owners
+     *
+     * @param material the material
+     * @return the output itself
+     * @throws IOException if the channel cannot be written
+     */
+    public SnapshotOutput putMaterial(Material material) throws IOException {
+        if (reference(material)) return this;
+        putDouble3(material.kA).putDouble3(material.kD).putDouble3(material.kS).putDouble3(material.kT)
+                .putDouble3(material.kR).putInt(material.nShininess).putDouble(material.ior)
+                .putDouble(material.glossiness).putDouble(material.blurriness).putBoolean(material.texture != null);
+        if (material.texture != null)
+            material.texture.write(this).putPoint(material.textureU).putPoint(material.textureV);
+        return this;
+    }
+
+    /**
+     * Writes the reference of a shared object. The first time, writes -1 and
+     * registers the object - the caller then writes the object itself
+     *
+     * @param object the object
+     * @return true if the object has been written before (only its index is
+     * written now), false if the caller has to write it
+     * @throws IOException if the channel cannot be written
+     */
+    public boolean reference(Object object) throws IOException {
+        Integer index = references.get(object);
+        if (index != null) {
+            putInt(index);
+            return true;
+        }
+        references.put(object, references.size());
+        putInt(-1);
+        return false;
+    }
+}
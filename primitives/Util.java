@@ -11,6 +11,12 @@ public final class Util {
      */
     private static final int ACCURACY = -40;
 
+    /**
+     * The tolerance of {@link #isZero(double)}: numbers whose magnitude is below
+     * it are considered zero (2<sup>-40</sup>)
+     */
+    public static final double EPSILON = Math.scalb(1.0, ACCURACY);
+
     /**
      * Don't let anyone instantiate this class.
      */
@@ -78,4 +84,27 @@ public final class Util {
         return Math.random() * (max - min) + min;
     }
 
+    /**
+     * Maps a point of the unit square onto the unit disc with the concentric
+     * mapping of Shirley and Chiu, which keeps equal areas and keeps
+     * neighbouring cells of the square neighbours on the disc
+     *
+     * @param u first coordinate on the square (0 to 1)
+     * @param v second coordinate on the square (0 to 1)
+     * @return the point (x, y, 0) on the disc
+     */
+    public static Double3 concentricDisk(double u, double v) {
+        double a = 2 * u - 1, b = 2 * v - 1;
+        if (a == 0 && b == 0) return Double3.ZERO;
+        double r, phi;
+        if (Math.abs(a) > Math.abs(b)) {
+            r = a;
+            phi = Math.PI / 4 * (b / a);
+        } else {
+            r = b;
+            phi = Math.PI / 2 - Math.PI / 4 * (a / b);
+        }
+        return new Double3(r * Math.cos(phi), r * Math.sin(phi), 0);
+    }
+
 }
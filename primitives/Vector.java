@@ -1,12 +1,16 @@
 package primitives;
 
+import static primitives.Util.isZero;
+
 /**
  * Class Vector represents a vector in three-dimensional space.
- * Extends the Point class to inherit x, y, and z coordinates.
+ * Extends the Point class to inherit x, y, and z coordinates; the class is
+ * final and computes on the coordinate fields directly, so a vector is a
+ * single object whose temporaries the JIT can replace by scalars.
  *
  * @author Raphael
  */
-public class Vector extends Point {
+public final class Vector extends Point {
 
     /**
      * Constructs a Vector with the specified x, y, and z coordinates.
@@ -18,7 +22,7 @@ public class Vector extends Point {
      */
     public Vector(double x, double y, double z) {
         super(x, y, z);
-        if (this.xyz.equals(Double3.ZERO)) {
+        if (isZero(x) && isZero(y) && isZero(z)) {
             throw new IllegalArgumentException("You may not create a ZERO vector.");
         }
     }
@@ -30,10 +34,7 @@ public class Vector extends Point {
      * @throws IllegalArgumentException if attempting to create a zero vector.
      */
     public Vector(Double3 xyz) {
-        super(xyz);
-        if (xyz.equals(Double3.ZERO)) {
-            throw new IllegalArgumentException("You may not create a ZERO vector.");
-        }
+        this(xyz.d1(), xyz.d2(), xyz.d3());
     }
 
     /**
@@ -44,10 +45,8 @@ public class Vector extends Point {
      * @throws IllegalArgumentException if attempting to create a zero vector.
      */
     public Vector add(Vector other) {
-        if (this.xyz.equals(other.xyz.scale(-1))) {
-            throw new IllegalArgumentException("You may not create a ZERO vector.");
-        }
-        return new Vector(xyz.add(other.xyz));
+        // the constructor rejects a zero sum
+        return new Vector(x + other.x, y + other.y, z + other.z);
     }
 
     /**
@@ -57,7 +56,7 @@ public class Vector extends Point {
      * @return The resulting scaled Vector.
      */
     public Vector scale(double scalar) {
-        return new Vector(xyz.scale(scalar));
+        return new Vector(x * scalar, y * scalar, z * scalar);
     }
 
     /**
@@ -67,9 +66,7 @@ public class Vector extends Point {
      * @return The dot product of the two Vectors.
      */
     public double dotProduct(Vector other) {
-        return (this.xyz.d1() * other.xyz.d1() +
-                this.xyz.d2() * other.xyz.d2() +
-                this.xyz.d3() * other.xyz.d3());
+        return x * other.x + y * other.y + z * other.z;
     }
 
     /**
@@ -79,11 +76,7 @@ public class Vector extends Point {
      * @return The cross product Vector.
      */
     public Vector crossProduct(Vector other) {
-        return new Vector(
-                this.xyz.d2() * other.xyz.d3() - this.xyz.d3() * other.xyz.d2(),
-                this.xyz.d3() * other.xyz.d1() - this.xyz.d1() * other.xyz.d3(),
-                this.xyz.d1() * other.xyz.d2() - this.xyz.d2() * other.xyz.d1()
-        );
+        return new Vector(y * other.z - z * other.y, z * other.x - x * other.z, x * other.y - y * other.x);
     }
 
     /**
@@ -93,7 +86,7 @@ public class Vector extends Point {
      * @return The squared length of the Vector.
      */
     public double lengthSquared() {
-        return dotProduct(this);
+        return x * x + y * y + z * z;
     }
 
     /**
@@ -111,7 +104,21 @@ public class Vector extends Point {
      * @return The normalized Vector.
      */
     public Vector normalize() {
-        return new Vector(this.xyz.reduce(length()));
+        double length = length();
+        return new Vector(x / length, y / length, z / length);
+    }
+
+    /**
+     * Returns a normalized vector orthogonal to this Vector - the cross product
+     * with the coordinate axis least parallel to it.
+     *
+     * @return an orthogonal unit Vector.
+     */
+    public Vector orthogonal() {
+        double ax = Math.abs(x), ay = Math.abs(y), az = Math.abs(z);
+        Vector axis = ax <= ay && ax <= az ? new Vector(1, 0, 0)
+                : ay <= az ? new Vector(0, 1, 0) : new Vector(0, 0, 1);
+        return crossProduct(axis).normalize();
     }
 
     /**
@@ -126,6 +133,11 @@ public class Vector extends Point {
         return obj instanceof Vector other && super.equals(other);
     }
 
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add("Vector").add(x).add(y).add(z);
+    }
+
     /**
      * Returns a string representation of this Vector.
      *
@@ -0,0 +1,233 @@
+package primitives;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hash map from points to vertex indices that merges (welds) points closer
+ * than a tolerance, used to deduplicate mesh vertices in linear time.
+ * <p>
+ * The space is divided into cubic cells as large as the tolerance, and the
+ * vertices are kept in an open addressing table by cell. A point may only
+ * coincide with vertices of its own cell or the 26 cells around it, so a lookup
+ * costs a constant amount of work regardless of the amount of vertices,
+ * including points lying on cell boundaries.
+ * <p>
+ * Coordinates so large that the cell index would exceed 2<sup>62</sup>
+ * have a spacing of doubles wider than the tolerance, so such a coordinate
+ * only coincides with itself: it is given a cell of its own, derived from its
+ * bits, beyond the cells of the grid.
+ *
+ * @author Raphael
+ */
+public final class VertexWelder {
+    /**
+     * Marks an unused table slot
+     */
+    private static final int EMPTY = -1;
+    /**
+     * Bound of the cell indices of coordinates within the grid; the indices of
+     * the coordinates beyond it are kept above it, far from the long limits
+     */
+    private static final double GRID_LIMIT = 0x1p62;
+
+    /**
+     * Maximal distance (along every axis) between welded points
+     */
+    private final double tolerance;
+    /**
+     * The distinct vertices, by index
+     */
+    private final List<Point> vertices = new ArrayList<>();
+    /**
+     * Coordinates of the vertices, 3 per vertex
+     */
+    private double[] coordinates = new double[48];
+    /**
+     * Next vertex in the same cell, {@link #EMPTY} at the end of the chain
+     */
+    private int[] next = new int[16];
+
+    /**
+     * Cell coordinates of every used table slot, 3 per slot
+     */
+    private long[] cells;
+    /**
+     * First vertex of the cell of every slot, {@link #EMPTY} for an unused slot
+     */
+    private int[] heads;
+    /**
+     * Amount of used slots
+     */
+    private int used = 0;
+
+    /**
+     * Constructs a welder that merges points equal within the tolerance of
+     * {@link Point#equals(Object)}
+     */
+    public VertexWelder() {
+        this(Util.EPSILON);
+    }
+
+    /**
+     * Constructs a welder with a given tolerance
+     *
+     * @param tolerance maximal distance along every axis between merged points
+     * @throws IllegalArgumentException if the tolerance is not positive
+     */
+    public VertexWelder(double tolerance) {
+        if (!(tolerance > 0))
+            throw new IllegalArgumentException("Tolerance must be positive");
+        this.tolerance = tolerance;
+        allocate(64);
+    }
+
+    /**
+     * Returns the index of a vertex coinciding with a point, adding the point as
+     * a new vertex if there is none
+     *
+     * @param point the point
+     * @return the vertex index
+     */
+    public int weld(Point point) {
+        double x = point.getX(), y = point.getY(), z = point.getZ();
+        long cx = cell(x), cy = cell(y), cz = cell(z);
+        for (long i = cx - 1; i <= cx + 1; ++i)
+            for (long j = cy - 1; j <= cy + 1; ++j)
+                for (long k = cz - 1; k <= cz + 1; ++k) {
+                    int slot = find(i, j, k);
+                    if (heads[slot] == EMPTY) continue;
+                    for (int v = heads[slot]; v != EMPTY; v = next[v])
+                        if (Math.abs(coordinates[3 * v] - x) <= tolerance
+                                && Math.abs(coordinates[3 * v + 1] - y) <= tolerance
+                                && Math.abs(coordinates[3 * v + 2] - z) <= tolerance)
+                            return v;
+                }
+        return add(point, cx, cy, cz);
+    }
+
+    /**
+     * Returns the amount of distinct vertices
+     *
+     * @return the amount of vertices
+     */
+    public int size() {
+        return vertices.size();
+    }
+
+    /**
+     * Returns a vertex by its index
+     *
+     * @param index the vertex index
+     * @return the vertex (the first welded point)
+     */
+    public Point get(int index) {
+        return vertices.get(index);
+    }
+
+    /**
+     * Returns the distinct vertices in index order
+     *
+     * @return unmodifiable list of the vertices
+     */
+    public List<Point> vertices() {
+        return Collections.unmodifiableList(vertices);
+    }
+
+    /**
+     * Calculates the cell index of a coordinate
+     *
+     * @param value the coordinate
+     * @return the cell index
+     */
+    private long cell(double value) {
+        double cell = Math.floor(value / tolerance);
+        if (Math.abs(cell) < GRID_LIMIT) return (long) cell;
+        // a cell per 4 neighbouring doubles, 2^62 + (bits / 4) < 3 * 2^61 - the
+        // neighbouring cells probed around it cannot overflow
+        long offset = (1L << 62) + (Double.doubleToLongBits(Math.abs(value)) >>> 2);
+        return value > 0 ? offset : -offset;
+    }
+
+    /**
+     * Finds the table slot of a cell (linear probing)
+     *
+     * @param x the cell x index
+     * @param y the cell y index
+     * @param z the cell z index
+     * @return the slot holding the cell, or the empty slot where it belongs
+     */
+    private int find(long x, long y, long z) {
+        int mask = heads.length - 1;
+        int slot = Double3.spatialHash(x, y, z) & mask;
+        while (heads[slot] != EMPTY
+                && (cells[3 * slot] != x || cells[3 * slot + 1] != y || cells[3 * slot + 2] != z))
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    /**
+     * Adds a new vertex
+     *
+     * @param point the vertex
+     * @param x     the cell x index
+     * @param y     the cell y index
+     * @param z     the cell z index
+     * @return the index of the new vertex
+     */
+    private int add(Point point, long x, long y, long z) {
+        int v = vertices.size();
+        vertices.add(point);
+        if (v == next.length) {
+            next = Arrays.copyOf(next, 2 * v);
+            coordinates = Arrays.copyOf(coordinates, 6 * v);
+        }
+        coordinates[3 * v] = point.getX();
+        coordinates[3 * v + 1] = point.getY();
+        coordinates[3 * v + 2] = point.getZ();
+
+        int slot = find(x, y, z);
+        if (heads[slot] == EMPTY) {
+            cells[3 * slot] = x;
+            cells[3 * slot + 1] = y;
+            cells[3 * slot + 2] = z;
+            ++used;
+        }
+        next[v] = heads[slot];
+        heads[slot] = v;
+        if (2 * used > heads.length) rehash();
+        return v;
+    }
+
+    /**
+     * Allocates an empty table
+     *
+     * @param capacity amount of slots (a power of 2)
+     */
+    private void allocate(int capacity) {
+        heads = new int[capacity];
+        Arrays.fill(heads, EMPTY);
+        cells = new long[3 * capacity];
+        used = 0;
+    }
+
+    /**
+     * Doubles the table and reinserts the cells
+     */
+    private void rehash() {
+        long[] oldCells = cells;
+        int[] oldHeads = heads;
+        allocate(2 * oldHeads.length);
+        for (int s = 0; s < oldHeads.length; ++s) {
+            if (oldHeads[s] == EMPTY) continue;
+            int slot = find(oldCells[3 * s], oldCells[3 * s + 1], oldCells[3 * s + 2]);
+            cells[3 * slot] = oldCells[3 * s];
+            cells[3 * slot + 1] = oldCells[3 * s + 1];
+            cells[3 * slot + 2] = oldCells[3 * s + 2];
+            heads[slot] = oldHeads[s];
+            ++used;
+        }
+    }
+}
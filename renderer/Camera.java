@@ -0,0 +1,666 @@
+package renderer;
+
+import geometries.BoundingBox;
+import primitives.Color;
+import primitives.ContentHash;
+import primitives.ContentHashable;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.MissingResourceException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import static primitives.Util.isZero;
+
+/**
+ * Class Camera constructs the rays through the pixels of the view plane and
+ * renders the image.
+ * <p>
+ * The image is rendered in square tiles, traced in parallel. When a
+ * {@link TileCache} is set, a tile whose scene, camera and tracer settings did
+ * not change since it was last rendered is read from the cache instead of
+ * being traced.
+ *
+ * @author Raphael
+ */
+public class Camera implements ContentHashable {
+    /**
+     * Width and height of the rendered tiles in pixels
+     */
+    public static final int TILE_SIZE = 32;
+    /**
+     * Quality of a tile rendered without a time budget - a sample per pixel
+     * at the full depth of the tracer
+     */
+    private static final QualityController.Level FULL_QUALITY = QualityController.LEVELS[1];
+
+    /**
+     * The location of the camera
+     */
+    private Point location;
+    /**
+     * The direction the camera looks to
+     */
+    private Vector vTo;
+    /**
+     * The up direction of the camera
+     */
+    private Vector vUp;
+    /**
+     * The right direction of the camera
+     */
+    private Vector vRight;
+    /**
+     * The width of the view plane
+     */
+    private double width = 0;
+    /**
+     * The height of the view plane
+     */
+    private double height = 0;
+    /**
+     * The distance of the view plane from the camera
+     */
+    private double distance = 0;
+    /**
+     * Amount of columns of the image
+     */
+    private int nX = 1;
+    /**
+     * Amount of rows of the image
+     */
+    private int nY = 1;
+    /**
+     * The writer of the rendered image, created on its first use - a tiled
+     * render into another writer never allocates the whole frame
+     */
+    private ImageWriter imageWriter = null;
+    /**
+     * The tracer of the rays through the pixels
+     */
+    private RayTracerBase rayTracer;
+    /**
+     * Cache of rendered tiles, null for no caching
+     */
+    private TileCache tileCache = null;
+    /**
+     * Whether the renders are previews, which read the tiles carried over from
+     * a previous version of the scene (see {@link #carryOverTiles})
+     */
+    private boolean preview = false;
+
+    /**
+     * Private constructor - a camera is constructed by its {@link Builder}
+     */
+    private Camera() {
+    }
+
+    /**
+     * Returns a builder of a new camera
+     *
+     * @return the builder
+     */
+    public static Builder getBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the amount of columns of the image
+     *
+     * @return the amount of columns
+     */
+    public int getNx() {
+        return nX;
+    }
+
+    /**
+     * Returns the amount of rows of the image
+     *
+     * @return the amount of rows
+     */
+    public int getNy() {
+        return nY;
+    }
+
+    /**
+     * Constructs the ray through the center of a pixel
+     *
+     * @param nX amount of columns
+     * @param nY amount of rows
+     * @param j  the column of the pixel
+     * @param i  the row of the pixel
+     * @return the ray
+     */
+    public Ray constructRay(int nX, int nY, int j, int i) {
+        return constructRay(nX, nY, j + 0.5, i + 0.5, 1);
+    }
+
+    /**
+     * Constructs the ray through a point of the view plane given in pixel
+     * units (the center of pixel (j,i) is at (j+0.5, i+0.5)), with its
+     * differentials
+     *
+     * @param nX      amount of columns
+     * @param nY      amount of rows
+     * @param x       the horizontal position, from the left edge
+     * @param y       the vertical position, from the top edge
+     * @param spacing distance in pixels to the rays of the neighbouring samples
+     * @return the ray
+     */
+    private Ray constructRay(int nX, int nY, double x, double y, double spacing) {
+        Point pIJ = location.add(vTo.scale(distance));
+        double yI = -(y - nY / 2d) * height / nY;
+        double xJ = (x - nX / 2d) * width / nX;
+        if (!isZero(xJ)) pIJ = pIJ.add(vRight.scale(xJ));
+        if (!isZero(yI)) pIJ = pIJ.add(vUp.scale(yI));
+        Vector direction = pIJ.subtract(location);
+        return new Ray(location, direction, Ray.Differentials.pinhole(direction,
+                vRight.scale(spacing * width / nX), vUp.scale(-spacing * height / nY)));
+    }
+
+    /**
+     * Renders the image, tile by tile in parallel
+     *
+     * @return the camera itself
+     */
+    public Camera renderImage() {
+        return renderImage(imageWriter());
+    }
+
+    /**
+     * Renders the image, tile by tile in parallel, into a tile writer (e.g. a
+     * {@link StreamingImageWriter} for images too large for the memory). The
+     * tiles are taken in row order, so the rows of the image are completed
+     * roughly from the top down.
+     *
+     * @param writer the receiver of the rendered tiles
+     * @return the camera itself
+     */
+    public Camera renderImage(TileWriter writer) {
+        int tilesX = (nX + TILE_SIZE - 1) / TILE_SIZE;
+        int tiles = tilesX * ((nY + TILE_SIZE - 1) / TILE_SIZE);
+        long sceneHash = tileCache == null ? 0 : ContentHash.of(rayTracer.scene);
+        long cameraHash = tileCache == null ? 0 : ContentHash.of(this);
+        long settingsHash = tileCache == null ? 0 : ContentHash.of(rayTracer);
+        forEachTile(tiles, Runtime.getRuntime().availableProcessors(), tile -> {
+            int x = tile % tilesX * TILE_SIZE;
+            int y = tile / tilesX * TILE_SIZE;
+            int w = Math.min(TILE_SIZE, nX - x);
+            int h = Math.min(TILE_SIZE, nY - y);
+            float[] rgb = tileCache == null ? renderTile(x, y, w, h)
+                    : cachedTile(TileCache.key(sceneHash, cameraHash, settingsHash, x, y, w, h), x, y, w, h);
+            writer.writeTile(x, y, w, h, rgb);
+        });
+        return this;
+    }
+
+    /**
+     * Renders the tiles in parallel workers, each taking the next tile until
+     * there are none left. A failing tile (e.g. refused by a cancelled writer)
+     * stops the other workers after their current tiles, and its exception is
+     * thrown once they have all stopped - so no tile is rendered or written
+     * after the render returns
+     *
+     * @param tiles   amount of tiles
+     * @param workers amount of workers
+     * @param render  renders and writes a tile, given its index
+     */
+    private static void forEachTile(int tiles, int workers, IntConsumer render) {
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        IntStream.range(0, workers).parallel().forEach(worker -> {
+            try {
+                for (int tile = next.getAndIncrement(); tile < tiles; tile = next.getAndIncrement())
+                    render.accept(tile);
+            } catch (RuntimeException e) {
+                next.set(tiles);
+                failure.compareAndSet(null, e);
+            }
+        });
+        if (failure.get() != null) throw failure.get();
+    }
+
+    /**
+     * Reads a tile from the tile cache, rendering and storing it if it is not
+     * there
+     *
+     * @param key    the tile key
+     * @param x      left column of the tile
+     * @param y      top row of the tile
+     * @param width  width of the tile
+     * @param height height of the tile
+     * @return the color components of the pixels row by row
+     */
+    private float[] cachedTile(long key, int x, int y, int width, int height) {
+        // a preview takes a carried tile unless the exact one is there
+        int[] bits = null;
+        if (preview && !tileCache.contains(key) && tileCache.contains(TileCache.previewKey(key)))
+            bits = tileCache.get(TileCache.previewKey(key));
+        // the cache stores the raw bits of the components
+        if (bits == null) bits = tileCache.computeIfAbsent(key, () -> {
+            float[] rgb = renderTile(x, y, width, height);
+            int[] raw = new int[rgb.length];
+            for (int i = 0; i < rgb.length; ++i) raw[i] = Float.floatToRawIntBits(rgb[i]);
+            return raw;
+        });
+        float[] rgb = new float[bits.length];
+        for (int i = 0; i < bits.length; ++i) rgb[i] = Float.intBitsToFloat(bits[i]);
+        return rgb;
+    }
+
+    /**
+     * Carries the cached tiles of a previous version of the scene over to the
+     * scene of the camera, after the objects within the given boxes have been
+     * edited (see {@link scene.EditableScene}): every tile whose view misses
+     * all the boxes is stored under its preview key for the edited scene (see
+     * {@link TileCache#previewKey(long)}), so the next preview traces only the
+     * tiles the edit is seen in. The tiles carried to the previous version are
+     * carried on, so the previews of a series of edits keep their tiles.
+     * <p>
+     * Only the direct view is checked - an edited object also changes the
+     * shadows it casts and its reflections elsewhere in the image, which the
+     * carried tiles still lack. So only the cameras built for previews (see
+     * {@link Builder#setPreview(boolean)}) read them; a final render, in this
+     * process or in another one sharing the cache, traces its tiles anew.
+     *
+     * @param before the previous version of the scene
+     * @param dirty  the boxes of the edited objects, before and after the edit
+     * @return the amount of carried tiles
+     * @throws IllegalStateException if the camera has no tile cache
+     */
+    public int carryOverTiles(Scene before, Collection<BoundingBox> dirty) {
+        if (tileCache == null) throw new IllegalStateException("Camera has no tile cache");
+        int tilesX = (nX + TILE_SIZE - 1) / TILE_SIZE;
+        int tilesY = (nY + TILE_SIZE - 1) / TILE_SIZE;
+        boolean[] seen = new boolean[tilesX * tilesY];
+        for (BoundingBox box : dirty) {
+            double[] area = screenArea(box);
+            if (area == null) return 0;
+            int left = Math.max(0, (int) Math.floor(area[0] / TILE_SIZE));
+            int top = Math.max(0, (int) Math.floor(area[1] / TILE_SIZE));
+            int right = Math.min(tilesX - 1, (int) Math.floor(area[2] / TILE_SIZE));
+            int bottom = Math.min(tilesY - 1, (int) Math.floor(area[3] / TILE_SIZE));
+            for (int i = top; i <= bottom; ++i)
+                for (int j = left; j <= right; ++j) seen[i * tilesX + j] = true;
+        }
+
+        long beforeHash = ContentHash.of(before);
+        long afterHash = ContentHash.of(rayTracer.scene);
+        long cameraHash = ContentHash.of(this);
+        long settingsHash = ContentHash.of(rayTracer);
+        int carried = 0;
+        for (int tile = 0; tile < seen.length; ++tile) {
+            if (seen[tile]) continue;
+            int x = tile % tilesX * TILE_SIZE;
+            int y = tile / tilesX * TILE_SIZE;
+            int w = Math.min(TILE_SIZE, nX - x);
+            int h = Math.min(TILE_SIZE, nY - y);
+            long from = TileCache.key(beforeHash, cameraHash, settingsHash, x, y, w, h);
+            if (!tileCache.contains(from)) from = TileCache.previewKey(from);
+            if (tileCache.copy(from, TileCache.previewKey(TileCache.key(afterHash, cameraHash, settingsHash,
+                    x, y, w, h))))
+                ++carried;
+        }
+        return carried;
+    }
+
+    /**
+     * Calculates the area of the image a box is seen in
+     *
+     * @param box the box
+     * @return the left, top, right and bottom pixel coordinates of the
+     * projection of the box (possibly beyond the image), null if the box is
+     * unbounded or not entirely in front of the camera
+     */
+    private double[] screenArea(BoundingBox box) {
+        if (!box.isBounded()) return null;
+        double[] area = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int corner = 0; corner < 8; ++corner) {
+            double dx = ((corner & 1) == 0 ? box.minX() : box.maxX()) - location.getX();
+            double dy = ((corner & 2) == 0 ? box.minY() : box.maxY()) - location.getY();
+            double dz = ((corner & 4) == 0 ? box.minZ() : box.maxZ()) - location.getZ();
+            double depth = dx * vTo.getX() + dy * vTo.getY() + dz * vTo.getZ();
+            if (depth <= 0) return null;
+            double u = (dx * vRight.getX() + dy * vRight.getY() + dz * vRight.getZ()) * distance / depth;
+            double v = (dx * vUp.getX() + dy * vUp.getY() + dz * vUp.getZ()) * distance / depth;
+            double x = u * nX / width + nX / 2d;
+            double y = nY / 2d - v * nY / height;
+            area[0] = Math.min(area[0], x);
+            area[1] = Math.min(area[1], y);
+            area[2] = Math.max(area[2], x);
+            area[3] = Math.max(area[3], y);
+        }
+        return area;
+    }
+
+    /**
+     * Renders the image within a time budget, for interactive previews. The
+     * quality of every tile - samples per pixel, bounce depth and resolution
+     * (upscaled afterwards) - is lowered as far as needed to meet the deadline,
+     * according to the throughput measured during the render. The tile cache
+     * is not used, since the tiles depend on the timing.
+     *
+     * @param writer the receiver of the rendered tiles
+     * @param budget the time budget of the frame
+     * @return the report of the render
+     * @throws IllegalArgumentException if the budget is not positive
+     */
+    public FrameReport renderImage(TileWriter writer, Duration budget) {
+        if (budget.isNegative() || budget.isZero())
+            throw new IllegalArgumentException("Time budget must be positive");
+        long start = System.nanoTime();
+        int tilesX = (nX + TILE_SIZE - 1) / TILE_SIZE;
+        int tiles = tilesX * ((nY + TILE_SIZE - 1) / TILE_SIZE);
+        int workers = Runtime.getRuntime().availableProcessors();
+        QualityController controller = new QualityController(start + budget.toNanos(), tiles, TILE_SIZE, workers);
+        forEachTile(tiles, workers, tile -> {
+            int x = tile % tilesX * TILE_SIZE;
+            int y = tile / tilesX * TILE_SIZE;
+            int w = Math.min(TILE_SIZE, nX - x);
+            int h = Math.min(TILE_SIZE, nY - y);
+            int level = controller.next();
+            long tileStart = System.nanoTime();
+            float[] rgb = renderTile(x, y, w, h, QualityController.LEVELS[level]);
+            controller.record(level, QualityController.LEVELS[level].samples(w, h), System.nanoTime() - tileStart);
+            writer.writeTile(x, y, w, h, rgb);
+        });
+        return controller.report(start, System.nanoTime());
+    }
+
+    /**
+     * Traces the pixels of a tile
+     *
+     * @param x      left column of the tile
+     * @param y      top row of the tile
+     * @param width  width of the tile
+     * @param height height of the tile
+     * @return the color components of the pixels row by row (1 for a
+     * component of 255)
+     */
+    private float[] renderTile(int x, int y, int width, int height) {
+        return renderTile(x, y, width, height, FULL_QUALITY);
+    }
+
+    /**
+     * Traces the pixels of a tile at a quality level
+     *
+     * @param x       left column of the tile
+     * @param y       top row of the tile
+     * @param width   width of the tile
+     * @param height  height of the tile
+     * @param quality the quality level
+     * @return the color components of the pixels row by row (1 for a
+     * component of 255)
+     */
+    private float[] renderTile(int x, int y, int width, int height, QualityController.Level quality) {
+        int step = quality.step();
+        int n = quality.samples();
+        // the tile is traced in blocks of step x step pixels, n x n samples per block
+        int columns = (width + step - 1) / step;
+        int rows = (height + step - 1) / step;
+        float[] rgb = new float[3 * columns * rows];
+        double scale = 1.0 / (255 * n * n);
+        for (int i = 0, p = 0; i < rows; ++i) {
+            double top = y + i * step;
+            double blockHeight = Math.min(step, height - i * step);
+            for (int j = 0; j < columns; ++j) {
+                double left = x + j * step;
+                double blockWidth = Math.min(step, width - j * step);
+                double r = 0, g = 0, b = 0;
+                for (int si = 0; si < n; ++si)
+                    for (int sj = 0; sj < n; ++sj) {
+                        Color color = rayTracer.traceRay(constructRay(nX, nY,
+                                left + (sj + 0.5) * blockWidth / n, top + (si + 0.5) * blockHeight / n,
+                                (double) step / n), quality.depth());
+                        r += color.getRed();
+                        g += color.getGreen();
+                        b += color.getBlue();
+                    }
+                rgb[p++] = (float) (r * scale);
+                rgb[p++] = (float) (g * scale);
+                rgb[p++] = (float) (b * scale);
+            }
+        }
+        return step == 1 ? rgb : upscale(rgb, columns, rows, step, width, height);
+    }
+
+    /**
+     * Upscales a tile traced in blocks, interpolating bilinearly between the
+     * block centers
+     *
+     * @param blocks  the color components of the blocks row by row
+     * @param columns amount of block columns
+     * @param rows    amount of block rows
+     * @param step    size of a block in pixels
+     * @param width   width of the tile
+     * @param height  height of the tile
+     * @return the color components of the pixels row by row
+     */
+    private static float[] upscale(float[] blocks, int columns, int rows, int step, int width, int height) {
+        float[] rgb = new float[3 * width * height];
+        for (int i = 0, p = 0; i < height; ++i) {
+            double v = Math.clamp((i + 0.5) / step - 0.5, 0, rows - 1);
+            int i0 = (int) v, i1 = Math.min(i0 + 1, rows - 1);
+            double fv = v - i0;
+            for (int j = 0; j < width; ++j) {
+                double u = Math.clamp((j + 0.5) / step - 0.5, 0, columns - 1);
+                int j0 = (int) u, j1 = Math.min(j0 + 1, columns - 1);
+                double fu = u - j0;
+                for (int c = 0; c < 3; ++c) {
+                    double above = (1 - fu) * blocks[3 * (i0 * columns + j0) + c] + fu * blocks[3 * (i0 * columns + j1) + c];
+                    double below = (1 - fu) * blocks[3 * (i1 * columns + j0) + c] + fu * blocks[3 * (i1 * columns + j1) + c];
+                    rgb[p++] = (float) ((1 - fv) * above + fv * below);
+                }
+            }
+        }
+        return rgb;
+    }
+
+    /**
+     * Draws a grid over the image
+     *
+     * @param interval the size of the grid squares in pixels
+     * @param color    the color of the grid lines
+     * @return the camera itself
+     */
+    public Camera printGrid(int interval, Color color) {
+        ImageWriter writer = imageWriter();
+        for (int i = 0; i < nY; ++i)
+            for (int j = 0; j < nX; ++j)
+                if (i % interval == 0 || j % interval == 0) writer.writePixel(j, i, color);
+        return this;
+    }
+
+    /**
+     * Writes the image into a PNG file in the images folder
+     *
+     * @param imageName the file name without the extension
+     */
+    public void writeToImage(String imageName) {
+        imageWriter().writeToImage(imageName);
+    }
+
+    /**
+     * Returns the writer of the image, creating it on the first call
+     *
+     * @return the image writer
+     */
+    private synchronized ImageWriter imageWriter() {
+        if (imageWriter == null) imageWriter = new ImageWriter(nX, nY);
+        return imageWriter;
+    }
+
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add("Camera").add(location).add(vTo).add(vUp).add(vRight)
+                .add(width).add(height).add(distance).add(nX).add(nY);
+    }
+
+    /**
+     * Builder of a camera
+     */
+    public static class Builder {
+        /**
+         * The camera being built
+         */
+        private final Camera camera = new Camera();
+
+        /**
+         * Constructs a builder of a camera - call {@link Camera#getBuilder()}
+         */
+        private Builder() {
+        }
+
+        /**
+         * Sets the location of the camera
+         *
+         * @param location the location
+         * @return the builder itself
+         */
+        public Builder setLocation(Point location) {
+            camera.location = location;
+            return this;
+        }
+
+        /**
+         * Sets the direction of the camera
+         *
+         * @param vTo the direction the camera looks to
+         * @param vUp the up direction, orthogonal to vTo
+         * @return the builder itself
+         * @throws IllegalArgumentException if the directions are not orthogonal
+         */
+        public Builder setDirection(Vector vTo, Vector vUp) {
+            if (!isZero(vTo.dotProduct(vUp)))
+                throw new IllegalArgumentException("Camera directions must be orthogonal");
+            camera.vTo = vTo.normalize();
+            camera.vUp = vUp.normalize();
+            return this;
+        }
+
+        /**
+         * Sets the direction of the camera towards a target point
+         *
+         * @param target the point the camera looks at
+         * @param vUp    approximate up direction
+         * @return the builder itself
+         * @throws IllegalArgumentException if the target is at the camera
+         *                                  location or the camera looks up
+         */
+        public Builder setDirection(Point target, Vector vUp) {
+            if (camera.location == null)
+                throw new IllegalArgumentException("Camera location must be set before the target");
+            camera.vTo = target.subtract(camera.location).normalize();
+            camera.vUp = camera.vTo.crossProduct(vUp).crossProduct(camera.vTo).normalize();
+            return this;
+        }
+
+        /**
+         * Sets the size of the view plane
+         *
+         * @param width  the width
+         * @param height the height
+         * @return the builder itself
+         * @throws IllegalArgumentException if a size is not positive
+         */
+        public Builder setVpSize(double width, double height) {
+            if (width <= 0 || height <= 0)
+                throw new IllegalArgumentException("View plane size must be positive");
+            camera.width = width;
+            camera.height = height;
+            return this;
+        }
+
+        /**
+         * Sets the distance of the view plane from the camera
+         *
+         * @param distance the distance
+         * @return the builder itself
+         * @throws IllegalArgumentException if the distance is not positive
+         */
+        public Builder setVpDistance(double distance) {
+            if (distance <= 0)
+                throw new IllegalArgumentException("View plane distance must be positive");
+            camera.distance = distance;
+            return this;
+        }
+
+        /**
+         * Sets the resolution of the image
+         *
+         * @param nX amount of columns
+         * @param nY amount of rows
+         * @return the builder itself
+         * @throws IllegalArgumentException if a dimension is not positive
+         */
+        public Builder setResolution(int nX, int nY) {
+            if (nX <= 0 || nY <= 0)
+                throw new IllegalArgumentException("Resolution must be positive");
+            camera.nX = nX;
+            camera.nY = nY;
+            return this;
+        }
+
+        /**
+         * Sets the ray tracer
+         *
+         * @param rayTracer the ray tracer
+         * @return the builder itself
+         */
+        public Builder setRayTracer(RayTracerBase rayTracer) {
+            camera.rayTracer = rayTracer;
+            return this;
+        }
+
+        /**
+         * Sets whether the camera renders previews, which read the tiles
+         * carried over from a previous version of the scene (see
+         * {@link Camera#carryOverTiles}) - approximate tiles, not for final
+         * images
+         *
+         * @param preview true for previews
+         * @return the builder itself
+         */
+        public Builder setPreview(boolean preview) {
+            camera.preview = preview;
+            return this;
+        }
+
+        /**
+         * Sets a cache of the rendered tiles
+         *
+         * @param tileCache the cache, null for no caching
+         * @return the builder itself
+         */
+        public Builder setTileCache(TileCache tileCache) {
+            camera.tileCache = tileCache;
+            return this;
+        }
+
+        /**
+         * Builds the camera
+         *
+         * @return the camera
+         * @throws MissingResourceException if a mandatory field is not set
+         */
+        public Camera build() {
+            final String general = "Missing rendering data";
+            final String className = "Camera";
+            if (camera.location == null) throw new MissingResourceException(general, className, "location");
+            if (camera.vTo == null) throw new MissingResourceException(general, className, "direction");
+            if (camera.width == 0) throw new MissingResourceException(general, className, "view plane size");
+            if (camera.distance == 0) throw new MissingResourceException(general, className, "view plane distance");
+            if (camera.rayTracer == null) throw new MissingResourceException(general, className, "ray tracer");
+            camera.vRight = camera.vTo.crossProduct(camera.vUp).normalize();
+            return camera;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package renderer;
+
+import java.util.Arrays;
+
+/**
+ * Report of a time-budgeted render
+ *
+ * @param targetNanos   the time budget of the frame
+ * @param achievedNanos the time the frame actually took
+ * @param tilesPerLevel amount of tiles rendered at every quality level, from
+ *                      the highest quality (see
+ *                      {@link Camera#renderImage(TileWriter, java.time.Duration)})
+ * @param primaryRays   amount of traced primary rays (samples)
+ * @author Raphael
+ */
+public record FrameReport(long targetNanos, long achievedNanos, int[] tilesPerLevel, long primaryRays) {
+    /**
+     * Returns the time budget of the frame
+     *
+     * @return the budget in milliseconds
+     */
+    public double targetMillis() {
+        return targetNanos / 1e6;
+    }
+
+    /**
+     * Returns the time the frame actually took
+     *
+     * @return the time in milliseconds
+     */
+    public double achievedMillis() {
+        return achievedNanos / 1e6;
+    }
+
+    /**
+     * Returns the measured throughput
+     *
+     * @return primary rays per second
+     */
+    public double raysPerSecond() {
+        return achievedNanos == 0 ? 0 : primaryRays * 1e9 / achievedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("target %.1f ms, achieved %.1f ms, %.0f rays/s, tiles per quality level %s",
+                targetMillis(), achievedMillis(), raysPerSecond(), Arrays.toString(tilesPerLevel));
+    }
+}
@@ -0,0 +1,109 @@
+package renderer;
+
+import primitives.Color;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Image writer class - collects the pixel colors of an image and writes the
+ * image into a PNG file in the images folder
+ *
+ * @author Dan
+ */
+public class ImageWriter implements TileWriter {
+    /**
+     * Directory of the written images
+     */
+    private static final Path FOLDER = Path.of(System.getProperty("user.dir"), "images");
+
+    /**
+     * Amount of columns
+     */
+    private final int nX;
+    /**
+     * Amount of rows
+     */
+    private final int nY;
+    /**
+     * The image pixels
+     */
+    private final BufferedImage image;
+
+    /**
+     * Constructs an image writer
+     *
+     * @param nX amount of columns
+     * @param nY amount of rows
+     */
+    public ImageWriter(int nX, int nY) {
+        this.nX = nX;
+        this.nY = nY;
+        image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Returns the amount of columns
+     *
+     * @return the amount of columns
+     */
+    public int getNx() {
+        return nX;
+    }
+
+    /**
+     * Returns the amount of rows
+     *
+     * @return the amount of rows
+     */
+    public int getNy() {
+        return nY;
+    }
+
+    /**
+     * Colors a pixel
+     *
+     * @param xIndex the column of the pixel
+     * @param yIndex the row of the pixel
+     * @param color  the color of the pixel
+     */
+    public void writePixel(int xIndex, int yIndex, Color color) {
+        image.setRGB(xIndex, yIndex, color.toRgb());
+    }
+
+    @Override
+    public void writeTile(int x, int y, int width, int height, float[] rgb) {
+        int[] pixels = new int[width * height];
+        for (int p = 0; p < pixels.length; ++p)
+            pixels[p] = toByte(rgb[3 * p]) << 16 | toByte(rgb[3 * p + 1]) << 8 | toByte(rgb[3 * p + 2]);
+        image.setRGB(x, y, width, height, pixels, 0, width);
+    }
+
+    /**
+     * Converts a color component to a byte
+     *
+     * @param component the component (1 for full intensity)
+     * @return the component in the range 0..255
+     */
+    static int toByte(float component) {
+        return component >= 1 ? 255 : component <= 0 ? 0 : Math.round(component * 255);
+    }
+
+    /**
+     * Writes the image into a PNG file in the images folder
+     *
+     * @param imageName the file name without the extension
+     */
+    public void writeToImage(String imageName) {
+        try {
+            Files.createDirectories(FOLDER);
+            ImageIO.write(image, "png", FOLDER.resolve(imageName + ".png").toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write image " + imageName, e);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package renderer;
+
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of the diffuse indirect illumination (irradiance) of surfaces, shared
+ * by the render threads.
+ * <p>
+ * Indirect diffuse light changes slowly over a surface, so it is gathered at
+ * sparse points only and interpolated in between (Ward's irradiance caching).
+ * Every sample keeps the harmonic mean distance R of the surfaces seen by its
+ * gather rays: a point at distance d from the sample, with a normal deviating
+ * from the sample's, gets the weight
+ * <pre>
+ *     w = 1 / (d / R + sqrt(1 - n&middot;n'))
+ * </pre>
+ * and the sample is used only where the weight exceeds 1/accuracy. Near other
+ * surfaces (small R) the samples are therefore dense and in open space they
+ * are sparse. A sample is never used for a point behind its tangent plane,
+ * which its gather rays cannot have seen.
+ * <p>
+ * The samples are stored in an octree over a cube given on construction: a
+ * sample is filed in the nodes, of the deepest level still twice as large as
+ * the sphere the sample is valid in, that the sphere overlaps (at most 8). A
+ * lookup then checks only the nodes on the path from the root to the point.
+ * Render threads insert concurrently without locking: missing nodes are
+ * created by compare-and-set and every node keeps its samples in an immutable
+ * list whose head is replaced by compare-and-set.
+ *
+ * @author Raphael
+ */
+public class IrradianceCache {
+    /**
+     * Maximal depth of the octree
+     */
+    private static final int MAX_DEPTH = 20;
+
+    /**
+     * A cached sample, linked to the previous samples of its octree node
+     *
+     * @param point      the sampled point
+     * @param normal     the normal at the point, on the gathered side
+     * @param irradiance the indirect light reaching the point
+     * @param radius     harmonic mean distance of the surfaces around the point
+     * @param next       the previous samples of the node
+     */
+    private record Sample(Point point, Vector normal, Color irradiance, double radius, Sample next) {
+    }
+
+    /**
+     * A node of the octree
+     */
+    private static final class Node {
+        /**
+         * Center of the node cube
+         */
+        final double x, y, z;
+        /**
+         * Half of the side of the node cube
+         */
+        final double half;
+        /**
+         * The child nodes, by octant (bit 0 for x, 1 for y, 2 for z)
+         */
+        final AtomicReferenceArray<Node> children = new AtomicReferenceArray<>(8);
+        /**
+         * The samples filed in the node
+         */
+        final AtomicReference<Sample> samples = new AtomicReference<>();
+
+        /**
+         * Constructs a node
+         *
+         * @param x    center x
+         * @param y    center y
+         * @param z    center z
+         * @param half half of the side
+         */
+        Node(double x, double y, double z, double half) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.half = half;
+        }
+
+        /**
+         * Returns a child node, creating it if missing
+         *
+         * @param octant the octant of the child
+         * @return the child
+         */
+        Node child(int octant) {
+            Node child = children.get(octant);
+            if (child != null) return child;
+            double q = half / 2;
+            child = new Node(x + ((octant & 1) == 0 ? -q : q), y + ((octant & 2) == 0 ? -q : q),
+                    z + ((octant & 4) == 0 ? -q : q), q);
+            // another thread may have created it meanwhile
+            return children.compareAndSet(octant, null, child) ? child : children.get(octant);
+        }
+    }
+
+    /**
+     * The root of the octree
+     */
+    private final Node root;
+    /**
+     * The accepted error of the interpolation
+     */
+    private final double accuracy;
+    /**
+     * Smallest sample radius
+     */
+    private double minSpacing;
+    /**
+     * Largest sample radius
+     */
+    private double maxSpacing;
+    /**
+     * Amount of stored samples
+     */
+    private final AtomicInteger size = new AtomicInteger();
+    /**
+     * Amount of lookups interpolated from the samples
+     */
+    private final LongAdder hits = new LongAdder();
+    /**
+     * Amount of lookups without valid samples
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs an empty cache over a cube. Points outside the cube are never
+     * cached
+     *
+     * @param center   the center of the cube
+     * @param half     half of the side of the cube
+     * @param accuracy the accepted error of the interpolation (Ward's a,
+     *                 typically 0.1 to 0.3): larger values use every sample
+     *                 farther away
+     * @throws IllegalArgumentException if the size or the accuracy is not
+     *                                  positive
+     */
+    public IrradianceCache(Point center, double half, double accuracy) {
+        if (half <= 0) throw new IllegalArgumentException("Cache size must be positive");
+        if (accuracy <= 0) throw new IllegalArgumentException("Cache accuracy must be positive");
+        root = new Node(center.getX(), center.getY(), center.getZ(), half);
+        this.accuracy = accuracy;
+        minSpacing = half / 256;
+        maxSpacing = half;
+    }
+
+    /**
+     * Limits the radius of the samples (the harmonic mean distance of their
+     * surroundings), so that corners do not gather samples too densely and
+     * open spaces not too sparsely
+     *
+     * @param min the smallest radius
+     * @param max the largest radius
+     * @return the cache itself
+     * @throws IllegalArgumentException if the limits are not positive or not
+     *                                  ordered
+     */
+    public IrradianceCache setSpacing(double min, double max) {
+        if (min <= 0 || max < min) throw new IllegalArgumentException("Wrong sample spacing limits");
+        minSpacing = min;
+        maxSpacing = max;
+        return this;
+    }
+
+    /**
+     * Returns the accepted error of the interpolation
+     *
+     * @return the accuracy
+     */
+    public double getAccuracy() {
+        return accuracy;
+    }
+
+    /**
+     * Interpolates the irradiance at a point from the samples valid there
+     *
+     * @param point  the point
+     * @param normal the unit normal at the point, on the side to be lit
+     * @return the irradiance, or null if no sample is valid at the point
+     */
+    public Color lookup(Point point, Vector normal) {
+        double px = point.getX(), py = point.getY(), pz = point.getZ();
+        double nx = normal.getX(), ny = normal.getY(), nz = normal.getZ();
+        double r = 0, g = 0, b = 0, total = 0;
+        Node node = inside(px, py, pz) ? root : null;
+        while (node != null) {
+            for (Sample s = node.samples.get(); s != null; s = s.next) {
+                double dx = px - s.point.getX(), dy = py - s.point.getY(), dz = pz - s.point.getZ();
+                double mx = nx + s.normal.getX(), my = ny + s.normal.getY(), mz = nz + s.normal.getZ();
+                // the sample cannot see a point behind its tangent plane
+                if (dx * mx + dy * my + dz * mz < -1e-3 * s.radius) continue;
+                double cos = nx * s.normal.getX() + ny * s.normal.getY() + nz * s.normal.getZ();
+                double error = Math.sqrt(dx * dx + dy * dy + dz * dz) / s.radius + Math.sqrt(Math.max(0, 1 - cos));
+                if (error >= accuracy) continue;
+                if (error == 0) { // the sampled point itself
+                    hits.increment();
+                    return s.irradiance;
+                }
+                double w = 1 / error;
+                r += w * s.irradiance.getRed();
+                g += w * s.irradiance.getGreen();
+                b += w * s.irradiance.getBlue();
+                total += w;
+            }
+            node = node.children.get(octant(node, px, py, pz));
+        }
+        if (total == 0) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return new Color(r / total, g / total, b / total);
+    }
+
+    /**
+     * Stores a sample. A point outside the cube of the cache is ignored
+     *
+     * @param point      the sampled point
+     * @param normal     the unit normal at the point, on the gathered side
+     * @param irradiance the indirect light reaching the point
+     * @param radius     the harmonic mean distance of the surfaces seen by the
+     *                   gather rays (infinite if they saw none)
+     */
+    public void insert(Point point, Vector normal, Color irradiance, double radius) {
+        double px = point.getX(), py = point.getY(), pz = point.getZ();
+        if (!inside(px, py, pz)) return;
+        double spacing = Math.min(Math.max(radius, minSpacing), maxSpacing);
+        Sample sample = new Sample(point, normal, irradiance, spacing, null);
+        file(root, sample, px, py, pz, accuracy * spacing, 0);
+        size.incrementAndGet();
+    }
+
+    /**
+     * Files a sample in the nodes its sphere of validity overlaps, at the
+     * deepest level still twice as large as the sphere
+     *
+     * @param node   the node overlapped by the sphere
+     * @param sample the sample
+     * @param px     sample x
+     * @param py     sample y
+     * @param pz     sample z
+     * @param reach  radius of the sphere of validity
+     * @param depth  depth of the node
+     */
+    private static void file(Node node, Sample sample, double px, double py, double pz, double reach, int depth) {
+        if (depth == MAX_DEPTH || node.half / 2 < reach) {
+            Sample head;
+            do {
+                head = node.samples.get();
+            } while (!node.samples.compareAndSet(head,
+                    new Sample(sample.point, sample.normal, sample.irradiance, sample.radius, head)));
+            return;
+        }
+        for (int octant = 0; octant < 8; ++octant)
+            if (overlaps(node, octant, px, py, pz, reach))
+                file(node.child(octant), sample, px, py, pz, reach, depth + 1);
+    }
+
+    /**
+     * Checks whether a sphere overlaps the box of an octant of a node
+     *
+     * @param node   the node
+     * @param octant the octant
+     * @param px     sphere center x
+     * @param py     sphere center y
+     * @param pz     sphere center z
+     * @param reach  sphere radius
+     * @return true if the sphere reaches into the octant box
+     */
+    private static boolean overlaps(Node node, int octant, double px, double py, double pz, double reach) {
+        return ((octant & 1) == 0 ? px - reach <= node.x : px + reach >= node.x)
+                && ((octant & 2) == 0 ? py - reach <= node.y : py + reach >= node.y)
+                && ((octant & 4) == 0 ? pz - reach <= node.z : pz + reach >= node.z);
+    }
+
+    /**
+     * Returns the octant of a node containing a point
+     *
+     * @param node the node
+     * @param px   point x
+     * @param py   point y
+     * @param pz   point z
+     * @return the octant
+     */
+    private static int octant(Node node, double px, double py, double pz) {
+        return (px < node.x ? 0 : 1) | (py < node.y ? 0 : 2) | (pz < node.z ? 0 : 4);
+    }
+
+    /**
+     * Checks whether a point is inside the cube of the cache
+     *
+     * @param px point x
+     * @param py point y
+     * @param pz point z
+     * @return true if the point is inside
+     */
+    private boolean inside(double px, double py, double pz) {
+        return Math.abs(px - root.x) <= root.half && Math.abs(py - root.y) <= root.half
+                && Math.abs(pz - root.z) <= root.half;
+    }
+
+    /**
+     * Returns the amount of stored samples
+     *
+     * @return the amount of samples
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Returns the amount of lookups interpolated from the samples
+     *
+     * @return the amount of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the amount of lookups without valid samples
+     *
+     * @return the amount of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,690 @@
+package renderer;
+
+import geometries.Intersectable.GeoPoint;
+import lighting.AreaLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * Map of the photons that reached diffuse surfaces through mirrors and
+ * transparent geometries (caustics), for the light that shadow rays cannot
+ * find.
+ * <p>
+ * The photons are kept in primitive arrays - positions, directions and powers
+ * - ordered as a balanced kd-tree: the photon in the middle of every range of
+ * the arrays splits the rest of the range by one coordinate, the photons
+ * below it before and the photons above it after. No node or photon objects
+ * are created. The tree is built by parallel recursive median selections, so
+ * the build scales across cores like the emission, which traces the photons
+ * of every light in parallel batches.
+ * <p>
+ * The light reaching a point is estimated from its k nearest photons,
+ * collected in a bounded max-heap: the photon farthest away is on top and is
+ * replaced by any closer one, and the branches of the tree farther than it
+ * are skipped. Every thread keeps its own heap, so the shading queries
+ * allocate nothing.
+ *
+ * @author Raphael
+ */
+public class PhotonMap {
+    /**
+     * Amount of photons traced by one task of the emission
+     */
+    private static final int BATCH = 4096;
+    /**
+     * Maximal amount of bounces of a photon
+     */
+    private static final int MAX_BOUNCES = 10;
+    /**
+     * Smallest range of photons built by a task of its own
+     */
+    private static final int PARALLEL_BUILD = 8192;
+
+    /**
+     * The bounded max-heap of a nearest photons query
+     */
+    private static final class Heap {
+        /**
+         * Squared distances of the photons, the largest at the root
+         */
+        double[] keys = new double[64];
+        /**
+         * Indices of the photons
+         */
+        int[] photons = new int[64];
+        /**
+         * Amount of photons in the heap
+         */
+        int size;
+        /**
+         * Maximal amount of photons
+         */
+        int capacity;
+        /**
+         * Squared distance limit of the query
+         */
+        double limit;
+
+        /**
+         * Empties the heap for a query
+         *
+         * @param k     maximal amount of photons
+         * @param limit squared distance limit
+         */
+        void reset(int k, double limit) {
+            if (keys.length < k) {
+                keys = new double[k];
+                photons = new int[k];
+            }
+            size = 0;
+            capacity = k;
+            this.limit = limit;
+        }
+
+        /**
+         * Returns the squared distance a photon must be closer than to enter
+         * the heap
+         *
+         * @return the bound
+         */
+        double bound() {
+            return size < capacity ? limit : keys[0];
+        }
+
+        /**
+         * Adds a photon closer than the bound, dropping the farthest one if the
+         * heap is full
+         *
+         * @param key    squared distance of the photon
+         * @param photon index of the photon
+         */
+        void offer(double key, int photon) {
+            if (size < capacity) {
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (keys[parent] >= key) break;
+                    keys[i] = keys[parent];
+                    photons[i] = photons[parent];
+                    i = parent;
+                }
+                keys[i] = key;
+                photons[i] = photon;
+                return;
+            }
+            siftDown(key, photon);
+        }
+
+        /**
+         * Removes the farthest photon
+         *
+         * @return index of the photon
+         */
+        int poll() {
+            int top = photons[0];
+            --size;
+            if (size > 0) siftDown(keys[size], photons[size]);
+            return top;
+        }
+
+        /**
+         * Places a photon at the root and moves it down to its place
+         *
+         * @param key    squared distance of the photon
+         * @param photon index of the photon
+         */
+        private void siftDown(double key, int photon) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && keys[child + 1] > keys[child]) ++child;
+                if (keys[child] <= key) break;
+                keys[i] = keys[child];
+                photons[i] = photons[child];
+                i = child;
+            }
+            keys[i] = key;
+            photons[i] = photon;
+        }
+    }
+
+    /**
+     * The heap of every thread
+     */
+    private static final ThreadLocal<Heap> HEAPS = ThreadLocal.withInitial(Heap::new);
+
+    /**
+     * Growing arrays of the photons stored by an emission task
+     */
+    private static final class Photons {
+        /**
+         * Positions (3 coordinates per photon)
+         */
+        double[] positions = new double[3 * 256];
+        /**
+         * Directions of travel (3 components per photon)
+         */
+        float[] directions = new float[3 * 256];
+        /**
+         * Powers (3 color components per photon)
+         */
+        float[] powers = new float[3 * 256];
+        /**
+         * Amount of photons
+         */
+        int size;
+
+        /**
+         * Stores a photon
+         *
+         * @param point     the position
+         * @param direction the direction of travel
+         * @param power     the power
+         */
+        void add(Point point, Vector direction, Color power) {
+            if (3 * size == positions.length) {
+                positions = Arrays.copyOf(positions, 2 * positions.length);
+                directions = Arrays.copyOf(directions, 2 * directions.length);
+                powers = Arrays.copyOf(powers, 2 * powers.length);
+            }
+            int i = 3 * size++;
+            positions[i] = point.getX();
+            positions[i + 1] = point.getY();
+            positions[i + 2] = point.getZ();
+            directions[i] = (float) direction.getX();
+            directions[i + 1] = (float) direction.getY();
+            directions[i + 2] = (float) direction.getZ();
+            powers[i] = (float) power.getRed();
+            powers[i + 1] = (float) power.getGreen();
+            powers[i + 2] = (float) power.getBlue();
+        }
+    }
+
+    /**
+     * Positions of the photons in tree order (3 coordinates per photon)
+     */
+    private final double[] positions;
+    /**
+     * Directions of travel of the photons (3 components per photon)
+     */
+    private final float[] directions;
+    /**
+     * Powers of the photons (3 color components per photon)
+     */
+    private final float[] powers;
+    /**
+     * The coordinate every photon splits its range by (0 for x, 1 for y, 2 for z)
+     */
+    private final byte[] axes;
+    /**
+     * Amount of photons
+     */
+    private final int size;
+
+    /**
+     * Constructs a map of photons, building its tree. The arrays are not
+     * changed
+     *
+     * @param positions  positions of the photons (3 coordinates per photon)
+     * @param directions directions of travel of the photons (3 components
+     *                   per photon)
+     * @param powers     powers of the photons (3 color components per photon)
+     * @throws IllegalArgumentException if the array lengths do not match
+     */
+    public PhotonMap(double[] positions, float[] directions, float[] powers) {
+        if (positions.length % 3 != 0 || directions.length != positions.length || powers.length != positions.length)
+            throw new IllegalArgumentException("Photon arrays must hold 3 values per photon");
+        size = positions.length / 3;
+        axes = new byte[size];
+        // the positions are reordered in place, so the build reads them sequentially
+        this.positions = positions.clone();
+        int[] order = new int[size];
+        for (int i = 0; i < size; ++i) order[i] = i;
+        new Build(this.positions, order, axes, 0, size).invoke();
+
+        this.directions = new float[directions.length];
+        this.powers = new float[powers.length];
+        for (int i = 0; i < size; ++i) {
+            System.arraycopy(directions, 3 * order[i], this.directions, 3 * i, 3);
+            System.arraycopy(powers, 3 * order[i], this.powers, 3 * i, 3);
+        }
+    }
+
+    /**
+     * Builds a range of the tree: orders the range around its median by the
+     * coordinate it is widest along, then builds the two halves - as separate
+     * tasks while they are large
+     */
+    private static final class Build extends RecursiveAction {
+        /**
+         * Serialization version (the tasks are never serialized)
+         */
+        @Serial
+        private static final long serialVersionUID = 1L;
+        /**
+         * Positions of the photons, being ordered
+         */
+        private final double[] positions;
+        /**
+         * The original indices of the photons, ordered with their positions
+         */
+        private final int[] order;
+        /**
+         * The split coordinates in tree order
+         */
+        private final byte[] axes;
+        /**
+         * First photon of the range
+         */
+        private final int lo;
+        /**
+         * End of the range
+         */
+        private final int hi;
+
+        /**
+         * Constructs a build task
+         *
+         * @param positions positions of the photons
+         * @param order     original indices of the photons
+         * @param axes      the split coordinates
+         * @param lo        first photon of the range
+         * @param hi        end of the range
+         */
+        Build(double[] positions, int[] order, byte[] axes, int lo, int hi) {
+            this.positions = positions;
+            this.order = order;
+            this.axes = axes;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= PARALLEL_BUILD) {
+                build(positions, order, axes, lo, hi);
+                return;
+            }
+            int mid = split(positions, order, axes, lo, hi);
+            invokeAll(new Build(positions, order, axes, lo, mid), new Build(positions, order, axes, mid + 1, hi));
+        }
+    }
+
+    /**
+     * Builds a range of the tree in the calling thread
+     *
+     * @param positions positions of the photons
+     * @param order     original indices of the photons
+     * @param axes      the split coordinates
+     * @param lo        first photon of the range
+     * @param hi        end of the range
+     */
+    private static void build(double[] positions, int[] order, byte[] axes, int lo, int hi) {
+        while (hi - lo > 1) {
+            int mid = split(positions, order, axes, lo, hi);
+            build(positions, order, axes, lo, mid);
+            lo = mid + 1;
+        }
+    }
+
+    /**
+     * Orders a range of photons around its median by the coordinate the range
+     * is widest along
+     *
+     * @param positions positions of the photons
+     * @param order     original indices of the photons
+     * @param axes      the split coordinates
+     * @param lo        first photon of the range
+     * @param hi        end of the range
+     * @return the position of the median in the range
+     */
+    private static int split(double[] positions, int[] order, byte[] axes, int lo, int hi) {
+        double[] min = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] max = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = lo; i < hi; ++i)
+            for (int c = 0; c < 3; ++c) {
+                double v = positions[3 * i + c];
+                if (v < min[c]) min[c] = v;
+                if (v > max[c]) max[c] = v;
+            }
+        int axis = max[0] - min[0] >= max[1] - min[1]
+                ? (max[0] - min[0] >= max[2] - min[2] ? 0 : 2)
+                : (max[1] - min[1] >= max[2] - min[2] ? 1 : 2);
+        int mid = (lo + hi) >>> 1;
+        select(positions, order, lo, hi - 1, mid, axis);
+        axes[mid] = (byte) axis;
+        return mid;
+    }
+
+    /**
+     * Reorders a range of photons so that the photon at a position is the one
+     * that would be there if the range were sorted by a coordinate, with no
+     * photon above it before it and none below it after it (Hoare's selection)
+     *
+     * @param positions positions of the photons
+     * @param order     original indices of the photons
+     * @param left      first photon of the range
+     * @param right     last photon of the range
+     * @param k         the position
+     * @param axis      the coordinate
+     */
+    private static void select(double[] positions, int[] order, int left, int right, int k, int axis) {
+        while (left < right) {
+            double pivot = positions[3 * ((left + right) >>> 1) + axis];
+            int i = left, j = right;
+            while (i <= j) {
+                while (positions[3 * i + axis] < pivot) ++i;
+                while (positions[3 * j + axis] > pivot) --j;
+                if (i <= j) swap(positions, order, i++, j--);
+            }
+            if (k <= j) right = j;
+            else if (k >= i) left = i;
+            else return;
+        }
+    }
+
+    /**
+     * Swaps two photons
+     *
+     * @param positions positions of the photons
+     * @param order     original indices of the photons
+     * @param i         first photon
+     * @param j         second photon
+     */
+    private static void swap(double[] positions, int[] order, int i, int j) {
+        int t = order[i];
+        order[i] = order[j];
+        order[j] = t;
+        for (int c = 0; c < 3; ++c) {
+            double v = positions[3 * i + c];
+            positions[3 * i + c] = positions[3 * j + c];
+            positions[3 * j + c] = v;
+        }
+    }
+
+    /**
+     * Emits photons from the point lights of a scene (including spot and area
+     * lights) and stores the caustic ones: the photons that reach a diffuse
+     * surface after bouncing off a mirror or passing through a transparent
+     * geometry. At every surface a photon is reflected, transmitted or
+     * absorbed at random, by the reflection and transmission coefficients.
+     * Directional lights emit no photons.
+     * <p>
+     * Every stored photon carries the light intensity at the length of its
+     * path, spread over its share of the sphere of that radius, so the
+     * density of the photons estimates the light the way the direct lighting
+     * computes it.
+     *
+     * @param scene   the scene
+     * @param photons amount of photons emitted by every light
+     * @return the photon map
+     * @throws IllegalArgumentException if the amount is not positive
+     */
+    public static PhotonMap emitCaustics(Scene scene, int photons) {
+        if (photons < 1) throw new IllegalArgumentException("Photon amount must be positive");
+        List<PointLight> lights = new ArrayList<>();
+        for (LightSource light : scene.lights)
+            if (light instanceof PointLight point) lights.add(point);
+        int batches = (photons + BATCH - 1) / BATCH;
+        Photons[] emitted = IntStream.range(0, lights.size() * batches).parallel()
+                .mapToObj(b -> emit(scene, lights.get(b / batches), photons,
+                        Math.min(BATCH, photons - b % batches * BATCH)))
+                .toArray(Photons[]::new);
+
+        int total = 0;
+        for (Photons batch : emitted) total += batch.size;
+        double[] positions = new double[3 * total];
+        float[] directions = new float[3 * total];
+        float[] powers = new float[3 * total];
+        int offset = 0;
+        for (Photons batch : emitted) {
+            System.arraycopy(batch.positions, 0, positions, offset, 3 * batch.size);
+            System.arraycopy(batch.directions, 0, directions, offset, 3 * batch.size);
+            System.arraycopy(batch.powers, 0, powers, offset, 3 * batch.size);
+            offset += 3 * batch.size;
+        }
+        return new PhotonMap(positions, directions, powers);
+    }
+
+    /**
+     * Traces a batch of photons from a light
+     *
+     * @param scene   the scene
+     * @param light   the light
+     * @param photons amount of photons emitted by the light in all
+     * @param count   amount of photons of the batch
+     * @return the stored photons
+     */
+    private static Photons emit(Scene scene, PointLight light, int photons, int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Photons stored = new Photons();
+        for (int p = 0; p < count; ++p) {
+            Point origin = light instanceof AreaLight area
+                    ? area.getSamplePoint(1, 0, 0, random.nextDouble(), random.nextDouble())
+                    : light.getPosition();
+            double z = 1 - 2 * random.nextDouble(), phi = 2 * Math.PI * random.nextDouble();
+            double r = Math.sqrt(1 - z * z);
+            Vector emitted = new Vector(r * Math.cos(phi), r * Math.sin(phi), z);
+            Ray ray = new Ray(origin, emitted);
+            Double3 k = Double3.ONE;
+            double travelled = 0;
+            for (int bounce = 0; bounce < MAX_BOUNCES; ++bounce) {
+                GeoPoint gp = findClosestIntersection(scene, ray);
+                if (gp == null) break;
+                Vector v = ray.direction();
+                Vector n = gp.geometry().getNormal(gp.point());
+                double nv = alignZero(n.dotProduct(v));
+                if (nv == 0) break;
+                travelled += ray.origin().distance(gp.point());
+                Material material = gp.geometry().getMaterial();
+                if (bounce > 0 && !material.kD.equals(Double3.ZERO))
+                    stored.add(gp.point(), v, light.getIntensity(origin.add(emitted.scale(travelled)))
+                            .scale(k).scale(4 * Math.PI * travelled * travelled / photons));
+
+                // Russian roulette between reflection, transmission and absorption
+                double kr = average(material.kR), kt = average(material.kT);
+                double scale = Math.max(1, kr + kt);
+                double xi = random.nextDouble() * scale;
+                Vector direction;
+                if (xi < kt) {
+                    direction = refracted(v, n, nv, material.ior);
+                    k = k.product(material.kT).scale(scale / kt);
+                    // total internal reflection reflects the transmitted power
+                    if (direction == null) direction = v.subtract(n.scale(2 * nv));
+                } else if (xi < kt + kr) {
+                    direction = v.subtract(n.scale(2 * nv));
+                    k = k.product(material.kR).scale(scale / kr);
+                } else break;
+                ray = new Ray(gp.point(), direction, n);
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * Returns the average of the components of a coefficient
+     *
+     * @param k the coefficient
+     * @return the average
+     */
+    private static double average(Double3 k) {
+        return (k.d1() + k.d2() + k.d3()) / 3;
+    }
+
+    /**
+     * Finds the intersection of a ray closest to its origin
+     *
+     * @param scene the scene
+     * @param ray   the ray
+     * @return the closest intersection, or null if the ray hits nothing
+     */
+    private static GeoPoint findClosestIntersection(Scene scene, Ray ray) {
+        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(ray);
+        if (intersections == null) return null;
+        GeoPoint closest = null;
+        double minDistance = Double.POSITIVE_INFINITY;
+        for (GeoPoint gp : intersections) {
+            double distance = ray.origin().distanceSquared(gp.point());
+            if (distance < minDistance) {
+                minDistance = distance;
+                closest = gp;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Calculates the direction refracted through a surface according to
+     * Snell's law, assuming the outside of the geometry is air
+     *
+     * @param v   the incoming direction
+     * @param n   the normal
+     * @param nv  dot product of the normal and the incoming direction
+     * @param ior index of refraction of the geometry
+     * @return the refracted direction, or null on total internal reflection
+     */
+    private static Vector refracted(Vector v, Vector n, double nv, double ior) {
+        if (isZero(ior - 1)) return v;
+        double eta = nv < 0 ? 1 / ior : ior;
+        double cosI = Math.abs(nv);
+        double sin2T = eta * eta * (1 - cosI * cosI);
+        if (sin2T >= 1) return null;
+        Vector inward = nv < 0 ? n.scale(-1) : n;
+        return v.scale(eta).add(inward.scale(Math.sqrt(1 - sin2T) - eta * cosI));
+    }
+
+    /**
+     * Returns the amount of photons
+     *
+     * @return the amount of photons
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the position of a photon
+     *
+     * @param index the index of the photon
+     * @return the position
+     */
+    public Point getPosition(int index) {
+        return new Point(positions[3 * index], positions[3 * index + 1], positions[3 * index + 2]);
+    }
+
+    /**
+     * Finds the photons nearest to a point
+     *
+     * @param point       the point
+     * @param k           maximal amount of photons
+     * @param maxDistance distance limit of the photons
+     * @return indices of the photons, nearest first
+     * @throws IllegalArgumentException if the amount is not positive
+     */
+    public int[] nearest(Point point, int k, double maxDistance) {
+        Heap heap = gather(point, k, maxDistance);
+        int[] nearest = new int[heap.size];
+        for (int i = nearest.length - 1; i >= 0; --i) nearest[i] = heap.poll();
+        return nearest;
+    }
+
+    /**
+     * Estimates the light reaching a point of a surface from the density of
+     * the nearest photons arriving on its side: their total power over the
+     * area of the disc holding them (or of the disc of the distance limit, if
+     * there are fewer of them)
+     *
+     * @param point       the point
+     * @param normal      the unit normal at the point, on the lit side
+     * @param k           amount of photons to estimate by
+     * @param maxDistance distance limit of the photons
+     * @return the light reaching the point
+     * @throws IllegalArgumentException if the amount is not positive
+     */
+    public Color estimate(Point point, Vector normal, int k, double maxDistance) {
+        Heap heap = gather(point, k, maxDistance);
+        if (heap.size == 0) return Color.BLACK;
+        double area = Math.PI * (heap.size == k ? heap.keys[0] : maxDistance * maxDistance);
+        double nx = normal.getX(), ny = normal.getY(), nz = normal.getZ();
+        double r = 0, g = 0, b = 0;
+        for (int i = 0; i < heap.size; ++i) {
+            int p = 3 * heap.photons[i];
+            if (directions[p] * nx + directions[p + 1] * ny + directions[p + 2] * nz >= 0) continue;
+            r += powers[p];
+            g += powers[p + 1];
+            b += powers[p + 2];
+        }
+        return new Color(r / area, g / area, b / area);
+    }
+
+    /**
+     * Collects the photons nearest to a point in the heap of the thread
+     *
+     * @param point       the point
+     * @param k           maximal amount of photons
+     * @param maxDistance distance limit of the photons
+     * @return the heap
+     * @throws IllegalArgumentException if the amount is not positive
+     */
+    private Heap gather(Point point, int k, double maxDistance) {
+        if (k < 1) throw new IllegalArgumentException("Photon amount must be positive");
+        Heap heap = HEAPS.get();
+        heap.reset(k, maxDistance * maxDistance);
+        search(0, size, point.getX(), point.getY(), point.getZ(), heap);
+        return heap;
+    }
+
+    /**
+     * Searches a range of the tree for the photons nearest to a point, the
+     * half of the range on the side of the point first
+     *
+     * @param lo   first photon of the range
+     * @param hi   end of the range
+     * @param px   point x
+     * @param py   point y
+     * @param pz   point z
+     * @param heap the nearest photons found so far
+     */
+    private void search(int lo, int hi, double px, double py, double pz, Heap heap) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int i = 3 * mid;
+            double dx = px - positions[i], dy = py - positions[i + 1], dz = pz - positions[i + 2];
+            double d2 = dx * dx + dy * dy + dz * dz;
+            if (d2 < heap.bound()) heap.offer(d2, mid);
+            double delta = switch (axes[mid]) {
+                case 0 -> dx;
+                case 1 -> dy;
+                default -> dz;
+            };
+            if (delta < 0) {
+                search(lo, mid, px, py, pz, heap);
+                lo = mid + 1;
+            } else {
+                search(mid + 1, hi, px, py, pz, heap);
+                hi = mid;
+            }
+            // the other half is only worth searching if its splitting plane is close enough
+            if (delta * delta >= heap.bound()) return;
+        }
+    }
+}
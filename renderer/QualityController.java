@@ -0,0 +1,148 @@
+package renderer;
+
+/**
+ * Chooses the quality of every tile of a time-budgeted render.
+ * <p>
+ * The quality levels go from the best to the cheapest, lowering the samples
+ * per pixel, then the bounce depth, then the resolution of the tile (which is
+ * upscaled afterwards). The controller measures the cost of a sample at every
+ * level while the frame renders, and before every tile picks the best level
+ * at which all the remaining tiles would still finish before the deadline.
+ * Until a cost is measured, the first tiles probe it at the cheapest level, so
+ * no tile is started at a quality the budget cannot be checked against. The
+ * first tile of every level only warms its code up (its cost, with the code
+ * not compiled yet, would be far above the following ones) and is not
+ * measured. Then the frame goes to the best quality its budget allows and
+ * degrades only as far and as late as it requires.
+ *
+ * @author Raphael
+ */
+final class QualityController {
+    /**
+     * A quality level
+     *
+     * @param step    the tile is traced at every step-th pixel in both axes and
+     *                upscaled
+     * @param samples amount of samples per pixel along each axis
+     * @param depth   maximal amount of bounces
+     */
+    record Level(int step, int samples, int depth) {
+        /**
+         * Returns the amount of samples of a tile at this level
+         *
+         * @param width  the tile width
+         * @param height the tile height
+         * @return the amount of samples
+         */
+        long samples(int width, int height) {
+            return (long) ((width + step - 1) / step) * ((height + step - 1) / step) * samples * samples;
+        }
+    }
+
+    /**
+     * The quality levels, from the best
+     */
+    static final Level[] LEVELS = {
+            new Level(1, 2, Integer.MAX_VALUE),
+            new Level(1, 1, Integer.MAX_VALUE),
+            new Level(1, 1, 2),
+            new Level(2, 1, 2),
+            new Level(4, 1, 1),
+            new Level(8, 1, 1)
+    };
+
+    /**
+     * Weight of a new measurement in the cost averages
+     */
+    private static final double ALPHA = 0.25;
+
+    /**
+     * The deadline (in {@link System#nanoTime()} units)
+     */
+    private final long deadline;
+    /**
+     * Amount of tiles not started yet
+     */
+    private int remainingTiles;
+    /**
+     * Amount of samples of a whole tile at every level
+     */
+    private final long[] tileSamples = new long[LEVELS.length];
+    /**
+     * Average cost of a sample at every level in nanoseconds of a worker, 0
+     * until measured
+     */
+    private final double[] sampleCost = new double[LEVELS.length];
+    /**
+     * Amount of workers rendering in parallel
+     */
+    private final int workers;
+    /**
+     * Amount of tiles rendered at every level
+     */
+    private final int[] tilesPerLevel = new int[LEVELS.length];
+    /**
+     * Amount of traced samples
+     */
+    private long samples = 0;
+
+    /**
+     * Constructs a controller
+     *
+     * @param deadline the deadline (in {@link System#nanoTime()} units)
+     * @param tiles    amount of tiles in the frame
+     * @param tileSize the size of a whole tile
+     * @param workers  amount of workers rendering in parallel
+     */
+    QualityController(long deadline, int tiles, int tileSize, int workers) {
+        this.deadline = deadline;
+        this.remainingTiles = tiles;
+        this.workers = workers;
+        for (int l = 0; l < LEVELS.length; ++l)
+            tileSamples[l] = LEVELS[l].samples(tileSize, tileSize);
+    }
+
+    /**
+     * Chooses the level of the next tile
+     *
+     * @return the level index
+     */
+    synchronized int next() {
+        double left = deadline - System.nanoTime();
+        int tiles = remainingTiles--;
+        int level = LEVELS.length - 1;
+        double measured = 0;
+        for (int l = LEVELS.length - 1; l >= 0; --l) {
+            // an unmeasured level is assumed as costly per sample as the last measured cheaper one
+            if (sampleCost[l] > 0) measured = sampleCost[l];
+            if (measured > 0 && tiles * tileSamples[l] * measured / workers <= left) level = l;
+        }
+        return level;
+    }
+
+    /**
+     * Records the cost of a rendered tile
+     *
+     * @param level   the level index
+     * @param samples amount of samples of the tile
+     * @param nanos   time the tile took
+     */
+    synchronized void record(int level, long samples, long nanos) {
+        this.samples += samples;
+        if (tilesPerLevel[level]++ == 0) return; // warming up
+        double cost = (double) nanos / samples;
+        sampleCost[level] = sampleCost[level] == 0 ? cost : (1 - ALPHA) * sampleCost[level] + ALPHA * cost;
+    }
+
+    /**
+     * Creates the report of the frame
+     *
+     * @param start the start time of the frame (in {@link System#nanoTime()}
+     *              units)
+     * @param end   the end time of the frame
+     * @return the report
+     */
+    synchronized FrameReport report(long start, long end) {
+        return new FrameReport(deadline - start, end - start, tilesPerLevel.clone(), samples);
+    }
+}
@@ -0,0 +1,62 @@
+package renderer;
+
+import primitives.Color;
+import primitives.ContentHash;
+import primitives.ContentHashable;
+import primitives.Ray;
+import scene.Scene;
+
+/**
+ * Abstract class RayTracerBase is the base of the ray tracers - it calculates
+ * the color a ray sees in a scene
+ *
+ * @author Raphael
+ */
+public abstract class RayTracerBase implements ContentHashable {
+    /**
+     * The scene to trace the rays in
+     */
+    protected final Scene scene;
+
+    /**
+     * Constructs a ray tracer
+     *
+     * @param scene the scene to trace the rays in
+     */
+    protected RayTracerBase(Scene scene) {
+        this.scene = scene;
+    }
+
+    /**
+     * Calculates the color a ray sees
+     *
+     * @param ray the ray
+     * @return the color
+     */
+    public abstract Color traceRay(Ray ray);
+
+    /**
+     * Calculates the color a ray sees, following at most a given amount of
+     * bounces - a cheaper, less accurate color for time-budgeted rendering.
+     * Tracers without secondary rays ignore the limit
+     *
+     * @param ray       the ray
+     * @param maxLevels maximal amount of surfaces the ray and its secondary rays
+     *                  may hit
+     * @return the color
+     */
+    public Color traceRay(Ray ray, int maxLevels) {
+        return traceRay(ray);
+    }
+
+    /**
+     * Feeds the tracer settings (everything that changes the traced colors
+     * except the scene) into a content hash
+     *
+     * @param hash the hash to feed
+     */
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add(getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,266 @@
+package renderer;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * HTTP front end of a {@link RenderService}, for local clients.
+ * <p>
+ * Requests and responses are plain text, one {@code key=value} pair per line:
+ * <ul>
+ * <li>{@code POST /jobs} submits a job described by the request body:
+ * {@code scene} (name of a registered scene, required), {@code location},
+ * {@code target} and {@code up} (points and vectors as {@code x,y,z};
+ * {@code up} defaults to the y axis), {@code viewPlane}
+ * ({@code width,height,distance}), {@code resolution} ({@code nX,nY}),
+ * {@code output} (PNG file name in the output directory), {@code priority}
+ * (default 0) and {@code name}. Answers 201 with the {@code id} of the job.</li>
+ * <li>{@code GET /jobs/<id>} answers the {@code state} and the
+ * {@code progress} (0 to 1) of a job.</li>
+ * <li>{@code DELETE /jobs/<id>} cancels a job, answering 202.</li>
+ * </ul>
+ * Malformed requests are answered 400, unknown jobs 404. The exchanges are
+ * handled on virtual threads.
+ *
+ * @author Raphael
+ */
+public class RenderServer implements Closeable {
+    /**
+     * Path of the jobs resource
+     */
+    private static final String JOBS = "/jobs";
+
+    /**
+     * The service running the jobs
+     */
+    private final RenderService service;
+    /**
+     * The directory of the written images
+     */
+    private final Path outputDirectory;
+    /**
+     * The scene loaders by scene name
+     */
+    private final Map<String, Callable<Scene>> scenes = new ConcurrentHashMap<>();
+    /**
+     * The HTTP server
+     */
+    private final HttpServer server;
+    /**
+     * The executor handling the exchanges
+     */
+    private final ExecutorService exchanges = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Starts a server
+     *
+     * @param service         the service running the jobs
+     * @param outputDirectory the directory of the written images (created if
+     *                        missing)
+     * @param address         the address to listen at (port 0 for any free port)
+     * @throws IOException if the server cannot be started
+     */
+    public RenderServer(RenderService service, Path outputDirectory, InetSocketAddress address) throws IOException {
+        this.service = service;
+        this.outputDirectory = Files.createDirectories(outputDirectory).toAbsolutePath().normalize();
+        server = HttpServer.create(address, 0);
+        server.createContext(JOBS, this::handle);
+        server.setExecutor(exchanges);
+        server.start();
+    }
+
+    /**
+     * Registers a scene that jobs may render
+     *
+     * @param name   the scene name
+     * @param loader loads the scene (may block on I/O)
+     * @return the server itself
+     */
+    public RenderServer register(String name, Callable<Scene> loader) {
+        scenes.put(name, loader);
+        return this;
+    }
+
+    /**
+     * Returns the port the server listens at
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Handles an exchange
+     *
+     * @param exchange the exchange
+     * @throws IOException if the response cannot be sent
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            try {
+                if (path.equals(JOBS)) {
+                    if (!method.equals("POST")) {
+                        respond(exchange, 405, "error=method not allowed\n");
+                        return;
+                    }
+                    String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                    RenderService.Job job = service.submit(parse(body));
+                    respond(exchange, 201, "id=" + job.getId() + "\n");
+                    return;
+                }
+                RenderService.Job job = service.getJob(Long.parseLong(path.substring(JOBS.length() + 1)));
+                if (job == null) {
+                    respond(exchange, 404, "error=no such job\n");
+                } else if (method.equals("GET")) {
+                    respond(exchange, 200, "state=" + job.getState() + "\nprogress=" + job.getProgress() + "\n");
+                } else if (method.equals("DELETE")) {
+                    job.cancel();
+                    respond(exchange, 202, "state=" + job.getState() + "\n");
+                } else {
+                    respond(exchange, 405, "error=method not allowed\n");
+                }
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                respond(exchange, 400, "error=" + e.getMessage() + "\n");
+            }
+        }
+    }
+
+    /**
+     * Sends a response
+     *
+     * @param exchange the exchange
+     * @param status   the HTTP status
+     * @param body     the response body
+     * @throws IOException if the response cannot be sent
+     */
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Parses a job description
+     *
+     * @param body the description - {@code key=value} lines
+     * @return the job description
+     * @throws IllegalArgumentException if the description is malformed
+     */
+    private RenderService.JobSpec parse(String body) {
+        Map<String, String> fields = new HashMap<>();
+        for (String line : body.split("\n")) {
+            if (line.isBlank()) continue;
+            int equals = line.indexOf('=');
+            if (equals < 0) throw new IllegalArgumentException("Malformed line: " + line.strip());
+            fields.put(line.substring(0, equals).strip(), line.substring(equals + 1).strip());
+        }
+        String sceneName = required(fields, "scene");
+        Callable<Scene> loader = scenes.get(sceneName);
+        if (loader == null) throw new IllegalArgumentException("Unknown scene: " + sceneName);
+
+        Point location = point(required(fields, "location"));
+        Point target = point(required(fields, "target"));
+        Vector up = vector(fields.getOrDefault("up", "0,1,0"));
+        double[] viewPlane = numbers(required(fields, "viewPlane"), 3);
+        double[] resolution = numbers(required(fields, "resolution"), 2);
+        Path output = outputDirectory.resolve(required(fields, "output")).normalize();
+        if (!output.startsWith(outputDirectory) || output.equals(outputDirectory))
+            throw new IllegalArgumentException("Output outside the output directory");
+        int priority = Integer.parseInt(fields.getOrDefault("priority", "0"));
+
+        Supplier<Camera.Builder> camera = () -> Camera.getBuilder().setLocation(location).setDirection(target, up)
+                .setVpSize(viewPlane[0], viewPlane[1]).setVpDistance(viewPlane[2])
+                .setResolution((int) resolution[0], (int) resolution[1]);
+        camera.get(); // a bad camera fails the request rather than the job
+        return new RenderService.JobSpec(fields.getOrDefault("name", sceneName), priority, loader,
+                scene -> camera.get().setRayTracer(new SimpleRayTracer(scene)).build(), output);
+    }
+
+    /**
+     * Returns a required field of a description
+     *
+     * @param fields the fields
+     * @param key    the field name
+     * @return the field value
+     * @throws IllegalArgumentException if the field is missing
+     */
+    private static String required(Map<String, String> fields, String key) {
+        String value = fields.get(key);
+        if (value == null || value.isEmpty()) throw new IllegalArgumentException("Missing " + key);
+        return value;
+    }
+
+    /**
+     * Parses comma separated numbers
+     *
+     * @param text  the text
+     * @param count the expected amount of numbers
+     * @return the numbers
+     * @throws IllegalArgumentException if the text is not the expected amount
+     *                                  of numbers
+     */
+    private static double[] numbers(String text, int count) {
+        String[] parts = text.split(",");
+        if (parts.length != count)
+            throw new IllegalArgumentException("Expected " + count + " numbers: " + text);
+        double[] numbers = new double[count];
+        for (int i = 0; i < count; ++i)
+            numbers[i] = Double.parseDouble(parts[i].strip());
+        return numbers;
+    }
+
+    /**
+     * Parses a point
+     *
+     * @param text the coordinates as {@code x,y,z}
+     * @return the point
+     */
+    private static Point point(String text) {
+        double[] xyz = numbers(text, 3);
+        return new Point(xyz[0], xyz[1], xyz[2]);
+    }
+
+    /**
+     * Parses a vector
+     *
+     * @param text the coordinates as {@code x,y,z}
+     * @return the vector
+     */
+    private static Vector vector(String text) {
+        double[] xyz = numbers(text, 3);
+        return new Vector(xyz[0], xyz[1], xyz[2]);
+    }
+
+    /**
+     * Stops the server (the service keeps running)
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        exchanges.close();
+    }
+}
@@ -0,0 +1,393 @@
+package renderer;
+
+import scene.Scene;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Local service running many render jobs concurrently.
+ * <p>
+ * Every job runs on its own virtual thread, which does the blocking work -
+ * loading the scene and writing the image - without holding a platform
+ * thread. The tracing itself runs in a single bounded {@link ForkJoinPool}
+ * shared by all the jobs, and only a limited amount of jobs trace at a time;
+ * the others wait for a tracing slot in the order of their priority (then of
+ * their submission). So hundreds of queued jobs neither oversubscribe the
+ * cores nor keep threads blocked on I/O.
+ *
+ * @author Raphael
+ */
+public class RenderService implements Closeable {
+    /**
+     * States of a render job
+     */
+    public enum State {
+        /**
+         * Submitted, not started yet
+         */
+        QUEUED,
+        /**
+         * Loading the scene
+         */
+        LOADING,
+        /**
+         * Waiting for a tracing slot
+         */
+        WAITING,
+        /**
+         * Tracing the image
+         */
+        RENDERING,
+        /**
+         * Completing the image file
+         */
+        WRITING,
+        /**
+         * The image is written
+         */
+        DONE,
+        /**
+         * The job failed
+         */
+        FAILED,
+        /**
+         * The job was cancelled
+         */
+        CANCELLED
+    }
+
+    /**
+     * Description of a render job
+     *
+     * @param name     name of the job (for the logs and the clients)
+     * @param priority priority of the job - higher priority jobs trace first
+     * @param scene    loads the scene (may block on I/O)
+     * @param camera   creates the camera (with its tracer) for the loaded scene
+     * @param output   the PNG file to write
+     */
+    public record JobSpec(String name, int priority, Callable<Scene> scene, Function<Scene, Camera> camera,
+                          Path output) {
+    }
+
+    /**
+     * The pool tracing the images of all the jobs
+     */
+    private final ForkJoinPool tracingPool;
+    /**
+     * The executor running every job on a virtual thread
+     */
+    private final ExecutorService jobThreads = Executors.newVirtualThreadPerTaskExecutor();
+    /**
+     * Maximal amount of jobs tracing at a time
+     */
+    private final int slots;
+    /**
+     * Amount of jobs tracing now
+     */
+    private int tracing = 0;
+    /**
+     * The jobs waiting for a tracing slot, in the order they get it
+     */
+    private final PriorityQueue<Job> waiting = new PriorityQueue<>(
+            Comparator.comparingInt((Job job) -> -job.spec.priority).thenComparingLong(job -> job.id));
+    /**
+     * Guards the tracing slots and the waiting jobs
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * Signalled when the head of the waiting jobs may change
+     */
+    private final Condition slotsChanged = lock.newCondition();
+    /**
+     * All the submitted jobs by their ids
+     */
+    private final Map<Long, Job> jobs = new ConcurrentHashMap<>();
+    /**
+     * The last job id
+     */
+    private final AtomicLong lastId = new AtomicLong();
+
+    /**
+     * Constructs a render service
+     *
+     * @param tracingThreads amount of platform threads tracing the images
+     * @param concurrentJobs maximal amount of jobs tracing at a time
+     * @throws IllegalArgumentException if an amount is not positive
+     */
+    public RenderService(int tracingThreads, int concurrentJobs) {
+        if (tracingThreads < 1 || concurrentJobs < 1)
+            throw new IllegalArgumentException("Amounts of threads and jobs must be positive");
+        tracingPool = new ForkJoinPool(tracingThreads);
+        slots = concurrentJobs;
+    }
+
+    /**
+     * Submits a render job
+     *
+     * @param spec the description of the job
+     * @return the job
+     */
+    public Job submit(JobSpec spec) {
+        Job job = new Job(lastId.incrementAndGet(), spec);
+        jobs.put(job.id, job);
+        jobThreads.execute(() -> run(job));
+        return job;
+    }
+
+    /**
+     * Finds a submitted job
+     *
+     * @param id the job id
+     * @return the job, or null if there is no such job
+     */
+    public Job getJob(long id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * Runs a job - in its virtual thread
+     *
+     * @param job the job
+     */
+    private void run(Job job) {
+        job.thread = Thread.currentThread();
+        try {
+            if (job.cancelled) throw new CancellationException();
+            job.state = State.LOADING;
+            Scene scene = job.spec.scene.call();
+            Camera camera = job.spec.camera.apply(scene);
+            job.totalPixels = (long) camera.getNx() * camera.getNy();
+
+            acquire(job);
+            try (StreamingImageWriter writer = new StreamingImageWriter(job.spec.output,
+                    StreamingImageWriter.Format.PNG, camera.getNx(), camera.getNy(), Camera.TILE_SIZE)) {
+                job.state = State.RENDERING;
+                ForkJoinTask<Camera> task = tracingPool.submit(() -> camera.renderImage((x, y, width, height, rgb) -> {
+                    // stops the tracing workers of a cancelled job after their current tile
+                    if (job.cancelled) throw new CancellationException();
+                    writer.writeTile(x, y, width, height, rgb);
+                    job.pixels.addAndGet((long) width * height);
+                }));
+                try {
+                    task.get();
+                } finally {
+                    // a cancel interrupts the wait, not the workers: the slot and the
+                    // writer are kept until they finish their current tiles
+                    task.quietlyJoin();
+                    release();
+                }
+                job.state = State.WRITING;
+            }
+            job.result.complete(job.spec.output);
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            if (job.cancelled) {
+                try {
+                    Files.deleteIfExists(job.spec.output);
+                } catch (IOException ignore) {
+                    // a partial image is only a leftover
+                }
+                job.result.cancel(false);
+            } else {
+                job.result.completeExceptionally(cause);
+            }
+        }
+    }
+
+    /**
+     * Waits for a tracing slot, in the order of priority
+     *
+     * @param job the waiting job
+     * @throws InterruptedException  if the job is interrupted while waiting
+     * @throws CancellationException if the job is cancelled while waiting
+     */
+    private void acquire(Job job) throws InterruptedException {
+        lock.lock();
+        try {
+            job.state = State.WAITING;
+            waiting.add(job);
+            try {
+                while (tracing >= slots || waiting.peek() != job) {
+                    if (job.cancelled) throw new CancellationException();
+                    slotsChanged.await();
+                }
+                if (job.cancelled) throw new CancellationException();
+            } finally {
+                waiting.remove(job);
+                slotsChanged.signalAll();
+            }
+            ++tracing;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a tracing slot
+     */
+    private void release() {
+        lock.lock();
+        try {
+            --tracing;
+            slotsChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels all the jobs and stops the service
+     */
+    @Override
+    public void close() {
+        for (Job job : jobs.values()) job.cancel();
+        jobThreads.shutdown();
+        try {
+            jobThreads.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        tracingPool.shutdownNow();
+    }
+
+    /**
+     * A submitted render job
+     */
+    public final class Job {
+        /**
+         * The job id
+         */
+        private final long id;
+        /**
+         * The description of the job
+         */
+        private final JobSpec spec;
+        /**
+         * The current state until the job finishes (then the result tells it)
+         */
+        private volatile State state = State.QUEUED;
+        /**
+         * Whether the job was cancelled
+         */
+        private volatile boolean cancelled = false;
+        /**
+         * The virtual thread of the job, once started
+         */
+        private volatile Thread thread = null;
+        /**
+         * Amount of pixels in the image, 0 until the camera is known
+         */
+        private volatile long totalPixels = 0;
+        /**
+         * Amount of traced pixels
+         */
+        private final AtomicLong pixels = new AtomicLong();
+        /**
+         * Completed with the written file
+         */
+        private final CompletableFuture<Path> result = new CompletableFuture<>();
+
+        /**
+         * Constructs a job
+         *
+         * @param id   the job id
+         * @param spec the description of the job
+         */
+        private Job(long id, JobSpec spec) {
+            this.id = id;
+            this.spec = spec;
+        }
+
+        /**
+         * Returns the job id
+         *
+         * @return the id
+         */
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * Returns the description of the job
+         *
+         * @return the description
+         */
+        public JobSpec getSpec() {
+            return spec;
+        }
+
+        /**
+         * Returns the current state of the job
+         *
+         * @return the state
+         */
+        public State getState() {
+            if (!result.isDone()) return state;
+            return result.isCancelled() ? State.CANCELLED
+                    : result.isCompletedExceptionally() ? State.FAILED : State.DONE;
+        }
+
+        /**
+         * Returns the part of the image already traced
+         *
+         * @return the progress from 0 to 1
+         */
+        public double getProgress() {
+            State current = getState();
+            if (current == State.DONE || current == State.WRITING) return 1;
+            long total = totalPixels;
+            return total == 0 ? 0 : (double) pixels.get() / total;
+        }
+
+        /**
+         * Returns the result of the job
+         *
+         * @return future completed with the written file, or cancelled, or
+         * completed exceptionally with the failure
+         */
+        public CompletableFuture<Path> getResult() {
+            return result;
+        }
+
+        /**
+         * Cancels the job. A tracing job stops after the tiles in progress -
+         * keeping its tracing slot until then - and its partial image is
+         * deleted
+         *
+         * @return false if the job has already finished, true otherwise
+         */
+        public boolean cancel() {
+            if (result.isDone()) return false;
+            cancelled = true;
+            lock.lock();
+            try {
+                slotsChanged.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            Thread running = thread;
+            if (running != null) running.interrupt();
+            return true;
+        }
+    }
+}
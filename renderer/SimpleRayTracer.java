@@ -0,0 +1,799 @@
+package renderer;
+
+import geometries.Intersectable.GeoPoint;
+import lighting.AreaLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import primitives.Beam;
+import primitives.Color;
+import primitives.ContentHash;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.compareSign;
+import static primitives.Util.isZero;
+
+/**
+ * Ray tracer with the Phong reflectance model, shadows (attenuated by
+ * transparent geometries), reflection and refraction.
+ * <p>
+ * The secondary rays are traced by a loop over an explicit stack rather than by
+ * recursion: every pending ray carries the factor its color is scaled by on the
+ * way to the pixel (the product of the reflection and transmission
+ * coefficients along its path). A ray is not traced at all once the factor
+ * falls below {@link #MIN_CALC_COLOR_K}, so deep bounces cost nothing when they
+ * cannot visibly change the pixel.
+ * <p>
+ * Shadows of {@link AreaLight}s are soft: the visibility of the light is
+ * averaged over a stratified grid of points on its surface. With adaptive
+ * shadow sampling (the default) four probe rays are fired first, towards the
+ * corner cells of the grid; when they all agree the point is either fully lit
+ * or fully shadowed and the probes are the answer, and only points in a
+ * penumbra pay for the whole grid.
+ * <p>
+ * Glossy reflection and blurry transmission scatter a {@link Beam} of rays
+ * around the mirror and refraction directions. By default the beam is
+ * subdivided adaptively: dense sampling is spent only where the rays of the
+ * beam see different colors.
+ * <p>
+ * Rays with differentials (see {@link Ray.Differentials}) carry their footprint
+ * through reflections and refractions, so textured materials are filtered over
+ * the area a ray stands for rather than read at its finest level.
+ * <p>
+ * Diffuse indirect light (one bounce) is gathered, when turned on, by a
+ * stratified cosine-weighted hemisphere of rays from every diffuse point,
+ * seeing the directly lit surfaces around it. With an {@link IrradianceCache}
+ * the gathered light is stored at sparse points and interpolated in between,
+ * so only a small part of the points pays for the gather rays.
+ * <p>
+ * Caustics - light reaching diffuse surfaces through mirrors and transparent
+ * geometries - come from a {@link PhotonMap}, estimated at every diffuse
+ * point by the density of the nearest photons. With a photon map the shadow
+ * rays of the lights emitting photons no longer pass through transparent
+ * geometries, as the light they transmit arrives by the photons.
+ *
+ * @author Raphael
+ */
+public class SimpleRayTracer extends RayTracerBase {
+    /**
+     * Maximal amount of bounces of a ray
+     */
+    private static final int MAX_CALC_COLOR_LEVEL = 10;
+    /**
+     * Smallest factor of a ray contribution worth tracing
+     */
+    private static final double MIN_CALC_COLOR_K = 0.001;
+    /**
+     * Largest difference of color components seen as the same color by the
+     * adaptive beams (on the 0..255 scale of the image)
+     */
+    private static final double BEAM_TOLERANCE = 2;
+
+    /**
+     * Amount of shadow ray cells along each axis of an area light
+     */
+    private int shadowGrid = 1;
+    /**
+     * Whether to fire probe rays before sampling a whole area light
+     */
+    private boolean adaptiveShadows = true;
+    /**
+     * Amount of beam ray cells along each axis of a glossy or blurry beam
+     */
+    private int beamGrid = 1;
+    /**
+     * Whether to subdivide beams adaptively rather than sample them densely
+     */
+    private boolean adaptiveBeams = true;
+    /**
+     * Amount of indirect light gather ray cells along each axis of the
+     * hemisphere, 0 for no indirect light
+     */
+    private int indirectGrid = 0;
+    /**
+     * The cache of the gathered indirect light, null to gather at every point
+     */
+    private IrradianceCache irradianceCache = null;
+    /**
+     * The map of the caustic photons, null for no caustics
+     */
+    private PhotonMap photonMap = null;
+    /**
+     * Amount of photons a caustic is estimated by
+     */
+    private int photonCount;
+    /**
+     * Distance limit of the photons a caustic is estimated by
+     */
+    private double photonRadius;
+    /**
+     * Amount of traced primary rays
+     */
+    private final LongAdder primaryRays = new LongAdder();
+    /**
+     * Amount of traced shadow rays
+     */
+    private final LongAdder shadowRays = new LongAdder();
+    /**
+     * Amount of traced beam rays
+     */
+    private final LongAdder beamRays = new LongAdder();
+    /**
+     * Amount of traced indirect light gather rays
+     */
+    private final LongAdder indirectRays = new LongAdder();
+
+    /**
+     * A pending ray of the bounce loop
+     *
+     * @param ray   the ray
+     * @param k     the factor of the ray contribution to the pixel
+     * @param level amount of bounces left
+     */
+    private record Pending(Ray ray, Double3 k, int level) {
+    }
+
+    /**
+     * Constructs a ray tracer
+     *
+     * @param scene the scene to trace the rays in
+     */
+    public SimpleRayTracer(Scene scene) {
+        super(scene);
+    }
+
+    /**
+     * Sets the amount of shadow rays towards every area light
+     *
+     * @param grid amount of stratification cells along each axis of the light
+     *             (grid&times;grid rays), 1 to treat area lights as point lights
+     * @return the ray tracer itself
+     * @throws IllegalArgumentException if the amount is not positive
+     */
+    public SimpleRayTracer setShadowSamples(int grid) {
+        if (grid < 1) throw new IllegalArgumentException("Shadow sample grid must be positive");
+        shadowGrid = grid;
+        return this;
+    }
+
+    /**
+     * Turns the adaptive sampling of area lights on or off
+     *
+     * @param adaptive true to sample the whole light only in penumbras
+     * @return the ray tracer itself
+     */
+    public SimpleRayTracer setAdaptiveShadows(boolean adaptive) {
+        adaptiveShadows = adaptive;
+        return this;
+    }
+
+    /**
+     * Sets the amount of rays of glossy reflection and blurry transmission
+     * beams
+     *
+     * @param grid amount of cells along each axis of the beam target disc
+     *             (at most (grid+1)&times;(grid+1) rays with adaptive beams,
+     *             grid&times;grid otherwise), a power of 2; 1 to trace a
+     *             single ray instead of a beam
+     * @return the ray tracer itself
+     * @throws IllegalArgumentException if the amount is not a power of 2
+     */
+    public SimpleRayTracer setBeamSamples(int grid) {
+        if (grid < 1 || Integer.bitCount(grid) != 1)
+            throw new IllegalArgumentException("Beam sample grid must be a power of 2");
+        beamGrid = grid;
+        return this;
+    }
+
+    /**
+     * Turns the adaptive subdivision of beams on or off
+     *
+     * @param adaptive true to subdivide a beam only where its rays disagree,
+     *                 false to sample it with a dense stratified grid
+     * @return the ray tracer itself
+     */
+    public SimpleRayTracer setAdaptiveBeams(boolean adaptive) {
+        adaptiveBeams = adaptive;
+        return this;
+    }
+
+    /**
+     * Sets the amount of rays gathering the diffuse indirect light
+     *
+     * @param grid amount of stratification cells along each axis of the
+     *             hemisphere over a diffuse point (grid&times;grid rays), 0 for
+     *             no indirect light
+     * @return the ray tracer itself
+     * @throws IllegalArgumentException if the amount is negative
+     */
+    public SimpleRayTracer setIndirectSamples(int grid) {
+        if (grid < 0) throw new IllegalArgumentException("Indirect sample grid cannot be negative");
+        indirectGrid = grid;
+        return this;
+    }
+
+    /**
+     * Sets the cache interpolating the gathered indirect light (see
+     * {@link #setIndirectSamples(int)}). The cache belongs to the scene of the
+     * ray tracer and may be shared by ray tracers of the same scene
+     *
+     * @param cache the cache, null to gather at every diffuse point
+     * @return the ray tracer itself
+     */
+    public SimpleRayTracer setIrradianceCache(IrradianceCache cache) {
+        irradianceCache = cache;
+        return this;
+    }
+
+    /**
+     * Sets the map of the caustic photons of the scene (see
+     * {@link PhotonMap#emitCaustics(Scene, int)})
+     *
+     * @param map    the photon map, null for no caustics
+     * @param count  amount of nearest photons the light at a point is
+     *               estimated by
+     * @param radius distance limit of the photons
+     * @return the ray tracer itself
+     * @throws IllegalArgumentException if the amount or the distance is not
+     *                                  positive
+     */
+    public SimpleRayTracer setPhotonMap(PhotonMap map, int count, double radius) {
+        if (count < 1) throw new IllegalArgumentException("Photon amount must be positive");
+        if (radius <= 0) throw new IllegalArgumentException("Photon radius must be positive");
+        photonMap = map;
+        photonCount = count;
+        photonRadius = radius;
+        return this;
+    }
+
+    /**
+     * Returns the average amount of shadow rays traced per primary ray (per
+     * pixel when a camera traces one ray through every pixel) since the last
+     * {@link #resetStatistics()}
+     *
+     * @return shadow rays per primary ray
+     */
+    public double getShadowRaysPerPixel() {
+        long primary = primaryRays.sum();
+        return primary == 0 ? 0 : (double) shadowRays.sum() / primary;
+    }
+
+    /**
+     * Returns the average amount of glossy and blurry beam rays traced per
+     * primary ray since the last {@link #resetStatistics()}
+     *
+     * @return beam rays per primary ray
+     */
+    public double getBeamRaysPerPixel() {
+        long primary = primaryRays.sum();
+        return primary == 0 ? 0 : (double) beamRays.sum() / primary;
+    }
+
+    /**
+     * Returns the average amount of indirect light gather rays traced per
+     * primary ray since the last {@link #resetStatistics()}
+     *
+     * @return gather rays per primary ray
+     */
+    public double getIndirectRaysPerPixel() {
+        long primary = primaryRays.sum();
+        return primary == 0 ? 0 : (double) indirectRays.sum() / primary;
+    }
+
+    /**
+     * Resets the ray counters
+     */
+    public void resetStatistics() {
+        primaryRays.reset();
+        shadowRays.reset();
+        beamRays.reset();
+        indirectRays.reset();
+    }
+
+    @Override
+    public void hash(ContentHash hash) {
+        super.hash(hash);
+        hash.add(shadowGrid).add(adaptiveShadows).add(beamGrid).add(adaptiveBeams).add(indirectGrid)
+                .add(irradianceCache == null ? 0 : irradianceCache.getAccuracy())
+                .add(photonMap == null ? 0 : photonMap.size()).add(photonCount).add(photonRadius);
+    }
+
+    @Override
+    public Color traceRay(Ray ray) {
+        primaryRays.increment();
+        return trace(ray, Double3.ONE, MAX_CALC_COLOR_LEVEL);
+    }
+
+    @Override
+    public Color traceRay(Ray ray, int maxLevels) {
+        if (maxLevels < 1) throw new IllegalArgumentException("At least one level must be traced");
+        primaryRays.increment();
+        return trace(ray, Double3.ONE, Math.min(maxLevels, MAX_CALC_COLOR_LEVEL));
+    }
+
+    /**
+     * Calculates the color a ray sees, scaled by the factor of its contribution
+     *
+     * @param ray   the ray
+     * @param k     the factor of the ray contribution to the pixel
+     * @param level amount of bounces left
+     * @return the scaled color
+     */
+    private Color trace(Ray ray, Double3 k, int level) {
+        Color color = Color.BLACK;
+        Pending[] stack = new Pending[8];
+        int top = 0;
+        stack[top++] = new Pending(ray, k, level);
+        while (top > 0) {
+            Pending pending = stack[--top];
+            GeoPoint gp = findClosestIntersection(pending.ray);
+            if (gp == null) {
+                color = color.add(scene.background.scale(pending.k));
+                continue;
+            }
+
+            Vector v = pending.ray.direction();
+            Vector n = gp.geometry().getNormal(gp.point());
+            double nv = alignZero(n.dotProduct(v));
+            // the footprint of the ray on the surface, when the ray carries differentials
+            Ray.Differentials hit = pending.ray.differentials() == null || nv == 0 ? null
+                    : pending.ray.differentials().transfer(v, n, pending.ray.origin().distance(gp.point()));
+            Material material = gp.geometry().getMaterial();
+            Color local = gp.geometry().getEmission()
+                    .add(scene.ambientLight.getIntensity().scale(material.kA));
+            if (nv != 0) {
+                Double3 kD = material.diffuse(gp.point(), hit);
+                local = local.add(calcLocalEffects(gp, material, kD, n, v, nv, pending.k));
+                boolean diffuse = !pending.k.product(kD).lowerThan(MIN_CALC_COLOR_K);
+                if (diffuse && indirectGrid > 0)
+                    local = local.add(calcIndirect(gp.point(), nv < 0 ? n : n.scale(-1)).scale(kD));
+                if (diffuse && photonMap != null)
+                    local = local.add(photonMap.estimate(gp.point(), nv < 0 ? n : n.scale(-1), photonCount, photonRadius)
+                            .scale(kD));
+            }
+            color = color.add(local.scale(pending.k));
+            if (pending.level == 1 || nv == 0) continue;
+
+            // secondary rays - traced only when their contribution is noticeable;
+            // a glossy or blurry surface scatters a beam that is traced apart
+            Double3 dNdx = hit == null ? null : normalDifferential(gp, n, hit.dOdx());
+            Double3 dNdy = hit == null ? null : normalDifferential(gp, n, hit.dOdy());
+            Double3 kr = material.kR;
+            Ray refracted = null;
+            if (!material.kT.equals(Double3.ZERO)) {
+                refracted = refractedRay(gp.point(), v, n, nv, material.ior, hit, dNdx, dNdy);
+                if (refracted == null) kr = kr.add(material.kT); // total internal reflection
+            }
+            if (top + 2 > stack.length) stack = Arrays.copyOf(stack, 2 * stack.length);
+            Double3 kkr = pending.k.product(kr);
+            if (!kkr.lowerThan(MIN_CALC_COLOR_K)) {
+                Ray reflected = reflectedRay(gp.point(), v, n, nv, hit, dNdx, dNdy);
+                if (material.glossiness > 0 && beamGrid > 1)
+                    color = color.add(traceBeam(new Beam(reflected, material.glossiness), n, kkr, pending.level - 1));
+                else stack[top++] = new Pending(reflected, kkr, pending.level - 1);
+            }
+            if (refracted != null) {
+                Double3 kkt = pending.k.product(material.kT);
+                if (!kkt.lowerThan(MIN_CALC_COLOR_K)) {
+                    if (material.blurriness > 0 && beamGrid > 1)
+                        color = color.add(traceBeam(new Beam(refracted, material.blurriness), n, kkt, pending.level - 1));
+                    else stack[top++] = new Pending(refracted, kkt, pending.level - 1);
+                }
+            }
+        }
+        return color;
+    }
+
+    /**
+     * Calculates the average color seen by the rays of a beam. With adaptive
+     * beams the target disc is split into quarters recursively, down to the
+     * cells of the beam grid, but only while the rays through the corners of
+     * a part see different colors; otherwise the corners are the answer for
+     * the whole part. The rays through shared corners are traced once.
+     *
+     * @param beam  the beam
+     * @param n     the normal of the surface scattering the beam
+     * @param k     the factor of the beam contribution to the pixel
+     * @param level amount of bounces left
+     * @return the average color, scaled by the factor
+     */
+    private Color traceBeam(Beam beam, Vector n, Double3 k, int level) {
+        double side = n.dotProduct(beam.getAxis().direction());
+        if (!adaptiveBeams) {
+            Color sum = Color.BLACK;
+            for (Ray ray : beam.generateRays(beamGrid))
+                sum = sum.add(traceBeamRay(beam, ray, n, side, k, level));
+            return sum.reduce(beamGrid * beamGrid);
+        }
+        Color[] lattice = new Color[(beamGrid + 1) * (beamGrid + 1)];
+        int half = beamGrid / 2;
+        return subdivide(beam, n, side, k, level, lattice, 0, 0, half)
+                .add(subdivide(beam, n, side, k, level, lattice, half, 0, half),
+                        subdivide(beam, n, side, k, level, lattice, 0, half, half),
+                        subdivide(beam, n, side, k, level, lattice, half, half, half))
+                .reduce(4);
+    }
+
+    /**
+     * Calculates the average color seen by the rays through a square part of
+     * the beam target disc
+     *
+     * @param beam    the beam
+     * @param n       the normal of the surface scattering the beam
+     * @param side    dot product of the normal and the beam axis direction
+     * @param k       the factor of the beam contribution to the pixel
+     * @param level   amount of bounces left
+     * @param lattice the colors seen through the grid corners traced so far
+     * @param i       the first column of the part
+     * @param j       the first row of the part
+     * @param size    amount of grid cells along each side of the part
+     * @return the average color, scaled by the factor
+     */
+    private Color subdivide(Beam beam, Vector n, double side, Double3 k, int level,
+                            Color[] lattice, int i, int j, int size) {
+        Color c00 = latticeColor(beam, n, side, k, level, lattice, i, j);
+        Color c10 = latticeColor(beam, n, side, k, level, lattice, i + size, j);
+        Color c01 = latticeColor(beam, n, side, k, level, lattice, i, j + size);
+        Color c11 = latticeColor(beam, n, side, k, level, lattice, i + size, j + size);
+        if (size == 1 || (similar(c00, c10) && similar(c00, c01) && similar(c00, c11)))
+            return c00.add(c10, c01, c11).reduce(4);
+        int half = size / 2;
+        return subdivide(beam, n, side, k, level, lattice, i, j, half)
+                .add(subdivide(beam, n, side, k, level, lattice, i + half, j, half),
+                        subdivide(beam, n, side, k, level, lattice, i, j + half, half),
+                        subdivide(beam, n, side, k, level, lattice, i + half, j + half, half))
+                .reduce(4);
+    }
+
+    /**
+     * Returns the color seen through a corner of the beam grid, tracing it on
+     * the first use
+     *
+     * @param beam    the beam
+     * @param n       the normal of the surface scattering the beam
+     * @param side    dot product of the normal and the beam axis direction
+     * @param k       the factor of the beam contribution to the pixel
+     * @param level   amount of bounces left
+     * @param lattice the colors seen through the grid corners traced so far
+     * @param i       the column of the corner
+     * @param j       the row of the corner
+     * @return the color, scaled by the factor
+     */
+    private Color latticeColor(Beam beam, Vector n, double side, Double3 k, int level,
+                               Color[] lattice, int i, int j) {
+        int index = j * (beamGrid + 1) + i;
+        if (lattice[index] == null) {
+            Ray ray = beam.getRay((double) i / beamGrid, (double) j / beamGrid);
+            lattice[index] = traceBeamRay(beam, ray, n, side, k, level);
+        }
+        return lattice[index];
+    }
+
+    /**
+     * Calculates the color seen by a ray of a beam. A ray scattered to the
+     * wrong side of the surface is replaced by the beam axis
+     *
+     * @param beam  the beam
+     * @param ray   the ray
+     * @param n     the normal of the surface scattering the beam
+     * @param side  dot product of the normal and the beam axis direction
+     * @param k     the factor of the beam contribution to the pixel
+     * @param level amount of bounces left
+     * @return the color, scaled by the factor
+     */
+    private Color traceBeamRay(Beam beam, Ray ray, Vector n, double side, Double3 k, int level) {
+        beamRays.increment();
+        return trace(compareSign(n.dotProduct(ray.direction()), side) ? ray : beam.getAxis(), k, level);
+    }
+
+    /**
+     * Checks whether two colors are indistinguishable in an image
+     *
+     * @param c1 first color
+     * @param c2 second color
+     * @return true if no component differs by a visible amount
+     */
+    private static boolean similar(Color c1, Color c2) {
+        return Math.abs(c1.getRed() - c2.getRed()) < BEAM_TOLERANCE
+                && Math.abs(c1.getGreen() - c2.getGreen()) < BEAM_TOLERANCE
+                && Math.abs(c1.getBlue() - c2.getBlue()) < BEAM_TOLERANCE;
+    }
+
+    /**
+     * Finds the intersection of a ray closest to its origin
+     *
+     * @param ray the ray
+     * @return the closest intersection, or null if the ray hits nothing
+     */
+    private GeoPoint findClosestIntersection(Ray ray) {
+        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(ray);
+        if (intersections == null) return null;
+        Point origin = ray.origin();
+        GeoPoint closest = null;
+        double minDistance = Double.POSITIVE_INFINITY;
+        for (GeoPoint gp : intersections) {
+            double distance = origin.distanceSquared(gp.point());
+            if (distance < minDistance) {
+                minDistance = distance;
+                closest = gp;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Calculates the diffuse indirect light reaching a point: the average
+     * light seen by a stratified cosine-weighted hemisphere of rays, which
+     * scaled by the diffuse coefficient is the light the point reflects.
+     * The gather rays see the emission and the direct light of the surfaces
+     * they hit. With a cache the light is interpolated from the samples
+     * around the point when they are valid there, and gathered and stored
+     * otherwise
+     *
+     * @param point the point
+     * @param n     the unit normal at the point, on the side to be lit
+     * @return the average light
+     */
+    private Color calcIndirect(Point point, Vector n) {
+        if (irradianceCache != null) {
+            Color cached = irradianceCache.lookup(point, n);
+            if (cached != null) return cached;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Vector t = n.orthogonal();
+        Vector b = n.crossProduct(t);
+        Color sum = Color.BLACK;
+        double inverseDistances = 0;
+        for (int j = 0; j < indirectGrid; ++j)
+            for (int i = 0; i < indirectGrid; ++i) {
+                // a cell of the unit square mapped on the disc and lifted onto the hemisphere
+                double u = (i + random.nextDouble()) / indirectGrid;
+                double phi = 2 * Math.PI * (j + random.nextDouble()) / indirectGrid;
+                double r = Math.sqrt(u), a = r * Math.cos(phi), c = r * Math.sin(phi), h = Math.sqrt(1 - u);
+                Vector direction = new Vector(a * t.getX() + c * b.getX() + h * n.getX(),
+                        a * t.getY() + c * b.getY() + h * n.getY(),
+                        a * t.getZ() + c * b.getZ() + h * n.getZ());
+                indirectRays.increment();
+                Ray gather = new Ray(point, direction, n);
+                GeoPoint gp = findClosestIntersection(gather);
+                if (gp == null) {
+                    sum = sum.add(scene.background);
+                    continue;
+                }
+                inverseDistances += 1 / point.distance(gp.point());
+                sum = sum.add(calcDirect(gp, direction));
+            }
+        Color irradiance = sum.reduce(indirectGrid * indirectGrid);
+        if (irradianceCache != null)
+            irradianceCache.insert(point, n, irradiance, indirectGrid * indirectGrid / inverseDistances);
+        return irradiance;
+    }
+
+    /**
+     * Calculates the emitted and directly reflected light of a point, without
+     * secondary rays
+     *
+     * @param gp the point
+     * @param v  the direction of the view ray
+     * @return the light
+     */
+    private Color calcDirect(GeoPoint gp, Vector v) {
+        Material material = gp.geometry().getMaterial();
+        Color color = gp.geometry().getEmission().add(scene.ambientLight.getIntensity().scale(material.kA));
+        Vector n = gp.geometry().getNormal(gp.point());
+        double nv = alignZero(n.dotProduct(v));
+        if (nv == 0) return color;
+        return color.add(calcLocalEffects(gp, material, material.diffuse(gp.point(), null), n, v, nv, Double3.ONE));
+    }
+
+    /**
+     * Calculates the diffuse and specular light reflected from a point towards
+     * the viewer
+     *
+     * @param gp       the point
+     * @param material the material at the point
+     * @param kD       the diffuse coefficient at the point
+     * @param n        the normal at the point
+     * @param v        the direction of the view ray
+     * @param nv       dot product of the normal and the view direction
+     * @param k        the factor of the point contribution to the pixel
+     * @return the reflected light
+     */
+    private Color calcLocalEffects(GeoPoint gp, Material material, Double3 kD, Vector n, Vector v, double nv,
+                                   Double3 k) {
+        Color color = Color.BLACK;
+        for (LightSource light : scene.lights) {
+            Vector l = light.getL(gp.point());
+            double nl = alignZero(n.dotProduct(l));
+            if (nl * nv <= 0) continue; // light and viewer on different sides
+            Double3 ktr = transparency(gp, light, l, n, nl);
+            if (ktr.product(k).lowerThan(MIN_CALC_COLOR_K)) continue;
+            Color iL = light.getIntensity(gp.point()).scale(ktr);
+            color = color.add(iL.scale(kD.scale(Math.abs(nl)).add(calcSpecular(material, n, l, nl, v))));
+        }
+        return color;
+    }
+
+    /**
+     * Calculates the specular reflection factor
+     *
+     * @param material the material
+     * @param n        the normal
+     * @param l        the light direction
+     * @param nl       dot product of the normal and the light direction
+     * @param v        the view direction
+     * @return the factor
+     */
+    private Double3 calcSpecular(Material material, Vector n, Vector l, double nl, Vector v) {
+        Vector r = l.subtract(n.scale(2 * nl));
+        double minusVR = -alignZero(v.dotProduct(r));
+        return minusVR <= 0 ? Double3.ZERO : material.kS.scale(Math.pow(minusVR, material.nShininess));
+    }
+
+    /**
+     * Calculates the part of a light that reaches a point through the
+     * geometries between them (the product of their transmission coefficients)
+     *
+     * @param gp    the lighted point
+     * @param light the light
+     * @param l     the light direction
+     * @param n     the normal at the point
+     * @param nl    dot product of the normal and the light direction
+     * @return the transmitted part of the light
+     */
+    private Double3 transparency(GeoPoint gp, LightSource light, Vector l, Vector n, double nl) {
+        if (shadowGrid > 1 && light instanceof AreaLight area) return areaTransparency(gp.point(), n, nl, area);
+        return transmission(new Ray(gp.point(), l.scale(-1), n), light.getDistance(gp.point()),
+                photonMap != null && light instanceof PointLight);
+    }
+
+    /**
+     * Calculates the part of an area light that reaches a point, averaged over
+     * a stratified grid of points on the light
+     *
+     * @param point the lighted point
+     * @param n     the normal at the point
+     * @param nl    dot product of the normal and the direction from the light
+     *              center
+     * @param light the light
+     * @return the transmitted part of the light
+     */
+    private Double3 areaTransparency(Point point, Vector n, double nl, AreaLight light) {
+        int last = shadowGrid - 1;
+        // probes towards the corner cells
+        Double3 p00 = sampleTransparency(point, n, nl, light, 0, 0);
+        Double3 p10 = sampleTransparency(point, n, nl, light, last, 0);
+        Double3 p01 = sampleTransparency(point, n, nl, light, 0, last);
+        Double3 p11 = sampleTransparency(point, n, nl, light, last, last);
+        if (adaptiveShadows && p00.equals(p10) && p00.equals(p01) && p00.equals(p11)) return p00;
+
+        Double3 sum = p00.add(p10).add(p01).add(p11);
+        for (int j = 0; j <= last; ++j)
+            for (int i = 0; i <= last; ++i)
+                if ((i != 0 && i != last) || (j != 0 && j != last))
+                    sum = sum.add(sampleTransparency(point, n, nl, light, i, j));
+        return sum.reduce(shadowGrid * shadowGrid);
+    }
+
+    /**
+     * Calculates the part of the light from a jittered point of a cell of an
+     * area light that reaches a point
+     *
+     * @param point the lighted point
+     * @param n     the normal at the point
+     * @param nl    dot product of the normal and the direction from the light
+     *              center
+     * @param light the light
+     * @param i     the cell column
+     * @param j     the cell row
+     * @return the transmitted part of the light
+     */
+    private Double3 sampleTransparency(Point point, Vector n, double nl, AreaLight light, int i, int j) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Point sample = light.getSamplePoint(shadowGrid, i, j, random.nextDouble(), random.nextDouble());
+        Vector toLight = sample.subtract(point);
+        // a part of the light behind the surface cannot light it
+        if (alignZero(n.dotProduct(toLight)) * nl >= 0) return Double3.ZERO;
+        return transmission(new Ray(point, toLight, n), toLight.length(), photonMap != null);
+    }
+
+    /**
+     * Calculates the part of the light that passes along a shadow ray (the
+     * product of the transmission coefficients of the geometries it crosses)
+     *
+     * @param shadowRay the ray from the lighted point towards the light
+     * @param distance  the distance of the light
+     * @param carried   whether the light through transparent geometries is
+     *                  carried by the photon map instead (for the lights that
+     *                  emit photons)
+     * @return the transmitted part of the light
+     */
+    private Double3 transmission(Ray shadowRay, double distance, boolean carried) {
+        shadowRays.increment();
+        // only the geometries closer than the light may shade the point
+        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(shadowRay, distance);
+        if (intersections == null) return Double3.ONE;
+        if (carried) return Double3.ZERO;
+        Double3 ktr = Double3.ONE;
+        for (GeoPoint shade : intersections) {
+            ktr = ktr.product(shade.geometry().getMaterial().kT);
+            if (ktr.lowerThan(MIN_CALC_COLOR_K)) return Double3.ZERO;
+        }
+        return ktr;
+    }
+
+    /**
+     * Estimates the change of the normal of a surface across the footprint of
+     * a ray, by the normal at the other end of a point differential
+     *
+     * @param gp the point
+     * @param n  the normal at the point
+     * @param dP the point differential
+     * @return the normal differential
+     */
+    private static Double3 normalDifferential(GeoPoint gp, Vector n, Double3 dP) {
+        if (dP.equals(Double3.ZERO)) return Double3.ZERO;
+        Vector shifted = gp.geometry().getNormal(gp.point().add(new Vector(dP)));
+        return new Double3(shifted.getX() - n.getX(), shifted.getY() - n.getY(), shifted.getZ() - n.getZ());
+    }
+
+    /**
+     * Constructs the ray reflected from a point
+     *
+     * @param point the point
+     * @param v     the direction of the incoming ray
+     * @param n     the normal at the point
+     * @param nv    dot product of the normal and the incoming direction
+     * @param hit   the differentials of the point, null for a ray without
+     *              differentials
+     * @param dNdx  change of the normal along x (if there are differentials)
+     * @param dNdy  change of the normal along y (if there are differentials)
+     * @return the reflected ray
+     */
+    private Ray reflectedRay(Point point, Vector v, Vector n, double nv,
+                             Ray.Differentials hit, Double3 dNdx, Double3 dNdy) {
+        return new Ray(point, v.subtract(n.scale(2 * nv)), n, hit == null ? null : hit.reflect(v, n, dNdx, dNdy));
+    }
+
+    /**
+     * Constructs the ray refracted through a point according to Snell's law,
+     * assuming the outside of the geometry is air
+     *
+     * @param point the point
+     * @param v     the direction of the incoming ray
+     * @param n     the normal at the point
+     * @param nv    dot product of the normal and the incoming direction
+     * @param ior   index of refraction of the geometry
+     * @param hit   the differentials of the point, null for a ray without
+     *              differentials
+     * @param dNdx  change of the normal along x (if there are differentials)
+     * @param dNdy  change of the normal along y (if there are differentials)
+     * @return the refracted ray, or null on total internal reflection
+     */
+    private Ray refractedRay(Point point, Vector v, Vector n, double nv, double ior,
+                             Ray.Differentials hit, Double3 dNdx, Double3 dNdy) {
+        if (isZero(ior - 1)) return new Ray(point, v, n, hit);
+        // entering when the ray goes against the normal
+        double eta = nv < 0 ? 1 / ior : ior;
+        double cosI = Math.abs(nv);
+        double sin2T = eta * eta * (1 - cosI * cosI);
+        if (sin2T >= 1) return null;
+        Vector inward = nv < 0 ? n.scale(-1) : n;
+        Vector t = v.scale(eta).add(inward.scale(Math.sqrt(1 - sin2T) - eta * cosI));
+        if (hit == null) return new Ray(point, t, n);
+        // the differentials take the normal against the incoming ray
+        Vector against = nv < 0 ? n : n.scale(-1);
+        return new Ray(point, t, n, nv < 0 ? hit.refract(v, against, dNdx, dNdy, eta, t)
+                : hit.refract(v, against, dNdx.scale(-1), dNdy.scale(-1), eta, t));
+    }
+}
@@ -0,0 +1,441 @@
+package renderer;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Image writer for renders too large to be held in memory as a whole.
+ * <p>
+ * The image is divided into bands of rows. Tiles may arrive in any order; their
+ * pixels are kept in a primitive {@code float[]} buffer of their band only
+ * until the band is complete, and complete bands are encoded into the file by
+ * a background thread, so encoding overlaps with tracing. When the tiles arrive
+ * roughly row by row (as {@link Camera} renders them) only a few bands are held
+ * at any time.
+ * <p>
+ * Two formats are supported: PNG (8 bits per component, clamped), whose rows
+ * must be written in order - so a band waits for the bands above it - and PFM
+ * (32-bit floats, unclamped), whose bands are written at their file positions
+ * as soon as they are complete.
+ *
+ * @author Raphael
+ */
+public class StreamingImageWriter implements TileWriter, Closeable {
+    /**
+     * Supported file formats
+     */
+    public enum Format {
+        /**
+         * Portable Network Graphics - 8-bit RGB, deflate compressed
+         */
+        PNG,
+        /**
+         * Portable Float Map - 32-bit floating point RGB, uncompressed
+         */
+        PFM
+    }
+
+    /**
+     * Size of the data of a PNG IDAT chunk
+     */
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    /**
+     * Width of the image
+     */
+    private final int nX;
+    /**
+     * Height of the image
+     */
+    private final int nY;
+    /**
+     * Amount of rows of a band (the last band may be shorter)
+     */
+    private final int bandHeight;
+    /**
+     * Pixels of the bands in progress, null for bands not started or already
+     * encoded
+     */
+    private final float[][] bands;
+    /**
+     * Amount of pixels still missing in every band
+     */
+    private final int[] missing;
+    /**
+     * The encoder of the file format
+     */
+    private final Encoder encoder;
+    /**
+     * The background thread encoding the complete bands
+     */
+    private final ExecutorService background = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "image encoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * The first failure of the background thread
+     */
+    private volatile IOException failure = null;
+
+    /**
+     * Opens an image file for writing
+     *
+     * @param file       the file
+     * @param format     the file format
+     * @param nX         width of the image
+     * @param nY         height of the image
+     * @param bandHeight amount of rows of a band - preferably the height of the
+     *                   rendered tiles
+     * @throws IOException              if the file cannot be created
+     * @throws IllegalArgumentException if a size is not positive
+     */
+    public StreamingImageWriter(Path file, Format format, int nX, int nY, int bandHeight) throws IOException {
+        if (nX <= 0 || nY <= 0 || bandHeight <= 0)
+            throw new IllegalArgumentException("Image and band sizes must be positive");
+        this.nX = nX;
+        this.nY = nY;
+        this.bandHeight = bandHeight;
+        int count = (nY + bandHeight - 1) / bandHeight;
+        bands = new float[count][];
+        missing = new int[count];
+        for (int b = 0; b < count; ++b)
+            missing[b] = nX * rows(b);
+        encoder = format == Format.PNG ? new PngEncoder(file) : new PfmEncoder(file);
+    }
+
+    /**
+     * Returns the amount of rows of a band
+     *
+     * @param band the band index
+     * @return the amount of rows
+     */
+    private int rows(int band) {
+        return Math.min(bandHeight, nY - band * bandHeight);
+    }
+
+    /**
+     * Receives a rectangle of pixels. Every pixel must be written exactly once
+     *
+     * @throws IllegalArgumentException if the rectangle exceeds the image
+     * @throws IllegalStateException    if the background encoding failed
+     */
+    @Override
+    public void writeTile(int x, int y, int width, int height, float[] rgb) {
+        if (x < 0 || y < 0 || width <= 0 || height <= 0 || x + width > nX || y + height > nY)
+            throw new IllegalArgumentException("Tile exceeds the image");
+        if (failure != null) throw new IllegalStateException("Image encoding failed", failure);
+        for (int row = y; row < y + height; ) {
+            int band = row / bandHeight;
+            int first = band * bandHeight;
+            int end = Math.min(y + height, first + rows(band));
+            boolean complete;
+            synchronized (missing) {
+                if (bands[band] == null) {
+                    if (missing[band] == 0) throw new IllegalStateException("Band " + band + " already written");
+                    bands[band] = new float[3 * nX * rows(band)];
+                }
+                float[] pixels = bands[band];
+                for (int r = row; r < end; ++r)
+                    System.arraycopy(rgb, 3 * (r - y) * width, pixels, 3 * ((r - first) * nX + x), 3 * width);
+                missing[band] -= (end - row) * width;
+                complete = missing[band] == 0;
+            }
+            if (complete) background.execute(() -> encode(band));
+            row = end;
+        }
+    }
+
+    /**
+     * Encodes the bands that became ready - runs in the background thread
+     *
+     * @param band the band that has just been completed
+     */
+    private void encode(int band) {
+        if (failure != null) return;
+        try {
+            encoder.complete(band);
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Takes the pixels of a complete band, releasing its buffer
+     *
+     * @param band the band index
+     * @return the pixels of the band
+     */
+    private float[] take(int band) {
+        synchronized (missing) {
+            float[] pixels = bands[band];
+            bands[band] = null;
+            return pixels;
+        }
+    }
+
+    /**
+     * Waits for the encoding of all the bands and completes the file
+     *
+     * @throws IOException           if the file cannot be written
+     * @throws IllegalStateException if some pixels were not written
+     */
+    @Override
+    public void close() throws IOException {
+        background.shutdown();
+        try {
+            if (!background.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS))
+                throw new IOException("Image encoding did not finish");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while encoding the image", e);
+        }
+        try {
+            if (failure != null) throw failure;
+            synchronized (missing) {
+                for (int b = 0; b < missing.length; ++b)
+                    if (missing[b] != 0) throw new IllegalStateException("Band " + b + " is incomplete");
+            }
+            encoder.finish();
+        } finally {
+            encoder.close();
+        }
+    }
+
+    /**
+     * Encoder of a file format. Its methods are called from a single thread
+     */
+    private abstract static class Encoder implements Closeable {
+        /**
+         * Encodes what became encodable when a band was completed
+         *
+         * @param band the band that has just been completed
+         * @throws IOException if the file cannot be written
+         */
+        abstract void complete(int band) throws IOException;
+
+        /**
+         * Completes the file after all the bands were encoded
+         *
+         * @throws IOException if the file cannot be written
+         */
+        abstract void finish() throws IOException;
+    }
+
+    /**
+     * PNG encoder - writes the rows in order, with the "up" filter, into
+     * deflated IDAT chunks
+     */
+    private final class PngEncoder extends Encoder {
+        /**
+         * The file stream
+         */
+        private final DataOutputStream file;
+        /**
+         * The compressor of the image data
+         */
+        private final Deflater deflater = new Deflater();
+        /**
+         * The compressed stream of the filtered rows
+         */
+        private final DeflaterOutputStream data;
+        /**
+         * The previous row (for the filter)
+         */
+        private byte[] previous;
+        /**
+         * The current row
+         */
+        private byte[] current;
+        /**
+         * The current row after the filter, with the filter type byte
+         */
+        private final byte[] filtered;
+        /**
+         * The next band to encode
+         */
+        private int next = 0;
+        /**
+         * Whether a band is complete but waits for the bands above it
+         */
+        private final boolean[] ready = new boolean[bands.length];
+
+        /**
+         * Creates the file and writes its header
+         *
+         * @param path the file
+         * @throws IOException if the file cannot be written
+         */
+        PngEncoder(Path path) throws IOException {
+            file = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+            file.write(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+            ByteBuffer header = ByteBuffer.allocate(13);
+            header.putInt(nX).putInt(nY).put((byte) 8).put((byte) 2).put((byte) 0).put((byte) 0).put((byte) 0);
+            chunk("IHDR", header.array(), 13);
+            data = new DeflaterOutputStream(new ChunkStream(), deflater, CHUNK_SIZE);
+            previous = new byte[3 * nX];
+            current = new byte[3 * nX];
+            filtered = new byte[1 + 3 * nX];
+            filtered[0] = 2; // the "up" filter - difference from the row above
+        }
+
+        /**
+         * Writes a chunk
+         *
+         * @param type   the chunk type
+         * @param bytes  the chunk data
+         * @param length the length of the data
+         * @throws IOException if the file cannot be written
+         */
+        private void chunk(String type, byte[] bytes, int length) throws IOException {
+            byte[] name = type.getBytes(StandardCharsets.US_ASCII);
+            CRC32 crc = new CRC32();
+            crc.update(name);
+            crc.update(bytes, 0, length);
+            file.writeInt(length);
+            file.write(name);
+            file.write(bytes, 0, length);
+            file.writeInt((int) crc.getValue());
+        }
+
+        @Override
+        void complete(int band) throws IOException {
+            ready[band] = true;
+            while (next < ready.length && ready[next]) {
+                float[] pixels = take(next);
+                for (int r = 0, rows = rows(next); r < rows; ++r) {
+                    for (int i = 0, offset = 3 * r * nX; i < current.length; ++i) {
+                        current[i] = (byte) ImageWriter.toByte(pixels[offset + i]);
+                        filtered[i + 1] = (byte) (current[i] - previous[i]);
+                    }
+                    data.write(filtered);
+                    byte[] swap = previous;
+                    previous = current;
+                    current = swap;
+                }
+                ++next;
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            data.finish();
+            data.flush();
+            chunk("IEND", new byte[0], 0);
+        }
+
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            file.close();
+        }
+
+        /**
+         * Stream cutting the compressed data into IDAT chunks
+         */
+        private final class ChunkStream extends OutputStream {
+            /**
+             * Data of the chunk being filled
+             */
+            private final byte[] buffer = new byte[CHUNK_SIZE];
+            /**
+             * Amount of bytes in the buffer
+             */
+            private int size = 0;
+
+            @Override
+            public void write(int b) throws IOException {
+                buffer[size++] = (byte) b;
+                if (size == CHUNK_SIZE) flush();
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                while (length > 0) {
+                    int n = Math.min(length, CHUNK_SIZE - size);
+                    System.arraycopy(bytes, offset, buffer, size, n);
+                    size += n;
+                    offset += n;
+                    length -= n;
+                    if (size == CHUNK_SIZE) flush();
+                }
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (size == 0) return;
+                chunk("IDAT", buffer, size);
+                size = 0;
+            }
+        }
+    }
+
+    /**
+     * PFM encoder - writes every band at its position in the file (the rows
+     * of a PFM file go from the bottom up)
+     */
+    private final class PfmEncoder extends Encoder {
+        /**
+         * The file channel
+         */
+        private final FileChannel channel;
+        /**
+         * Size of the header in bytes
+         */
+        private final long headerSize;
+
+        /**
+         * Creates the file and writes its header
+         *
+         * @param path the file
+         * @throws IOException if the file cannot be written
+         */
+        PfmEncoder(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            // negative scale marks little endian data
+            byte[] header = ("PF\n" + nX + " " + nY + "\n-1.0\n").getBytes(StandardCharsets.US_ASCII);
+            headerSize = header.length;
+            channel.write(ByteBuffer.wrap(header), 0);
+        }
+
+        @Override
+        void complete(int band) throws IOException {
+            float[] pixels = take(band);
+            ByteBuffer row = ByteBuffer.allocate(3 * Float.BYTES * nX).order(ByteOrder.LITTLE_ENDIAN);
+            for (int r = 0, rows = rows(band); r < rows; ++r) {
+                row.clear();
+                row.asFloatBuffer().put(pixels, 3 * r * nX, 3 * nX);
+                long position = headerSize + (long) (nY - 1 - band * bandHeight - r) * row.capacity();
+                while (row.hasRemaining())
+                    position += channel.write(row, position);
+            }
+        }
+
+        @Override
+        void finish() {
+            // every band is already in place
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package renderer;
+
+import primitives.ContentHash;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Content-addressed cache of rendered tiles, stored on the local disk.
+ * <p>
+ * A tile is identified by a 64-bit key hashing everything its pixels depend on:
+ * the scene content, the camera, the render settings and the tile rectangle
+ * (see {@link #key(long, long, long, int, int, int, int)}). When none of these
+ * changed since the tile was last rendered, its pixels are read back instead
+ * of being traced again. The total size of the stored tiles is bounded; the
+ * least recently used tiles are evicted first. The recency order survives
+ * restarts through the files' modification times.
+ *
+ * @author Raphael
+ */
+public class TileCache {
+    /**
+     * Extension of the tile files
+     */
+    private static final String EXTENSION = ".tile";
+    /**
+     * Version of the format of the tile data, part of every key: tiles left by
+     * a build storing another format (packed RGB pixels before the float
+     * components) are never read back
+     */
+    private static final int FORMAT = 2;
+
+    /**
+     * The directory holding the tile files
+     */
+    private final Path directory;
+    /**
+     * Maximal total size of the tile files in bytes
+     */
+    private final long maxBytes;
+    /**
+     * Size of every stored tile by its key, in access order
+     */
+    private final LinkedHashMap<Long, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Total size of the stored tiles
+     */
+    private long totalBytes = 0;
+    /**
+     * Amount of lookups that found their tile
+     */
+    private long hits = 0;
+    /**
+     * Amount of lookups that did not find their tile
+     */
+    private long misses = 0;
+
+    /**
+     * Constructs a cache over a directory, picking up the tiles already stored
+     * in it
+     *
+     * @param directory the directory for the tile files (created if missing)
+     * @param maxBytes  maximal total size of the tile files in bytes
+     * @throws IOException              if the directory cannot be created or read
+     * @throws IllegalArgumentException if the size limit is not positive
+     */
+    public TileCache(Path directory, long maxBytes) throws IOException {
+        if (maxBytes <= 0)
+            throw new IllegalArgumentException("Cache size must be positive");
+        this.directory = Files.createDirectories(directory);
+        this.maxBytes = maxBytes;
+
+        record Stored(long key, long size, FileTime time) {
+        }
+        List<Stored> stored = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    long key = Long.parseUnsignedLong(name.substring(0, name.length() - EXTENSION.length()), 16);
+                    stored.add(new Stored(key, Files.size(file), Files.getLastModifiedTime(file)));
+                } catch (NumberFormatException ignore) {
+                    // not one of ours
+                }
+            }
+        }
+        stored.sort(Comparator.comparing(Stored::time));
+        synchronized (this) {
+            for (Stored tile : stored) {
+                index.put(tile.key, tile.size);
+                totalBytes += tile.size;
+            }
+            evict();
+        }
+    }
+
+    /**
+     * Calculates the key of a tile
+     *
+     * @param sceneHash    content hash of the scene
+     * @param cameraHash   content hash of the camera
+     * @param settingsHash content hash of the render settings
+     * @param x            left column of the tile
+     * @param y            top row of the tile
+     * @param width        width of the tile
+     * @param height       height of the tile
+     * @return the key of the tile
+     */
+    public static long key(long sceneHash, long cameraHash, long settingsHash, int x, int y, int width, int height) {
+        return new ContentHash().add("Tile").add(FORMAT).add(sceneHash).add(cameraHash).add(settingsHash)
+                .add(x).add(y).add(width).add(height).value();
+    }
+
+    /**
+     * Calculates the preview key of a tile - the key a tile carried over from
+     * a previous version of the scene is stored under. Only approximate for
+     * the edited scene, such a tile is read by previews only, never in place
+     * of the tile of the exact key
+     *
+     * @param key the key of the tile
+     * @return the preview key
+     */
+    public static long previewKey(long key) {
+        return new ContentHash().add("Preview").add(key).value();
+    }
+
+    /**
+     * Checks whether a tile is stored, without counting a lookup
+     *
+     * @param key the tile key
+     * @return true if the tile is stored
+     */
+    public synchronized boolean contains(long key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * Returns the file of a tile
+     *
+     * @param key the tile key
+     * @return the file path
+     */
+    private Path file(long key) {
+        return directory.resolve(String.format("%016x", key) + EXTENSION);
+    }
+
+    /**
+     * Reads a stored tile
+     *
+     * @param key the tile key
+     * @return the tile pixel data, or null if the tile is not stored
+     */
+    public int[] get(long key) {
+        synchronized (this) {
+            if (index.get(key) == null) {
+                ++misses;
+                return null;
+            }
+            ++hits;
+        }
+        Path file = file(key);
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+            IntBuffer ints = bytes.asIntBuffer();
+            int[] pixels = new int[ints.remaining()];
+            ints.get(pixels);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return pixels;
+        } catch (IOException e) {
+            // deleted or damaged behind our back - treat as a miss
+            synchronized (this) {
+                forget(key);
+                --hits;
+                ++misses;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Stores a tile, evicting the least recently used tiles if the cache grows
+     * beyond its size limit
+     *
+     * @param key    the tile key
+     * @param pixels the tile pixel data
+     */
+    public void put(long key, int[] pixels) {
+        ByteBuffer bytes = ByteBuffer.allocate(pixels.length * Integer.BYTES);
+        bytes.asIntBuffer().put(pixels);
+        Path file = file(key);
+        Path temp = null;
+        try {
+            // write aside and move, so readers never see a partial tile
+            temp = Files.createTempFile(directory, "tile", ".tmp");
+            Files.write(temp, bytes.array());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            discard(temp);
+            throw new UncheckedIOException("Cannot store tile " + file, e);
+        }
+        synchronized (this) {
+            forget(key);
+            index.put(key, (long) bytes.capacity());
+            totalBytes += bytes.capacity();
+            evict();
+        }
+    }
+
+    /**
+     * Stores a copy of a stored tile under another key - e.g. a tile that an
+     * edit of the scene did not change, under the preview key of the edited
+     * scene. The lookup statistics are not affected
+     *
+     * @param from the key of the stored tile
+     * @param to   the new key
+     * @return true if the tile has been copied, false if it is not stored
+     */
+    public boolean copy(long from, long to) {
+        synchronized (this) {
+            if (index.get(from) == null) return false;
+        }
+        Path source = file(from);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, "tile", ".tmp");
+            Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, file(to), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long size = Files.size(file(to));
+            synchronized (this) {
+                forget(to);
+                index.put(to, size);
+                totalBytes += size;
+                evict();
+            }
+            return true;
+        } catch (IOException e) {
+            // deleted behind our back - the tile will be rendered again
+            discard(temp);
+            synchronized (this) {
+                forget(from);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Returns a stored tile, rendering and storing it if it is not stored yet
+     *
+     * @param key    the tile key
+     * @param render renders the tile pixel data
+     * @return the tile pixels
+     */
+    public int[] computeIfAbsent(long key, Supplier<int[]> render) {
+        int[] pixels = get(key);
+        if (pixels == null) {
+            pixels = render.get();
+            put(key, pixels);
+        }
+        return pixels;
+    }
+
+    /**
+     * Deletes the temporary file of a failed write, which would otherwise stay
+     * in the directory uncounted
+     *
+     * @param temp the temporary file, null if it was not created
+     */
+    private static void discard(Path temp) {
+        if (temp == null) return;
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException ignore) {
+            // the directory itself is failing - nothing more to do
+        }
+    }
+
+    /**
+     * Removes a tile from the index
+     *
+     * @param key the tile key
+     */
+    private void forget(long key) {
+        Long size = index.remove(key);
+        if (size != null) totalBytes -= size;
+    }
+
+    /**
+     * Deletes the least recently used tiles until the cache fits its size limit
+     */
+    private void evict() {
+        Iterator<Map.Entry<Long, Long>> oldest = index.entrySet().iterator();
+        while (totalBytes > maxBytes && oldest.hasNext()) {
+            Map.Entry<Long, Long> entry = oldest.next();
+            totalBytes -= entry.getValue();
+            oldest.remove();
+            try {
+                Files.deleteIfExists(file(entry.getKey()));
+            } catch (IOException ignore) {
+                // will be overwritten or picked up again on the next start
+            }
+        }
+    }
+
+    /**
+     * Returns the amount of stored tiles
+     *
+     * @return the amount of tiles
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the total size of the stored tiles
+     *
+     * @return the size in bytes
+     */
+    public synchronized long sizeInBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Returns the amount of lookups that found their tile
+     *
+     * @return the amount of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the amount of lookups that did not find their tile
+     *
+     * @return the amount of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,22 @@
+package renderer;
+
+/**
+ * Interface TileWriter is implemented by the receivers of rendered tiles. The
+ * tiles may arrive in any order and from several threads at once
+ *
+ * @author Raphael
+ */
+public interface TileWriter {
+    /**
+     * Receives a rectangle of pixels
+     *
+     * @param x      left column of the rectangle
+     * @param y      top row of the rectangle
+     * @param width  width of the rectangle
+     * @param height height of the rectangle
+     * @param rgb    the red, green and blue components of the pixels, row by
+     *               row, scaled so that 1 is full intensity (a color component
+     *               of 255)
+     */
+    void writeTile(int x, int y, int width, int height, float[] rgb);
+}
@@ -0,0 +1,192 @@
+package scene;
+
+import geometries.BoundingBox;
+import geometries.BoundingVolumeHierarchy;
+import geometries.Intersectable;
+import lighting.LightSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A scene whose objects are edited while it is being rendered, for artists
+ * iterating on a scene.
+ * <p>
+ * The scene is published as a series of immutable versions: a render takes
+ * the current version ({@link #snapshot()}) without locking and keeps tracing
+ * it while edits publish new versions. An edit replaces objects in a copy of
+ * the hierarchy of the previous version, refitting only the paths from the
+ * changed objects to the root (see
+ * {@link BoundingVolumeHierarchy#withItems(Map)}), so it costs a copy of the
+ * node boxes instead of a rebuild of the whole tree.
+ * <p>
+ * The boxes of the edited objects, before and after every edit, are collected
+ * until they are taken with the version they lead to ({@link #takeChanges()});
+ * a camera uses them to keep its cached tiles for previews where the edit is
+ * not seen (see
+ * {@link renderer.Camera#carryOverTiles(Scene, java.util.Collection)}).
+ *
+ * @author Raphael
+ */
+public class EditableScene {
+    /**
+     * The current version of the scene and the boxes of the objects edited
+     * since the previous changes were taken
+     *
+     * @param scene the current version
+     * @param dirty the boxes of the edited objects, before and after the edits
+     */
+    public record Changes(Scene scene, List<BoundingBox> dirty) {
+    }
+
+    /**
+     * The scene holding everything but the objects
+     */
+    private final Scene template;
+    /**
+     * The light sources, shared by all the versions
+     */
+    private final List<LightSource> lights;
+    /**
+     * The hierarchy of the objects of the current version
+     */
+    private BoundingVolumeHierarchy hierarchy;
+    /**
+     * The current version
+     */
+    private volatile Scene current;
+    /**
+     * The amount of edits so far
+     */
+    private long version = 0;
+    /**
+     * The boxes of the objects edited since the changes were last taken
+     */
+    private List<BoundingBox> dirty = new ArrayList<>();
+
+    /**
+     * Constructs an editable scene
+     *
+     * @param scene   the scene holding the background and the lights (its
+     *                geometries are ignored)
+     * @param objects the editable objects
+     */
+    public EditableScene(Scene scene, List<? extends Intersectable> objects) {
+        template = scene;
+        lights = List.copyOf(scene.lights);
+        hierarchy = new BoundingVolumeHierarchy(objects);
+        current = publish();
+    }
+
+    /**
+     * Returns the current version of the scene. The version never changes -
+     * it may be rendered while the scene is edited
+     *
+     * @return the current version
+     */
+    public Scene snapshot() {
+        return current;
+    }
+
+    /**
+     * Returns the amount of edits so far
+     *
+     * @return the amount of edits
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the amount of objects
+     *
+     * @return the amount of objects
+     */
+    public synchronized int size() {
+        return hierarchy.size();
+    }
+
+    /**
+     * Returns an object of the current version
+     *
+     * @param index the index of the object
+     * @return the object
+     * @throws IllegalArgumentException if there is no such object
+     */
+    public synchronized Intersectable get(int index) {
+        check(index);
+        return hierarchy.get(index);
+    }
+
+    /**
+     * Replaces an object, publishing a new version of the scene
+     *
+     * @param index  the index of the object
+     * @param object the new object
+     * @return the new version
+     * @throws IllegalArgumentException if there is no such object or the new
+     *                                  object is null
+     */
+    public Scene set(int index, Intersectable object) {
+        if (object == null) throw new IllegalArgumentException("Object cannot be null");
+        return setAll(Map.of(index, object));
+    }
+
+    /**
+     * Replaces objects at once, publishing a single new version of the scene
+     *
+     * @param changes the new objects by their indices
+     * @return the new version
+     * @throws IllegalArgumentException if there is no such object or a new
+     *                                  object is null
+     */
+    public synchronized Scene setAll(Map<Integer, ? extends Intersectable> changes) {
+        for (Map.Entry<Integer, ? extends Intersectable> change : changes.entrySet()) {
+            check(change.getKey());
+            if (change.getValue() == null) throw new IllegalArgumentException("Object cannot be null");
+        }
+        for (Map.Entry<Integer, ? extends Intersectable> change : changes.entrySet()) {
+            dirty.add(hierarchy.get(change.getKey()).getBoundingBox());
+            dirty.add(change.getValue().getBoundingBox());
+        }
+        hierarchy = hierarchy.withItems(changes);
+        ++version;
+        current = publish();
+        return current;
+    }
+
+    /**
+     * Returns the current version of the scene with the boxes of the objects
+     * edited since the previous call (or since the construction), and starts
+     * collecting the boxes anew
+     *
+     * @return the changes
+     */
+    public synchronized Changes takeChanges() {
+        Changes changes = new Changes(current, List.copyOf(dirty));
+        dirty = new ArrayList<>();
+        return changes;
+    }
+
+    /**
+     * Checks an object index
+     *
+     * @param index the index
+     * @throws IllegalArgumentException if there is no such object
+     */
+    private void check(int index) {
+        if (index < 0 || index >= hierarchy.size())
+            throw new IllegalArgumentException("No object at index " + index);
+    }
+
+    /**
+     * Creates a version of the scene over the current hierarchy
+     *
+     * @return the version
+     */
+    private Scene publish() {
+        return new Scene(template.name).setBackground(template.background)
+                .setAmbientLight(template.ambientLight).setGeometries(hierarchy).setLights(lights);
+    }
+}
@@ -0,0 +1,121 @@
+package scene;
+
+import geometries.Geometries;
+import geometries.Intersectable;
+import lighting.AmbientLight;
+import lighting.LightSource;
+import primitives.Color;
+import primitives.ContentHash;
+import primitives.ContentHashable;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Class Scene gathers everything that is rendered - the geometries, the lights
+ * and the background
+ *
+ * @author Raphael
+ */
+public class Scene implements ContentHashable {
+    /**
+     * The name of the scene
+     */
+    public final String name;
+    /**
+     * The color of the rays that hit nothing
+     */
+    public Color background = Color.BLACK;
+    /**
+     * The ambient light
+     */
+    public AmbientLight ambientLight = AmbientLight.NONE;
+    /**
+     * The geometries of the scene (a flat composite or an acceleration
+     * structure)
+     */
+    public Intersectable geometries = new Geometries();
+    /**
+     * The light sources of the scene
+     */
+    public List<LightSource> lights = new LinkedList<>();
+
+    /**
+     * Constructs an empty scene
+     *
+     * @param name the name of the scene
+     */
+    public Scene(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Sets the background color
+     *
+     * @param background the color
+     * @return the scene itself
+     */
+    public Scene setBackground(Color background) {
+        this.background = background;
+        return this;
+    }
+
+    /**
+     * Sets the ambient light
+     *
+     * @param ambientLight the ambient light
+     * @return the scene itself
+     */
+    public Scene setAmbientLight(AmbientLight ambientLight) {
+        this.ambientLight = ambientLight;
+        return this;
+    }
+
+    /**
+     * Sets the geometries
+     *
+     * @param geometries the geometries
+     * @return the scene itself
+     */
+    public Scene setGeometries(Intersectable geometries) {
+        this.geometries = geometries;
+        return this;
+    }
+
+    /**
+     * Sets the light sources
+     *
+     * @param lights the light sources
+     * @return the scene itself
+     */
+    public Scene setLights(List<LightSource> lights) {
+        this.lights = lights;
+        return this;
+    }
+
+    /**
+     * Feeds the scene content into a content hash
+     *
+     * @param hash the hash to feed
+     * @throws IllegalStateException if the geometries or a light cannot be
+     *                               content hashed
+     */
+    @Override
+    public void hash(ContentHash hash) {
+        hash.add("Scene").add(background).add(ambientLight.getIntensity()).add(hashable(geometries));
+        hash.add(lights.size());
+        for (LightSource light : lights) hash.add(hashable(light));
+    }
+
+    /**
+     * Checks that a part of the scene can be content hashed
+     *
+     * @param part the part
+     * @return the part as a content hashable object
+     * @throws IllegalStateException if the part cannot be content hashed
+     */
+    private static ContentHashable hashable(Object part) {
+        if (part instanceof ContentHashable hashable) return hashable;
+        throw new IllegalStateException(part.getClass().getName() + " cannot be content hashed");
+    }
+}
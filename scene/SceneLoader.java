@@ -0,0 +1,766 @@
+package scene;
+
+import geometries.Cylinder;
+import geometries.Geometries;
+import geometries.Geometry;
+import geometries.Intersectable;
+import geometries.Plane;
+import geometries.Polygon;
+import geometries.Sphere;
+import geometries.Triangle;
+import geometries.Tube;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import lighting.SpotLight;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Loads scenes from XML or JSON scene descriptions.
+ * <p>
+ * The XML description is a {@code scene} element with the optional attributes
+ * {@code name} and {@code background-color}, holding (at any depth, e.g. in
+ * {@code geometries} and {@code lights} elements) an {@code ambient-light}
+ * element, geometry elements and light elements. The JSON description is an
+ * object with the optional members {@code name}, {@code background-color} and
+ * {@code ambient-light}, and the arrays {@code geometries} and {@code lights}
+ * of objects whose {@code type} member names the element. Numbers are
+ * separated by spaces or commas in XML attributes and are numbers or arrays
+ * of numbers in JSON:
+ * <ul>
+ * <li>{@code ambient-light}: {@code color}</li>
+ * <li>{@code sphere}: {@code center}, {@code radius}</li>
+ * <li>{@code plane}: {@code point}, {@code normal}</li>
+ * <li>{@code triangle}: {@code p0}, {@code p1}, {@code p2}</li>
+ * <li>{@code polygon}: {@code vertices} (3 numbers per vertex)</li>
+ * <li>{@code tube}: {@code origin}, {@code direction}, {@code radius}</li>
+ * <li>{@code cylinder}: as a tube and {@code height}</li>
+ * <li>every geometry optionally: {@code emission}, and the material
+ * {@code kd}, {@code ks}, {@code kt}, {@code kr} (1 or 3 numbers),
+ * {@code shininess} and {@code ior}</li>
+ * <li>{@code point-light}: {@code color}, {@code position}, optionally
+ * {@code kc}, {@code kl}, {@code kq}</li>
+ * <li>{@code spot-light}: as a point light and {@code direction}</li>
+ * <li>{@code directional-light}: {@code color}, {@code direction}</li>
+ * </ul>
+ * <p>
+ * The description is read as a stream - only the current element is held, not
+ * a document tree. The parsed geometries are constructed in batches on a
+ * fork/join pool while the parsing goes on, and gathered in their order of
+ * description. Trusted descriptions (e.g. exported and validated by a tool)
+ * may skip the validation of the polygons (see
+ * {@link Polygon#trusted(Point...)}).
+ *
+ * @author Raphael
+ */
+public class SceneLoader {
+    /**
+     * Amount of geometries constructed by a single task
+     */
+    private static final int BATCH_SIZE = 4096;
+
+    /**
+     * Whether the descriptions are trusted
+     */
+    private boolean trusted = false;
+    /**
+     * The pool constructing the geometries
+     */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    public SceneLoader() {
+    }
+
+    /**
+     * Sets whether the descriptions are trusted - then the polygons are not
+     * validated
+     *
+     * @param trusted whether the descriptions are trusted
+     * @return the loader itself
+     */
+    public SceneLoader setTrusted(boolean trusted) {
+        this.trusted = trusted;
+        return this;
+    }
+
+    /**
+     * Sets the pool constructing the geometries
+     *
+     * @param pool the pool
+     * @return the loader itself
+     */
+    public SceneLoader setPool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Loads a scene from a file, XML or JSON by its extension
+     *
+     * @param file the file ({@code .xml} or {@code .json})
+     * @return the scene, named after the file unless the description names it
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is neither XML nor JSON, or
+     *                                  the description is malformed
+     */
+    public Scene load(Path file) throws IOException {
+        String fileName = file.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        String extension = dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase();
+        String name = dot < 0 ? fileName : fileName.substring(0, dot);
+        return switch (extension) {
+            case "xml" -> {
+                try (InputStream in = Files.newInputStream(file)) {
+                    yield loadXml(in, name);
+                }
+            }
+            case "json" -> {
+                try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    yield loadJson(in, name);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown scene format: " + fileName);
+        };
+    }
+
+    /**
+     * Loads a scene from an XML description
+     *
+     * @param in   the description
+     * @param name the name of the scene unless the description names it
+     * @return the scene
+     * @throws IOException              if the description cannot be read
+     * @throws IllegalArgumentException if the description is malformed
+     */
+    public Scene loadXml(InputStream in, String name) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        Assembly assembly = new Assembly(name);
+        try {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                boolean root = true;
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) continue;
+                    String type = reader.getLocalName();
+                    String location = "line " + reader.getLocation().getLineNumber();
+                    if (root) {
+                        if (!type.equals("scene"))
+                            throw new IllegalArgumentException("Not a scene description at " + location);
+                        root = false;
+                        for (int a = 0; a < reader.getAttributeCount(); ++a) {
+                            String key = reader.getAttributeLocalName(a);
+                            if (key.equals("name")) assembly.name = reader.getAttributeValue(a);
+                            else if (key.equals("background-color"))
+                                assembly.background = color(numbers(reader.getAttributeValue(a), key, location),
+                                        key, location);
+                        }
+                        continue;
+                    }
+                    if (type.equals("geometries") || type.equals("lights")) continue;
+                    Map<String, double[]> values = new HashMap<>();
+                    for (int a = 0; a < reader.getAttributeCount(); ++a) {
+                        String key = reader.getAttributeLocalName(a);
+                        values.put(key, numbers(reader.getAttributeValue(a), key, location));
+                    }
+                    assembly.add(new Element(type, values, location));
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            assembly.cancel();
+            throw new IllegalArgumentException("Malformed scene description: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            assembly.cancel();
+            throw e;
+        }
+        return assembly.finish();
+    }
+
+    /**
+     * Loads a scene from a JSON description
+     *
+     * @param in   the description
+     * @param name the name of the scene unless the description names it
+     * @return the scene
+     * @throws IOException              if the description cannot be read
+     * @throws IllegalArgumentException if the description is malformed
+     */
+    public Scene loadJson(Reader in, String name) throws IOException {
+        Assembly assembly = new Assembly(name);
+        JsonReader json = new JsonReader(in);
+        try {
+            json.expect('{');
+            if (!json.tryConsume('}')) {
+                do {
+                    String key = json.string();
+                    json.expect(':');
+                    String location = json.location();
+                    switch (key) {
+                        case "name" -> assembly.name = json.string();
+                        case "background-color" -> assembly.background = color(json.numbers(), key, location);
+                        case "ambient-light" -> assembly.add(json.element("ambient-light"));
+                        case "geometries", "lights" -> {
+                            json.expect('[');
+                            if (!json.tryConsume(']')) {
+                                do assembly.add(json.element(null));
+                                while (json.tryConsume(','));
+                                json.expect(']');
+                            }
+                        }
+                        default -> throw new IllegalArgumentException("Unknown member " + key + " at " + location);
+                    }
+                } while (json.tryConsume(','));
+                json.expect('}');
+            }
+        } catch (RuntimeException | IOException e) {
+            assembly.cancel();
+            throw e;
+        }
+        return assembly.finish();
+    }
+
+    /**
+     * A described element of the scene
+     *
+     * @param type     the element type
+     * @param values   the numbers of the element by their names
+     * @param location the location of the element in the description
+     */
+    private record Element(String type, Map<String, double[]> values, String location) {
+        /**
+         * Returns the numbers of a required value
+         *
+         * @param key   the value name
+         * @param count the expected amount of numbers
+         * @return the numbers
+         * @throws IllegalArgumentException if the value is missing or has
+         *                                  another amount of numbers
+         */
+        double[] get(String key, int count) {
+            double[] numbers = values.get(key);
+            if (numbers == null)
+                throw new IllegalArgumentException("Missing " + key + " of " + type + " at " + location);
+            if (numbers.length != count)
+                throw new IllegalArgumentException("Expected " + count + " numbers in " + key + " of " + type
+                        + " at " + location);
+            return numbers;
+        }
+
+        /**
+         * Returns an optional single number
+         *
+         * @param key      the value name
+         * @param fallback the number if the value is missing
+         * @return the number
+         */
+        double number(String key, double fallback) {
+            return values.containsKey(key) ? get(key, 1)[0] : fallback;
+        }
+
+        /**
+         * Returns a required point
+         *
+         * @param key the value name
+         * @return the point
+         */
+        Point point(String key) {
+            double[] xyz = get(key, 3);
+            return new Point(xyz[0], xyz[1], xyz[2]);
+        }
+
+        /**
+         * Returns a required vector
+         *
+         * @param key the value name
+         * @return the vector
+         */
+        Vector vector(String key) {
+            double[] xyz = get(key, 3);
+            return new Vector(xyz[0], xyz[1], xyz[2]);
+        }
+    }
+
+    /**
+     * Gathers the scene while it is parsed, constructing the geometries in
+     * batches on the pool
+     */
+    private final class Assembly {
+        /**
+         * The name of the scene
+         */
+        private String name;
+        /**
+         * The background color
+         */
+        private Color background = Color.BLACK;
+        /**
+         * The ambient light
+         */
+        private AmbientLight ambientLight = AmbientLight.NONE;
+        /**
+         * The light sources
+         */
+        private final List<LightSource> lights = new LinkedList<>();
+        /**
+         * The geometry elements not submitted yet
+         */
+        private List<Element> batch = new ArrayList<>(BATCH_SIZE);
+        /**
+         * The construction tasks in the order of description
+         */
+        private final List<ForkJoinTask<Geometry[]>> tasks = new ArrayList<>();
+
+        /**
+         * Constructs an assembly
+         *
+         * @param name the name of the scene unless the description names it
+         */
+        Assembly(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Adds a parsed element
+         *
+         * @param element the element
+         * @throws IllegalArgumentException if the element is unknown or a light
+         *                                  is malformed
+         */
+        void add(Element element) {
+            switch (element.type) {
+                case "ambient-light" -> ambientLight = new AmbientLight(color(element.get("color", 3), "color",
+                        element.location));
+                case "point-light" -> lights.add(attenuate(new PointLight(
+                        color(element.get("color", 3), "color", element.location), element.point("position")),
+                        element));
+                case "spot-light" -> lights.add(attenuate(new SpotLight(
+                        color(element.get("color", 3), "color", element.location), element.point("position"),
+                        element.vector("direction")), element));
+                case "directional-light" -> lights.add(new DirectionalLight(
+                        color(element.get("color", 3), "color", element.location), element.vector("direction")));
+                case "sphere", "plane", "triangle", "polygon", "tube", "cylinder" -> {
+                    batch.add(element);
+                    if (batch.size() == BATCH_SIZE) submit();
+                }
+                default -> throw new IllegalArgumentException("Unknown element " + element.type + " at "
+                        + element.location);
+            }
+        }
+
+        /**
+         * Submits the current batch for construction
+         */
+        private void submit() {
+            List<Element> elements = batch;
+            batch = new ArrayList<>(BATCH_SIZE);
+            tasks.add(pool.submit(() -> {
+                Geometry[] geometries = new Geometry[elements.size()];
+                for (int i = 0; i < geometries.length; ++i) geometries[i] = geometry(elements.get(i));
+                return geometries;
+            }));
+        }
+
+        /**
+         * Cancels the pending construction after a failure
+         */
+        void cancel() {
+            for (ForkJoinTask<Geometry[]> task : tasks) task.cancel(false);
+        }
+
+        /**
+         * Waits for the construction and assembles the scene
+         *
+         * @return the scene
+         * @throws InterruptedIOException   if interrupted while waiting
+         * @throws IllegalArgumentException if a geometry is malformed
+         */
+        Scene finish() throws InterruptedIOException {
+            if (!batch.isEmpty()) submit();
+            List<Intersectable> geometries = new ArrayList<>();
+            try {
+                for (ForkJoinTask<Geometry[]> task : tasks) geometries.addAll(List.of(task.get()));
+            } catch (InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while constructing the geometries");
+            } catch (ExecutionException e) {
+                cancel();
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                throw new IllegalStateException(e.getCause());
+            }
+            return new Scene(name).setBackground(background).setAmbientLight(ambientLight)
+                    .setGeometries(new Geometries(geometries.toArray(new Intersectable[0]))).setLights(lights);
+        }
+    }
+
+    /**
+     * Constructs a geometry element
+     *
+     * @param element the element
+     * @return the geometry
+     * @throws IllegalArgumentException if the element is malformed
+     */
+    private Geometry geometry(Element element) {
+        try {
+            Geometry geometry = switch (element.type) {
+                case "sphere" -> new Sphere(element.point("center"), element.get("radius", 1)[0]);
+                case "plane" -> new Plane(element.point("point"), element.vector("normal"));
+                case "triangle" -> new Triangle(element.point("p0"), element.point("p1"), element.point("p2"));
+                case "polygon" -> {
+                    double[] xyz = element.values.get("vertices");
+                    if (xyz == null || xyz.length % 3 != 0)
+                        throw new IllegalArgumentException("Expected 3 numbers per vertex");
+                    Point[] vertices = new Point[xyz.length / 3];
+                    for (int v = 0; v < vertices.length; ++v)
+                        vertices[v] = new Point(xyz[3 * v], xyz[3 * v + 1], xyz[3 * v + 2]);
+                    yield trusted ? Polygon.trusted(vertices) : new Polygon(vertices);
+                }
+                case "tube" -> new Tube(new Ray(element.point("origin"), element.vector("direction")),
+                        element.get("radius", 1)[0]);
+                default -> new Cylinder(new Ray(element.point("origin"), element.vector("direction")),
+                        element.get("radius", 1)[0], element.get("height", 1)[0]);
+            };
+            if (element.values.containsKey("emission"))
+                geometry.setEmission(color(element.get("emission", 3), "emission", element.location));
+            Material material = new Material()
+                    .setKd(coefficient(element, "kd")).setKs(coefficient(element, "ks"))
+                    .setKt(coefficient(element, "kt")).setKr(coefficient(element, "kr"))
+                    .setShininess((int) element.number("shininess", 0))
+                    .setIor(element.number("ior", 1));
+            return geometry.setMaterial(material);
+        } catch (IllegalArgumentException e) {
+            if (e.getMessage() != null && e.getMessage().endsWith(element.location)) throw e;
+            throw new IllegalArgumentException("Invalid " + element.type + " at " + element.location + ": "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns an optional material coefficient, given by 1 or 3 numbers
+     *
+     * @param element the element
+     * @param key     the coefficient name
+     * @return the coefficient, 0 if missing
+     */
+    private static Double3 coefficient(Element element, String key) {
+        double[] k = element.values.get(key);
+        if (k == null) return Double3.ZERO;
+        if (k.length == 1) return new Double3(k[0]);
+        element.get(key, 3); // 1 or 3 numbers
+        return new Double3(k[0], k[1], k[2]);
+    }
+
+    /**
+     * Sets the optional attenuation factors of a point light
+     *
+     * @param light   the light
+     * @param element the element of the light
+     * @return the light
+     */
+    private static PointLight attenuate(PointLight light, Element element) {
+        return light.setKc(element.number("kc", 1)).setKl(element.number("kl", 0))
+                .setKq(element.number("kq", 0));
+    }
+
+    /**
+     * Converts numbers to a color
+     *
+     * @param rgb      the numbers
+     * @param key      the value name
+     * @param location the location in the description
+     * @return the color
+     * @throws IllegalArgumentException if there are not 3 numbers
+     */
+    private static Color color(double[] rgb, String key, String location) {
+        if (rgb.length != 3)
+            throw new IllegalArgumentException("Expected 3 numbers in " + key + " at " + location);
+        return new Color(rgb[0], rgb[1], rgb[2]);
+    }
+
+    /**
+     * Parses numbers separated by spaces or commas
+     *
+     * @param text     the text
+     * @param key      the value name
+     * @param location the location in the description
+     * @return the numbers
+     * @throws IllegalArgumentException if the text is not numbers
+     */
+    private static double[] numbers(String text, String key, String location) {
+        double[] numbers = new double[8];
+        int count = 0;
+        int i = 0, length = text.length();
+        while (true) {
+            while (i < length && (Character.isWhitespace(text.charAt(i)) || text.charAt(i) == ',')) ++i;
+            if (i == length) break;
+            int start = i;
+            while (i < length && !Character.isWhitespace(text.charAt(i)) && text.charAt(i) != ',') ++i;
+            if (count == numbers.length) numbers = Arrays.copyOf(numbers, 2 * count);
+            try {
+                numbers[count++] = Double.parseDouble(text.substring(start, i));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number in " + key + " at " + location + ": "
+                        + text.substring(start, i));
+            }
+        }
+        return Arrays.copyOf(numbers, count);
+    }
+
+    /**
+     * Minimal streaming JSON reader - reads the tokens the scene description
+     * needs straight from the characters, one element at a time
+     */
+    private static final class JsonReader {
+        /**
+         * The characters
+         */
+        private final Reader in;
+        /**
+         * The characters read ahead
+         */
+        private final char[] buffer = new char[1 << 14];
+        /**
+         * Position of the next character in the buffer
+         */
+        private int position = 0;
+        /**
+         * Amount of characters in the buffer
+         */
+        private int limit = 0;
+        /**
+         * The next character, -2 before reading it
+         */
+        private int next = -2;
+        /**
+         * The current line
+         */
+        private int line = 1;
+
+        /**
+         * Constructs a reader
+         *
+         * @param in the characters
+         */
+        JsonReader(Reader in) {
+            this.in = in;
+        }
+
+        /**
+         * Reads a character
+         *
+         * @return the character, -1 at the end
+         * @throws IOException if the characters cannot be read
+         */
+        private int read() throws IOException {
+            if (position == limit) {
+                limit = in.read(buffer);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++];
+        }
+
+        /**
+         * Returns the current location
+         *
+         * @return the location
+         */
+        String location() {
+            return "line " + line;
+        }
+
+        /**
+         * Returns the next character without consuming it, skipping white
+         * space
+         *
+         * @return the character, -1 at the end
+         * @throws IOException if the characters cannot be read
+         */
+        private int peek() throws IOException {
+            while (true) {
+                if (next == -2) next = read();
+                if (next == '\n') ++line;
+                if (next != ' ' && next != '\t' && next != '\n' && next != '\r') return next;
+                next = -2;
+            }
+        }
+
+        /**
+         * Consumes the peeked character
+         */
+        private void consume() {
+            next = -2;
+        }
+
+        /**
+         * Consumes a character if it is next
+         *
+         * @param c the character
+         * @return whether it was consumed
+         * @throws IOException if the characters cannot be read
+         */
+        boolean tryConsume(char c) throws IOException {
+            if (peek() != c) return false;
+            consume();
+            return true;
+        }
+
+        /**
+         * Consumes a character that must be next
+         *
+         * @param c the character
+         * @throws IOException              if the characters cannot be read
+         * @throws IllegalArgumentException if another character is next
+         */
+        void expect(char c) throws IOException {
+            if (!tryConsume(c)) throw new IllegalArgumentException("Expected '" + c + "' at " + location());
+        }
+
+        /**
+         * Reads a string
+         *
+         * @return the string
+         * @throws IOException              if the characters cannot be read
+         * @throws IllegalArgumentException if a string is not next
+         */
+        String string() throws IOException {
+            expect('"');
+            StringBuilder text = new StringBuilder();
+            while (true) {
+                int c = read();
+                if (c < 0 || c == '\n') throw new IllegalArgumentException("Unterminated string at " + location());
+                if (c == '"') return text.toString();
+                if (c == '\\') {
+                    c = read();
+                    switch (c) {
+                        case 'n' -> text.append('\n');
+                        case 't' -> text.append('\t');
+                        case 'r' -> text.append('\r');
+                        case 'b' -> text.append('\b');
+                        case 'f' -> text.append('\f');
+                        case 'u' -> {
+                            int code = 0;
+                            for (int h = 0; h < 4; ++h) {
+                                int digit = Character.digit(read(), 16);
+                                if (digit < 0) throw new IllegalArgumentException("Bad escape at " + location());
+                                code = 16 * code + digit;
+                            }
+                            text.append((char) code);
+                        }
+                        default -> text.append((char) c); // '"', '\\' and '/'
+                    }
+                } else {
+                    text.append((char) c);
+                }
+            }
+        }
+
+        /**
+         * Reads a number
+         *
+         * @return the number
+         * @throws IOException              if the characters cannot be read
+         * @throws IllegalArgumentException if a number is not next
+         */
+        private double number() throws IOException {
+            StringBuilder text = new StringBuilder();
+            int c = peek();
+            while (c >= 0 && (Character.isDigit(c) || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E')) {
+                text.append((char) c);
+                c = read();
+            }
+            next = c;
+            try {
+                return Double.parseDouble(text.toString());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Expected a number at " + location());
+            }
+        }
+
+        /**
+         * Reads a number or a (nested) array of numbers, flattened
+         *
+         * @return the numbers
+         * @throws IOException              if the characters cannot be read
+         * @throws IllegalArgumentException if numbers are not next
+         */
+        double[] numbers() throws IOException {
+            if (peek() != '[') return new double[]{number()};
+            double[] numbers = new double[8];
+            int count = 0;
+            int depth = 0;
+            do {
+                while (tryConsume('[')) ++depth;
+                if (peek() != ']') {
+                    if (count == numbers.length) numbers = Arrays.copyOf(numbers, 2 * count);
+                    numbers[count++] = number();
+                }
+                while (depth > 0 && tryConsume(']')) --depth;
+            } while (depth > 0 && tryConsume(','));
+            if (depth > 0) throw new IllegalArgumentException("Expected ']' at " + location());
+            return Arrays.copyOf(numbers, count);
+        }
+
+        /**
+         * Reads an element - an object of numbers and a type
+         *
+         * @param type the element type, or null to read it from the
+         *             {@code type} member
+         * @return the element
+         * @throws IOException              if the characters cannot be read
+         * @throws IllegalArgumentException if an element is not next
+         */
+        Element element(String type) throws IOException {
+            String location = location();
+            Map<String, double[]> values = new HashMap<>();
+            expect('{');
+            if (!tryConsume('}')) {
+                do {
+                    String key = string();
+                    expect(':');
+                    if (key.equals("type")) type = string();
+                    else values.put(key, numbers());
+                } while (tryConsume(','));
+                expect('}');
+            }
+            if (type == null) throw new IllegalArgumentException("Missing type at " + location);
+            return new Element(type, values, location);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package scene;
+
+import geometries.GeometrySnapshot;
+import lighting.AmbientLight;
+import lighting.LightSnapshot;
+import lighting.LightSource;
+import primitives.SnapshotInput;
+import primitives.SnapshotOutput;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Binary snapshot of a fully built scene, for restarting render workers
+ * without parsing the scene description and building its acceleration
+ * structures again.
+ * <p>
+ * The snapshot holds the scene as it is in memory - the geometries with their
+ * derived data, the built hierarchies, the lights - in a compact little endian
+ * format written and read through NIO buffers (see {@link SnapshotOutput}).
+ * It starts with a magic number and a format version and ends with the magic
+ * number again, so foreign, outdated and truncated files are rejected. A
+ * snapshot is written into a temporary file that replaces the target only when
+ * complete, so readers never see a partial snapshot.
+ *
+ * @author Raphael
+ */
+public final class SceneSnapshot {
+    /**
+     * The version of the format, increased on every incompatible change
+     */
+    public static final int VERSION = 1;
+    /**
+     * Magic number at the start and the end of a snapshot ("RTSS")
+     */
+    private static final int MAGIC = 0x52545353;
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private SceneSnapshot() {
+    }
+
+    /**
+     * Writes a snapshot of a scene
+     *
+     * @param scene the scene
+     * @param file  the snapshot file (replaced if it exists)
+     * @throws IOException           if the file cannot be written
+     * @throws IllegalStateException if a geometry or a light of the scene
+     *                               cannot be written into a snapshot
+     */
+    public static void write(Scene scene, Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            SnapshotOutput out = new SnapshotOutput(channel);
+            out.putInt(MAGIC).putInt(VERSION).putString(scene.name).putColor(scene.background)
+                    .putColor(scene.ambientLight.getIntensity()).putInt(scene.lights.size());
+            for (LightSource light : scene.lights) LightSnapshot.write(light, out);
+            GeometrySnapshot.write(scene.geometries, out);
+            out.putInt(MAGIC).flush();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a scene from a snapshot
+     *
+     * @param file the snapshot file
+     * @return the scene
+     * @throws IOException if the file cannot be read, is not a snapshot, has
+     *                     another format version or is corrupt
+     */
+    public static Scene read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            SnapshotInput in = new SnapshotInput(channel);
+            if (in.getInt() != MAGIC) throw new IOException("Not a scene snapshot: " + file);
+            int version = in.getInt();
+            if (version != VERSION)
+                throw new IOException("Unsupported scene snapshot version " + version + ": " + file);
+            Scene scene = new Scene(in.getString()).setBackground(in.getColor())
+                    .setAmbientLight(new AmbientLight(in.getColor()));
+            int lightCount = in.getInt();
+            if (lightCount < 0) throw new IOException("Corrupt snapshot: negative light count");
+            List<LightSource> lights = new LinkedList<>();
+            for (int i = 0; i < lightCount; ++i) lights.add(LightSnapshot.read(in));
+            scene.setLights(lights).setGeometries(GeometrySnapshot.read(in));
+            if (in.getInt() != MAGIC) throw new IOException("Corrupt snapshot: missing end mark");
+            return scene;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package test;
+
+import geometries.Geometries;
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.AmbientLight;
+import lighting.RectangleLight;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Vector;
+import renderer.Camera;
+import renderer.FrameReport;
+import renderer.ImageWriter;
+import renderer.SimpleRayTracer;
+import scene.Scene;
+
+import java.time.Duration;
+
+import static java.lang.System.out;
+
+/**
+ * Benchmark program rendering a scene within decreasing time budgets: the
+ * achieved frame time and the quality the frames were lowered to
+ *
+ * @author Raphael
+ */
+public final class BudgetBenchmark {
+    /**
+     * Image resolution (pixels along each axis)
+     */
+    private static final int RESOLUTION = 400;
+    /**
+     * The time budgets of the frames in milliseconds
+     */
+    private static final int[] BUDGETS = {5000, 1000, 300, 100, 30};
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private BudgetBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args irrelevant here
+     */
+    public static void main(String[] args) {
+        Scene scene = new Scene("budget").setAmbientLight(new AmbientLight(new Color(20, 20, 20)));
+        Material matte = new Material().setKd(0.6).setKs(0.2).setShininess(20);
+        scene.setGeometries(new Geometries(
+                new Plane(new Point(0, -40, 0), new Vector(0, 1, 0)).setMaterial(new Material().setKd(0.6).setKr(0.3)),
+                new Sphere(new Point(-30, 0, 0), 40).setEmission(new Color(60, 20, 20))
+                        .setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(40).setKt(0.5)),
+                new Sphere(new Point(50, -20, 40), 20).setEmission(new Color(20, 20, 60))
+                        .setMaterial(new Material().setKd(0.6).setKr(0.5))));
+        scene.lights.add(new RectangleLight(new Color(600, 600, 600), new Point(40, 150, 60),
+                new Vector(1, 0, 0), new Vector(0, 0, 1), 60, 60).setKl(0.002));
+        Camera camera = Camera.getBuilder()
+                .setLocation(new Point(0, 60, 400)).setDirection(new Point(0, 0, 0), new Vector(0, 1, 0))
+                .setVpSize(200, 200).setVpDistance(400).setResolution(RESOLUTION, RESOLUTION)
+                .setRayTracer(new SimpleRayTracer(scene).setShadowSamples(4)).build();
+
+        out.printf("%dx%d pixels, quality levels from 2x2 samples per pixel down to 1/8 resolution%n",
+                RESOLUTION, RESOLUTION);
+        ImageWriter writer = new ImageWriter(RESOLUTION, RESOLUTION);
+        camera.renderImage(writer, Duration.ofMillis(BUDGETS[0])); // warm up
+        for (int budget : BUDGETS) {
+            FrameReport report = camera.renderImage(writer, Duration.ofMillis(budget));
+            out.println(report);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package test;
+
+import geometries.BoundingVolumeHierarchy;
+import geometries.Intersectable;
+import geometries.Triangle;
+import primitives.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.lang.System.out;
+
+/**
+ * Benchmark program measuring the construction time of a bounding volume
+ * hierarchy as a function of the amount of building threads
+ *
+ * @author Raphael
+ */
+public final class BvhBuildBenchmark {
+    /**
+     * Amount of triangles in the scene
+     */
+    private static final int TRIANGLES = 1_000_000;
+    /**
+     * Amount of measured builds per thread count
+     */
+    private static final int RUNS = 5;
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private BvhBuildBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args optional amount of triangles
+     */
+    public static void main(String[] args) {
+        int amount = args.length > 0 ? Integer.parseInt(args[0]) : TRIANGLES;
+        Random random = new Random(1);
+        List<Intersectable> triangles = new ArrayList<>(amount);
+        for (int i = 0; i < amount; ++i) {
+            Point p = new Point(random.nextDouble() * 1000, random.nextDouble() * 1000, random.nextDouble() * 1000);
+            triangles.add(new Triangle(p,
+                    new Point(p.getX() + random.nextDouble() + 0.1, p.getY(), p.getZ()),
+                    new Point(p.getX(), p.getY() + random.nextDouble() + 0.1, p.getZ() + random.nextDouble())));
+        }
+
+        out.printf("%d triangles%n", amount);
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            new BoundingVolumeHierarchy(pool, triangles); // warm up
+            long best = Long.MAX_VALUE;
+            double cost = 0;
+            for (int run = 0; run < RUNS; ++run) {
+                long start = System.nanoTime();
+                BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy(pool, triangles);
+                best = Math.min(best, System.nanoTime() - start);
+                cost = bvh.cost();
+            }
+            pool.shutdown();
+            out.printf("%2d threads: %8.1f ms (tree cost %.1f)%n", threads, best / 1e6, cost);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package test;
+
+import geometries.Geometries;
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.AmbientLight;
+import lighting.PointLight;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Vector;
+import renderer.Camera;
+import renderer.PhotonMap;
+import renderer.SimpleRayTracer;
+import scene.Scene;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import static java.lang.System.out;
+
+/**
+ * Benchmark program for the caustic photon map: the emission and the tree
+ * build on one thread and on all the cores, the nearest photons queries, and
+ * the render of glass balls on a floor
+ *
+ * @author Raphael
+ */
+public final class CausticBenchmark {
+    /**
+     * Amount of photons emitted by the light
+     */
+    private static final int PHOTONS = 2_000_000;
+    /**
+     * Amount of photons in the tree build measurement
+     */
+    private static final int BUILD = 4_000_000;
+    /**
+     * Amount of photons a caustic is estimated by
+     */
+    private static final int NEAREST = 100;
+    /**
+     * Image resolution (pixels along each axis)
+     */
+    private static final int RESOLUTION = 300;
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private CausticBenchmark() {
+    }
+
+    /**
+     * Runs a task in a pool of threads and reports its time
+     *
+     * @param name    the name of the task
+     * @param threads amount of threads
+     * @param task    the task
+     * @param <T>     the type of the task result
+     * @return the task result
+     * @throws InterruptedException if interrupted while waiting
+     * @throws ExecutionException   if the task failed
+     */
+    private static <T> T time(String name, int threads, Supplier<T> task)
+            throws InterruptedException, ExecutionException {
+        try (ForkJoinPool pool = new ForkJoinPool(threads)) {
+            long start = System.nanoTime();
+            T result = pool.submit(task::get).get();
+            out.printf("%-8s %2d threads %8.1f ms%n", name, threads, (System.nanoTime() - start) / 1e6);
+            return result;
+        }
+    }
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args irrelevant here
+     * @throws InterruptedException if interrupted while waiting
+     * @throws ExecutionException   if a task failed
+     */
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        Scene scene = new Scene("caustics").setAmbientLight(new AmbientLight(new Color(10, 10, 10)));
+        Material glass = new Material().setKt(0.9).setKr(0.1).setIor(1.5);
+        scene.setGeometries(new Geometries(
+                new Plane(Point.ZERO, new Vector(0, 1, 0)).setMaterial(new Material().setKd(0.6)),
+                new Sphere(new Point(-30, 20, 0), 20).setMaterial(glass),
+                new Sphere(new Point(30, 12, 10), 12).setMaterial(glass)));
+        scene.lights.add(new PointLight(new Color(300, 300, 300), new Point(0, 120, 20)));
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        out.printf("%d photons emitted, %d cores%n", PHOTONS, cores);
+        time("emit", cores, () -> PhotonMap.emitCaustics(scene, PHOTONS)); // warm up
+        time("emit", 1, () -> PhotonMap.emitCaustics(scene, PHOTONS));
+        PhotonMap map = time("emit", cores, () -> PhotonMap.emitCaustics(scene, PHOTONS));
+        out.printf("%d caustic photons stored%n", map.size());
+
+        Random random = new Random(1);
+        double[] positions = new double[3 * BUILD];
+        for (int i = 0; i < positions.length; ++i) positions[i] = random.nextDouble() * 100;
+        float[] zeros = new float[3 * BUILD];
+        out.printf("%d photons built%n", BUILD);
+        time("build", cores, () -> new PhotonMap(positions, zeros, zeros)); // warm up
+        time("build", 1, () -> new PhotonMap(positions, zeros, zeros));
+        time("build", cores, () -> new PhotonMap(positions, zeros, zeros));
+
+        Vector up = new Vector(0, 1, 0);
+        int queries = 1_000_000;
+        double sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < queries; ++i)
+            sink += map.estimate(new Point(random.nextDouble() * 100 - 50, 0, random.nextDouble() * 100 - 50),
+                    up, NEAREST, 5).getRed();
+        out.printf("%d-nearest estimate %6.0f ns/query (%.0f)%n", NEAREST,
+                (System.nanoTime() - start) / (double) queries, sink / queries);
+
+        SimpleRayTracer tracer = new SimpleRayTracer(scene).setPhotonMap(map, NEAREST, 5);
+        Camera camera = Camera.getBuilder()
+                .setLocation(new Point(0, 80, 200)).setDirection(new Point(0, 10, 0), new Vector(0, 1, 0))
+                .setVpSize(150, 150).setVpDistance(200).setResolution(RESOLUTION, RESOLUTION)
+                .setRayTracer(tracer).build();
+        start = System.nanoTime();
+        camera.renderImage();
+        out.printf("render %dx%d %8.1f ms%n", RESOLUTION, RESOLUTION, (System.nanoTime() - start) / 1e6);
+    }
+}
@@ -0,0 +1,97 @@
+package test;
+
+import com.sun.management.ThreadMXBean;
+import geometries.Csg;
+import geometries.Cylinder;
+import geometries.Intersectable;
+import geometries.Plane;
+import geometries.Sphere;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.lang.System.out;
+
+/**
+ * Benchmark program intersecting rays with a deep {@link Csg} tree: a grid of
+ * spheres bored by cylinders and cut by a half-space, reporting the rays per
+ * second and the bytes allocated per ray
+ *
+ * @author Raphael
+ */
+public final class CsgBenchmark {
+    /**
+     * Amount of rays shot at the tree
+     */
+    private static final int RAYS = 500_000;
+    /**
+     * Amount of spheres along a side of the grid
+     */
+    private static final int SIDE = 8;
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private CsgBenchmark() {
+    }
+
+    /**
+     * Builds a balanced union of solids
+     *
+     * @param solids the solids
+     * @param from   the first solid of the subtree
+     * @param to     the end of the solids of the subtree
+     * @return the root of the subtree
+     */
+    private static Intersectable balanced(List<Intersectable> solids, int from, int to) {
+        if (to - from == 1) return solids.get(from);
+        int middle = (from + to) / 2;
+        return Csg.union(balanced(solids, from, middle), balanced(solids, middle, to));
+    }
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args irrelevant here
+     */
+    public static void main(String[] args) {
+        List<Intersectable> cells = new ArrayList<>();
+        for (int i = 0; i < SIDE; ++i)
+            for (int j = 0; j < SIDE; ++j) {
+                Point center = new Point(3 * i, 3 * j, 0);
+                Intersectable ball = new Sphere(center, 1.4);
+                Intersectable bore = new Cylinder(new Ray(center.add(new Vector(0, 0, -2)), new Vector(0, 0, 1)),
+                        0.6, 4);
+                cells.add(Csg.difference(ball, bore));
+            }
+        Csg tree = Csg.intersection(balanced(cells, 0, cells.size()),
+                new Plane(new Point(0, 0, 0.5), new Vector(0.2, 0.1, 1)));
+
+        Random random = new Random(1);
+        List<Ray> rays = new ArrayList<>(RAYS);
+        for (int i = 0; i < RAYS; ++i)
+            rays.add(new Ray(new Point(random.nextDouble() * 3 * SIDE - 2, random.nextDouble() * 3 * SIDE - 2, 20),
+                    new Vector(random.nextDouble() * 0.4 - 0.2, random.nextDouble() * 0.4 - 0.2, -1)));
+
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        out.printf("%d solids, depth %d%n", 3 * SIDE * SIDE + 1, 2 + 32 - Integer.numberOfLeadingZeros(SIDE * SIDE - 1));
+        for (int run = 0; run < 5; ++run) {
+            long hits = 0;
+            long bytes = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for (Ray ray : rays) {
+                List<Intersectable.GeoPoint> points = tree.findGeoIntersections(ray);
+                if (points != null) hits += points.size();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            bytes = threads.getThreadAllocatedBytes(thread) - bytes;
+            out.printf("%10.0f rays/s, %6.1f bytes/ray (%d hits)%n", RAYS / seconds, (double) bytes / RAYS, hits);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package test;
+
+import geometries.Geometries;
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Vector;
+import renderer.Camera;
+import renderer.SimpleRayTracer;
+import scene.Scene;
+
+import static java.lang.System.out;
+
+/**
+ * Benchmark program comparing dense and adaptive sampling of glossy reflection
+ * beams: the render time and the difference from a reference image
+ *
+ * @author Raphael
+ */
+public final class GlossyBenchmark {
+    /**
+     * Image resolution (pixels along each axis)
+     */
+    private static final int RESOLUTION = 150;
+    /**
+     * Amount of beam cells along each axis
+     */
+    private static final int GRID = 8;
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private GlossyBenchmark() {
+    }
+
+    /**
+     * Renders the scene into packed RGB pixels
+     *
+     * @param scene  the scene
+     * @param tracer the ray tracer
+     * @return the pixels, row by row
+     */
+    private static int[] render(Scene scene, SimpleRayTracer tracer) {
+        Camera camera = Camera.getBuilder()
+                .setLocation(new Point(0, 40, 300)).setDirection(new Point(0, 0, 0), new Vector(0, 1, 0))
+                .setVpSize(150, 150).setVpDistance(300).setResolution(RESOLUTION, RESOLUTION)
+                .setRayTracer(tracer).build();
+        int[] pixels = new int[RESOLUTION * RESOLUTION];
+        for (int i = 0; i < RESOLUTION; ++i)
+            for (int j = 0; j < RESOLUTION; ++j)
+                pixels[i * RESOLUTION + j] = tracer.traceRay(camera.constructRay(RESOLUTION, RESOLUTION, j, i)).toRgb();
+        return pixels;
+    }
+
+    /**
+     * Calculates the mean difference of the color components of two images
+     *
+     * @param a first image
+     * @param b second image
+     * @return the mean difference (0..255)
+     */
+    private static double difference(int[] a, int[] b) {
+        long sum = 0;
+        for (int p = 0; p < a.length; ++p)
+            for (int shift = 0; shift < 24; shift += 8)
+                sum += Math.abs((a[p] >> shift & 0xFF) - (b[p] >> shift & 0xFF));
+        return sum / (3.0 * a.length);
+    }
+
+    /**
+     * Renders the scene with a tracer and reports the statistics
+     *
+     * @param name      the name of the run
+     * @param scene     the scene
+     * @param tracer    the ray tracer
+     * @param reference the reference image
+     */
+    private static void run(String name, Scene scene, SimpleRayTracer tracer, int[] reference) {
+        long start = System.nanoTime();
+        int[] image = render(scene, tracer);
+        out.printf("%-8s %8.1f ms, %6.2f beam rays/pixel, mean difference from reference %.2f%n", name,
+                (System.nanoTime() - start) / 1e6, tracer.getBeamRaysPerPixel(), difference(image, reference));
+    }
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args irrelevant here
+     */
+    public static void main(String[] args) {
+        Scene scene = new Scene("glossy").setAmbientLight(new AmbientLight(new Color(15, 15, 15)))
+                .setBackground(new Color(30, 30, 50));
+        scene.setGeometries(new Geometries(
+                new Plane(new Point(0, -30, 0), new Vector(0, 1, 0))
+                        .setMaterial(new Material().setKd(0.3).setKr(0.6).setGlossiness(0.2)),
+                new Sphere(new Point(-25, 0, 0), 30).setEmission(new Color(120, 30, 30))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.3).setShininess(30)),
+                new Sphere(new Point(35, -10, 30), 20).setEmission(new Color(30, 90, 30))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.3).setShininess(30))));
+        scene.lights.add(new DirectionalLight(new Color(300, 300, 300), new Vector(-1, -2, -1)));
+
+        out.printf("%dx%d pixels, %dx%d beam cells%n", RESOLUTION, RESOLUTION, GRID, GRID);
+        int[] reference = render(scene, new SimpleRayTracer(scene).setBeamSamples(4 * GRID).setAdaptiveBeams(false));
+        run("warm up", scene, new SimpleRayTracer(scene).setBeamSamples(GRID), reference);
+        run("dense", scene, new SimpleRayTracer(scene).setBeamSamples(GRID).setAdaptiveBeams(false), reference);
+        run("adaptive", scene, new SimpleRayTracer(scene).setBeamSamples(GRID), reference);
+    }
+}
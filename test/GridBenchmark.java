@@ -0,0 +1,90 @@
+package test;
+
+import geometries.BoundingVolumeHierarchy;
+import geometries.Geometries;
+import geometries.Intersectable;
+import geometries.Sphere;
+import geometries.UniformGrid;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static java.lang.System.out;
+
+/**
+ * Benchmark program comparing a uniform grid against a brute-force list (and a
+ * bounding volume hierarchy) on a particle cloud of spheres
+ *
+ * @author Raphael
+ */
+public final class GridBenchmark {
+    /**
+     * Amount of spheres in the cloud
+     */
+    private static final int SPHERES = 100_000;
+    /**
+     * Amount of rays shot at the cloud
+     */
+    private static final int RAYS = 20_000;
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private GridBenchmark() {
+    }
+
+    /**
+     * Shoots all the rays at an intersectable
+     *
+     * @param name     the name of the tested structure
+     * @param geometry the intersectable
+     * @param rays     the rays
+     */
+    private static void shoot(String name, Intersectable geometry, List<Ray> rays) {
+        long hits = 0;
+        long start = System.nanoTime();
+        for (Ray ray : rays) {
+            List<Point> points = geometry.findIntersections(ray);
+            if (points != null) hits += points.size();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        out.printf("%-12s %10.0f rays/s (%d hits)%n", name, rays.size() / seconds, hits);
+    }
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args irrelevant here
+     */
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        List<Intersectable> spheres = new ArrayList<>(SPHERES);
+        for (int i = 0; i < SPHERES; ++i)
+            spheres.add(new Sphere(new Point(random.nextDouble() * 100, random.nextDouble() * 100,
+                    random.nextDouble() * 100), 0.2 + random.nextDouble() * 0.3));
+        List<Ray> rays = new ArrayList<>(RAYS);
+        for (int i = 0; i < RAYS; ++i)
+            rays.add(new Ray(new Point(50, 50, -100),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, 1)));
+
+        long start = System.nanoTime();
+        UniformGrid grid = new UniformGrid(spheres);
+        out.printf("grid build: %.1f ms, resolution %s%n", (System.nanoTime() - start) / 1e6,
+                Arrays.toString(grid.getResolution()));
+        start = System.nanoTime();
+        BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy(spheres);
+        out.printf("bvh build:  %.1f ms%n", (System.nanoTime() - start) / 1e6);
+
+        Geometries list = new Geometries(spheres.toArray(new Intersectable[0]));
+        shoot("brute force", list, rays.subList(0, RAYS / 20));
+        for (int run = 0; run < 2; ++run) {
+            shoot("grid", grid, rays);
+            shoot("bvh", bvh, rays);
+        }
+    }
+}
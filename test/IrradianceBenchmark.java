@@ -0,0 +1,94 @@
+package test;
+
+import geometries.Geometries;
+import geometries.Plane;
+import geometries.Polygon;
+import geometries.Sphere;
+import lighting.PointLight;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Vector;
+import renderer.Camera;
+import renderer.IrradianceCache;
+import renderer.SimpleRayTracer;
+import scene.Scene;
+
+import static java.lang.System.out;
+
+/**
+ * Benchmark program comparing the gathering of the diffuse indirect light at
+ * every pixel with the irradiance cache, in a room lit by a single light: the
+ * amount of gather rays per pixel and the render time
+ *
+ * @author Raphael
+ */
+public final class IrradianceBenchmark {
+    /**
+     * Image resolution (pixels along each axis)
+     */
+    private static final int RESOLUTION = 200;
+    /**
+     * Amount of gather ray cells along each axis of the hemisphere
+     */
+    private static final int GRID = 8;
+    /**
+     * Accepted interpolation error of the cache
+     */
+    private static final double ACCURACY = 0.2;
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private IrradianceBenchmark() {
+    }
+
+    /**
+     * Renders the scene and reports the statistics
+     *
+     * @param scene the scene
+     * @param cache the irradiance cache, null to gather at every pixel
+     */
+    private static void render(Scene scene, IrradianceCache cache) {
+        SimpleRayTracer tracer = new SimpleRayTracer(scene).setIndirectSamples(GRID).setIrradianceCache(cache);
+        Camera camera = Camera.getBuilder()
+                .setLocation(new Point(0, 0, 95)).setDirection(new Point(0, -10, 0), new Vector(0, 1, 0))
+                .setVpSize(200, 200).setVpDistance(100).setResolution(RESOLUTION, RESOLUTION)
+                .setRayTracer(tracer).build();
+        long start = System.nanoTime();
+        camera.renderImage();
+        out.printf("%-8s %7.2f gather rays/pixel, %6d samples, %8.1f ms%n", cache == null ? "gather" : "cached",
+                tracer.getIndirectRaysPerPixel(), cache == null ? 0 : cache.size(),
+                (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args irrelevant here
+     */
+    public static void main(String[] args) {
+        Scene scene = new Scene("room");
+        Material white = new Material().setKd(0.7);
+        Material red = new Material().setKd(new Double3(0.7, 0.1, 0.1));
+        Material green = new Material().setKd(new Double3(0.1, 0.7, 0.1));
+        scene.setGeometries(new Geometries(
+                new Plane(new Point(0, -100, 0), new Vector(0, 1, 0)).setMaterial(white),
+                new Plane(new Point(0, 100, 0), new Vector(0, -1, 0)).setMaterial(white),
+                new Plane(new Point(0, 0, -100), new Vector(0, 0, 1)).setMaterial(white),
+                new Plane(new Point(0, 0, 100), new Vector(0, 0, -1)).setMaterial(white),
+                new Plane(new Point(-100, 0, 0), new Vector(1, 0, 0)).setMaterial(red),
+                new Plane(new Point(100, 0, 0), new Vector(-1, 0, 0)).setMaterial(green),
+                // a table and a ball on the floor
+                new Polygon(new Point(-60, -50, -60), new Point(0, -50, -60),
+                        new Point(0, -50, -10), new Point(-60, -50, -10)).setMaterial(white),
+                new Sphere(new Point(40, -70, -30), 30).setMaterial(white)));
+        scene.lights.add(new PointLight(new Color(300, 300, 300), new Point(0, 90, -20)).setKl(0.01));
+
+        out.printf("%dx%d pixels, %dx%d gather rays, accuracy %.2f%n", RESOLUTION, RESOLUTION, GRID, GRID, ACCURACY);
+        render(scene, null); // warm up
+        render(scene, null);
+        render(scene, new IrradianceCache(Point.ZERO, 100, ACCURACY));
+    }
+}
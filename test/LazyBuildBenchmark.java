@@ -0,0 +1,95 @@
+package test;
+
+import geometries.BoundingVolumeHierarchy;
+import geometries.Intersectable;
+import geometries.LazyAggregate;
+import geometries.Triangle;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.lang.System.out;
+
+/**
+ * Benchmark program comparing an eagerly built hierarchy to a lazily built
+ * aggregate: the time from the loaded scene to the first traced rays, when
+ * the rays reach only a corner of the scene
+ *
+ * @author Raphael
+ */
+public final class LazyBuildBenchmark {
+    /**
+     * Amount of triangles in the scene
+     */
+    private static final int TRIANGLES = 1_000_000;
+    /**
+     * Amount of traced rays along each axis
+     */
+    private static final int RAYS = 200;
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private LazyBuildBenchmark() {
+    }
+
+    /**
+     * Traces a grid of parallel rays through a corner of the scene
+     *
+     * @param geometry the intersected geometry
+     * @return the amount of rays that hit
+     */
+    private static int trace(Intersectable geometry) {
+        int hits = 0;
+        for (int i = 0; i < RAYS; ++i)
+            for (int j = 0; j < RAYS; ++j) {
+                Ray ray = new Ray(new Point(i * 0.5, j * 0.5, -1), new Vector(0, 0, 1));
+                if (geometry.findIntersections(ray) != null) ++hits;
+            }
+        return hits;
+    }
+
+    /**
+     * Measures the construction and the tracing
+     *
+     * @param name      the name of the structure
+     * @param triangles the triangles
+     * @param lazy      whether to build lazily
+     */
+    private static void measure(String name, List<Intersectable> triangles, boolean lazy) {
+        long start = System.nanoTime();
+        Intersectable geometry = lazy ? new LazyAggregate(triangles) : new BoundingVolumeHierarchy(triangles);
+        long built = System.nanoTime();
+        int hits = trace(geometry);
+        long traced = System.nanoTime();
+        out.printf("%-5s construction %8.1f ms, first %d rays %8.1f ms (%d hits), total %8.1f ms%n", name,
+                (built - start) / 1e6, RAYS * RAYS, (traced - built) / 1e6, hits, (traced - start) / 1e6);
+    }
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args optional amount of triangles
+     */
+    public static void main(String[] args) {
+        int amount = args.length > 0 ? Integer.parseInt(args[0]) : TRIANGLES;
+        Random random = new Random(1);
+        List<Intersectable> triangles = new ArrayList<>(amount);
+        for (int i = 0; i < amount; ++i) {
+            Point p = new Point(random.nextDouble() * 1000, random.nextDouble() * 1000, random.nextDouble() * 1000);
+            triangles.add(new Triangle(p,
+                    new Point(p.getX() + random.nextDouble() + 0.1, p.getY(), p.getZ()),
+                    new Point(p.getX(), p.getY() + random.nextDouble() + 0.1, p.getZ() + random.nextDouble())));
+        }
+
+        out.printf("%d triangles, %dx%d rays through a corner%n", amount, RAYS, RAYS);
+        measure("eager", triangles, false); // warm up
+        measure("lazy", triangles, true);
+        measure("eager", triangles, false);
+        measure("lazy", triangles, true);
+    }
+}
@@ -0,0 +1,190 @@
+package test;
+
+import geometries.BoundingVolumeHierarchy;
+import geometries.Intersectable;
+import geometries.LodSelector;
+import geometries.TriangleMesh;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.System.out;
+
+/**
+ * Benchmark program comparing a crowd of detailed meshes (translated copies) to
+ * the same crowd of instances of shared levels of detail, pinned per instance
+ * by their projected size: the heap retained by each crowd and the primary
+ * ray throughput
+ *
+ * @author Raphael
+ */
+public final class LodBenchmark {
+    /**
+     * Amount of instances along each side of the crowd
+     */
+    private static final int SIDE = 20;
+    /**
+     * Distance between neighboring instances
+     */
+    private static final double SPACING = 3;
+    /**
+     * Amount of levels of detail
+     */
+    private static final int LEVELS = 4;
+    /**
+     * Image resolution
+     */
+    private static final int WIDTH = 320, HEIGHT = 240;
+    /**
+     * The camera location
+     */
+    private static final Point EYE = new Point(SIDE * SPACING / 2, 4, -6);
+    /**
+     * Width of the view plane at distance 1
+     */
+    private static final double VIEW_WIDTH = 1.2;
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private LodBenchmark() {
+    }
+
+    /**
+     * Creates the instance mesh - a bumpy unit sphere
+     *
+     * @param rings    amount of rings from pole to pole
+     * @param segments amount of segments around
+     * @return the mesh
+     */
+    private static TriangleMesh figure(int rings, int segments) {
+        float[] positions = new float[3 * (rings + 1) * (segments + 1)];
+        for (int r = 0, p = 0; r <= rings; ++r) {
+            double theta = Math.PI * r / rings;
+            for (int s = 0; s <= segments; ++s) {
+                double phi = 2 * Math.PI * s / segments;
+                double radius = 1 + 0.05 * Math.sin(7 * theta) * Math.cos(9 * phi);
+                positions[p++] = (float) (radius * Math.sin(theta) * Math.cos(phi));
+                positions[p++] = (float) (radius * Math.cos(theta));
+                positions[p++] = (float) (radius * Math.sin(theta) * Math.sin(phi));
+            }
+        }
+        int[] indices = new int[6 * rings * segments];
+        for (int r = 0, t = 0; r < rings; ++r)
+            for (int s = 0; s < segments; ++s) {
+                int v = r * (segments + 1) + s;
+                indices[t++] = v;
+                indices[t++] = v + 1;
+                indices[t++] = v + segments + 2;
+                indices[t++] = v;
+                indices[t++] = v + segments + 2;
+                indices[t++] = v + segments + 1;
+            }
+        return new TriangleMesh(positions, indices);
+    }
+
+    /**
+     * Traces the primary rays of the image
+     *
+     * @param crowd the crowd
+     * @return the amount of rays that hit
+     */
+    private static int trace(Intersectable crowd) {
+        Vector forward = new Vector(0, -0.25, 1).normalize();
+        Vector right = new Vector(1, 0, 0);
+        Vector up = right.crossProduct(forward).normalize();
+        double pixel = VIEW_WIDTH / WIDTH;
+        int hits = 0;
+        for (int i = 0; i < HEIGHT; ++i)
+            for (int j = 0; j < WIDTH; ++j) {
+                Vector direction = forward.add(right.scale((j + 0.5 - WIDTH / 2.0) * pixel))
+                        .add(up.scale((HEIGHT / 2.0 - i - 0.5) * pixel));
+                if (crowd.findIntersections(new Ray(EYE, direction)) != null) ++hits;
+            }
+        return hits;
+    }
+
+    /**
+     * Returns the heap in use after collecting the garbage
+     *
+     * @return the used heap in bytes
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // a few collections, until the unreachable objects are all gone
+        for (int i = 0; i < 5; ++i) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    /**
+     * Measures the tracing of a crowd
+     *
+     * @param name     the name of the configuration
+     * @param crowd    the crowd
+     * @param retained the heap retained by the crowd (measured), with its
+     *                 levels of detail
+     */
+    private static void measure(String name, Intersectable crowd, long retained) {
+        long start = System.nanoTime();
+        int hits = trace(crowd);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        out.printf("%-6s retained heap %7.1f MB, %8.0f rays/s (%d hits)%n", name, retained / 1e6,
+                WIDTH * HEIGHT / seconds, hits);
+    }
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        TriangleMesh figure = figure(100, 200);
+        long heap = usedHeap();
+        long start = System.nanoTime();
+        LodSelector template = LodSelector.of(figure, LEVELS);
+        out.printf("%d instances of %d triangles, %d levels built in %.1f ms:", SIDE * SIDE,
+                figure.getTriangleCount(), template.size(), (System.nanoTime() - start) / 1e6);
+        // the figure itself (the finest level) underlies both crowds
+        long levelsHeap = usedHeap() - heap;
+        for (int l = 0; l < template.size(); ++l)
+            out.printf(" %d", ((TriangleMesh) template.getLevel(l)).getTriangleCount());
+        out.println(" triangles");
+
+        heap = usedHeap();
+        List<Intersectable> detailed = new ArrayList<>(SIDE * SIDE);
+        for (int i = 0; i < SIDE; ++i)
+            for (int k = 0; k < SIDE; ++k)
+                detailed.add(figure.translate(new Vector(i * SPACING + 0.5, 0.01, k * SPACING + 0.5)));
+        Intersectable detailedCrowd = new BoundingVolumeHierarchy(detailed);
+        long detailedHeap = usedHeap() - heap;
+
+        // the instances share the levels of the template, at their offsets
+        heap = usedHeap();
+        double pixelAngle = VIEW_WIDTH / WIDTH;
+        List<Intersectable> lods = new ArrayList<>(SIDE * SIDE);
+        int[] pinned = new int[template.size()];
+        for (int i = 0; i < SIDE; ++i)
+            for (int k = 0; k < SIDE; ++k) {
+                LodSelector lod = template.translate(new Vector(i * SPACING + 0.5, 0.01, k * SPACING + 0.5));
+                ++pinned[lod.pin(EYE, pixelAngle)];
+                lods.add(lod);
+            }
+        Intersectable lodCrowd = new BoundingVolumeHierarchy(lods);
+        long lodHeap = usedHeap() - heap + levelsHeap;
+        out.print("instances per level:");
+        for (int count : pinned) out.printf(" %d", count);
+        out.println();
+
+        measure("full", detailedCrowd, detailedHeap); // warm up
+        measure("lod", lodCrowd, lodHeap);
+        measure("full", detailedCrowd, detailedHeap);
+        measure("lod", lodCrowd, lodHeap);
+    }
+}
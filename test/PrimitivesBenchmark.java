@@ -0,0 +1,107 @@
+package test;
+
+import com.sun.management.ThreadMXBean;
+import geometries.BoundingVolumeHierarchy;
+import geometries.Intersectable;
+import geometries.Intersectable.GeoPoint;
+import geometries.Sphere;
+import geometries.Triangle;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+import static java.lang.System.out;
+
+/**
+ * Benchmark program measuring the time and the bytes allocated per ray in
+ * typical intersection and shading code, whose temporary points and vectors
+ * the JIT should replace by scalars (escape analysis)
+ *
+ * @author Raphael
+ */
+public final class PrimitivesBenchmark {
+    /**
+     * Amount of rays per measurement
+     */
+    private static final int RAYS = 1_000_000;
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private PrimitivesBenchmark() {
+    }
+
+    /**
+     * Runs a kernel over all the rays
+     *
+     * @param name   the name of the kernel
+     * @param kernel the kernel, returning a value to keep its work alive
+     * @param rays   the rays
+     */
+    private static void measure(String name, ToDoubleFunction<Ray> kernel, List<Ray> rays) {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        double sum = 0;
+        long bytes = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (Ray ray : rays) sum += kernel.applyAsDouble(ray);
+        long nanos = System.nanoTime() - start;
+        bytes = threads.getThreadAllocatedBytes(thread) - bytes;
+        out.printf("%-20s %7.1f ns/ray %7.1f bytes/ray (%.3g)%n", name, (double) nanos / rays.size(),
+                (double) bytes / rays.size(), sum);
+    }
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args irrelevant here
+     */
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        List<Ray> rays = new ArrayList<>(RAYS);
+        for (int i = 0; i < RAYS; ++i)
+            rays.add(new Ray(new Point(random.nextDouble() * 4 - 2, random.nextDouble() * 4 - 2, 10),
+                    new Vector(random.nextDouble() * 0.2 - 0.1, random.nextDouble() * 0.2 - 0.1, -1)));
+
+        Sphere sphere = new Sphere(new Point(0, 0, -5), 2);
+        Triangle triangle = new Triangle(new Point(-2, -2, -5), new Point(2, -2, -5), new Point(0, 2, -4));
+        List<Intersectable> triangles = new ArrayList<>();
+        for (int i = 0; i < 10_000; ++i) {
+            Point p = new Point(random.nextDouble() * 4 - 2, random.nextDouble() * 4 - 2, -random.nextDouble() * 10);
+            triangles.add(new Triangle(p, p.add(new Vector(0.1, 0, 0)), p.add(new Vector(0, 0.1, 0.02))));
+        }
+        BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy(triangles);
+
+        // a mirror reflection of the ray about a fixed normal, consumed as a scalar
+        Vector normal = new Vector(0.1, 0.2, 1).normalize();
+        ToDoubleFunction<Ray> reflect = ray -> {
+            Vector v = ray.direction();
+            Vector r = v.subtract(normal.scale(2 * v.dotProduct(normal)));
+            return r.crossProduct(normal).add(r).length();
+        };
+        ToDoubleFunction<Ray> hitSphere = ray -> {
+            List<GeoPoint> hits = sphere.findGeoIntersections(ray);
+            return hits == null ? 0 : hits.getFirst().point().distance(ray.origin());
+        };
+        ToDoubleFunction<Ray> hitTriangle = ray -> {
+            List<GeoPoint> hits = triangle.findGeoIntersections(ray);
+            return hits == null ? 0 : hits.getFirst().point().getZ();
+        };
+        ToDoubleFunction<Ray> hitBvh = ray -> {
+            List<GeoPoint> hits = bvh.findGeoIntersections(ray);
+            return hits == null ? 0 : hits.size();
+        };
+        for (int run = 0; run < 5; ++run) {
+            measure("reflection", reflect, rays);
+            measure("sphere", hitSphere, rays);
+            measure("triangle", hitTriangle, rays);
+            measure("hierarchy", hitBvh, rays);
+        }
+    }
+}
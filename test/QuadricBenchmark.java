@@ -0,0 +1,87 @@
+package test;
+
+import geometries.Intersectable;
+import geometries.Quadric;
+import geometries.Sphere;
+import geometries.Tube;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.lang.System.out;
+
+/**
+ * Benchmark program comparing the intersection of quadrics recognized as
+ * spheres and tubes against the hand-written {@link Sphere} and {@link Tube},
+ * and against the general matrix path on nearly identical shapes
+ *
+ * @author Raphael
+ */
+public final class QuadricBenchmark {
+    /**
+     * Amount of rays shot at every shape
+     */
+    private static final int RAYS = 1_000_000;
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private QuadricBenchmark() {
+    }
+
+    /**
+     * Shoots all the rays at an intersectable
+     *
+     * @param name     the name of the tested shape
+     * @param geometry the intersectable
+     * @param rays     the rays
+     */
+    private static void shoot(String name, Intersectable geometry, List<Ray> rays) {
+        long hits = 0;
+        long start = System.nanoTime();
+        for (Ray ray : rays) {
+            List<Intersectable.GeoPoint> points = geometry.findGeoIntersections(ray);
+            if (points != null) hits += points.size();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        out.printf("%-18s %10.0f rays/s (%d hits)%n", name, rays.size() / seconds, hits);
+    }
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args irrelevant here
+     */
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        List<Ray> rays = new ArrayList<>(RAYS);
+        for (int i = 0; i < RAYS; ++i)
+            rays.add(new Ray(new Point(random.nextDouble() * 10 - 5, random.nextDouble() * 10 - 5, 20),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1)));
+
+        Point center = new Point(0.5, -0.5, 0);
+        Ray axis = new Ray(center, new Vector(1, 1, 0.2));
+        Intersectable sphere = new Sphere(center, 3);
+        Quadric quadricSphere = Quadric.ellipsoid(center, 3, 3, 3);
+        Quadric ellipsoid = Quadric.ellipsoid(center, 3, 3, 3.000001);
+        Intersectable tube = new Tube(axis, 3);
+        Quadric quadricTube = Quadric.tube(axis, 3);
+        Quadric hyperboloid = Quadric.hyperboloid(axis, 3, 1e-3);
+        out.printf("specialized: sphere %b, tube %b, ellipsoid %b, hyperboloid %b%n",
+                quadricSphere.isSpecialized(), quadricTube.isSpecialized(), ellipsoid.isSpecialized(),
+                hyperboloid.isSpecialized());
+
+        for (int run = 0; run < 3; ++run) {
+            shoot("sphere", sphere, rays);
+            shoot("quadric sphere", quadricSphere, rays);
+            shoot("general ellipsoid", ellipsoid, rays);
+            shoot("tube", tube, rays);
+            shoot("quadric tube", quadricTube, rays);
+            shoot("general hyperbol.", hyperboloid, rays);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package test;
+
+import geometries.BoundingVolumeHierarchy;
+import geometries.Intersectable;
+import geometries.Triangle;
+import primitives.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.System.out;
+
+/**
+ * Benchmark program comparing refitting a bounding volume hierarchy against
+ * rebuilding it, on a deforming (waving) triangle mesh
+ *
+ * @author Raphael
+ */
+public final class RefitBenchmark {
+    /**
+     * Mesh resolution - the mesh has 2 * N * N triangles
+     */
+    private static final int N = 300;
+    /**
+     * Amount of animation frames
+     */
+    private static final int FRAMES = 30;
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private RefitBenchmark() {
+    }
+
+    /**
+     * Creates the triangles of the mesh at an animation time
+     *
+     * @param time the animation time
+     * @return the triangles of the mesh
+     */
+    private static List<Intersectable> mesh(double time) {
+        Point[][] grid = new Point[N + 1][N + 1];
+        for (int i = 0; i <= N; ++i)
+            for (int j = 0; j <= N; ++j)
+                grid[i][j] = new Point(i, j, 2 * Math.sin(0.1 * i + time) * Math.cos(0.1 * j + time));
+        List<Intersectable> triangles = new ArrayList<>(2 * N * N);
+        for (int i = 0; i < N; ++i)
+            for (int j = 0; j < N; ++j) {
+                triangles.add(new Triangle(grid[i][j], grid[i + 1][j], grid[i + 1][j + 1]));
+                triangles.add(new Triangle(grid[i][j], grid[i + 1][j + 1], grid[i][j + 1]));
+            }
+        return triangles;
+    }
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args irrelevant here
+     */
+    public static void main(String[] args) {
+        List<List<Intersectable>> frames = new ArrayList<>(FRAMES);
+        for (int f = 0; f < FRAMES; ++f)
+            frames.add(mesh(0.2 * f));
+
+        // warm up
+        for (int f = 0; f < 3; ++f) new BoundingVolumeHierarchy(frames.get(f)).refit();
+
+        long rebuildTime = 0;
+        for (List<Intersectable> frame : frames) {
+            long start = System.nanoTime();
+            new BoundingVolumeHierarchy(frame);
+            rebuildTime += System.nanoTime() - start;
+        }
+
+        BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy(frames.get(0));
+        long refitTime = 0;
+        int rebuilds = 0;
+        for (List<Intersectable> frame : frames) {
+            long start = System.nanoTime();
+            for (int i = 0; i < frame.size(); ++i)
+                bvh.set(i, frame.get(i));
+            if (bvh.refit()) ++rebuilds;
+            refitTime += System.nanoTime() - start;
+        }
+
+        out.printf("%d triangles, %d frames%n", 2 * N * N, FRAMES);
+        out.printf("rebuild: %.2f ms/frame%n", rebuildTime / 1e6 / FRAMES);
+        out.printf("refit:   %.2f ms/frame (%d fallback rebuilds), final cost %.2f%n",
+                refitTime / 1e6 / FRAMES, rebuilds, bvh.cost());
+    }
+}
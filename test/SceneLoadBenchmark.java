@@ -0,0 +1,127 @@
+package test;
+
+import geometries.Geometries;
+import scene.Scene;
+import scene.SceneLoader;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.lang.System.out;
+
+/**
+ * Benchmark program loading a large scene description, XML and JSON, with and
+ * without the validation of the polygons and with one or all the cores
+ * constructing the geometries
+ *
+ * @author Raphael
+ */
+public final class SceneLoadBenchmark {
+    /**
+     * Amount of geometries in the scene
+     */
+    private static final int GEOMETRIES = 500_000;
+    /**
+     * Amount of vertices of every polygon
+     */
+    private static final int SIDES = 8;
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private SceneLoadBenchmark() {
+    }
+
+    /**
+     * Writes a scene of regular polygons, triangles and spheres
+     *
+     * @param file   the file
+     * @param amount amount of geometries
+     * @param json   whether to write JSON rather than XML
+     * @throws IOException if the file cannot be written
+     */
+    private static void write(Path file, int amount, boolean json) throws IOException {
+        Random random = new Random(1);
+        try (BufferedWriter w = Files.newBufferedWriter(file)) {
+            w.write(json ? "{\"geometries\": [\n" : "<scene>\n<geometries>\n");
+            for (int i = 0; i < amount; ++i) {
+                double x = random.nextDouble() * 1000, y = random.nextDouble() * 1000, z = -random.nextDouble() * 1000;
+                if (json && i > 0) w.write(",\n");
+                switch (i % 3) {
+                    case 0 -> {
+                        StringBuilder vertices = new StringBuilder();
+                        for (int v = 0; v < SIDES; ++v) {
+                            double angle = 2 * Math.PI * v / SIDES;
+                            if (v > 0) vertices.append(json ? ", " : " ");
+                            vertices.append(json ? "[" : "").append(x + Math.cos(angle)).append(json ? ", " : " ")
+                                    .append(y + Math.sin(angle)).append(json ? ", " : " ").append(z)
+                                    .append(json ? "]" : "");
+                        }
+                        w.write(json ? "{\"type\": \"polygon\", \"vertices\": [" + vertices + "]}"
+                                : "<polygon vertices=\"" + vertices + "\"/>\n");
+                    }
+                    case 1 -> w.write(json
+                            ? "{\"type\": \"triangle\", \"p0\": [" + x + ", " + y + ", " + z + "], \"p1\": ["
+                            + (x + 1) + ", " + y + ", " + z + "], \"p2\": [" + x + ", " + (y + 1) + ", " + z + "]}"
+                            : "<triangle p0=\"" + x + " " + y + " " + z + "\" p1=\"" + (x + 1) + " " + y + " " + z
+                            + "\" p2=\"" + x + " " + (y + 1) + " " + z + "\"/>\n");
+                    default -> w.write(json
+                            ? "{\"type\": \"sphere\", \"center\": [" + x + ", " + y + ", " + z + "], \"radius\": 0.5}"
+                            : "<sphere center=\"" + x + " " + y + " " + z + "\" radius=\"0.5\"/>\n");
+                }
+            }
+            w.write(json ? "\n]}\n" : "</geometries>\n</scene>\n");
+        }
+    }
+
+    /**
+     * Measures the loading of a scene
+     *
+     * @param name   the name of the configuration
+     * @param loader the loader
+     * @param file   the scene file
+     * @throws IOException if the file cannot be read
+     */
+    private static void measure(String name, SceneLoader loader, Path file) throws IOException {
+        long start = System.nanoTime();
+        Scene scene = loader.load(file);
+        out.printf("%-28s %8.1f ms (%d geometries)%n", name, (System.nanoTime() - start) / 1e6,
+                ((Geometries) scene.geometries).getGeometries().size());
+    }
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args optional amount of geometries
+     * @throws IOException if the scene files cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        int amount = args.length > 0 ? Integer.parseInt(args[0]) : GEOMETRIES;
+        Path xml = Files.createTempFile("scene", ".xml");
+        Path json = Files.createTempFile("scene", ".json");
+        try {
+            write(xml, amount, false);
+            write(json, amount, true);
+            int cores = Runtime.getRuntime().availableProcessors();
+            out.printf("%d geometries (polygons of %d vertices, triangles, spheres), %d cores, %.1f MB XML%n",
+                    amount, SIDES, cores, Files.size(xml) / 1e6);
+            ForkJoinPool single = new ForkJoinPool(1);
+            ForkJoinPool all = new ForkJoinPool(cores);
+            for (int round = 0; round < 2; ++round) { // the first round warms up
+                measure("xml validated, 1 thread", new SceneLoader().setPool(single), xml);
+                measure("xml validated, all cores", new SceneLoader().setPool(all), xml);
+                measure("xml trusted, all cores", new SceneLoader().setPool(all).setTrusted(true), xml);
+                measure("json trusted, all cores", new SceneLoader().setPool(all).setTrusted(true), json);
+            }
+            single.shutdown();
+            all.shutdown();
+        } finally {
+            Files.deleteIfExists(xml);
+            Files.deleteIfExists(json);
+        }
+    }
+}
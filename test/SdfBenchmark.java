@@ -0,0 +1,93 @@
+package test;
+
+import geometries.BoundingBox;
+import geometries.DistanceFunction;
+import geometries.SignedDistanceField;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.lang.System.out;
+
+/**
+ * Benchmark program comparing plain sphere tracing of procedural shapes
+ * against over-relaxed marching and the distance cache, reporting the average
+ * amount of marching steps per ray
+ *
+ * @author Raphael
+ */
+public final class SdfBenchmark {
+    /**
+     * Amount of rays shot at every shape
+     */
+    private static final int RAYS = 200_000;
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private SdfBenchmark() {
+    }
+
+    /**
+     * Shoots all the rays at a shape
+     *
+     * @param name  the name of the tested configuration
+     * @param shape the shape
+     * @param rays  the rays
+     */
+    private static void shoot(String name, SignedDistanceField shape, List<Ray> rays) {
+        shape.resetStatistics();
+        long hits = 0;
+        long start = System.nanoTime();
+        for (Ray ray : rays) {
+            List<Point> points = shape.findIntersections(ray);
+            if (points != null) hits += points.size();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        out.printf("%-22s %9.0f rays/s %7.1f steps/ray (%d hits)%n", name, rays.size() / seconds,
+                shape.getStepsPerRay(), hits);
+    }
+
+    /**
+     * Runs the benchmark on a shape in its three configurations
+     *
+     * @param name     the name of the shape
+     * @param function the distance function of the shape
+     * @param bounds   the box of the shape
+     * @param rays     the rays
+     */
+    private static void compare(String name, DistanceFunction function, BoundingBox bounds, List<Ray> rays) {
+        SignedDistanceField plain = new SignedDistanceField(function, bounds).setRelaxation(1);
+        SignedDistanceField relaxed = new SignedDistanceField(function, bounds);
+        SignedDistanceField cached = new SignedDistanceField(function, bounds).setCache(128);
+        for (int run = 0; run < 2; ++run) {
+            shoot(name + " plain", plain, rays);
+            shoot(name + " relaxed", relaxed, rays);
+            shoot(name + " cached", cached, rays);
+        }
+    }
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args irrelevant here
+     */
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        List<Ray> rays = new ArrayList<>(RAYS);
+        for (int i = 0; i < RAYS; ++i)
+            rays.add(new Ray(new Point(random.nextDouble() * 3 - 1.5, random.nextDouble() * 3 - 1.5, 10),
+                    new Vector(0.25, 0.15, -1)));
+        BoundingBox bounds = new BoundingBox(-2, -2, -2, 2, 2, 2);
+
+        compare("sponge", DistanceFunction.mengerSponge(Point.ZERO, 1, 4), bounds, rays);
+        DistanceFunction blob = DistanceFunction.ball(new Point(-0.6, 0, 0), 0.7)
+                .blend(DistanceFunction.ball(new Point(0.6, 0, 0), 0.7), 0.4)
+                .blend(DistanceFunction.torus(new Point(0, 0, 0), 1.2, 0.2), 0.3);
+        compare("blob", blob, bounds, rays);
+    }
+}
@@ -0,0 +1,126 @@
+package test;
+
+import geometries.BoundingVolumeHierarchy;
+import geometries.Intersectable;
+import geometries.Triangle;
+import geometries.TriangleMesh;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+import scene.SceneSnapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.lang.System.out;
+
+/**
+ * Benchmark program comparing the cold start of a render worker: building a
+ * large scene (constructing the geometries and the hierarchy) against reading
+ * its snapshot
+ *
+ * @author Raphael
+ */
+public final class SnapshotBenchmark {
+    /**
+     * Amount of separate triangles in the scene
+     */
+    private static final int TRIANGLES = 500_000;
+    /**
+     * Amount of cells along each side of the mesh (2 triangles per cell)
+     */
+    private static final int MESH_SIDE = 1_000;
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private SnapshotBenchmark() {
+    }
+
+    /**
+     * Builds the scene - separate triangles and a large height field mesh in
+     * a hierarchy
+     *
+     * @param amount amount of separate triangles
+     * @return the scene
+     */
+    private static Scene build(int amount) {
+        Random random = new Random(1);
+        List<Intersectable> items = new ArrayList<>(amount + 1);
+        for (int i = 0; i < amount; ++i) {
+            Point p = new Point(random.nextDouble() * 1000, random.nextDouble() * 1000, random.nextDouble() * 1000);
+            items.add(new Triangle(p, new Point(p.getX() + random.nextDouble() + 0.1, p.getY(), p.getZ()),
+                    new Point(p.getX(), p.getY() + random.nextDouble() + 0.1, p.getZ() + random.nextDouble())));
+        }
+        float[] positions = new float[3 * (MESH_SIDE + 1) * (MESH_SIDE + 1)];
+        for (int j = 0, p = 0; j <= MESH_SIDE; ++j)
+            for (int i = 0; i <= MESH_SIDE; ++i) {
+                positions[p++] = i;
+                positions[p++] = j;
+                positions[p++] = (float) (10 * Math.sin(i * 0.05) * Math.cos(j * 0.05)) - 20;
+            }
+        int[] indices = new int[6 * MESH_SIDE * MESH_SIDE];
+        for (int j = 0, t = 0; j < MESH_SIDE; ++j)
+            for (int i = 0; i < MESH_SIDE; ++i) {
+                int v = j * (MESH_SIDE + 1) + i;
+                indices[t++] = v;
+                indices[t++] = v + 1;
+                indices[t++] = v + MESH_SIDE + 2;
+                indices[t++] = v;
+                indices[t++] = v + MESH_SIDE + 2;
+                indices[t++] = v + MESH_SIDE + 1;
+            }
+        items.add(new TriangleMesh(positions, indices));
+        return new Scene("snapshot").setGeometries(new BoundingVolumeHierarchy(items));
+    }
+
+    /**
+     * Traces a few rays, to check the scene is ready
+     *
+     * @param scene the scene
+     * @return the amount of rays that hit
+     */
+    private static int probe(Scene scene) {
+        int hits = 0;
+        for (int i = 0; i < 100; ++i)
+            if (scene.geometries.findIntersections(new Ray(new Point(i * 10 + 0.5, i * 5 + 0.5, 2000),
+                    new Vector(0, 0, -1))) != null) ++hits;
+        return hits;
+    }
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args optional amount of separate triangles
+     * @throws IOException if the snapshot cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        int amount = args.length > 0 ? Integer.parseInt(args[0]) : TRIANGLES;
+        Path file = Files.createTempFile("scene", ".snap");
+        try {
+            long start = System.nanoTime();
+            Scene scene = build(amount);
+            long built = System.nanoTime();
+            out.printf("%d triangles + a mesh of %d triangles built in %.0f ms (%d probe hits)%n", amount,
+                    2 * MESH_SIDE * MESH_SIDE, (built - start) / 1e6, probe(scene));
+            SceneSnapshot.write(scene, file);
+            out.printf("snapshot written in %.0f ms, %.1f MB%n", (System.nanoTime() - built) / 1e6,
+                    Files.size(file) / 1e6);
+            scene = null;
+            for (int round = 0; round < 3; ++round) {
+                System.gc();
+                start = System.nanoTime();
+                Scene restored = SceneSnapshot.read(file);
+                out.printf("snapshot read in %.0f ms (%d probe hits)%n", (System.nanoTime() - start) / 1e6,
+                        probe(restored));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
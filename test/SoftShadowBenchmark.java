@@ -0,0 +1,78 @@
+package test;
+
+import geometries.Geometries;
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.AmbientLight;
+import lighting.RectangleLight;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Vector;
+import renderer.Camera;
+import renderer.SimpleRayTracer;
+import scene.Scene;
+
+import static java.lang.System.out;
+
+/**
+ * Benchmark program comparing full and adaptive sampling of an area light: the
+ * amount of shadow rays per pixel and the render time
+ *
+ * @author Raphael
+ */
+public final class SoftShadowBenchmark {
+    /**
+     * Image resolution (pixels along each axis)
+     */
+    private static final int RESOLUTION = 300;
+    /**
+     * Amount of shadow ray cells along each axis of the light
+     */
+    private static final int GRID = 8;
+
+    /**
+     * Explicit empty default constructor to satisfy Javadoc generator
+     */
+    private SoftShadowBenchmark() {
+    }
+
+    /**
+     * Renders the scene and reports the statistics
+     *
+     * @param scene    the scene
+     * @param adaptive whether to sample the light adaptively
+     */
+    private static void render(Scene scene, boolean adaptive) {
+        SimpleRayTracer tracer = new SimpleRayTracer(scene).setShadowSamples(GRID).setAdaptiveShadows(adaptive);
+        Camera camera = Camera.getBuilder()
+                .setLocation(new Point(0, 60, 400)).setDirection(new Point(0, 0, 0), new Vector(0, 1, 0))
+                .setVpSize(200, 200).setVpDistance(400).setResolution(RESOLUTION, RESOLUTION)
+                .setRayTracer(tracer).build();
+        long start = System.nanoTime();
+        camera.renderImage();
+        out.printf("%-8s %6.2f shadow rays/pixel, %7.1f ms%n", adaptive ? "adaptive" : "full",
+                tracer.getShadowRaysPerPixel(), (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args irrelevant here
+     */
+    public static void main(String[] args) {
+        Scene scene = new Scene("soft shadows").setAmbientLight(new AmbientLight(new Color(20, 20, 20)));
+        Material matte = new Material().setKd(0.6).setKs(0.2).setShininess(20);
+        scene.setGeometries(new Geometries(
+                new Plane(new Point(0, -40, 0), new Vector(0, 1, 0)).setMaterial(matte),
+                new Sphere(new Point(-30, 0, 0), 40).setEmission(new Color(60, 20, 20)).setMaterial(matte),
+                new Sphere(new Point(50, -20, 40), 20).setEmission(new Color(20, 20, 60)).setMaterial(matte)));
+        scene.lights.add(new RectangleLight(new Color(600, 600, 600), new Point(40, 150, 60),
+                new Vector(1, 0, 0), new Vector(0, 0, 1), 60, 60).setKl(0.002));
+
+        out.printf("%dx%d pixels, %dx%d light samples%n", RESOLUTION, RESOLUTION, GRID, GRID);
+        render(scene, false); // warm up
+        render(scene, false);
+        render(scene, true);
+    }
+}
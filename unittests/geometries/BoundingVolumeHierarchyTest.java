@@ -0,0 +1,156 @@
+package unittests.geometries;
+
+import geometries.BoundingBox;
+import geometries.BoundingVolumeHierarchy;
+import geometries.Intersectable;
+import geometries.Plane;
+import geometries.Sphere;
+import geometries.Triangle;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link geometries.BoundingVolumeHierarchy} class.
+ * Tests building, refitting and the rebuild fall back of the hierarchy.
+ *
+ * @author Raphael
+ */
+class BoundingVolumeHierarchyTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    BoundingVolumeHierarchyTest() {
+    }
+
+    /**
+     * Tolerance value for floating-point comparisons
+     */
+    private static final double DELTA = 0.000001;
+
+    /**
+     * Creates a row of unit spheres along the x axis
+     *
+     * @param count amount of spheres
+     * @return the spheres
+     */
+    private static List<Intersectable> spheres(int count) {
+        List<Intersectable> spheres = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i)
+            spheres.add(new Sphere(new Point(3 * i, 0, 0), 1));
+        return spheres;
+    }
+
+    /**
+     * Test method for {@link BoundingVolumeHierarchy#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Bounded items only - the union of the item boxes
+        BoundingBox box = new BoundingVolumeHierarchy(spheres(10)).getBoundingBox();
+        assertEquals(new BoundingBox(-1, -1, -1, 28, 1, 1), box, "Wrong bounds of the hierarchy");
+
+        // TC02: An infinite item makes the whole hierarchy unbounded
+        List<Intersectable> items = spheres(10);
+        items.add(new Plane(Point.ZERO, new Vector(0, 0, 1)));
+        assertFalse(new BoundingVolumeHierarchy(items).getBoundingBox().isBounded(),
+                "Hierarchy with a plane must be unbounded");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A single item
+        assertEquals(new BoundingBox(0, 0, 0, 1, 1, 0),
+                new BoundingVolumeHierarchy(new Triangle(Point.ZERO, new Point(1, 0, 0), new Point(0, 1, 0)))
+                        .getBoundingBox(),
+                "Wrong bounds of a single triangle");
+    }
+
+    /**
+     * Test method for {@link BoundingVolumeHierarchy#refit()}.
+     */
+    @Test
+    void testRefit() {
+        BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy(spheres(100)).setRebuildThreshold(1000);
+        double cost = bvh.cost();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A small move is refitted without rebuilding
+        bvh.set(50, new Sphere(new Point(150, 0, 0.5), 1));
+        assertFalse(bvh.refit(), "A small move should not rebuild the tree");
+        assertEquals(1.5, bvh.getBoundingBox().maxZ(), DELTA, "Refit did not grow the bounds");
+
+        // TC02: Moving the sphere back restores the original tree cost
+        bvh.set(50, new Sphere(new Point(150, 0, 0), 1));
+        assertFalse(bvh.refit(), "A small move should not rebuild the tree");
+        assertEquals(cost, bvh.cost(), DELTA, "Refit did not shrink the bounds");
+
+        // TC03: Reversing the order of all spheres degrades the tree and rebuilds it
+        bvh.setRebuildThreshold(1.5);
+        for (int i = 0; i < 100; ++i)
+            bvh.set(i, new Sphere(new Point(3 * (99 - i), 0, 0), 1));
+        assertFalse(bvh.refit(), "Same boxes in other leaves keep the cost");
+        for (int i = 0; i < 100; ++i)
+            bvh.set(i, new Sphere(new Point(3 * ((i * 37) % 100), 0, 0), 1));
+        assertTrue(bvh.refit(), "Scattering the spheres should rebuild the tree");
+        assertEquals(cost, bvh.cost(), DELTA, "Rebuilt tree should be as good as the original one");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Replacing a bounded item by an unbounded one forces a rebuild
+        bvh.set(0, new Plane(Point.ZERO, new Vector(0, 0, 1)));
+        assertTrue(bvh.refit(), "Changing boundedness must rebuild the tree");
+        assertFalse(bvh.getBoundingBox().isBounded(), "Hierarchy with a plane must be unbounded");
+    }
+
+    /**
+     * Test method for {@link BoundingVolumeHierarchy#withItems(java.util.Map)}.
+     */
+    @Test
+    void testWithItems() {
+        BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy(spheres(100));
+        double cost = bvh.cost();
+        Ray ray = new Ray(new Point(150, 0, 10), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The copy sees the moved sphere, the original is untouched
+        BoundingVolumeHierarchy moved = bvh.withItems(Map.of(50, new Sphere(new Point(150, 0, 0.5), 1)));
+        assertEquals(1.5, moved.getBoundingBox().maxZ(), DELTA, "The copy was not refitted");
+        assertEquals(1, bvh.getBoundingBox().maxZ(), DELTA, "The original was changed");
+        assertEquals(new Point(150, 0, 1.5), moved.findIntersections(ray).getFirst(), "Wrong point in the copy");
+        assertEquals(new Point(150, 0, 1), bvh.findIntersections(ray).getFirst(), "Wrong point in the original");
+
+        // TC02: Moving the sphere back restores the original tree cost
+        assertEquals(cost, moved.withItems(Map.of(50, new Sphere(new Point(150, 0, 0), 1))).cost(), DELTA,
+                "Refit did not shrink the bounds");
+
+        // TC03: Many small edits find the same points as a tree built from scratch
+        Random random = new Random(7);
+        List<Intersectable> spheres = spheres(100);
+        BoundingVolumeHierarchy edited = bvh;
+        for (int i = 0; i < 50; ++i) {
+            int index = random.nextInt(100);
+            Sphere sphere = new Sphere(new Point(3 * index, random.nextDouble() - 0.5, random.nextDouble() - 0.5), 1);
+            spheres.set(index, sphere);
+            edited = edited.withItems(Map.of(index, sphere));
+        }
+        BoundingVolumeHierarchy built = new BoundingVolumeHierarchy(spheres);
+        for (int i = 0; i < 300; ++i) {
+            Ray probe = new Ray(new Point(i, 0.5, 10), new Vector(0, 0.1, -1));
+            assertEquals(built.findIntersections(probe), edited.findIntersections(probe), "Wrong points of the edits");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Replacing a bounded item by an unbounded one rebuilds the copy only
+        BoundingVolumeHierarchy planar = bvh.withItems(Map.of(0, new Plane(Point.ZERO, new Vector(0, 0, 1))));
+        assertFalse(planar.getBoundingBox().isBounded(), "Hierarchy with a plane must be unbounded");
+        assertTrue(bvh.getBoundingBox().isBounded(), "The original was changed");
+    }
+}
@@ -0,0 +1,82 @@
+package unittests.geometries;
+
+import geometries.BoundingBox;
+import geometries.BoxCulled;
+import geometries.Intersectable;
+import geometries.Plane;
+import geometries.Sphere;
+import geometries.Tube;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link geometries.BoxCulled} class.
+ *
+ * @author Raphael
+ */
+class BoxCulledTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    BoxCulledTest() {
+    }
+
+    /**
+     * Test method for
+     * {@link geometries.BoxCulled#findGeoIntersections(primitives.Ray, double)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        int[] tests = {0};
+        Sphere sphere = new Sphere(new Point(0, 0, 5), 1);
+        Intersectable counted = new Intersectable() {
+            @Override
+            public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+                ++tests[0];
+                return sphere.findGeoIntersections(ray, maxDistance);
+            }
+
+            @Override
+            public BoundingBox getBoundingBox() {
+                return sphere.getBoundingBox();
+            }
+        };
+        BoxCulled culled = new BoxCulled(counted);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A ray through the sphere is tested and hits
+        List<Point> points = culled.findIntersections(new Ray(Point.ZERO, new Vector(0, 0, 1)));
+        assertEquals(List.of(new Point(0, 0, 4), new Point(0, 0, 6)), points, "Wrong intersections");
+        assertEquals(1, tests[0], "Ray into the box not tested");
+
+        // TC02: A ray missing the box is rejected without the test
+        assertNull(culled.findIntersections(new Ray(new Point(3, 0, 0), new Vector(0, 0, 1))), "Missing ray hits");
+        assertEquals(1, tests[0], "Ray missing the box tested");
+
+        // TC03: The box lies beyond the maximal distance
+        assertNull(culled.findGeoIntersections(new Ray(Point.ZERO, new Vector(0, 0, 1)), 3), "Too far hit found");
+        assertEquals(1, tests[0], "Ray ending before the box tested");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The ray starts inside the box
+        assertEquals(1, culled.findIntersections(new Ray(new Point(0, 0, 5), new Vector(0, 0, 1))).size(),
+                "Wrong intersections from inside");
+        assertEquals(2, tests[0], "Ray from inside the box not tested");
+
+        // TC12: Unbounded geometries cannot be culled
+        Plane plane = new Plane(Point.ZERO, new Vector(0, 0, 1));
+        Tube tube = new Tube(new Ray(Point.ZERO, new Vector(0, 0, 1)), 1);
+        assertFalse(plane.getBoundingBox().isBounded(), "Plane must be unbounded");
+        assertFalse(tube.getBoundingBox().isBounded(), "Tube must be unbounded");
+        assertThrows(IllegalArgumentException.class, () -> new BoxCulled(plane), "Culled an unbounded plane");
+        assertSame(plane, BoxCulled.of(plane), "Unbounded plane wrapped");
+        assertTrue(BoxCulled.of(sphere) instanceof BoxCulled, "Bounded sphere not wrapped");
+    }
+}
@@ -0,0 +1,135 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.ContentHash;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for {@link geometries.Csg} class.
+ *
+ * @author Raphael
+ */
+class CsgTest {
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    CsgTest() {
+    }
+
+    /**
+     * A ray along the X axis from far left
+     */
+    private final Ray alongX = new Ray(new Point(-10, 0, 0), new Vector(1, 0, 0));
+    /**
+     * A sphere of radius 2 at the origin
+     */
+    private final Sphere big = new Sphere(Point.ZERO, 2);
+    /**
+     * A sphere of radius 2 centered at (2, 0, 0)
+     */
+    private final Sphere shifted = new Sphere(new Point(2, 0, 0), 2);
+
+    /**
+     * Test method for {@link geometries.Csg#findGeoIntersections(primitives.Ray, double)}.
+     */
+    @Test
+    void testFindIntersections() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The union of overlapping spheres only has the outer points
+        assertEquals(List.of(new Point(-2, 0, 0), new Point(4, 0, 0)),
+                Csg.union(big, shifted).findIntersections(alongX), "Wrong union points");
+
+        // TC02: Their intersection is the lens between them
+        assertEquals(List.of(new Point(0, 0, 0), new Point(2, 0, 0)),
+                Csg.intersection(big, shifted).findIntersections(alongX), "Wrong intersection points");
+
+        // TC03: A shell: a sphere minus a smaller one inside it
+        Sphere small = new Sphere(Point.ZERO, 1);
+        assertEquals(List.of(new Point(-2, 0, 0), new Point(-1, 0, 0), new Point(1, 0, 0), new Point(2, 0, 0)),
+                Csg.difference(big, small).findIntersections(alongX), "Wrong shell points");
+
+        // TC04: The intersections lie on the right geometries
+        List<Intersectable.GeoPoint> shell = Csg.difference(big, small).findGeoIntersections(alongX);
+        assertSame(big, shell.get(0).geometry(), "The entry lies on the outer sphere");
+        assertSame(small, shell.get(1).geometry(), "The inner wall lies on the removed sphere");
+
+        // TC05: A hemisphere: a sphere cut by a half-space
+        Plane cut = new Plane(Point.ZERO, new Vector(1, 0, 0));
+        assertEquals(List.of(new Point(-2, 0, 0), new Point(0, 0, 0)),
+                Csg.intersection(big, cut).findIntersections(alongX), "Wrong hemisphere points");
+
+        // TC06: A cylinder with a hole bored by a thinner one, from inside the hole
+        Cylinder rod = new Cylinder(new Ray(new Point(0, 0, -1), new Vector(0, 0, 1)), 2, 2);
+        Cylinder hole = new Cylinder(new Ray(new Point(0, 0, -5), new Vector(0, 0, 1)), 1, 10);
+        assertEquals(List.of(new Point(1, 0, 0), new Point(2, 0, 0)),
+                Csg.difference(rod, hole).findIntersections(new Ray(Point.ZERO, new Vector(1, 0, 0))),
+                "Wrong bored cylinder points");
+
+        // TC07: A deep tree: a union of a row of spheres minus a slab
+        Intersectable row = new Sphere(new Point(0, 0, 0), 1);
+        for (int i = 1; i < 16; ++i) row = Csg.union(row, new Sphere(new Point(3 * i, 0, 0), 1));
+        Csg carved = Csg.difference(row, Csg.intersection(new Plane(new Point(9.5, 0, 0), new Vector(-1, 0, 0)),
+                new Plane(new Point(19.5, 0, 0), new Vector(1, 0, 0))));
+        List<Point> points = carved.findIntersections(alongX);
+        assertEquals(2 * 16 - 2 * 3, points.size(), "Wrong amount of points in the carved row");
+        assertEquals(new Point(9.5, 0, 0), points.get(7), "The slab must cut the fourth sphere");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Disjoint spheres have an empty intersection
+        assertNull(Csg.intersection(big, new Sphere(new Point(10, 0, 0), 1)).findIntersections(alongX),
+                "Disjoint spheres do not intersect");
+
+        // TC12: The ray misses the box of the node
+        assertNull(Csg.union(big, shifted).findIntersections(new Ray(new Point(-10, 5, 0), new Vector(1, 0, 0))),
+                "The ray misses the union");
+
+        // TC13: Removing everything
+        assertNull(Csg.difference(small, big).findIntersections(alongX), "Nothing remains");
+
+        // TC14: The intersections are limited by the distance
+        assertEquals(1, Csg.union(big, shifted).findGeoIntersections(alongX, 10).size(),
+                "Only the entry is within the distance");
+    }
+
+    /**
+     * Test method for {@link geometries.Csg#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The box of a union and of an intersection
+        assertEquals(new BoundingBox(-2, -2, -2, 4, 2, 2), Csg.union(big, shifted).getBoundingBox(),
+                "Wrong union box");
+        assertEquals(new BoundingBox(0, -2, -2, 2, 2, 2), Csg.intersection(big, shifted).getBoundingBox(),
+                "Wrong intersection box");
+
+        // TC02: A difference keeps the box of its first solid
+        assertEquals(big.getBoundingBox(), Csg.difference(big, shifted).getBoundingBox(), "Wrong difference box");
+    }
+
+    /**
+     * Test method for {@link geometries.Csg#hash(primitives.ContentHash)}.
+     */
+    @Test
+    void testHash() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Equal trees hash equally
+        assertEquals(ContentHash.of(Csg.union(big, shifted)),
+                ContentHash.of(Csg.union(new Sphere(Point.ZERO, 2), new Sphere(new Point(2, 0, 0), 2))),
+                "Equal trees must hash equally");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A solid without content hash
+        assertThrows(IllegalStateException.class,
+                () -> ContentHash.of(Csg.union(big, (ray, maxDistance) -> null)), "A lambda cannot be hashed");
+    }
+}
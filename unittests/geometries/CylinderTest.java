@@ -4,7 +4,9 @@ import org.junit.jupiter.api.Test;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -71,4 +73,63 @@ class CylinderTest {
         assertThrows(IllegalArgumentException.class,
                 () -> cylinder.getNormal(null), "TC15: Expected exception for null point");
     }
+
+    /**
+     * Test method for {@link Cylinder#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Oblique axis - the box of the two base discs
+        Cylinder oblique = new Cylinder(new Ray(new Point(1, 2, 3), new Vector(1, 1, 0)), 1, Math.sqrt(2));
+        BoundingBox box = oblique.getBoundingBox();
+        double e = Math.sqrt(0.5);
+        assertEquals(1 - e, box.minX(), 1e-9, "TC01: Wrong lower x bound");
+        assertEquals(2 + e, box.maxX(), 1e-9, "TC01: Wrong upper x bound");
+        assertEquals(2 - e, box.minY(), 1e-9, "TC01: Wrong lower y bound");
+        assertEquals(3 + e, box.maxY(), 1e-9, "TC01: Wrong upper y bound");
+        assertEquals(2, box.minZ(), 1e-9, "TC01: Wrong lower z bound");
+        assertEquals(4, box.maxZ(), 1e-9, "TC01: Wrong upper z bound");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Axis along z - the bases add no height
+        assertEquals(new BoundingBox(-1, -1, 0, 1, 1, 5), cylinder.getBoundingBox(),
+                "TC11: Wrong box of an axis-aligned cylinder");
+    }
+
+    /**
+     * Test method for {@link Cylinder#findIntersections(Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the side twice
+        assertEquals(List.of(new Point(-1, 0, 2), new Point(1, 0, 2)),
+                cylinder.findIntersections(new Ray(new Point(-2, 0, 2), new Vector(1, 0, 0))),
+                "Ray crosses the side");
+
+        // TC02: Ray along the axis crosses both bases
+        assertEquals(List.of(new Point(0, 0, 5), new Point(0, 0, 0)),
+                cylinder.findIntersections(new Ray(new Point(0, 0, 7), new Vector(0, 0, -1))),
+                "Ray crosses the bases");
+
+        // TC03: Ray enters through the top base and leaves through the side
+        assertEquals(List.of(new Point(0, 0, 5), new Point(1, 0, 4)),
+                cylinder.findIntersections(new Ray(new Point(-1, 0, 6), new Vector(1, 0, -1))),
+                "Ray crosses a base and the side");
+
+        // TC04: Ray crosses the tube beyond the top base
+        assertNull(cylinder.findIntersections(new Ray(new Point(-2, 0, 6), new Vector(1, 0, 0))),
+                "Ray above the cylinder");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray from inside the cylinder
+        assertEquals(List.of(new Point(0, 0, 5)),
+                cylinder.findIntersections(new Ray(new Point(0, 0, 1), new Vector(0, 0, 1))),
+                "Ray from inside");
+
+        // TC12: Ray parallel to the axis outside the cylinder
+        assertNull(cylinder.findIntersections(new Ray(new Point(2, 0, 0), new Vector(0, 0, 1))),
+                "Ray parallel outside");
+    }
 }
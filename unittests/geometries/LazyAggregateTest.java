@@ -0,0 +1,137 @@
+package unittests.geometries;
+
+import geometries.BoundingBox;
+import geometries.Intersectable;
+import geometries.LazyAggregate;
+import geometries.Plane;
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link geometries.LazyAggregate} class.
+ * Tests the on-demand construction and its thread safety.
+ *
+ * @author Raphael
+ */
+class LazyAggregateTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    LazyAggregateTest() {
+    }
+
+    /**
+     * Creates a cube of 10x10x10 unit spheres
+     *
+     * @return the spheres
+     */
+    private static List<Intersectable> spheres() {
+        List<Intersectable> spheres = new ArrayList<>(1000);
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j)
+                for (int k = 0; k < 10; ++k)
+                    spheres.add(new Sphere(new Point(3 * i, 3 * j, 3 * k), 1));
+        return spheres;
+    }
+
+    /**
+     * Creates random rays from outside the cube of spheres towards it
+     *
+     * @param count amount of rays
+     * @return the rays
+     */
+    private static List<Ray> rays(int count) {
+        Random random = new Random(7);
+        List<Ray> rays = new ArrayList<>(count);
+        for (int r = 0; r < count; ++r) {
+            Point target = new Point(random.nextDouble() * 27, random.nextDouble() * 27, random.nextDouble() * 27);
+            rays.add(new Ray(new Point(-10, 13.5, 13.5), target.subtract(new Point(-10, 13.5, 13.5))));
+        }
+        return rays;
+    }
+
+    /**
+     * Counts the intersections of a ray
+     *
+     * @param geometry the intersected geometry
+     * @param ray      the ray
+     * @return the amount of intersections
+     */
+    private static int count(Intersectable geometry, Ray ray) {
+        List<Point> points = geometry.findIntersections(ray);
+        return points == null ? 0 : points.size();
+    }
+
+    /**
+     * Test method for
+     * {@link geometries.LazyAggregate#findGeoIntersections(primitives.Ray, double)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        List<Intersectable> spheres = spheres();
+        List<Ray> rays = rays(200);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Nothing is built before the first ray
+        LazyAggregate lazy = new LazyAggregate(spheres);
+        assertEquals(0, lazy.getBuiltNodes(), "Nodes built before rendering");
+
+        // TC02: A ray missing the box builds nothing
+        assertNull(lazy.findIntersections(new Ray(new Point(0, 100, 0), new Vector(1, 0, 0))),
+                "Ray above the spheres hits");
+        assertEquals(0, lazy.getBuiltNodes(), "Nodes built for a missing ray");
+
+        // TC03: A single ray builds only the nodes along its path
+        assertEquals(20, count(lazy, new Ray(new Point(-10, 0, 0), new Vector(1, 0, 0))),
+                "Wrong intersections along a row of spheres");
+        int pathNodes = lazy.getBuiltNodes();
+        assertTrue(pathNodes > 0 && pathNodes < 100, "Wrong amount of nodes built for a ray: " + pathNodes);
+
+        // TC04: The same intersections as testing every sphere
+        Intersectable[] all = spheres.toArray(new Intersectable[0]);
+        for (Ray ray : rays) {
+            int expected = 0;
+            for (Intersectable sphere : all) expected += count(sphere, ray);
+            assertEquals(expected, count(lazy, ray), "Wrong amount of intersections");
+        }
+
+        // TC05: Concurrent rays build every node exactly once
+        LazyAggregate sequential = new LazyAggregate(spheres);
+        for (Ray ray : rays) count(sequential, ray);
+        for (int run = 0; run < 5; ++run) {
+            LazyAggregate concurrent = new LazyAggregate(spheres);
+            int[] counts = IntStream.range(0, 8 * rays.size()).parallel()
+                    .map(r -> count(concurrent, rays.get(r % rays.size()))).toArray();
+            for (int r = 0; r < counts.length; ++r)
+                assertEquals(count(sequential, rays.get(r % rays.size())), counts[r],
+                        "Wrong intersections during concurrent construction");
+            assertEquals(sequential.getBuiltNodes(), concurrent.getBuiltNodes(), "Nodes built more than once");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No items
+        LazyAggregate empty = new LazyAggregate();
+        assertNull(empty.findIntersections(rays.getFirst()), "Empty aggregate hits");
+        assertEquals(new BoundingBox(0, 0, 0, 0, 0, 0), empty.getBoundingBox(), "Wrong bounds of no items");
+
+        // TC12: An unbounded item is tested for every ray
+        LazyAggregate withPlane = new LazyAggregate(new Sphere(new Point(0, 0, 5), 1),
+                new Plane(new Point(0, 0, 10), new Vector(0, 0, 1)));
+        assertFalse(withPlane.getBoundingBox().isBounded(), "Aggregate with a plane must be unbounded");
+        assertEquals(1, count(withPlane, new Ray(new Point(5, 0, 0), new Vector(0, 0, 1))),
+                "Plane missed beside the sphere");
+        assertEquals(3, count(withPlane, new Ray(Point.ZERO, new Vector(0, 0, 1))),
+                "Wrong intersections through the sphere and the plane");
+    }
+}
@@ -0,0 +1,161 @@
+package unittests.geometries;
+
+import geometries.Intersectable.GeoPoint;
+import geometries.LodSelector;
+import geometries.Sphere;
+import geometries.TriangleMesh;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link geometries.LodSelector} class.
+ *
+ * @author Raphael
+ */
+class LodSelectorTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    LodSelectorTest() {
+    }
+
+    /**
+     * Creates a ray along the z axis from a distance of the unit sphere at the
+     * origin, spreading 0.01 per unit of distance
+     *
+     * @param distance the distance of the ray origin from the sphere
+     * @return the ray
+     */
+    private static Ray ray(double distance) {
+        Vector z = new Vector(0, 0, 1);
+        return new Ray(new Point(0, 0, -1 - distance), z,
+                Ray.Differentials.pinhole(z, new Vector(0.01, 0, 0), new Vector(0, 0.01, 0)));
+    }
+
+    /**
+     * Test method for {@link geometries.LodSelector#select(primitives.Ray)}.
+     */
+    @Test
+    void testSelect() {
+        LodSelector lod = new LodSelector(new Sphere(Point.ZERO, 1), 0.01)
+                .addLevel(new Sphere(Point.ZERO, 1), 0.1)
+                .addLevel(new Sphere(Point.ZERO, 1), 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Near - the finest level
+        assertEquals(0, lod.select(ray(0.5)), "Near ray not at the finest level");
+
+        // TC02: Medium distance - the middle level
+        assertEquals(1, lod.select(ray(20)), "Wrong level at a medium distance");
+
+        // TC03: Far - the coarsest level
+        assertEquals(2, lod.select(ray(500)), "Far ray not at the coarsest level");
+
+        // TC04: Without differentials - the finest level
+        assertEquals(0, lod.select(new Ray(new Point(0, 0, -500), new Vector(0, 0, 1))),
+                "Ray without differentials not at the finest level");
+
+        // TC05: The selected level is intersected
+        assertEquals(2, lod.findIntersections(ray(500)).size(), "Selected level not intersected");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Footprint exactly the feature size of a level
+        assertEquals(1, lod.select(ray(10)), "Level not selected at its feature size");
+
+        // TC12: Levels out of order
+        assertThrows(IllegalArgumentException.class, () -> lod.addLevel(new Sphere(Point.ZERO, 1), 0.5),
+                "Finer level accepted after a coarser one");
+    }
+
+    /**
+     * Test method for {@link geometries.LodSelector#pin(primitives.Point, double)}.
+     */
+    @Test
+    void testPin() {
+        LodSelector lod = new LodSelector(new Sphere(Point.ZERO, 1), 0.01)
+                .addLevel(new Sphere(Point.ZERO, 1), 0.1)
+                .addLevel(new Sphere(Point.ZERO, 1), 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A distant instance is pinned to a coarse level
+        assertEquals(1, lod.pin(new Point(0, 0, -21), 0.01), "Wrong pinned level");
+
+        // TC02: A pinned instance uses its level for every ray
+        assertEquals(1, lod.select(ray(0.5)), "Pinned level not used for a near ray");
+        assertEquals(1, lod.select(new Ray(new Point(0, 0, -500), new Vector(0, 0, 1))),
+                "Pinned level not used for a ray without differentials");
+
+        // TC03: Unpinned - the levels are selected by the rays again
+        assertEquals(0, lod.unpin().select(ray(0.5)), "Level not selected by the ray after unpinning");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Eye inside the box - the finest level
+        assertEquals(0, lod.pin(Point.ZERO, 0.01), "Eye inside the geometry not at the finest level");
+
+        // TC12: Non-positive pixel angle
+        assertThrows(IllegalArgumentException.class, () -> lod.pin(Point.ZERO, 0),
+                "Zero pixel angle accepted");
+    }
+
+    /**
+     * Test method for {@link geometries.LodSelector#of(geometries.TriangleMesh, int)}.
+     */
+    @Test
+    void testOf() {
+        TriangleMesh mesh = TriangleMeshTest.grid(32);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Every level has about a quarter of the triangles of the previous one
+        LodSelector lod = LodSelector.of(mesh, 3);
+        assertEquals(3, lod.size(), "Wrong amount of levels");
+        for (int l = 1; l < lod.size(); ++l) {
+            int previous = ((TriangleMesh) lod.getLevel(l - 1)).getTriangleCount();
+            int count = ((TriangleMesh) lod.getLevel(l)).getTriangleCount();
+            assertTrue(count <= previous / 4 + 2, "Level " + l + " not reduced enough: " + count);
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A single level - the mesh itself
+        assertSame(mesh, LodSelector.of(mesh, 1).getLevel(0), "Single level is not the mesh");
+    }
+
+    /**
+     * Test method for {@link geometries.LodSelector#translate(primitives.Vector)}.
+     */
+    @Test
+    void testTranslate() {
+        Sphere fine = new Sphere(Point.ZERO, 1);
+        LodSelector lod = new LodSelector(fine, 0.1).addLevel(new Sphere(Point.ZERO, 1), 1);
+        LodSelector instance = lod.translate(new Vector(10, 0, 0));
+        Ray ray = new Ray(new Point(10, 0, -5), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The instance is hit at its offset, with the normals of the level
+        List<GeoPoint> hits = instance.findGeoIntersections(ray);
+        assertNotNull(hits, "Instance not hit");
+        assertEquals(new Point(10, 0, -1), hits.getFirst().point(), "Wrong hit of the instance");
+        assertEquals(new Vector(0, 0, -1), hits.getFirst().geometry().getNormal(hits.getFirst().point()),
+                "Wrong normal of the instance");
+        assertEquals(9, instance.getBoundingBox().minX(), 1e-12, "Wrong box of the instance");
+        // TC02: The instance shares the levels, and is neither where the levels are
+        // nor pinned with the selector
+        assertSame(fine, instance.getLevel(0), "Level copied");
+        assertNull(instance.findGeoIntersections(new Ray(new Point(0, 0, -5), new Vector(0, 0, 1))),
+                "Instance hit at the selector place");
+        assertEquals(1, lod.pin(new Point(0, 0, -1000), 1), "Selector not pinned to the coarse level");
+        assertEquals(0, instance.select(ray), "Instance pinned with the selector");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: An instance of an instance adds the offsets
+        assertEquals(new Point(12, 0, -1), instance.translate(new Vector(2, 0, 0))
+                .findGeoIntersections(new Ray(new Point(12, 0, -5), new Vector(0, 0, 1))).getFirst().point(),
+                "Offsets not added");
+    }
+}
@@ -115,8 +115,7 @@ class PlaneTest {
         // TC01: A ray that starts outside the plane, is not parallel to the plane,
         // not orthogonal to the plane, and intersects the plane in 0 points.
         result = plane.findIntersections(new Ray(new Point(0, 1, 2), v0m11));
-        assertEquals(0, result.size(), "ERROR: Ray should NOT intersect the plane at all");
-        assertNull(result, "ERROR: Ray's line is NOT out of plane");
+        assertNull(result, "ERROR: Ray should NOT intersect the plane at all");
 
         // =============== Boundary Values Tests ==================
 
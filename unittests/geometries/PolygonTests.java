@@ -80,6 +80,31 @@ class PolygonTests {
 
     }
 
+    /**
+     * Test method for {@link geometries.Polygon#trusted(primitives.Point...)}.
+     */
+    @Test
+    void testTrusted() {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Trusted polygon is intersected as a validated one
+        Polygon polygon = Polygon.trusted(new Point(0, 0, 1), new Point(1, 0, 0), new Point(0, 1, 0),
+                new Point(-1, 1, 1));
+        assertEquals(List.of(new Point(0, 0.5, 0.5)),
+                polygon.findIntersections(new Ray(new Point(1, 1.5, 1.5), new Vector(-1, -1, -1))),
+                "Wrong intersection of a trusted polygon");
+
+        // TC02: Concave vertices are not checked
+        assertDoesNotThrow(() -> Polygon.trusted(new Point(0, 0, 1), new Point(1, 0, 0), new Point(0, 1, 0),
+                new Point(0.5, 0.25, 0.5)), "Trusted vertices validated");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC10: Less than 3 vertices
+        assertThrows(IllegalArgumentException.class, () -> Polygon.trusted(new Point(0, 0, 1), new Point(1, 0, 0)),
+                "Constructed a trusted polygon of 2 vertices");
+    }
+
     /**
      * Test method for {@link geometries.Polygon#getNormal(primitives.Point)}.
      */
@@ -0,0 +1,171 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link geometries.Quadric} class.
+ *
+ * @author Raphael
+ */
+class QuadricTest {
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    QuadricTest() {
+    }
+
+    /**
+     * Tolerance value for floating-point comparisons
+     */
+    private static final double DELTA = 1e-9;
+
+    /**
+     * The Z axis
+     */
+    private static final Ray Z_AXIS = new Ray(Point.ZERO, new Vector(0, 0, 1));
+
+    /**
+     * Test method for {@link geometries.Quadric#Quadric(double[][])}.
+     */
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The unit sphere and a tube are recognized, an ellipsoid and a cone are not
+        assertTrue(new Quadric(new double[][]{{1, 0, 0, 0}, {0, 1, 0, 0}, {0, 0, 1, 0}, {0, 0, 0, -1}})
+                .isSpecialized(), "The unit sphere must be recognized");
+        assertTrue(Quadric.tube(new Ray(new Point(1, 2, 3), new Vector(1, 1, 1)), 2).isSpecialized(),
+                "An oblique tube must be recognized");
+        assertFalse(Quadric.ellipsoid(Point.ZERO, 1, 1, 2).isSpecialized(), "An ellipsoid is general");
+        assertFalse(Quadric.cone(Z_AXIS, 1).isSpecialized(), "A cone is general");
+        assertFalse(Quadric.paraboloid(Z_AXIS, 1).isSpecialized(), "A paraboloid is general");
+
+        // TC02: A scaled matrix is the same sphere
+        assertTrue(new Quadric(new double[][]{{-2, 0, 0, 0}, {0, -2, 0, 0}, {0, 0, -2, 0}, {0, 0, 0, 8}})
+                .isSpecialized(), "A negated, scaled sphere must be recognized");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Not a symmetric 4x4 matrix
+        assertThrows(IllegalArgumentException.class, () -> new Quadric(new double[3][3]),
+                "A 3x3 matrix must be rejected");
+        assertThrows(IllegalArgumentException.class,
+                () -> new Quadric(new double[][]{{1, 1, 0, 0}, {0, 1, 0, 0}, {0, 0, 1, 0}, {0, 0, 0, -1}}),
+                "A non symmetric matrix must be rejected");
+
+        // TC12: No quadratic terms (a plane)
+        assertThrows(IllegalArgumentException.class,
+                () -> new Quadric(new double[][]{{0, 0, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 1}, {0, 0, 1, 0}}),
+                "A plane must be rejected");
+    }
+
+    /**
+     * Test method for {@link geometries.Quadric#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Vector down = new Vector(0, 0, -1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Through an ellipsoid along its long axis
+        Quadric ellipsoid = Quadric.ellipsoid(new Point(1, 1, 1), 1, 2, 3);
+        assertEquals(List.of(new Point(1, 1, 4), new Point(1, 1, -2)),
+                ellipsoid.findIntersections(new Ray(new Point(1, 1, 10), down)), "Wrong ellipsoid points");
+
+        // TC02: From inside the ellipsoid
+        assertEquals(List.of(new Point(1, 3, 1)),
+                ellipsoid.findIntersections(new Ray(new Point(1, 1, 1), new Vector(0, 1, 0))),
+                "Wrong ellipsoid point from inside");
+
+        // TC03: Missing the ellipsoid
+        assertNull(ellipsoid.findIntersections(new Ray(new Point(3, 1, 10), down)), "The ray misses");
+
+        // TC04: Across both nappes of a cone of slope 1
+        Quadric cone = Quadric.cone(Z_AXIS, 1);
+        assertEquals(List.of(new Point(-2, 0, 2), new Point(2, 0, 2)),
+                cone.findIntersections(new Ray(new Point(-5, 0, 2), new Vector(1, 0, 0))), "Wrong cone points");
+
+        // TC05: A paraboloid z = x² + y² hit from above on its axis
+        assertEquals(List.of(Point.ZERO),
+                Quadric.paraboloid(Z_AXIS, 1).findIntersections(new Ray(new Point(0, 0, 5), down)),
+                "Wrong paraboloid point");
+
+        // TC06: The waist of a hyperboloid
+        assertEquals(List.of(new Point(-1, 0, 0), new Point(1, 0, 0)),
+                Quadric.hyperboloid(Z_AXIS, 1, 1).findIntersections(new Ray(new Point(-5, 0, 0),
+                        new Vector(1, 0, 0))), "Wrong hyperboloid points");
+
+        // TC07: The specialized sphere and tube agree with Sphere and Tube
+        Random random = new Random(7);
+        Point center = new Point(1, -2, 3);
+        Ray axis = new Ray(center, new Vector(1, 2, -1));
+        Quadric sphereQuadric = Quadric.ellipsoid(center, 2, 2, 2);
+        Quadric tubeQuadric = Quadric.tube(axis, 2);
+        Sphere sphere = new Sphere(center, 2);
+        Tube tube = new Tube(axis, 2);
+        for (int i = 0; i < 100; ++i) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 10 - 5, random.nextDouble() * 10 - 5, 10),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+            assertEquals(sphere.findIntersections(ray), sphereQuadric.findIntersections(ray),
+                    "The quadric sphere must match the sphere");
+            assertEquals(tube.findIntersections(ray), tubeQuadric.findIntersections(ray),
+                    "The quadric tube must match the tube");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Tangent to the ellipsoid
+        assertNull(ellipsoid.findIntersections(new Ray(new Point(2, 1, 10), down)), "A tangent is no hit");
+
+        // TC12: Parallel to the axis of a paraboloid, a single (linear) intersection
+        assertEquals(List.of(new Point(1, 0, 1)),
+                Quadric.paraboloid(Z_AXIS, 1).findIntersections(new Ray(new Point(1, 0, 5), down)),
+                "Wrong paraboloid point of a ray parallel to the axis");
+    }
+
+    /**
+     * Test method for {@link geometries.Quadric#getNormal(primitives.Point)}.
+     */
+    @Test
+    void testGetNormal() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: On the side of an ellipsoid
+        assertEquals(new Vector(0, 1, 0), Quadric.ellipsoid(Point.ZERO, 1, 2, 3).getNormal(new Point(0, 2, 0)),
+                "Wrong ellipsoid normal");
+
+        // TC02: On a cone of slope 1
+        Vector normal = Quadric.cone(Z_AXIS, 1).getNormal(new Point(1, 0, 1));
+        assertEquals(0, normal.dotProduct(new Vector(1, 0, 1)), DELTA, "The normal must be across the cone");
+    }
+
+    /**
+     * Test method for {@link geometries.Quadric#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The box of an axis-aligned ellipsoid
+        BoundingBox box = Quadric.ellipsoid(new Point(1, 2, 3), 1, 2, 3).getBoundingBox();
+        assertEquals(0, box.minX(), DELTA, "Wrong min X");
+        assertEquals(4, box.maxY(), DELTA, "Wrong max Y");
+        assertEquals(6, box.maxZ(), DELTA, "Wrong max Z");
+
+        // TC02: A cone is unbounded
+        assertFalse(Quadric.cone(Z_AXIS, 1).getBoundingBox().isBounded(), "A cone must be unbounded");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The box of an ellipsoid given by a negated matrix
+        BoundingBox negated = new Quadric(new double[][]{
+                {-1, 0, 0, 0}, {0, -0.25, 0, 0}, {0, 0, -1, 0}, {0, 0, 0, 1}}).getBoundingBox();
+        assertEquals(-2, negated.minY(), DELTA, "Wrong min Y of a negated ellipsoid");
+    }
+}
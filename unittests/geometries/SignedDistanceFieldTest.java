@@ -0,0 +1,183 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.ContentHash;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link geometries.SignedDistanceField} class.
+ *
+ * @author Raphael
+ */
+class SignedDistanceFieldTest {
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    SignedDistanceFieldTest() {
+    }
+
+    /**
+     * Tolerance of the comparison of marched points with exact ones
+     */
+    private static final double DELTA = 1e-3;
+
+    /**
+     * A box around the unit ball
+     */
+    private static final BoundingBox BOX = new BoundingBox(-1.5, -1.5, -1.5, 1.5, 1.5, 1.5);
+
+    /**
+     * Asserts that marched points match exact ones
+     *
+     * @param expected the exact points (or null)
+     * @param actual   the marched points (or null)
+     * @param message  the failure message
+     */
+    private static void assertPoints(List<Point> expected, List<Point> actual, String message) {
+        if (expected == null) {
+            assertNull(actual, message);
+            return;
+        }
+        assertEquals(expected.size(), actual == null ? 0 : actual.size(), message);
+        for (int i = 0; i < expected.size(); ++i)
+            assertEquals(0, expected.get(i).distance(actual.get(i)), DELTA, message);
+    }
+
+    /**
+     * Test method for {@link geometries.SignedDistanceField#SignedDistanceField(DistanceFunction, BoundingBox)}.
+     */
+    @Test
+    void testConstructor() {
+        // =============== Boundary Values Tests ==================
+        // TC11: An unbounded box
+        assertThrows(IllegalArgumentException.class,
+                () -> new SignedDistanceField(DistanceFunction.ball(Point.ZERO, 1), BoundingBox.UNBOUNDED),
+                "An unbounded box must be rejected");
+    }
+
+    /**
+     * Test method for {@link geometries.SignedDistanceField#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Sphere sphere = new Sphere(Point.ZERO, 1);
+        SignedDistanceField ball = new SignedDistanceField(DistanceFunction.ball(Point.ZERO, 1), BOX);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Crossing the ball (2 points)
+        Ray across = new Ray(new Point(-3, 0.2, 0.1), new Vector(1, 0, 0));
+        assertPoints(sphere.findIntersections(across), ball.findIntersections(across), "Wrong crossing points");
+
+        // TC02: From inside the ball (1 point)
+        Ray inside = new Ray(new Point(0.1, 0.2, 0.3), new Vector(1, 2, 3));
+        assertPoints(sphere.findIntersections(inside), ball.findIntersections(inside), "Wrong point from inside");
+
+        // TC03: Missing the ball inside the box, and missing the box
+        assertNull(ball.findIntersections(new Ray(new Point(-3, 1.2, 0), new Vector(1, 0, 0))), "Ray misses ball");
+        assertNull(ball.findIntersections(new Ray(new Point(-3, 2, 0), new Vector(1, 0, 0))), "Ray misses box");
+
+        // TC04: Random rays, with and without over-relaxation and the cache
+        SignedDistanceField plain = new SignedDistanceField(DistanceFunction.ball(Point.ZERO, 1), BOX)
+                .setRelaxation(1);
+        SignedDistanceField cached = new SignedDistanceField(DistanceFunction.ball(Point.ZERO, 1), BOX)
+                .setCache(32);
+        Random random = new Random(3);
+        for (int i = 0; i < 200; ++i) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 2 - 1, random.nextDouble() * 2 - 1, 5),
+                    new Vector(random.nextDouble() * 0.2 - 0.1, random.nextDouble() * 0.2 - 0.1, -1));
+            List<Point> expected = sphere.findIntersections(ray);
+            assertPoints(expected, ball.findIntersections(ray), "Relaxed marching differs");
+            assertPoints(expected, plain.findIntersections(ray), "Plain marching differs");
+            assertPoints(expected, cached.findIntersections(ray), "Cached marching differs");
+        }
+
+        // TC05: A blend of two touching balls fills the seam between them
+        SignedDistanceField blend = new SignedDistanceField(DistanceFunction.ball(new Point(-1, 0, 0), 1)
+                .blend(DistanceFunction.ball(new Point(1, 0, 0), 1), 0.5), new BoundingBox(-3, -2, -2, 3, 2, 2));
+        List<Point> seam = blend.findIntersections(new Ray(new Point(0, 0, 5), new Vector(0, 0, -1)));
+        assertEquals(Math.sqrt(1.125 * 1.125 - 1), seam.getFirst().getZ(), DELTA, "Wrong height of the seam");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: From the surface outwards (0 points) and inwards (1 point)
+        assertNull(ball.findIntersections(new Ray(new Point(1, 0, 0), new Vector(1, 0.1, 0))),
+                "A ray leaving the surface must not hit it");
+        assertPoints(List.of(new Point(-1, 0, 0)),
+                ball.findIntersections(new Ray(new Point(1, 0, 0), new Vector(-1, 0, 0))),
+                "A ray entering the surface must hit its far side");
+
+        // TC12: The steps are bounded
+        SignedDistanceField limited = new SignedDistanceField(DistanceFunction.ball(Point.ZERO, 1), BOX)
+                .setMaxSteps(1).setRelaxation(1);
+        assertNull(limited.findIntersections(across), "One step cannot reach the ball");
+    }
+
+    /**
+     * Test method for {@link geometries.SignedDistanceField#getStepsPerRay()}.
+     */
+    @Test
+    void testGetStepsPerRay() {
+        DistanceFunction sponge = DistanceFunction.mengerSponge(Point.ZERO, 1, 3);
+        SignedDistanceField plain = new SignedDistanceField(sponge, BOX).setRelaxation(1);
+        SignedDistanceField relaxed = new SignedDistanceField(sponge, BOX);
+        Random random = new Random(5);
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 4 - 2, random.nextDouble() * 4 - 2, 5),
+                    new Vector(0.3, 0.2, -1));
+            plain.findIntersections(ray);
+            relaxed.findIntersections(ray);
+        }
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Over-relaxation needs fewer steps
+        assertTrue(relaxed.getStepsPerRay() < plain.getStepsPerRay(), "Over-relaxation must save steps");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No rays after a reset
+        relaxed.resetStatistics();
+        assertEquals(0, relaxed.getStepsPerRay(), 0, "No steps after a reset");
+    }
+
+    /**
+     * Test method for {@link geometries.SignedDistanceField#getNormal(primitives.Point)}.
+     */
+    @Test
+    void testGetNormal() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The normal of a ball points away from its center
+        Vector normal = new SignedDistanceField(DistanceFunction.ball(Point.ZERO, 1), BOX)
+                .getNormal(new Point(0, 0.6, 0.8));
+        assertEquals(1, normal.dotProduct(new Vector(0, 0.6, 0.8)), 1e-6, "Wrong ball normal");
+    }
+
+    /**
+     * Test method for {@link geometries.SignedDistanceField#hash(primitives.ContentHash)}.
+     */
+    @Test
+    void testHash() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Equal shapes hash equally, other shapes differently
+        DistanceFunction torus = DistanceFunction.torus(Point.ZERO, 1, 0.25);
+        assertEquals(ContentHash.of(new SignedDistanceField(torus, BOX)),
+                ContentHash.of(new SignedDistanceField(DistanceFunction.torus(Point.ZERO, 1, 0.25), BOX)),
+                "Equal shapes must hash equally");
+        assertNotEquals(ContentHash.of(new SignedDistanceField(torus, BOX)),
+                ContentHash.of(new SignedDistanceField(torus.subtract(DistanceFunction.ball(Point.ZERO, 0.5)),
+                        BOX)), "Different shapes must hash differently");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A lambda cannot be hashed
+        assertThrows(IllegalStateException.class,
+                () -> ContentHash.of(new SignedDistanceField((x, y, z) -> x, BOX)), "A lambda cannot be hashed");
+    }
+}
@@ -3,7 +3,10 @@ package geometries;
 import org.junit.jupiter.api.Test;
 import primitives.Point;
 import primitives.Vector;
+import primitives.Ray;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -95,5 +98,50 @@ class SphereTest {
                 "Should throw exception when point is at sphere's center");
     }
 
+    /**
+     * Test method for {@link geometries.Sphere#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Sphere sphere = new Sphere(new Point(1, 0, 0), 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray's line is outside the sphere (0 points)
+        assertNull(sphere.findIntersections(new Ray(new Point(-1, 0, 0), new Vector(1, 1, 0))),
+                "Ray's line out of sphere");
 
-}
\ No newline at end of file
+        // TC02: Ray starts before and crosses the sphere (2 points)
+        assertEquals(List.of(new Point(0, 0, 0), new Point(2, 0, 0)),
+                sphere.findIntersections(new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0))),
+                "Ray crosses sphere");
+
+        // TC03: Ray starts inside the sphere (1 point)
+        assertEquals(List.of(new Point(1, 1, 0)),
+                sphere.findIntersections(new Ray(new Point(1, 0.5, 0), new Vector(0, 1, 0))),
+                "Ray from inside sphere");
+
+        // TC04: Ray starts after the sphere (0 points)
+        assertNull(sphere.findIntersections(new Ray(new Point(3, 0, 0), new Vector(1, 0, 0))),
+                "Sphere behind Ray");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray starts at the center (1 point)
+        assertEquals(List.of(new Point(1, 0, 1)),
+                sphere.findIntersections(new Ray(new Point(1, 0, 0), new Vector(0, 0, 1))),
+                "Ray from the center");
+
+        // TC12: Ray starts on the sphere and goes outside (0 points)
+        assertNull(sphere.findIntersections(new Ray(new Point(2, 0, 0), new Vector(1, 0, 0))),
+                "Ray from the surface outwards");
+
+        // TC13: Ray's line is tangent to the sphere (0 points)
+        assertNull(sphere.findIntersections(new Ray(new Point(0, 1, 0), new Vector(1, 0, 0))),
+                "Tangent ray");
+
+        // TC14: A near point of a huge sphere, lost by the textbook quadratic formula
+        Sphere huge = new Sphere(new Point(0, 0, -1e7), 1e7 - 1);
+        assertEquals(new Point(0, 0, -1),
+                huge.findIntersections(new Ray(Point.ZERO, new Vector(0, 0, -1))).getFirst(),
+                "Wrong near point of a huge sphere");
+    }
+}
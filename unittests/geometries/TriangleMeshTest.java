@@ -0,0 +1,159 @@
+package unittests.geometries;
+
+import geometries.BoundingBox;
+import geometries.Intersectable.GeoPoint;
+import geometries.TriangleMesh;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link geometries.TriangleMesh} class.
+ *
+ * @author Raphael
+ */
+class TriangleMeshTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    TriangleMeshTest() {
+    }
+
+    /**
+     * Creates a gently waving square of n x n cells over [0,1]x[0,1], 2
+     * triangles per cell, facing +z
+     *
+     * @param n the amount of cells along a side
+     * @return the mesh
+     */
+    static TriangleMesh grid(int n) {
+        float[] positions = new float[3 * (n + 1) * (n + 1)];
+        for (int j = 0, p = 0; j <= n; ++j)
+            for (int i = 0; i <= n; ++i) {
+                positions[p++] = (float) i / n;
+                positions[p++] = (float) j / n;
+                positions[p++] = (float) (0.05 * Math.sin(Math.PI * i / n) * Math.sin(Math.PI * j / n));
+            }
+        int[] indices = new int[6 * n * n];
+        for (int j = 0, t = 0; j < n; ++j)
+            for (int i = 0; i < n; ++i) {
+                int v = j * (n + 1) + i;
+                indices[t++] = v;
+                indices[t++] = v + 1;
+                indices[t++] = v + n + 2;
+                indices[t++] = v;
+                indices[t++] = v + n + 2;
+                indices[t++] = v + n + 1;
+            }
+        return new TriangleMesh(positions, indices);
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findGeoIntersections(primitives.Ray, double)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        TriangleMesh mesh = grid(16);
+        Vector down = new Vector(0, 0, -1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray through the mesh - a single hit on its surface
+        List<GeoPoint> hits = mesh.findGeoIntersections(new Ray(new Point(0.3, 0.6, 1), down));
+        assertNotNull(hits, "Ray through the mesh missed it");
+        assertEquals(1, hits.size(), "Wrong amount of hits");
+        double z = 0.05 * Math.sin(Math.PI * 0.3) * Math.sin(Math.PI * 0.6);
+        assertEquals(z, hits.getFirst().point().getZ(), 0.002, "Hit not on the surface");
+        assertTrue(hits.getFirst().geometry().getNormal(hits.getFirst().point()).getZ() > 0.9,
+                "Wrong normal at the hit");
+
+        // TC02: Ray beside the mesh
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(1.5, 0.5, 1), down)), "Ray beside the mesh hit it");
+
+        // TC03: Mesh beyond the maximal distance
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(0.3, 0.6, 1), down), 0.5),
+                "Hit beyond the maximal distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray through a shared edge - hit (not lost between the triangles)
+        assertNotNull(mesh.findGeoIntersections(new Ray(new Point(0.25, 0.25, 1), down)),
+                "Ray through a shared edge missed the mesh");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#simplify(int)}.
+     */
+    @Test
+    void testSimplify() {
+        TriangleMesh mesh = grid(32);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Reduced to the target, keeping the outline and the surface
+        TriangleMesh simplified = mesh.simplify(200);
+        assertTrue(simplified.getTriangleCount() <= 200, "Mesh not reduced to the target");
+        assertTrue(simplified.getTriangleCount() > 150, "Mesh reduced far below the target");
+        BoundingBox before = mesh.getBoundingBox(), after = simplified.getBoundingBox();
+        assertEquals(before.minX(), after.minX(), 0.01, "Outline not kept");
+        assertEquals(before.maxX(), after.maxX(), 0.01, "Outline not kept");
+        assertEquals(before.minY(), after.minY(), 0.01, "Outline not kept");
+        assertEquals(before.maxY(), after.maxY(), 0.01, "Outline not kept");
+        List<GeoPoint> hits = simplified.findGeoIntersections(new Ray(new Point(0.5, 0.5, 1), new Vector(0, 0, -1)));
+        assertNotNull(hits, "Simplified mesh has a hole");
+        assertEquals(0.05, hits.getFirst().point().getZ(), 0.01, "Surface not kept");
+        assertTrue(simplified.getFeatureSize() > mesh.getFeatureSize(), "Features not coarser");
+
+        // TC02: A flat square reduces to its 2 triangles
+        TriangleMesh flat = new TriangleMesh(new float[]{0, 0, 0, 0.5f, 0, 0, 1, 0, 0, 0, 0.5f, 0, 0.5f, 0.5f, 0,
+                1, 0.5f, 0, 0, 1, 0, 0.5f, 1, 0, 1, 1, 0},
+                new int[]{0, 1, 4, 0, 4, 3, 1, 2, 5, 1, 5, 4, 3, 4, 7, 3, 7, 6, 4, 5, 8, 4, 8, 7});
+        TriangleMesh square = flat.simplify(2);
+        assertEquals(2, square.getTriangleCount(), "Flat square not reduced to 2 triangles");
+        assertEquals(4, square.getVertexCount(), "Corners of the square not kept");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Target not smaller than the mesh - the mesh itself
+        assertSame(mesh, mesh.simplify(mesh.getTriangleCount()), "Mesh copied needlessly");
+
+        // TC12: Non-positive target
+        assertThrows(IllegalArgumentException.class, () -> mesh.simplify(0), "Zero triangles accepted");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#translate(primitives.Vector)}.
+     */
+    @Test
+    void testTranslate() {
+        TriangleMesh mesh = grid(8);
+        TriangleMesh moved = mesh.translate(new Vector(10, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The copy is hit at the translated place
+        assertNull(moved.findGeoIntersections(new Ray(new Point(0.5, 0.5, 1), new Vector(0, 0, -1))),
+                "Translated mesh hit at the original place");
+        assertNotNull(moved.findGeoIntersections(new Ray(new Point(10.5, 0.5, 1), new Vector(0, 0, -1))),
+                "Translated mesh missed at its place");
+        assertEquals(10, moved.getBoundingBox().minX(), 1e-6, "Box not translated");
+        assertEquals(mesh.getTriangleCount(), moved.getTriangleCount(), "Triangles changed");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#TriangleMesh(float[], int[])}.
+     */
+    @Test
+    void testConstructor() {
+        // =============== Boundary Values Tests ==================
+        // TC11: No triangles
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(new float[]{0, 0, 0}, new int[0]),
+                "Mesh without triangles accepted");
+
+        // TC12: Vertex index out of range
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new float[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1, 3}),
+                "Index out of range accepted");
+    }
+}
@@ -4,7 +4,9 @@ import org.junit.jupiter.api.Test;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -66,4 +68,34 @@ class TubeTest {
                 () -> tube.getNormal(null),
                 "Should throw exception for null point input");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Tube#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the tube (2 points)
+        assertEquals(List.of(new Point(-1, 0, 3), new Point(1, 0, 3)),
+                tube.findIntersections(new Ray(new Point(-2, 0, 3), new Vector(1, 0, 0))),
+                "Ray crosses tube");
+
+        // TC02: Oblique ray from inside the tube (1 point)
+        assertEquals(List.of(new Point(0, 1, 1)),
+                tube.findIntersections(new Ray(Point.ZERO, new Vector(0, 1, 1))),
+                "Ray from inside tube");
+
+        // TC03: Ray misses the tube (0 points)
+        assertNull(tube.findIntersections(new Ray(new Point(-2, 2, 0), new Vector(1, 0, 0))),
+                "Ray misses tube");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray parallel to the axis (0 points)
+        assertNull(tube.findIntersections(new Ray(new Point(0.5, 0, 0), new Vector(0, 0, 1))),
+                "Ray parallel to the axis");
+
+        // TC12: Ray tangent to the tube (0 points)
+        assertNull(tube.findIntersections(new Ray(new Point(-2, 1, 0), new Vector(1, 0, 0))),
+                "Tangent ray");
+    }
+}
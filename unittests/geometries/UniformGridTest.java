@@ -0,0 +1,121 @@
+package unittests.geometries;
+
+import geometries.Intersectable;
+import geometries.Sphere;
+import geometries.UniformGrid;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link geometries.UniformGrid} class.
+ * Compares the grid traversal against testing every item.
+ *
+ * @author Raphael
+ */
+class UniformGridTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    UniformGridTest() {
+    }
+
+    /**
+     * A cloud of small spheres in the cube [0,100]^3
+     */
+    private final List<Intersectable> cloud = new ArrayList<>();
+
+    {
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; ++i)
+            cloud.add(new Sphere(new Point(random.nextDouble() * 100, random.nextDouble() * 100,
+                    random.nextDouble() * 100), 0.5 + random.nextDouble() * 2));
+    }
+
+    /**
+     * Finds the intersections by testing every item of the cloud
+     *
+     * @param ray the ray
+     * @return the intersections sorted by distance from the ray origin, empty list
+     * if there are none
+     */
+    private List<Point> bruteForce(Ray ray) {
+        List<Point> result = new ArrayList<>();
+        for (Intersectable item : cloud) {
+            List<Point> points = item.findIntersections(ray);
+            if (points != null) result.addAll(points);
+        }
+        result.sort(Comparator.comparingDouble(ray.origin()::distanceSquared));
+        return result;
+    }
+
+    /**
+     * Test method for {@link UniformGrid#UniformGrid(List)}.
+     */
+    @Test
+    void testResolution() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Cubic scene - same resolution along all axes, about 3 cells per item
+        int[] resolution = new UniformGrid(cloud).getResolution();
+        assertEquals(resolution[0], resolution[1], "Cubic scene should have cubic cells");
+        assertEquals(resolution[0], resolution[2], "Cubic scene should have cubic cells");
+        assertEquals(3000, resolution[0] * resolution[1] * resolution[2], 1000, "Wrong amount of cells");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A single item - a single cell
+        int[] single = new UniformGrid(new Sphere(Point.ZERO, 1)).getResolution();
+        assertTrue(single[0] * single[1] * single[2] <= 8, "Too many cells for a single item");
+    }
+
+    /**
+     * Test method for {@link UniformGrid#findIntersections(Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        UniformGrid grid = new UniformGrid(cloud);
+        Random random = new Random(3);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Rays from outside and from inside the grid find the same points as a
+        // brute force test, each point once
+        for (int i = 0; i < 500; ++i) {
+            Point origin = i % 2 == 0
+                    ? new Point(-50 + random.nextDouble() * 200, -50 + random.nextDouble() * 200, -20)
+                    : new Point(random.nextDouble() * 100, random.nextDouble() * 100, random.nextDouble() * 100);
+            Ray ray = new Ray(origin, new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5,
+                    random.nextDouble() - 0.2));
+            List<Point> expected = bruteForce(ray);
+            List<Point> points = grid.findIntersections(ray);
+            if (expected.isEmpty()) {
+                assertNull(points, "Ray should not hit anything");
+                continue;
+            }
+            assertNotNull(points, "Ray should hit some spheres");
+            List<Point> result = new ArrayList<>(points);
+            result.sort(Comparator.comparingDouble(origin::distanceSquared));
+            assertEquals(expected, result, "Grid and brute force results differ");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Axis-parallel ray along a row of spheres
+        List<Intersectable> row = new ArrayList<>();
+        for (int i = 0; i < 10; ++i)
+            row.add(new Sphere(new Point(3 * i, 0, 0), 1));
+        List<Point> result = new UniformGrid(row).findIntersections(new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0)));
+        assertNotNull(result, "Axis-parallel ray should hit the row");
+        assertEquals(20, result.size(), "Axis-parallel ray should cross every sphere twice");
+
+        // TC12: Ray pointing away from the grid
+        assertNull(grid.findIntersections(new Ray(new Point(-10, -10, -10), new Vector(-1, -1, -1))),
+                "Ray pointing away should not hit anything");
+    }
+}
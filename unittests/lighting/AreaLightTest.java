@@ -0,0 +1,84 @@
+package unittests.lighting;
+
+import lighting.DiscLight;
+import lighting.RectangleLight;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static primitives.Util.isZero;
+
+/**
+ * Unit tests for {@link lighting.AreaLight} class and its implementations.
+ *
+ * @author Raphael
+ */
+class AreaLightTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    AreaLightTest() {
+    }
+
+    /**
+     * Test method for {@link lighting.AreaLight#getSamplePoint(int, int, int, double, double)}
+     * of a rectangular light.
+     */
+    @Test
+    void testRectangleSamplePoint() {
+        RectangleLight light = new RectangleLight(new Color(1, 1, 1), new Point(0, 10, 0),
+                new Vector(1, 0, 0), new Vector(0, 0, 1), 4, 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Every sample lies inside its own cell of the rectangle
+        for (int i = 0; i < 4; ++i)
+            for (int j = 0; j < 4; ++j) {
+                Point p = light.getSamplePoint(4, i, j, 0.3, 0.7);
+                assertEquals(10, p.getY(), 1e-12, "Sample off the light plane");
+                assertEquals(-2 + i + 0.3, p.getX(), 1e-12, "Sample outside its column");
+                assertEquals(-1 + (j + 0.7) / 2, p.getZ(), 1e-12, "Sample outside its row");
+            }
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The corner of the last cell is the corner of the rectangle
+        assertEquals(new Point(2, 10, 1), light.getSamplePoint(4, 3, 3, 1, 1), "Wrong corner");
+        // TC11: Non-orthogonal axes
+        assertThrows(IllegalArgumentException.class, () -> new RectangleLight(new Color(1, 1, 1), Point.ZERO,
+                new Vector(1, 0, 0), new Vector(1, 1, 0), 1, 1), "Non-orthogonal axes accepted");
+    }
+
+    /**
+     * Test method for {@link lighting.AreaLight#getSamplePoint(int, int, int, double, double)}
+     * of a round light.
+     */
+    @Test
+    void testDiscSamplePoint() {
+        Point center = new Point(1, 2, 3);
+        Vector normal = new Vector(1, 1, 0);
+        DiscLight light = new DiscLight(new Color(1, 1, 1), center, normal, 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Every sample lies on the disc, and the samples of distinct cells
+        // are distinct
+        Point[] samples = new Point[16];
+        for (int i = 0; i < 4; ++i)
+            for (int j = 0; j < 4; ++j) {
+                Point p = light.getSamplePoint(4, i, j, 0.5, 0.5);
+                assertTrue(isZero(p.subtract(center).dotProduct(normal)), "Sample off the light plane");
+                assertTrue(p.distance(center) <= 2 + 1e-12, "Sample outside the disc");
+                samples[4 * i + j] = p;
+            }
+        for (int a = 0; a < 16; ++a)
+            for (int b = a + 1; b < 16; ++b)
+                assertNotEquals(samples[a], samples[b], "Cells mapped to the same point");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The center of the square is the center of the disc
+        assertEquals(center, light.getSamplePoint(2, 1, 1, 0, 0), "Wrong center");
+        // TC11: The middle of a side of the square is on the rim
+        assertEquals(2, light.getSamplePoint(1, 0, 0, 1, 0.5).distance(center), 1e-12, "Wrong rim");
+    }
+}
@@ -0,0 +1,183 @@
+package unittests.primitives;
+
+import geometries.Cylinder;
+import geometries.Geometry;
+import geometries.Intersectable.GeoPoint;
+import geometries.Plane;
+import geometries.Sphere;
+import geometries.Triangle;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Allocation budgets of the math primitives and of the intersections: the
+ * bytes every operation allocates, measured by the thread allocation counter,
+ * must not exceed the objects the operation is meant to create. A change
+ * adding an allocation per operation fails the budget; the JIT removing an
+ * allocation (escape analysis) only lowers the measurement.
+ * <p>
+ * The budgets are expressed in the sizes of the created objects, measured
+ * the same way, so they hold for any object layout of the JVM.
+ *
+ * @author Raphael
+ */
+class AllocationTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    AllocationTest() {
+    }
+
+    /**
+     * Amount of operations per measurement
+     */
+    private static final int OPERATIONS = 100_000;
+    /**
+     * Amount of measurements - the lowest one counts, after the JIT has
+     * compiled the measured code
+     */
+    private static final int ROUNDS = 10;
+
+    /**
+     * The allocation counter of the threads
+     */
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Keeps the results alive, so they are really allocated
+     */
+    private static Object sink;
+    /**
+     * Keeps the scalar results alive
+     */
+    private static double scalarSink;
+
+    /**
+     * Preallocated points for the reference allocations
+     */
+    private static final Point[] POINTS = new Point[OPERATIONS];
+    /**
+     * Preallocated intersections for the reference allocations
+     */
+    private static final GeoPoint[] HITS = new GeoPoint[OPERATIONS];
+
+    static {
+        for (int i = 0; i < OPERATIONS; ++i) {
+            POINTS[i] = new Point(i, 1, 2);
+            HITS[i] = new GeoPoint(null, POINTS[i]);
+        }
+    }
+
+    /**
+     * Bytes of a point with its coordinates
+     */
+    private static final double POINT = measure(i -> sink = new Point(i, 1, 2));
+    /**
+     * Bytes of an intersection without its point
+     */
+    private static final double GEO_POINT = measure(i -> sink = new GeoPoint(null, POINTS[i]));
+    /**
+     * Bytes of a list of a single intersection
+     */
+    private static final double LIST1 = measure(i -> sink = List.of(HITS[i]));
+    /**
+     * Bytes of a list of two intersections
+     */
+    private static final double LIST2 = measure(i -> sink = List.of(HITS[i], HITS[OPERATIONS - 1 - i]));
+
+    /**
+     * Measures the bytes an operation allocates
+     *
+     * @param operation the operation, given the index of its repetition
+     * @return the lowest average amount of bytes per operation in all rounds
+     */
+    private static double measure(IntConsumer operation) {
+        long thread = Thread.currentThread().threadId();
+        double best = Double.POSITIVE_INFINITY;
+        for (int round = 0; round < ROUNDS; ++round) {
+            long before = THREADS.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < OPERATIONS; ++i) operation.accept(i);
+            best = Math.min(best, (double) (THREADS.getThreadAllocatedBytes(thread) - before) / OPERATIONS);
+        }
+        return best;
+    }
+
+    /**
+     * Asserts that an operation allocates within a budget
+     *
+     * @param budget    the budget in bytes per operation
+     * @param operation the operation
+     * @param name      the name of the operation
+     */
+    private static void assertBudget(double budget, IntConsumer operation, String name) {
+        double bytes = measure(operation);
+        // less than the smallest object above the budget
+        assertTrue(bytes < budget + 8, name + " allocates " + bytes + " bytes, the budget is " + budget);
+    }
+
+    /**
+     * Test method for the allocations of {@link primitives.Point} and
+     * {@link primitives.Vector} operations.
+     */
+    @Test
+    void testPrimitives() {
+        assertTrue(THREADS.isThreadAllocatedMemorySupported(), "No allocation counter in this JVM");
+        Point p = new Point(1, 2, 3);
+        Vector v = new Vector(1, 2, 3);
+        Vector w = new Vector(-3, 1, 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The operations creating a point or a vector allocate just it
+        assertBudget(POINT, i -> sink = p.add(v), "Point.add");
+        assertBudget(POINT, i -> sink = p.subtract(w), "Point.subtract");
+        assertBudget(POINT, i -> sink = v.add(w), "Vector.add");
+        assertBudget(POINT, i -> sink = v.scale(2), "Vector.scale");
+        assertBudget(POINT, i -> sink = v.crossProduct(w), "Vector.crossProduct");
+        assertBudget(POINT, i -> sink = v.normalize(), "Vector.normalize");
+
+        // TC02: The scalar operations allocate nothing
+        assertBudget(0, i -> scalarSink += v.dotProduct(w), "Vector.dotProduct");
+        assertBudget(0, i -> scalarSink += v.length(), "Vector.length");
+        assertBudget(0, i -> scalarSink += p.distance(POINTS[i]), "Point.distance");
+    }
+
+    /**
+     * Test method for the allocations of
+     * {@link geometries.Intersectable#findGeoIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testIntersections() {
+        Ray ray = new Ray(Point.ZERO, new Vector(0, 0.01, -1));
+        Ray miss = new Ray(Point.ZERO, new Vector(0, 1, 0));
+        Geometry sphere = new Sphere(new Point(0, 0, -5), 1);
+        Geometry plane = new Plane(new Point(0, 0, -5), new Vector(0, 0, 1));
+        Geometry triangle = new Triangle(new Point(-1, -1, -5), new Point(1, -1, -5), new Point(0, 1, -5));
+        Geometry cylinder = new Cylinder(new Ray(new Point(0, 0, -6), new Vector(0, 0, 1)), 1, 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A hit allocates its points and its list
+        assertBudget(2 * POINT + 2 * GEO_POINT + LIST2, i -> sink = sphere.findGeoIntersections(ray), "Sphere");
+        assertBudget(POINT + GEO_POINT + LIST1, i -> sink = plane.findGeoIntersections(ray), "Plane");
+        // the intersection with the plane of the triangle is wrapped again
+        assertBudget(POINT + 2 * (GEO_POINT + LIST1), i -> sink = triangle.findGeoIntersections(ray), "Triangle");
+        // through both bases
+        assertBudget(2 * POINT + 2 * GEO_POINT + LIST2, i -> sink = cylinder.findGeoIntersections(ray), "Cylinder");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A miss allocates nothing
+        assertBudget(0, i -> sink = sphere.findGeoIntersections(miss), "Sphere miss");
+        assertBudget(0, i -> sink = plane.findGeoIntersections(miss), "Plane miss");
+        // crossing the tube beyond the bases
+        assertBudget(0, i -> sink = cylinder.findGeoIntersections(miss), "Cylinder miss");
+    }
+}
@@ -0,0 +1,76 @@
+package unittests.primitives;
+
+import org.junit.jupiter.api.Test;
+import primitives.Beam;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link primitives.Beam} class.
+ *
+ * @author Raphael
+ */
+class BeamTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    BeamTest() {
+    }
+
+    /**
+     * The axis of the tested beam
+     */
+    private final Ray axis = new Ray(new Point(1, 2, 3), new Vector(1, 1, 1));
+
+    /**
+     * Test method for {@link primitives.Beam#getRay(double, double)}.
+     */
+    @Test
+    void testGetRay() {
+        Beam beam = new Beam(axis, 0.5);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A ray through an inner point of the disc - from the axis origin,
+        // inside the cone
+        Ray ray = beam.getRay(0.3, 0.8);
+        assertEquals(axis.origin(), ray.origin(), "Wrong origin");
+        double cos = ray.direction().dotProduct(axis.direction());
+        assertTrue(cos < 1 && cos >= 1 / Math.sqrt(1.25), "Ray outside the cone");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The center of the square is the axis
+        assertEquals(axis.direction(), beam.getRay(0.5, 0.5).direction(), "Center is not the axis");
+        // TC11: A corner of the square is on the rim of the cone
+        assertEquals(1 / Math.sqrt(1.25), beam.getRay(1, 1).direction().dotProduct(axis.direction()), 1e-12,
+                "Corner is not on the rim");
+        // TC12: Non-positive radius
+        assertThrows(IllegalArgumentException.class, () -> new Beam(axis, 0), "Zero radius accepted");
+    }
+
+    /**
+     * Test method for {@link primitives.Beam#generateRays(int)}.
+     */
+    @Test
+    void testGenerateRays() {
+        Beam beam = new Beam(axis, 0.5);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: grid x grid distinct rays inside the cone
+        List<Ray> rays = beam.generateRays(4);
+        assertEquals(16, rays.size(), "Wrong amount of rays");
+        for (Ray ray : rays)
+            assertTrue(ray.direction().dotProduct(axis.direction()) >= 1 / Math.sqrt(1.25) - 1e-12,
+                    "Ray outside the cone");
+        assertEquals(16, rays.stream().map(Ray::direction).distinct().count(), "Repeated rays");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A single cell
+        assertEquals(1, beam.generateRays(1).size(), "Wrong amount of rays for a single cell");
+        // TC11: No cells
+        assertThrows(IllegalArgumentException.class, () -> beam.generateRays(0), "Empty grid accepted");
+    }
+}
@@ -0,0 +1,65 @@
+package unittests.primitives;
+
+import geometries.Polygon;
+import geometries.Sphere;
+import geometries.Triangle;
+import org.junit.jupiter.api.Test;
+import primitives.ContentHash;
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link primitives.ContentHash} class.
+ *
+ * @author Raphael
+ */
+class ContentHashTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    ContentHashTest() {
+    }
+
+    /**
+     * Test method for {@link ContentHash#of(primitives.ContentHashable)}.
+     */
+    @Test
+    void testOf() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Equal content gives equal hashes
+        assertEquals(ContentHash.of(new Point(1, 2, 3)), ContentHash.of(new Point(1, 2, 3)),
+                "Equal points must have equal hashes");
+        assertEquals(ContentHash.of(new Sphere(new Point(1, 2, 3), 4)), ContentHash.of(new Sphere(new Point(1, 2, 3), 4)),
+                "Equal spheres must have equal hashes");
+
+        // TC02: Permuted and shifted components give different hashes
+        long h123 = ContentHash.of(new Point(1, 2, 3));
+        assertNotEquals(h123, ContentHash.of(new Point(3, 2, 1)), "Permuted point has the same hash");
+        assertNotEquals(h123, ContentHash.of(new Point(6, 0, 0)), "Point with the same sum has the same hash");
+
+        // TC03: Same numbers in different types give different hashes
+        assertNotEquals(h123, ContentHash.of(new Vector(1, 2, 3)), "Vector has the hash of a point");
+        assertNotEquals(h123, ContentHash.of(new Double3(1, 2, 3)), "Triad has the hash of a point");
+        Point p1 = new Point(0, 0, 1), p2 = new Point(1, 0, 0), p3 = new Point(0, 1, 0);
+        assertNotEquals(ContentHash.of(new Triangle(p1, p2, p3)), ContentHash.of(new Polygon(p1, p2, p3)),
+                "Triangle has the hash of a polygon");
+
+        // TC04: The ray hash depends on its origin and direction
+        Ray ray = new Ray(Point.ZERO, new Vector(1, 0, 0));
+        assertNotEquals(ContentHash.of(ray), ContentHash.of(new Ray(Point.ZERO, new Vector(0, 1, 0))),
+                "Rays with different directions have the same hash");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Negative zero is the same number as zero
+        assertEquals(ContentHash.of(new Point(0, 0, 0)), ContentHash.of(new Point(-0.0, 0, -0.0)),
+                "Negative zero changed the hash");
+        // TC12: The smallest difference changes the hash
+        assertNotEquals(h123, ContentHash.of(new Point(1, 2, Math.nextUp(3.0))),
+                "Tiny change of a coordinate did not change the hash");
+    }
+}
@@ -0,0 +1,76 @@
+package unittests.primitives;
+
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.MipmapTexture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link primitives.MipmapTexture} class.
+ *
+ * @author Raphael
+ */
+class MipmapTextureTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    MipmapTextureTest() {
+    }
+
+    /**
+     * Tolerance value for floating-point comparisons
+     */
+    private static final double DELTA = 0.000001;
+
+    /**
+     * Creates a black and white checkerboard with single texel squares
+     *
+     * @param size the amount of texels along each axis
+     * @return the texture
+     */
+    private static MipmapTexture checkerboard(int size) {
+        float[] rgb = new float[3 * size * size];
+        for (int y = 0; y < size; ++y)
+            for (int x = 0; x < size; ++x)
+                if ((x + y) % 2 == 0)
+                    for (int c = 0; c < 3; ++c) rgb[3 * (y * size + x) + c] = 1;
+        return new MipmapTexture(size, size, rgb);
+    }
+
+    /**
+     * Test method for {@link primitives.MipmapTexture#sample(double, double, double)}.
+     */
+    @Test
+    void testSample() {
+        MipmapTexture texture = checkerboard(16);
+        assertEquals(5, texture.getLevels(), "Wrong amount of levels");
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Tiny footprint - the texel itself
+        assertEquals(new Double3(1), texture.sample(0.5 / 16, 0.5 / 16, 0), "Wrong white texel");
+        assertEquals(Double3.ZERO, texture.sample(1.5 / 16, 0.5 / 16, 0), "Wrong black texel");
+
+        // TC02: Footprint of several texels - the average gray of the checkerboard
+        assertEquals(new Double3(0.5), texture.sample(0.3, 0.7, 0.25), "Footprint not filtered");
+
+        // TC03: The texture repeats beyond [0,1)
+        assertEquals(texture.sample(0.5 / 16, 0.5 / 16, 0), texture.sample(2 + 0.5 / 16, -1 + 0.5 / 16, 0),
+                "Texture does not repeat");
+
+        // TC04: Footprint between two levels - trilinear interpolation
+        MipmapTexture gradient = new MipmapTexture(2, 1, new float[]{1, 1, 1, 0, 0, 0});
+        assertEquals(0.75, gradient.sample(0.25, 0.5, Math.sqrt(2) / 2).d1(), DELTA,
+                "Wrong interpolation between levels");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Footprint of the whole texture and beyond - the last level
+        assertEquals(texture.getLevels() - 1, texture.level(1), DELTA, "Wrong level of the whole texture");
+        assertEquals(texture.getLevels() - 1, texture.level(100), DELTA, "Level beyond the last one");
+
+        // TC12: Size not matching the texels
+        assertThrows(IllegalArgumentException.class, () -> new MipmapTexture(2, 2, new float[3]),
+                "Texels not matching the size accepted");
+    }
+}
@@ -4,6 +4,9 @@ import org.junit.jupiter.api.Test;
 import primitives.Point;
 import primitives.Vector;
 
+import java.util.HashSet;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -106,4 +109,38 @@ class PointTest {
                 DELTA,
                 "Distance to itself should be zero");
     }
+
+    /**
+     * Test method for {@link Point#hashCode()}.
+     * Checks that equal points can be found in hash based collections and that
+     * the hash is not a function of the sum of the coordinates.
+     */
+    @Test
+    void testHashCode() {
+        // TC14: Points equal within the tolerance have equal hashes
+        assertEquals(new Point(1, 2, 3).hashCode(), new Point(1, 2, 3 + 1e-13).hashCode(),
+                "Equal points must have equal hashes");
+        assertTrue(new HashSet<>(List.of(new Point(1, 2, 3))).contains(new Point(1 + 1e-13, 2, 3)),
+                "Equal point was not found in a hash set");
+
+        // TC15: Equal points computed just beside zero and the integers (where
+        // rounding errors put them) have equal hashes
+        Point[][] pairs = {
+                {new Point(1, 0, 0), new Point(0.9999999999999996, 0, 0)},
+                {new Point(1, 0, 0), new Point(Math.nextUp(1.0), 0, 0)},
+                {new Point(0, 0, 0), new Point(0, -1e-17, 0)},
+                {new Point(-0.0, 0, 0), new Point(0, 0, 1e-17)},
+                {new Point(-3, 7, 0), new Point(-3.0000000000000004, 6.999999999999999, -1e-15)},
+                {new Point(0.1 + 0.2, 0, 0), new Point(0.3, 0, 0)}};
+        for (Point[] pair : pairs) {
+            assertEquals(pair[0], pair[1], "Points should be equal: " + pair[0] + " " + pair[1]);
+            assertEquals(pair[0].hashCode(), pair[1].hashCode(), "Equal points must have equal hashes: " + pair[1]);
+            assertTrue(new HashSet<>(List.of(pair[0])).contains(pair[1]), "Equal point was not found: " + pair[1]);
+        }
+
+        // TC16: Permuted coordinates and coordinates with the same sum have different hashes
+        int h123 = new Point(1, 2, 3).hashCode();
+        assertNotEquals(h123, new Point(3, 2, 1).hashCode(), "Permuted point has the same hash");
+        assertNotEquals(h123, new Point(6, 0, 0).hashCode(), "Point with the same sum has the same hash");
+    }
 }
\ No newline at end of file
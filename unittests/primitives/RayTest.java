@@ -0,0 +1,134 @@
+package unittests.primitives;
+
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link primitives.Ray} class - the propagation of its
+ * differentials.
+ *
+ * @author Raphael
+ */
+class RayTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    RayTest() {
+    }
+
+    /**
+     * Tolerance value for floating-point comparisons
+     */
+    private static final double DELTA = 0.000001;
+
+    /**
+     * Direction along the z axis
+     */
+    private static final Vector Z = new Vector(0, 0, 1);
+
+    /**
+     * Differentials of a pinhole ray along the z axis spreading 0.01 along x
+     * and y per unit of distance
+     */
+    private static final Ray.Differentials PINHOLE =
+            Ray.Differentials.pinhole(Z, new Vector(0.01, 0, 0), new Vector(0, 0.01, 0));
+
+    /**
+     * Test method for {@link primitives.Ray.Differentials#pinhole(Vector, Vector, Vector)}
+     * and {@link primitives.Ray.Differentials#footprint(double)}.
+     */
+    @Test
+    void testPinhole() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Spread perpendicular to the ray
+        assertEquals(new Double3(0.01, 0, 0), PINHOLE.dDdx(), "Wrong direction differential");
+        assertEquals(Double3.ZERO, PINHOLE.dOdx(), "Pinhole origin must not spread");
+        assertEquals(0.1, PINHOLE.footprint(10), DELTA, "Wrong footprint");
+
+        // TC02: Oblique ray - only the part of the change perpendicular to the ray remains
+        Ray.Differentials oblique = Ray.Differentials.pinhole(new Vector(1, 0, 1),
+                new Vector(0.01, 0, 0), new Vector(0, 0.01, 0));
+        assertEquals(0, oblique.dDdx().d1() + oblique.dDdx().d3(), DELTA, "Differential along the ray");
+        assertEquals(0.005 / Math.sqrt(2), oblique.dDdx().d1(), DELTA, "Wrong oblique differential");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No distance - no footprint
+        assertEquals(0, PINHOLE.footprint(0), DELTA, "Footprint at the pinhole");
+    }
+
+    /**
+     * Test method for {@link primitives.Ray.Differentials#transfer(Vector, Vector, double)}.
+     */
+    @Test
+    void testTransfer() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Surface facing the ray - the spread at the distance
+        Ray.Differentials hit = PINHOLE.transfer(Z, new Vector(0, 0, -1), 10);
+        assertEquals(new Double3(0.1, 0, 0), hit.dOdx(), "Wrong point differential");
+        assertEquals(PINHOLE.dDdx(), hit.dDdx(), "Direction differential changed");
+
+        // TC02: Inclined surface - the footprint stretches along the inclination
+        hit = PINHOLE.transfer(Z, new Vector(1, 0, -1), 10);
+        assertEquals(new Double3(0.1, 0, 0.1), hit.dOdx(), "Wrong point differential on an inclined surface");
+        assertEquals(new Double3(0, 0.1, 0), hit.dOdy(), "Wrong point differential along the surface axis");
+    }
+
+    /**
+     * Test method for
+     * {@link primitives.Ray.Differentials#reflect(Vector, Vector, Double3, Double3)}.
+     */
+    @Test
+    void testReflect() {
+        Vector n = new Vector(0, 0, -1);
+        Ray.Differentials hit = PINHOLE.transfer(Z, n, 10);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A flat mirror keeps the spread of the directions
+        Ray.Differentials reflected = hit.reflect(Z, n, Double3.ZERO, Double3.ZERO);
+        assertEquals(new Double3(0.01, 0, 0), reflected.dDdx(), "Wrong reflection by a flat mirror");
+        assertEquals(0.2, reflected.footprint(10), DELTA, "Wrong footprint after a flat mirror");
+
+        // TC02: A convex mirror (a unit sphere) spreads the rays much more
+        reflected = hit.reflect(Z, n, new Double3(0.1, 0, 0), new Double3(0, 0.1, 0));
+        assertEquals(new Double3(0.21, 0, 0), reflected.dDdx(), "Wrong reflection by a convex mirror");
+    }
+
+    /**
+     * Test method for
+     * {@link primitives.Ray.Differentials#refract(Vector, Vector, Double3, Double3, double, Vector)}.
+     */
+    @Test
+    void testRefract() {
+        Vector n = new Vector(0, 0, -1);
+        Ray.Differentials hit = PINHOLE.transfer(Z, n, 10);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Entering a denser flat medium narrows the spread
+        Ray.Differentials refracted = hit.refract(Z, n, Double3.ZERO, Double3.ZERO, 1 / 1.5, Z);
+        assertEquals(new Double3(0.01 / 1.5, 0, 0), refracted.dDdx(), "Wrong refraction into a denser medium");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Same indices - the differentials pass unchanged
+        refracted = hit.refract(Z, n, Double3.ZERO, Double3.ZERO, 1, Z);
+        assertEquals(PINHOLE.dDdx(), refracted.dDdx(), "Differentials changed without refraction");
+        assertEquals(hit.dOdx(), refracted.dOdx(), "Origin differentials changed");
+    }
+
+    /**
+     * Test method for {@link primitives.Ray#Ray(Point, Vector, Vector, Ray.Differentials)}.
+     */
+    @Test
+    void testSecondaryRay() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A secondary ray keeps its differentials, a plain ray has none
+        assertSame(PINHOLE, new Ray(Point.ZERO, Z, new Vector(0, 0, 1), PINHOLE).differentials(),
+                "Differentials lost");
+        assertNull(new Ray(Point.ZERO, Z).differentials(), "Plain ray with differentials");
+    }
+}
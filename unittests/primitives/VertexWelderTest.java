@@ -0,0 +1,71 @@
+package unittests.primitives;
+
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Point;
+import primitives.VertexWelder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link primitives.VertexWelder} class.
+ *
+ * @author Raphael
+ */
+class VertexWelderTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    VertexWelderTest() {
+    }
+
+    /**
+     * Test method for {@link VertexWelder#weld(Point)}.
+     */
+    @Test
+    void testWeld() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Shared vertices of a triangle grid are merged
+        VertexWelder welder = new VertexWelder();
+        int n = 100;
+        for (int i = 0; i < n; ++i)
+            for (int j = 0; j < n; ++j) {
+                // every quad as two triangles - each corner repeated up to 6 times
+                Point[] quad = {new Point(i, j, 0), new Point(i + 1, j, 0),
+                        new Point(i + 1, j + 1, 0), new Point(i, j + 1, 0)};
+                for (int k : new int[]{0, 1, 2, 0, 2, 3})
+                    welder.weld(quad[k]);
+            }
+        assertEquals((n + 1) * (n + 1), welder.size(), "Wrong amount of distinct vertices");
+
+        // TC02: The index of an existing vertex is returned
+        assertEquals(welder.weld(new Point(50, 50, 0)), welder.weld(new Point(50, 50, 0)),
+                "Same point welded to different vertices");
+        assertEquals(new Point(50, 50, 0), welder.get(welder.weld(new Point(50, 50, 0))), "Wrong vertex");
+
+        // TC03: Points farther than the tolerance are not merged
+        VertexWelder coarse = new VertexWelder(0.01);
+        int a = coarse.weld(new Point(1, 1, 1));
+        assertEquals(a, coarse.weld(new Point(1.005, 1, 0.995)), "Close points were not merged");
+        assertNotEquals(a, coarse.weld(new Point(1.02, 1, 1)), "Distant points were merged");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Equal points on the two sides of a hash cell boundary are merged
+        double boundary = Double3.HASH_CELL * 1000.5;
+        VertexWelder fine = new VertexWelder();
+        assertEquals(fine.weld(new Point(boundary - 1e-14, 0, 0)), fine.weld(new Point(boundary + 1e-14, 0, 0)),
+                "Points across a cell boundary were not merged");
+        // TC12: Large coordinates, beyond the cell indices of the tolerance, are
+        // merged when equal and kept apart otherwise
+        assertEquals(fine.weld(new Point(1e7, 0, 0)), fine.weld(new Point(1e7, 0, 0)),
+                "Equal large points were not merged");
+        assertEquals(fine.weld(new Point(-1e300, 5e6, 1e7)), fine.weld(new Point(-1e300, 5e6, 1e7)),
+                "Equal huge points were not merged");
+        int size = fine.size();
+        fine.weld(new Point(Math.nextUp(1e7), 0, 0));
+        assertEquals(size + 1, fine.size(), "Distinct large points were merged");
+        // TC13: Zero tolerance is rejected
+        assertThrows(IllegalArgumentException.class, () -> new VertexWelder(0), "Zero tolerance accepted");
+    }
+}
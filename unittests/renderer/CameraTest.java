@@ -0,0 +1,175 @@
+package unittests.renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import renderer.Camera;
+import renderer.FrameReport;
+import renderer.RayTracerBase;
+import scene.Scene;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.Camera} class.
+ *
+ * @author Raphael
+ */
+class CameraTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    CameraTest() {
+    }
+
+    /**
+     * Image resolution (pixels along each axis)
+     */
+    private static final int RESOLUTION = 256;
+
+    /**
+     * Ray tracer seeing the same color everywhere, spending a fixed time per
+     * ray
+     */
+    private static final class UniformTracer extends RayTracerBase {
+        /**
+         * Time a ray takes in nanoseconds
+         */
+        private final long nanos;
+
+        /**
+         * Constructs the tracer
+         *
+         * @param nanos time a ray takes in nanoseconds
+         */
+        UniformTracer(long nanos) {
+            super(new Scene("uniform"));
+            this.nanos = nanos;
+        }
+
+        @Override
+        public Color traceRay(Ray ray) {
+            long end = System.nanoTime() + nanos;
+            while (System.nanoTime() < end) Thread.onSpinWait();
+            return new Color(51, 102, 204);
+        }
+    }
+
+    /**
+     * Builds a camera with a tracer
+     *
+     * @param tracer the tracer
+     * @return the camera
+     */
+    private static Camera camera(RayTracerBase tracer) {
+        return Camera.getBuilder()
+                .setLocation(Point.ZERO).setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVpSize(2, 2).setVpDistance(1).setResolution(RESOLUTION, RESOLUTION)
+                .setRayTracer(tracer).build();
+    }
+
+    /**
+     * Renders a frame within a budget, checking every pixel is written with
+     * the uniform color
+     *
+     * @param tracer the tracer
+     * @param budget the time budget
+     * @return the report of the frame
+     */
+    private static FrameReport render(RayTracerBase tracer, Duration budget) {
+        float[] image = new float[3 * RESOLUTION * RESOLUTION];
+        Arrays.fill(image, -1);
+        FrameReport report = camera(tracer).renderImage((x, y, width, height, rgb) -> {
+            for (int i = 0; i < height; ++i)
+                System.arraycopy(rgb, 3 * i * width, image, 3 * ((y + i) * RESOLUTION + x), 3 * width);
+        }, budget);
+        for (int p = 0; p < image.length; p += 3) {
+            assertEquals(0.2f, image[p], 1e-5, "Wrong red of pixel " + p / 3);
+            assertEquals(0.4f, image[p + 1], 1e-5, "Wrong green of pixel " + p / 3);
+            assertEquals(0.8f, image[p + 2], 1e-5, "Wrong blue of pixel " + p / 3);
+        }
+        return report;
+    }
+
+    /**
+     * Test method for
+     * {@link renderer.Camera#renderImage(renderer.TileWriter, java.time.Duration)}.
+     */
+    @Test
+    void testRenderImageBudget() {
+        int tiles = (RESOLUTION / Camera.TILE_SIZE) * (RESOLUTION / Camera.TILE_SIZE);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A generous budget - every tile at the highest quality, but the
+        // first tiles, which probe the cost at the cheapest level (a sample
+        // every 8 pixels in both axes) - a warm-up tile and a measured one per
+        // worker at most - and a tile or two of a noisy measurement
+        int workers = Runtime.getRuntime().availableProcessors();
+        FrameReport report = render(new UniformTracer(0), Duration.ofMinutes(1));
+        int[] levels = report.tilesPerLevel();
+        int probes = levels[levels.length - 1];
+        assertTrue(probes >= 2 && probes <= 2 * workers, "Wrong amount of probe tiles: " + report);
+        assertTrue(levels[0] >= tiles - probes - 2, "Tiles degraded within a generous budget: " + report);
+        assertEquals(tiles, Arrays.stream(levels).sum(), "Wrong amount of tiles");
+        long bestSamples = 4L * Camera.TILE_SIZE * Camera.TILE_SIZE * levels[0];
+        assertTrue(report.primaryRays() > bestSamples && report.primaryRays() < 4L * RESOLUTION * RESOLUTION,
+                "Wrong amount of samples: " + report.primaryRays());
+
+        // TC02: A tight budget - the quality is lowered to meet it
+        long fullNanos = 4L * RESOLUTION * RESOLUTION * 20_000 / workers;
+        report = render(new UniformTracer(20_000), Duration.ofNanos(fullNanos / 10));
+        assertEquals(tiles, Arrays.stream(report.tilesPerLevel()).sum(), "Wrong amount of tiles");
+        assertTrue(report.tilesPerLevel()[0] < tiles, "Quality not lowered within a tight budget");
+        assertTrue(report.achievedNanos() < fullNanos / 2, "Frame took too long: " + report);
+    }
+
+    /**
+     * Builds a camera of a 16k image - run in a separate JVM with a small heap
+     */
+    static final class LargeCamera {
+        /**
+         * Explicit empty default constructor to satisfy Javadoc generator
+         */
+        private LargeCamera() {
+        }
+
+        /**
+         * Builds the camera
+         *
+         * @param args unused
+         */
+        public static void main(String[] args) {
+            Camera camera = Camera.getBuilder()
+                    .setLocation(Point.ZERO).setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                    .setVpSize(2, 2).setVpDistance(1).setResolution(16384, 16384)
+                    .setRayTracer(new UniformTracer(0)).build();
+            System.exit(camera.getNx() == 16384 ? 0 : 1);
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.Camera.Builder#build()}.
+     *
+     * @throws IOException          if the JVM cannot be started
+     * @throws InterruptedException if interrupted while waiting for the JVM
+     */
+    @Test
+    void testBuildLarge() throws IOException, InterruptedException {
+        // =============== Boundary Values Tests ==================
+        // TC10: A camera of a 16k image (1 GB of pixels) is built in a 64 MB
+        // heap - the frame is only allocated if it is rendered into memory
+        Process process = new ProcessBuilder(ProcessHandle.current().info().command().orElse("java"),
+                "-Xmx64m", "-cp", System.getProperty("java.class.path"), LargeCamera.class.getName())
+                .inheritIO().start();
+        assertTrue(process.waitFor(60, TimeUnit.SECONDS), "Camera not built in time");
+        assertEquals(0, process.exitValue(), "Camera not built in a small heap");
+    }
+}
@@ -0,0 +1,105 @@
+package unittests.renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+import renderer.IrradianceCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.IrradianceCache} class.
+ *
+ * @author Raphael
+ */
+class IrradianceCacheTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    IrradianceCacheTest() {
+    }
+
+    /**
+     * Normal of the floor
+     */
+    private final Vector up = new Vector(0, 0, 1);
+
+    /**
+     * Test method for {@link renderer.IrradianceCache#lookup(primitives.Point, primitives.Vector)}.
+     */
+    @Test
+    void testLookup() {
+        IrradianceCache cache = new IrradianceCache(Point.ZERO, 100, 0.2);
+        cache.insert(new Point(0, 0, 0), up, new Color(10, 20, 30), 10);
+        cache.insert(new Point(1, 0, 0), up, new Color(30, 20, 10), 10);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Halfway between two samples - their average
+        assertEquals(new Color(20, 20, 20), cache.lookup(new Point(0.5, 0, 0), up), "Wrong interpolation");
+        // TC02: Closer to a sample - closer to its irradiance
+        assertTrue(cache.lookup(new Point(0.2, 0, 0), up).getRed() < 20, "Far sample weighs more");
+        // TC03: Beyond the validity of the samples (accuracy * radius)
+        assertNull(cache.lookup(new Point(4, 0, 0), up), "Sample used too far away");
+        // TC04: A normal deviating too much
+        assertNull(cache.lookup(new Point(0.5, 0, 0), new Vector(0, 1, 1).normalize()), "Sample used for a tilted surface");
+        // TC05: A point behind the tangent planes of the samples
+        assertNull(cache.lookup(new Point(0.5, 0, -0.5), up), "Sample used for a point it cannot see");
+        assertEquals(2, cache.getHits(), "Wrong amount of hits");
+        assertEquals(3, cache.getMisses(), "Wrong amount of misses");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Exactly at a sample - the sample
+        assertEquals(new Color(10, 20, 30), cache.lookup(Point.ZERO, up), "Wrong irradiance at a sample");
+        // TC11: A sample near a node boundary is found from the other side
+        cache.insert(new Point(-0.01, 50, 0), up, new Color(5, 5, 5), 10);
+        assertEquals(new Color(5, 5, 5), cache.lookup(new Point(0.01, 50, 0), up), "Sample lost across a node");
+        // TC12: Outside the cube of the cache nothing is stored
+        cache.insert(new Point(200, 0, 0), up, new Color(5, 5, 5), 10);
+        assertNull(cache.lookup(new Point(200, 0, 0), up), "Sample stored outside the cache");
+        assertEquals(3, cache.size(), "Wrong amount of samples");
+        // TC13: The spacing limits bound the validity of a sample
+        cache.setSpacing(1, 2).insert(new Point(0, -50, 0), up, Color.BLACK, 1e6);
+        assertNull(cache.lookup(new Point(0, -49, 0), up), "Sample radius not limited");
+        // TC14: Wrong parameters
+        assertThrows(IllegalArgumentException.class, () -> new IrradianceCache(Point.ZERO, 0, 0.2),
+                "An empty cube must be rejected");
+        assertThrows(IllegalArgumentException.class, () -> new IrradianceCache(Point.ZERO, 1, 0),
+                "A zero accuracy must be rejected");
+        assertThrows(IllegalArgumentException.class, () -> cache.setSpacing(2, 1),
+                "Unordered limits must be rejected");
+    }
+
+    /**
+     * Test method for {@link renderer.IrradianceCache#insert(primitives.Point, primitives.Vector, primitives.Color, double)}.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void testInsert() throws InterruptedException {
+        IrradianceCache cache = new IrradianceCache(Point.ZERO, 100, 0.2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Threads inserting at once lose no sample
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; ++t) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 2000; ++i)
+                    cache.insert(new Point(i % 40 - 20 + 0.1 * thread, i / 40 - 25, 0), up,
+                            new Color(thread, 0, 0), 0.5);
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+        assertEquals(8000, cache.size(), "Wrong amount of samples");
+        for (int t = 0; t < 4; ++t)
+            for (int i = 0; i < 2000; i += 97)
+                assertEquals(t, cache.lookup(new Point(i % 40 - 20 + 0.1 * t, i / 40 - 25, 0), up).getRed(),
+                        1e-6, "Sample lost in a concurrent insertion");
+    }
+}
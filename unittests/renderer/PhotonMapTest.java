@@ -0,0 +1,155 @@
+package unittests.renderer;
+
+import geometries.Geometries;
+import geometries.Plane;
+import lighting.DirectionalLight;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Vector;
+import renderer.PhotonMap;
+import scene.Scene;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.PhotonMap} class.
+ *
+ * @author Raphael
+ */
+class PhotonMapTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    PhotonMapTest() {
+    }
+
+    /**
+     * Creates a map of photons on the floor z = 0, falling down, every one of
+     * power 1, on a grid of a given spacing
+     *
+     * @param side    amount of photons along each axis
+     * @param spacing distance between neighbouring photons
+     * @return the map
+     */
+    private static PhotonMap floor(int side, double spacing) {
+        int n = side * side;
+        double[] positions = new double[3 * n];
+        float[] directions = new float[3 * n];
+        float[] powers = new float[3 * n];
+        for (int i = 0; i < n; ++i) {
+            positions[3 * i] = (i % side - side / 2) * spacing;
+            positions[3 * i + 1] = (i / side - side / 2) * spacing;
+            directions[3 * i + 2] = -1;
+            Arrays.fill(powers, 3 * i, 3 * i + 3, 1);
+        }
+        return new PhotonMap(positions, directions, powers);
+    }
+
+    /**
+     * Test method for {@link renderer.PhotonMap#nearest(primitives.Point, int, double)}.
+     */
+    @Test
+    void testNearest() {
+        Random random = new Random(7);
+        int n = 20_000;
+        double[] positions = new double[3 * n];
+        for (int i = 0; i < positions.length; ++i) positions[i] = random.nextDouble() * 100;
+        PhotonMap map = new PhotonMap(positions, new float[3 * n], new float[3 * n]);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The nearest photons are those of a full search, nearest first
+        for (int q = 0; q < 50; ++q) {
+            Point query = new Point(random.nextDouble() * 100, random.nextDouble() * 100, random.nextDouble() * 100);
+            double[] expected = IntStream.range(0, n)
+                    .mapToObj(i -> new Point(positions[3 * i], positions[3 * i + 1], positions[3 * i + 2]))
+                    .mapToDouble(query::distance).sorted().limit(10).toArray();
+            int[] nearest = map.nearest(query, 10, 1000);
+            assertArrayEquals(expected, Arrays.stream(nearest).mapToDouble(i -> map.getPosition(i).distance(query))
+                    .toArray(), 1e-12, "Wrong nearest photons");
+        }
+
+        // TC02: The distance limit leaves out the photons beyond it
+        Point query = new Point(50, 50, 50);
+        int[] near = map.nearest(query, 1000, 5);
+        assertTrue(near.length > 0 && near.length < 1000, "Wrong amount of photons within the limit");
+        assertTrue(map.getPosition(near[near.length - 1]).distance(query) < 5, "Photon beyond the limit");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: More photons asked for than there are
+        assertEquals(n, map.nearest(query, n + 1, 1000).length, "Wrong amount of photons");
+        // TC11: An empty map
+        assertEquals(0, new PhotonMap(new double[0], new float[0], new float[0]).nearest(query, 5, 10).length,
+                "Photons in an empty map");
+        // TC12: Wrong arguments
+        assertThrows(IllegalArgumentException.class, () -> map.nearest(query, 0, 1), "No photons asked for");
+        assertThrows(IllegalArgumentException.class, () -> new PhotonMap(new double[4], new float[4], new float[4]),
+                "Arrays of partial photons must be rejected");
+    }
+
+    /**
+     * Test method for {@link renderer.PhotonMap#estimate(primitives.Point, primitives.Vector, int, double)}.
+     */
+    @Test
+    void testEstimate() {
+        // 100 photons per unit of area
+        PhotonMap map = floor(200, 0.1);
+        Vector up = new Vector(0, 0, 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The density of the photons on the lit side
+        assertEquals(100, map.estimate(new Point(0.03, 0.02, 0), up, 100, 1).getRed(), 10, "Wrong density");
+        // TC02: Photons arriving from the other side are not counted
+        assertEquals(Color.BLACK, map.estimate(Point.ZERO, new Vector(0, 0, -1), 100, 1), "Back photons counted");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Fewer photons than asked for (3 beyond the corner of the floor)
+        // - spread over the disc of the limit
+        assertEquals(3 / (Math.PI * 0.25 * 0.25), map.estimate(new Point(10, 10, 0), up, 100, 0.25).getRed(), 1e-4,
+                "Wrong density at the edge");
+        // TC11: No photons around
+        assertEquals(Color.BLACK, map.estimate(new Point(50, 50, 0), up, 100, 1), "Photons far away counted");
+    }
+
+    /**
+     * Test method for {@link renderer.PhotonMap#emitCaustics(scene.Scene, int)}.
+     */
+    @Test
+    void testEmitCaustics() {
+        // a light above a floor, next to a vertical mirror
+        Scene scene = new Scene("mirror");
+        scene.setGeometries(new Geometries(
+                new Plane(Point.ZERO, new Vector(0, 1, 0)).setMaterial(new Material().setKd(1)),
+                new Plane(new Point(5, 0, 0), new Vector(-1, 0, 0)).setMaterial(new Material().setKr(1))));
+        scene.lights.add(new PointLight(new Color(100, 100, 100), new Point(0, 5, 0)));
+        scene.lights.add(new DirectionalLight(new Color(100, 100, 100), new Vector(0, -1, 0)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The mirrored light on the floor - the light of the mirror image
+        // (10, 5, 0) of the light falling at the cosine of its angle
+        PhotonMap map = PhotonMap.emitCaustics(scene, 1_000_000);
+        assertTrue(map.size() > 0, "No caustic photons");
+        Point floor = new Point(2, 0, 0);
+        double expected = 100 * 5 / new Point(10, 5, 0).distance(floor);
+        assertEquals(expected, map.estimate(floor, new Vector(0, 1, 0), 1000, 1).getRed(), 0.15 * expected,
+                "Wrong mirrored light");
+        // TC02: No photons reach the floor beyond the mirror
+        for (int i = 0; i < map.size(); i += 97)
+            assertTrue(map.getPosition(i).getX() < 5, "Photon behind the mirror");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The mirror hidden behind a diffuse wall - no caustics
+        scene.setGeometries(new Geometries(scene.geometries, new Plane(new Point(4, 0, 0), new Vector(-1, 0, 0))
+                .setMaterial(new Material().setKd(1))));
+        assertEquals(0, PhotonMap.emitCaustics(scene, 10_000).size(), "Caustic photons without mirrors");
+        // TC11: No photons emitted
+        assertThrows(IllegalArgumentException.class, () -> PhotonMap.emitCaustics(scene, 0), "No photons accepted");
+    }
+}
@@ -0,0 +1,258 @@
+package unittests.renderer;
+
+import geometries.Geometries;
+import geometries.Intersectable;
+import geometries.Sphere;
+import lighting.AmbientLight;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+import renderer.Camera;
+import renderer.RenderServer;
+import renderer.RenderService;
+import renderer.RenderService.Job;
+import renderer.RenderService.JobSpec;
+import renderer.RenderService.State;
+import renderer.SimpleRayTracer;
+import scene.Scene;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.RenderService} and {@link renderer.RenderServer} classes.
+ *
+ * @author Raphael
+ */
+class RenderServiceTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    RenderServiceTest() {
+    }
+
+    /**
+     * Directory for the images
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Creates a simple scene
+     *
+     * @return the scene
+     */
+    private static Scene spheres() {
+        Scene scene = new Scene("spheres").setAmbientLight(new AmbientLight(new Color(50, 50, 50)));
+        scene.setGeometries(new Geometries(new Sphere(new Point(0, 0, -50), 30).setEmission(new Color(100, 0, 0))));
+        return scene;
+    }
+
+    /**
+     * Creates a scene whose intersections block until a latch opens
+     *
+     * @param open    the latch
+     * @param started called on the first intersection
+     * @return the scene
+     */
+    private static Scene blocking(CountDownLatch open, Runnable started) {
+        Intersectable blocker = (ray, maxDistance) -> {
+            started.run();
+            try {
+                open.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        };
+        return new Scene("blocking").setGeometries(blocker);
+    }
+
+    /**
+     * Describes a job of a small image
+     *
+     * @param name     the job name
+     * @param priority the job priority
+     * @param scene    the scene
+     * @param output   the image file
+     * @return the job description
+     */
+    private static JobSpec job(String name, int priority, Scene scene, Path output) {
+        return new JobSpec(name, priority, () -> scene, s -> Camera.getBuilder()
+                .setLocation(new Point(0, 0, 100)).setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVpSize(100, 100).setVpDistance(100).setResolution(8, 8)
+                .setRayTracer(new SimpleRayTracer(s)).build(), output);
+    }
+
+    /**
+     * Waits for a condition
+     *
+     * @param condition the condition
+     * @param message   the failure message
+     */
+    private static void await(BooleanSupplier condition, String message) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, message);
+            Thread.onSpinWait();
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Test method for submitting jobs through {@link renderer.RenderServer}.
+     *
+     * @throws Exception if the server cannot be used
+     */
+    @Test
+    void testServer() throws Exception {
+        try (RenderService service = new RenderService(1, 1);
+             RenderServer server = new RenderServer(service, directory, new InetSocketAddress("127.0.0.1", 0))
+                     .register("spheres", RenderServiceTest::spheres)) {
+            HttpClient client = HttpClient.newHttpClient();
+            URI jobs = URI.create("http://127.0.0.1:" + server.getPort() + "/jobs");
+            String description = """
+                    scene=spheres
+                    location=0,0,100
+                    target=0,0,0
+                    viewPlane=100,100,100
+                    resolution=16,12
+                    output=thumb.png
+                    """;
+
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: A job is rendered and its progress reported
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(jobs)
+                    .POST(HttpRequest.BodyPublishers.ofString(description)).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(201, response.statusCode(), "Job not created");
+            assertTrue(response.body().startsWith("id="), "No job id");
+            URI job = URI.create(jobs + "/" + response.body().strip().substring(3));
+            await(() -> {
+                try {
+                    return client.send(HttpRequest.newBuilder(job).GET().build(), HttpResponse.BodyHandlers.ofString())
+                            .body().equals("state=DONE\nprogress=1.0\n");
+                } catch (IOException | InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, "Job not done");
+            BufferedImage image = ImageIO.read(directory.resolve("thumb.png").toFile());
+            assertEquals(16, image.getWidth(), "Wrong image width");
+            assertEquals(12, image.getHeight(), "Wrong image height");
+
+            // =============== Boundary Values Tests ==================
+            // TC10: Unknown job
+            assertEquals(404, client.send(HttpRequest.newBuilder(URI.create(jobs + "/999")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString()).statusCode(), "Unknown job found");
+            // TC11: Unknown scene
+            assertEquals(400, client.send(HttpRequest.newBuilder(jobs).POST(HttpRequest.BodyPublishers
+                            .ofString(description.replace("spheres", "cubes"))).build(),
+                    HttpResponse.BodyHandlers.ofString()).statusCode(), "Unknown scene accepted");
+            // TC12: Output outside the output directory
+            assertEquals(400, client.send(HttpRequest.newBuilder(jobs).POST(HttpRequest.BodyPublishers
+                            .ofString(description.replace("thumb.png", "../thumb.png"))).build(),
+                    HttpResponse.BodyHandlers.ofString()).statusCode(), "Escaping output accepted");
+        }
+    }
+
+    /**
+     * Test method for the priorities of {@link renderer.RenderService#submit(JobSpec)}.
+     *
+     * @throws Exception if a job fails
+     */
+    @Test
+    void testPriorities() throws Exception {
+        try (RenderService service = new RenderService(1, 1)) {
+            CountDownLatch open = new CountDownLatch(1);
+            List<String> order = Collections.synchronizedList(new ArrayList<>());
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: The waiting jobs trace in the order of their priority
+            Job first = service.submit(job("first", 0, blocking(open, () -> {
+            }), directory.resolve("first.png")));
+            await(() -> first.getState() == State.RENDERING, "First job not rendering");
+            Job low = service.submit(job("low", 0, blocking(open, () -> {
+                if (order.isEmpty() || !order.get(order.size() - 1).equals("low")) order.add("low");
+            }), directory.resolve("low.png")));
+            Job high = service.submit(job("high", 5, blocking(open, () -> {
+                if (order.isEmpty() || !order.get(order.size() - 1).equals("high")) order.add("high");
+            }), directory.resolve("high.png")));
+            await(() -> low.getState() == State.WAITING && high.getState() == State.WAITING, "Jobs not waiting");
+            open.countDown();
+            low.getResult().get(20, TimeUnit.SECONDS);
+            high.getResult().get(20, TimeUnit.SECONDS);
+            assertEquals(List.of("high", "low"), order, "Priorities ignored");
+            // the first job releases its slot before it completes its image
+            first.getResult().get(20, TimeUnit.SECONDS);
+            assertEquals(State.DONE, first.getState(), "First job not done");
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.RenderService.Job#cancel()}.
+     *
+     * @throws Exception if a job fails
+     */
+    @Test
+    void testCancel() throws Exception {
+        try (RenderService service = new RenderService(1, 1)) {
+            CountDownLatch never = new CountDownLatch(1);
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: Cancel a rendering job - its partial image is deleted
+            Job rendering = service.submit(job("rendering", 0, blocking(never, () -> {
+            }), directory.resolve("rendering.png")));
+            await(() -> rendering.getState() == State.RENDERING, "Job not rendering");
+            // TC02: Cancel a job waiting for the tracing slot
+            Job waiting = service.submit(job("waiting", 0, spheres(), directory.resolve("waiting.png")));
+            await(() -> waiting.getState() == State.WAITING, "Job not waiting");
+            assertTrue(waiting.cancel(), "Waiting job not cancelled");
+            await(() -> waiting.getState() == State.CANCELLED, "Waiting job still waiting");
+            assertTrue(rendering.cancel(), "Rendering job not cancelled");
+            never.countDown();
+            await(() -> rendering.getState() == State.CANCELLED, "Rendering job still rendering");
+            assertTrue(rendering.getResult().isCancelled(), "Result not cancelled");
+            assertFalse(Files.exists(directory.resolve("rendering.png")), "Partial image left");
+            // TC03: Cancel a job while a tile is traced - the job keeps its slot
+            // and only ends once the tracing has stopped
+            CountDownLatch open = new CountDownLatch(1);
+            Job busy = service.submit(job("busy", 0, blocking(open, () -> {
+            }), directory.resolve("busy.png")));
+            await(() -> busy.getState() == State.RENDERING, "Job not rendering");
+            Job next = service.submit(job("next", 0, spheres(), directory.resolve("next.png")));
+            await(() -> next.getState() == State.WAITING, "Job not waiting");
+            assertTrue(busy.cancel(), "Busy job not cancelled");
+            assertThrows(TimeoutException.class, () -> busy.getResult().get(200, TimeUnit.MILLISECONDS),
+                    "Job ended while its tile is traced");
+            assertEquals(State.WAITING, next.getState(), "Slot released while a tile is traced");
+            open.countDown();
+            await(() -> busy.getState() == State.CANCELLED, "Busy job still rendering");
+            next.getResult().get(20, TimeUnit.SECONDS);
+            assertFalse(Files.exists(directory.resolve("busy.png")), "Partial image left");
+
+            // =============== Boundary Values Tests ==================
+            // TC10: Cancel a finished job
+            Job done = service.submit(job("done", 0, spheres(), directory.resolve("done.png")));
+            done.getResult().get(20, TimeUnit.SECONDS);
+            assertFalse(done.cancel(), "Finished job cancelled");
+            assertEquals(State.DONE, done.getState(), "Finished job state changed");
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package unittests.renderer;
+
+import geometries.Geometries;
+import geometries.Plane;
+import geometries.Polygon;
+import geometries.Sphere;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.PointLight;
+import lighting.RectangleLight;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.MipmapTexture;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import renderer.IrradianceCache;
+import renderer.PhotonMap;
+import renderer.SimpleRayTracer;
+import scene.Scene;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.SimpleRayTracer} class.
+ *
+ * @author Raphael
+ */
+class SimpleRayTracerTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    SimpleRayTracerTest() {
+    }
+
+    /**
+     * Ray along the z axis
+     */
+    private final Ray ray = new Ray(Point.ZERO, new Vector(0, 0, 1));
+
+    /**
+     * Test method for {@link renderer.SimpleRayTracer#traceRay(primitives.Ray)}.
+     */
+    @Test
+    void testTraceRay() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray hits nothing - the background
+        Scene scene = new Scene("empty").setBackground(new Color(1, 2, 3));
+        assertEquals(new Color(1, 2, 3), new SimpleRayTracer(scene).traceRay(ray), "Wrong background");
+
+        // TC02: Emission and ambient light
+        scene = new Scene("ambient").setAmbientLight(new AmbientLight(new Color(10, 10, 10)));
+        scene.setGeometries(new Geometries(new Sphere(new Point(0, 0, 5), 1)
+                .setEmission(new Color(5, 0, 0))
+                .setMaterial(new Material().setKa(new Double3(0.5, 0.2, 0)))));
+        assertEquals(new Color(10, 2, 0), new SimpleRayTracer(scene).traceRay(ray), "Wrong ambient color");
+
+        // TC03: Diffuse light from a point light in front of a sphere
+        scene = new Scene("diffuse");
+        scene.setGeometries(new Geometries(new Sphere(new Point(0, 0, 5), 1)
+                .setMaterial(new Material().setKd(0.5))));
+        scene.lights.add(new PointLight(new Color(100, 100, 100), new Point(0, 0, 2)));
+        assertEquals(new Color(50, 50, 50), new SimpleRayTracer(scene).traceRay(ray), "Wrong diffuse color");
+
+        // TC04: Opaque sphere between the light and the point - shadow
+        Plane wall = (Plane) new Plane(new Point(0, 0, 4), new Vector(0, 0, -1))
+                .setMaterial(new Material().setKd(0.5));
+        Sphere blocker = new Sphere(new Point(1, 0, 3), 0.3);
+        scene = new Scene("shadow").setGeometries(new Geometries(wall, blocker));
+        scene.lights.add(new PointLight(new Color(100, 100, 100), new Point(2, 0, 2)));
+        assertEquals(Color.BLACK, new SimpleRayTracer(scene).traceRay(ray), "Wrong shadow");
+
+        // TC05: Transparent sphere between the light and the point - the light
+        // is attenuated once by each of the two surfaces it crosses
+        blocker.setMaterial(new Material().setKt(0.5));
+        double lit = 100 * 0.5 * Math.sqrt(0.5);
+        assertEquals(lit / 4, new SimpleRayTracer(scene).traceRay(ray).getRed(), 1e-9, "Wrong transparent shadow");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Two facing mirrors - the bounces stop as soon as their contribution
+        // falls below the threshold (4 bounces of 0.1), not at the level limit
+        scene = new Scene("mirrors");
+        Material mirror = new Material().setKr(0.1);
+        scene.setGeometries(new Geometries(
+                new Plane(new Point(0, 0, 1), new Vector(0, 0, -1)).setEmission(new Color(10, 0, 0)).setMaterial(mirror),
+                new Plane(new Point(0, 0, -1), new Vector(0, 0, 1)).setEmission(new Color(10, 0, 0)).setMaterial(mirror)));
+        assertEquals(11.11, new SimpleRayTracer(scene).traceRay(ray).getRed(), 1e-9, "Wrong bounce cutoff");
+    }
+
+    /**
+     * Test method for {@link renderer.SimpleRayTracer#setShadowSamples(int)}.
+     */
+    @Test
+    void testSoftShadows() {
+        // a wall in front of the ray, lit by a square light straight above the
+        // hit point; a sphere blocks the part of the light with negative x
+        Plane wall = (Plane) new Plane(new Point(0, 0, 4), new Vector(0, 0, -1))
+                .setMaterial(new Material().setKd(1));
+        Sphere blocker = new Sphere(new Point(-1, 0, 2), 0.9);
+        Scene scene = new Scene("soft").setGeometries(new Geometries(wall));
+        scene.lights.add(new RectangleLight(new Color(100, 100, 100), new Point(0, 0, 0.5),
+                new Vector(1, 0, 0), new Vector(0, 1, 0), 2, 2));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Fully lit point - the 4 probe rays agree, nothing more is traced
+        SimpleRayTracer tracer = new SimpleRayTracer(scene).setShadowSamples(8);
+        Color lit = tracer.traceRay(ray);
+        assertEquals(4, tracer.getShadowRaysPerPixel(), "Probes did not settle a lit point");
+
+        // TC02: Point in the penumbra - the whole grid is sampled and the light
+        // is partly blocked
+        scene.setGeometries(new Geometries(wall, blocker));
+        tracer.resetStatistics();
+        double soft = tracer.traceRay(ray).getRed();
+        assertEquals(64, tracer.getShadowRaysPerPixel(), "Penumbra not fully sampled");
+        assertTrue(soft > 0 && soft < lit.getRed(), "Penumbra not partly lit");
+
+        // TC03: Full sampling without probes gives the same estimate
+        assertEquals(lit, new SimpleRayTracer(new Scene("soft").setGeometries(new Geometries(wall))
+                .setLights(scene.lights)).setShadowSamples(8).setAdaptiveShadows(false).traceRay(ray),
+                "Full sampling of a lit point differs");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A single sample treats the area light as a point light
+        tracer = new SimpleRayTracer(scene);
+        tracer.traceRay(ray);
+        assertEquals(1, tracer.getShadowRaysPerPixel(), "Area light sampled without samples");
+    }
+
+    /**
+     * Test method for {@link renderer.SimpleRayTracer#setBeamSamples(int)}.
+     */
+    @Test
+    void testGlossyBeams() {
+        // a glossy mirror in front of the ray, reflecting the background
+        Scene scene = new Scene("glossy").setBackground(new Color(40, 40, 40));
+        scene.setGeometries(new Geometries(new Plane(new Point(0, 0, 4), new Vector(0, 0, -1))
+                .setMaterial(new Material().setKr(0.5).setGlossiness(0.3))));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Uniform reflection - the adaptive beam stops at the 3x3 corners
+        SimpleRayTracer tracer = new SimpleRayTracer(scene).setBeamSamples(8);
+        assertEquals(new Color(20, 20, 20), tracer.traceRay(ray), "Wrong glossy reflection");
+        assertEquals(9, tracer.getBeamRaysPerPixel(), "Uniform beam subdivided");
+
+        // TC02: Dense sampling traces a ray per cell
+        tracer.setAdaptiveBeams(false).resetStatistics();
+        assertEquals(new Color(20, 20, 20), tracer.traceRay(ray), "Wrong dense glossy reflection");
+        assertEquals(64, tracer.getBeamRaysPerPixel(), "Wrong dense beam size");
+
+        // TC03: Reflection of the edge of a sphere - the beam is subdivided, but
+        // shared corners are traced once
+        scene.setGeometries(new Geometries(scene.geometries, new Sphere(new Point(1.5, 0, -4), 1.5)
+                .setEmission(new Color(200, 0, 0))));
+        tracer.setAdaptiveBeams(true).resetStatistics();
+        double red = tracer.traceRay(ray).getRed();
+        assertTrue(red > 20 && red < 100, "Edge not blurred");
+        assertTrue(tracer.getBeamRaysPerPixel() > 9 && tracer.getBeamRaysPerPixel() <= 81,
+                "Wrong adaptive beam size");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Grid size that is not a power of 2
+        assertThrows(IllegalArgumentException.class, () -> tracer.setBeamSamples(6), "Grid of 6 accepted");
+    }
+
+    /**
+     * Test method for {@link renderer.SimpleRayTracer#setIndirectSamples(int)}.
+     */
+    @Test
+    void testIndirectLight() {
+        // a diffuse wall in front of the ray, without lights
+        Plane wall = (Plane) new Plane(new Point(0, 0, 4), new Vector(0, 0, -1))
+                .setMaterial(new Material().setKd(0.5));
+        Scene scene = new Scene("indirect").setBackground(new Color(40, 40, 40))
+                .setGeometries(new Geometries(wall));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The wall sees only the background - half of it is reflected
+        SimpleRayTracer tracer = new SimpleRayTracer(scene).setIndirectSamples(4);
+        assertEquals(new Color(20, 20, 20), tracer.traceRay(ray), "Wrong indirect background");
+        assertEquals(16, tracer.getIndirectRaysPerPixel(), "Wrong amount of gather rays");
+
+        // TC02: The wall sees a glowing plane behind the viewer
+        scene.setGeometries(new Geometries(wall, new Plane(new Point(0, 0, -1), new Vector(0, 0, 1))
+                .setEmission(new Color(100, 0, 0))));
+        assertEquals(new Color(50, 0, 0), tracer.traceRay(ray), "Wrong indirect emission");
+
+        // TC03: A cached point is interpolated without gather rays
+        IrradianceCache cache = new IrradianceCache(Point.ZERO, 100, 0.2);
+        tracer.setIrradianceCache(cache).resetStatistics();
+        tracer.traceRay(ray);
+        tracer.traceRay(new Ray(Point.ZERO, new Vector(0.01, 0, 1)));
+        assertEquals(new Color(50, 0, 0), tracer.traceRay(ray), "Wrong cached indirect light");
+        assertEquals(16.0 / 3, tracer.getIndirectRaysPerPixel(), 1e-9, "Cached point gathered again");
+        assertEquals(1, cache.size(), "Wrong amount of samples");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: No gather rays - no indirect light
+        assertEquals(Color.BLACK, tracer.setIndirectSamples(0).traceRay(ray), "Indirect light without samples");
+        // TC11: Negative amount
+        assertThrows(IllegalArgumentException.class, () -> tracer.setIndirectSamples(-1), "Negative grid accepted");
+    }
+
+    /**
+     * Test method for {@link renderer.SimpleRayTracer#setPhotonMap(renderer.PhotonMap, int, double)}.
+     */
+    @Test
+    void testCaustics() {
+        // a light above a floor, next to a vertical mirror, and a glass ball
+        // under the light, focusing it about the floor
+        Scene scene = new Scene("caustics");
+        scene.setGeometries(new Geometries(
+                new Plane(Point.ZERO, new Vector(0, 1, 0)).setMaterial(new Material().setKd(0.5)),
+                new Plane(new Point(5, 0, 0), new Vector(-1, 0, 0)).setMaterial(new Material().setKr(1)),
+                new Sphere(new Point(0, 1.2, 0), 0.5).setMaterial(new Material().setKt(1).setIor(1.5))));
+        scene.lights.add(new PointLight(new Color(100, 100, 100), new Point(0, 5, 0)));
+        Ray lit = new Ray(new Point(2, 3, 0), new Vector(0, -1, 0));
+        Ray shaded = new Ray(new Point(3.5, 3, 0), new Vector(-1, -1, 0));
+        Ray focus = new Ray(new Point(3, 3, 0), new Vector(-1, -1, 0));
+        SimpleRayTracer tracer = new SimpleRayTracer(scene);
+        double direct = tracer.traceRay(lit).getRed();
+        double through = 0.5 * 100 * 5 / new Point(0, 5, 0).distance(new Point(0.5, 0, 0));
+        assertEquals(through, tracer.traceRay(shaded).getRed(), 1e-9, "Wrong light through the glass");
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The mirrored light is added to the direct light
+        PhotonMap map = PhotonMap.emitCaustics(scene, 1_000_000);
+        tracer.setPhotonMap(map, 1000, 1);
+        double mirrored = 0.5 * 100 * 5 / new Point(10, 5, 0).distance(new Point(2, 0, 0));
+        assertEquals(direct + mirrored, tracer.traceRay(lit).getRed(), 0.15 * mirrored, "Wrong caustic");
+
+        // TC02: The glass casts a shadow and focuses its light under it (seen
+        // with a sharper estimate)
+        tracer.setPhotonMap(map, 50, 0.1);
+        double mirroredShaded = 0.5 * 100 * 5 / new Point(10, 5, 0).distance(new Point(0.5, 0, 0));
+        assertTrue(tracer.traceRay(shaded).getRed() < through + mirroredShaded, "Light through the glass not focused");
+        assertTrue(tracer.traceRay(focus).getRed() > 2 * through, "No caustic under the glass");
+
+        // TC03: A directional light emits no photons - its light still passes
+        // through transparent geometries, attenuated by them
+        Scene sun = new Scene("sun").setGeometries(new Geometries(
+                new Plane(Point.ZERO, new Vector(0, 1, 0)).setMaterial(new Material().setKd(0.5)),
+                new Sphere(new Point(0, 2, 0), 0.5).setMaterial(new Material().setKt(0.5))));
+        sun.lights.add(new DirectionalLight(new Color(100, 100, 100), new Vector(0, -1, 0)));
+        PhotonMap none = new PhotonMap(new double[0], new float[0], new float[0]);
+        assertEquals(12.5, new SimpleRayTracer(sun).setPhotonMap(none, 10, 1)
+                .traceRay(new Ray(new Point(3, 3, 0), new Vector(-1, -1, 0))).getRed(), 1e-9,
+                "Wrong directional light through the glass");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Wrong parameters
+        assertThrows(IllegalArgumentException.class, () -> tracer.setPhotonMap(map, 0, 1), "No photons accepted");
+        assertThrows(IllegalArgumentException.class, () -> tracer.setPhotonMap(map, 10, 0), "No radius accepted");
+    }
+
+    /**
+     * Test method for {@link renderer.SimpleRayTracer#traceRay(primitives.Ray)}
+     * with textures filtered by the ray differentials.
+     */
+    @Test
+    void testTextureFiltering() {
+        // 16x16 checkerboard repeated every unit on the plane z = -100
+        float[] texels = new float[3 * 16 * 16];
+        for (int y = 0; y < 16; ++y)
+            for (int x = 0; x < 16; ++x)
+                if ((x + y) % 2 == 0) Arrays.fill(texels, 3 * (y * 16 + x), 3 * (y * 16 + x) + 3, 1);
+        Scene scene = new Scene("texture");
+        scene.setGeometries(new Geometries(new Plane(new Point(0, 0, -100), new Vector(0, 0, 1))
+                .setMaterial(new Material().setKd(1).setTexture(new MipmapTexture(16, 16, texels),
+                        new Vector(1, 0, 0), new Vector(0, 1, 0)))));
+        scene.lights.add(new DirectionalLight(new Color(100, 100, 100), new Vector(0, 0, -1)));
+        SimpleRayTracer tracer = new SimpleRayTracer(scene);
+        Vector toTexel = new Vector(0.5 / 16, 0.5 / 16, -100);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A ray without differentials reads the finest level - a white texel
+        assertEquals(new Color(100, 100, 100), tracer.traceRay(new Ray(Point.ZERO, toTexel)), "Wrong texel");
+
+        // TC02: A ray spreading over many texels reads the average gray
+        Ray wide = new Ray(Point.ZERO, toTexel,
+                Ray.Differentials.pinhole(toTexel, new Vector(10, 0, 0), new Vector(0, 10, 0)));
+        assertEquals(new Color(50, 50, 50), tracer.traceRay(wide), "Texture not filtered");
+
+        // TC03: The footprint follows a mirror - the same gray seen in a reflection
+        // (a small mirror at (0,0,-50) turning the ray down at 45 degrees)
+        Vector n = new Vector(Math.sqrt(0.5) - 1, 0, -Math.sqrt(0.5)).normalize();
+        Vector a = new Vector(0, 5, 0);
+        Vector b = n.crossProduct(a);
+        Point c = new Point(0, 0, -50);
+        scene.setGeometries(new Geometries(scene.geometries,
+                new Polygon(c.add(a).add(b), c.add(a).subtract(b), c.add(a.scale(-1)).subtract(b),
+                        c.add(a.scale(-1)).add(b)).setMaterial(new Material().setKr(1))));
+        Ray mirrored = new Ray(new Point(-100, 0, -50), new Vector(1, 0, 0),
+                Ray.Differentials.pinhole(new Vector(1, 0, 0), new Vector(0, 0, 0.1), new Vector(0, 0.1, 0)));
+        assertEquals(50, tracer.traceRay(mirrored).getRed(), 0.01, "Reflected texture not filtered");
+    }
+}
@@ -0,0 +1,151 @@
+package unittests.renderer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import renderer.StreamingImageWriter;
+import renderer.StreamingImageWriter.Format;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.StreamingImageWriter} class.
+ *
+ * @author Raphael
+ */
+class StreamingImageWriterTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    StreamingImageWriterTest() {
+    }
+
+    /**
+     * Directory for the image files
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Width of the test image
+     */
+    private static final int WIDTH = 70;
+    /**
+     * Height of the test image
+     */
+    private static final int HEIGHT = 45;
+    /**
+     * Size of the test tiles
+     */
+    private static final int TILE = 16;
+
+    /**
+     * Returns a component of a pixel of the test image
+     *
+     * @param x the pixel column
+     * @param y the pixel row
+     * @param c the component (0 to 2)
+     * @return the component value (0 to 1)
+     */
+    private static float component(int x, int y, int c) {
+        return ((x * 7 + y * 13 + c * 85) % 256) / 255f;
+    }
+
+    /**
+     * Writes the tiles of the test image in a shuffled order
+     *
+     * @param writer the writer
+     */
+    private static void writeShuffled(StreamingImageWriter writer) {
+        List<int[]> tiles = new ArrayList<>();
+        for (int y = 0; y < HEIGHT; y += TILE)
+            for (int x = 0; x < WIDTH; x += TILE)
+                tiles.add(new int[]{x, y, Math.min(TILE, WIDTH - x), Math.min(TILE, HEIGHT - y)});
+        Collections.shuffle(tiles, new Random(1));
+        for (int[] t : tiles) {
+            float[] rgb = new float[3 * t[2] * t[3]];
+            for (int i = 0, p = 0; i < t[3]; ++i)
+                for (int j = 0; j < t[2]; ++j)
+                    for (int c = 0; c < 3; ++c)
+                        rgb[p++] = component(t[0] + j, t[1] + i, c);
+            writer.writeTile(t[0], t[1], t[2], t[3], rgb);
+        }
+    }
+
+    /**
+     * Test method for writing a PNG file with
+     * {@link renderer.StreamingImageWriter#writeTile(int, int, int, int, float[])}.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Test
+    void testPng() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Tiles in a shuffled order, bands not aligned to the image height
+        Path file = directory.resolve("image.png");
+        try (StreamingImageWriter writer = new StreamingImageWriter(file, Format.PNG, WIDTH, HEIGHT, TILE)) {
+            writeShuffled(writer);
+        }
+        BufferedImage image = ImageIO.read(file.toFile());
+        assertEquals(WIDTH, image.getWidth(), "Wrong width");
+        assertEquals(HEIGHT, image.getHeight(), "Wrong height");
+        for (int y = 0; y < HEIGHT; ++y)
+            for (int x = 0; x < WIDTH; ++x) {
+                int rgb = image.getRGB(x, y);
+                assertEquals(Math.round(component(x, y, 0) * 255), rgb >> 16 & 0xFF, "Wrong red");
+                assertEquals(Math.round(component(x, y, 1) * 255), rgb >> 8 & 0xFF, "Wrong green");
+                assertEquals(Math.round(component(x, y, 2) * 255), rgb & 0xFF, "Wrong blue");
+            }
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A missing tile
+        StreamingImageWriter writer = new StreamingImageWriter(file, Format.PNG, WIDTH, HEIGHT, TILE);
+        writer.writeTile(0, 0, WIDTH, TILE, new float[3 * WIDTH * TILE]);
+        assertThrows(IllegalStateException.class, writer::close, "Incomplete image accepted");
+        // TC11: A tile outside the image
+        try (StreamingImageWriter outside = new StreamingImageWriter(file, Format.PNG, 1, 1, 1)) {
+            assertThrows(IllegalArgumentException.class, () -> outside.writeTile(0, 0, 2, 1, new float[6]),
+                    "Tile outside the image accepted");
+            outside.writeTile(0, 0, 1, 1, new float[3]);
+        }
+    }
+
+    /**
+     * Test method for writing a PFM file with
+     * {@link renderer.StreamingImageWriter#writeTile(int, int, int, int, float[])}.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Test
+    void testPfm() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Tiles in a shuffled order - the rows are stored bottom up
+        Path file = directory.resolve("image.pfm");
+        try (StreamingImageWriter writer = new StreamingImageWriter(file, Format.PFM, WIDTH, HEIGHT, TILE)) {
+            writeShuffled(writer);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        String header = "PF\n" + WIDTH + " " + HEIGHT + "\n-1.0\n";
+        assertEquals(header, new String(bytes, 0, header.length(), StandardCharsets.US_ASCII), "Wrong header");
+        ByteBuffer data = ByteBuffer.wrap(bytes, header.length(), bytes.length - header.length())
+                .order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(3 * Float.BYTES * WIDTH * HEIGHT, data.remaining(), "Wrong data size");
+        for (int y = HEIGHT - 1; y >= 0; --y)
+            for (int x = 0; x < WIDTH; ++x)
+                for (int c = 0; c < 3; ++c)
+                    assertEquals(component(x, y, c), data.getFloat(), "Wrong component");
+    }
+}
@@ -0,0 +1,160 @@
+package unittests.renderer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.ContentHash;
+import renderer.TileCache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.TileCache} class.
+ *
+ * @author Raphael
+ */
+class TileCacheTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    TileCacheTest() {
+    }
+
+    /**
+     * Directory for the tile files
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Size of a test tile in bytes (16 pixels)
+     */
+    private static final int TILE_BYTES = 16 * Integer.BYTES;
+
+    /**
+     * Creates a test tile filled with a single color
+     *
+     * @param color the color
+     * @return the tile pixels
+     */
+    private static int[] tile(int color) {
+        int[] pixels = new int[16];
+        Arrays.fill(pixels, color);
+        return pixels;
+    }
+
+    /**
+     * Test method for {@link TileCache#computeIfAbsent(long, java.util.function.Supplier)}.
+     *
+     * @throws IOException if the cache directory is not accessible
+     */
+    @Test
+    void testComputeIfAbsent() throws IOException {
+        TileCache cache = new TileCache(directory, 10L * TILE_BYTES);
+        long key = TileCache.key(1, 2, 3, 0, 0, 4, 4);
+        int[] rendered = {0};
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: First request renders the tile
+        assertArrayEquals(tile(0xFF0000), cache.computeIfAbsent(key, () -> {
+            ++rendered[0];
+            return tile(0xFF0000);
+        }), "Wrong tile pixels");
+        // TC02: Second request with unchanged inputs reads the tile back
+        assertArrayEquals(tile(0xFF0000), cache.computeIfAbsent(key, () -> {
+            ++rendered[0];
+            return tile(0);
+        }), "Wrong cached tile pixels");
+        assertEquals(1, rendered[0], "Unchanged tile was rendered again");
+        // TC03: Changed scene gives another key
+        assertNotEquals(key, TileCache.key(4, 2, 3, 0, 0, 4, 4), "Scene change did not change the key");
+        assertNull(cache.get(TileCache.key(4, 2, 3, 0, 0, 4, 4)), "Tile of another scene was found");
+
+        // TC04: The key of a tile of the former format (packed RGB pixels,
+        // keyed without a format version) is not the key of the tile
+        assertNotEquals(new ContentHash().add("Tile").add(1).add(2).add(3).add(0).add(0).add(4).add(4).value(),
+                key, "Tile of the former format would be read back");
+
+        // TC05: Tiles survive a restart
+        assertArrayEquals(tile(0xFF0000), new TileCache(directory, 10L * TILE_BYTES).get(key),
+                "Tile was not picked up after restart");
+    }
+
+    /**
+     * Test method for {@link TileCache#put(long, int[])}.
+     *
+     * @throws IOException if the cache directory is not accessible
+     */
+    @Test
+    void testEviction() throws IOException {
+        TileCache cache = new TileCache(directory, 3L * TILE_BYTES);
+        cache.put(1, tile(1));
+        cache.put(2, tile(2));
+        cache.put(3, tile(3));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Least recently used tile is evicted
+        assertNotNull(cache.get(1), "Tile 1 should be cached");
+        cache.put(4, tile(4));
+        assertEquals(3, cache.size(), "Cache exceeded its size");
+        assertNull(cache.get(2), "Least recently used tile was not evicted");
+        assertNotNull(cache.get(1), "Recently used tile was evicted");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Replacing a tile does not grow the cache
+        cache.put(4, tile(5));
+        assertEquals(3L * TILE_BYTES, cache.sizeInBytes(), "Replaced tile counted twice");
+        assertArrayEquals(tile(5), cache.get(4), "Tile was not replaced");
+
+        // TC12: A failed store leaves no temporary file behind
+        Path blocked = Files.createDirectories(directory.resolve(String.format("%016x.tile", 6)).resolve("x"));
+        assertThrows(UncheckedIOException.class, () -> cache.put(6, tile(6)), "Tile stored over a directory");
+        assertTrue(Files.exists(blocked), "The blocking directory was removed");
+        assertEquals(0, temporaryFiles(), "Temporary file left behind");
+    }
+
+    /**
+     * Test method for {@link TileCache#copy(long, long)}.
+     *
+     * @throws IOException if the cache directory is not accessible
+     */
+    @Test
+    void testCopy() throws IOException {
+        TileCache cache = new TileCache(directory, 10L * TILE_BYTES);
+        cache.put(1, tile(1));
+        cache.put(2, tile(2));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A stored tile is copied under the new key
+        assertTrue(cache.copy(1, 3), "Stored tile not copied");
+        assertArrayEquals(tile(1), cache.get(3), "Wrong copied tile");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A tile that is not stored is not copied
+        assertFalse(cache.copy(4, 5), "Missing tile copied");
+        // TC12: A tile deleted behind the back of the cache is not copied and
+        // leaves no temporary file behind
+        Files.delete(directory.resolve(String.format("%016x.tile", 2)));
+        assertFalse(cache.copy(2, 6), "Deleted tile copied");
+        assertEquals(0, temporaryFiles(), "Temporary file left behind");
+    }
+
+    /**
+     * Counts the temporary files in the cache directory
+     *
+     * @return the amount of temporary files
+     * @throws IOException if the cache directory is not accessible
+     */
+    private long temporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".tmp")).count();
+        }
+    }
+}
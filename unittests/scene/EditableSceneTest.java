@@ -0,0 +1,162 @@
+package unittests.scene;
+
+import geometries.Intersectable;
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Color;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import renderer.Camera;
+import renderer.SimpleRayTracer;
+import renderer.TileCache;
+import scene.EditableScene;
+import scene.Scene;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link scene.EditableScene} class.
+ *
+ * @author Raphael
+ */
+class EditableSceneTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    EditableSceneTest() {
+    }
+
+    /**
+     * Directory for the tile files
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Creates a row of unit spheres along the x axis, in front of the camera
+     *
+     * @return the spheres
+     */
+    private static List<Intersectable> spheres() {
+        List<Intersectable> spheres = new ArrayList<>();
+        for (int i = 0; i < 8; ++i)
+            spheres.add(new Sphere(new Point(3 * i - 10.5, 0, -20), 1).setEmission(new Color(100, 50, 25)));
+        return spheres;
+    }
+
+    /**
+     * Test method for {@link scene.EditableScene#set(int, geometries.Intersectable)}.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void testSet() throws InterruptedException {
+        EditableScene scene = new EditableScene(new Scene("edited"), spheres());
+        Scene before = scene.snapshot();
+        Ray ray = new Ray(new Point(-10.5, 0, 0), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: An edit publishes a new version and leaves the previous one
+        Scene after = scene.set(0, new Sphere(new Point(-10.5, 0, -15), 1));
+        assertSame(after, scene.snapshot(), "The edit was not published");
+        assertEquals(1, scene.getVersion(), "Wrong version");
+        assertEquals(new Point(-10.5, 0, -14), after.geometries.findIntersections(ray).getFirst(),
+                "The new version misses the edit");
+        assertEquals(new Point(-10.5, 0, -19), before.geometries.findIntersections(ray).getFirst(),
+                "The previous version was changed");
+
+        // TC02: Edits at once publish a single version
+        scene.setAll(Map.of(1, new Sphere(new Point(-7.5, 0, -15), 1), 2, new Sphere(new Point(-4.5, 0, -15), 1)));
+        assertEquals(2, scene.getVersion(), "Wrong version");
+
+        // TC03: Readers keep tracing while the scene is edited
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicLong misses = new AtomicLong();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                Scene version = scene.snapshot();
+                for (int i = 0; i < 8; ++i)
+                    if (version.geometries.findIntersections(
+                            new Ray(new Point(3 * i - 10.5, 0, 0), new Vector(0, 0, -1))) == null)
+                        misses.incrementAndGet();
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 2000; ++i)
+            scene.set(i % 8, new Sphere(new Point(3 * (i % 8) - 10.5, 0, -20 + i % 5), 1));
+        done.set(true);
+        reader.join();
+        assertEquals(0, misses.get(), "A reader saw an incomplete version");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No such object
+        assertThrows(IllegalArgumentException.class, () -> scene.set(8, new Sphere(Point.ZERO, 1)),
+                "An index beyond the objects must be rejected");
+        // TC12: No new object
+        assertThrows(IllegalArgumentException.class, () -> scene.set(0, null), "A null object must be rejected");
+    }
+
+    /**
+     * Test method for {@link scene.EditableScene#takeChanges()}.
+     *
+     * @throws IOException if the cache directory is not accessible
+     */
+    @Test
+    void testTakeChanges() throws IOException {
+        EditableScene scene = new EditableScene(new Scene("edited"), spheres());
+        TileCache cache = new TileCache(directory, 1L << 24);
+        Camera.Builder builder = Camera.getBuilder()
+                .setLocation(Point.ZERO).setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVpSize(16, 4).setVpDistance(10).setResolution(256, 64).setTileCache(cache);
+        EditableScene.Changes first = scene.takeChanges();
+        builder.setRayTracer(new SimpleRayTracer(first.scene())).build().renderImage();
+        int tiles = cache.size();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The changes hold the boxes of the edited object before and after the edit
+        scene.set(7, new Sphere(new Point(10.5, 0, -18), 1));
+        EditableScene.Changes changes = scene.takeChanges();
+        assertSame(scene.snapshot(), changes.scene(), "Wrong version of the changes");
+        assertEquals(2, changes.dirty().size(), "Wrong amount of boxes");
+        assertEquals(-17, changes.dirty().get(1).maxZ(), 1e-9, "Wrong box after the edit");
+
+        // TC02: Only the tiles the edit is seen in are rendered again for a preview
+        Camera camera = builder.setRayTracer(new SimpleRayTracer(changes.scene())).setPreview(true).build();
+        int carried = camera.carryOverTiles(first.scene(), changes.dirty());
+        assertTrue(carried > 0 && carried < tiles, "Wrong amount of carried tiles: " + carried);
+        long misses = cache.getMisses();
+        camera.renderImage();
+        assertEquals(tiles - carried, cache.getMisses() - misses, "Wrong amount of rendered tiles");
+
+        // TC03: The carried tiles are carried on by the preview of a further edit
+        scene.set(7, new Sphere(new Point(10.5, 0.5, -18), 1));
+        EditableScene.Changes further = scene.takeChanges();
+        camera = builder.setRayTracer(new SimpleRayTracer(further.scene())).build();
+        carried = camera.carryOverTiles(changes.scene(), further.dirty());
+        assertTrue(carried > 0 && carried < tiles, "Wrong amount of carried on tiles: " + carried);
+        misses = cache.getMisses();
+        camera.renderImage();
+        assertEquals(tiles - carried, cache.getMisses() - misses, "Wrong amount of rendered tiles");
+
+        // TC04: A final render renders the carried tiles anew - none of them is
+        // taken for an exact tile
+        misses = cache.getMisses();
+        builder.setRayTracer(new SimpleRayTracer(further.scene())).setPreview(false).build().renderImage();
+        assertEquals(carried, cache.getMisses() - misses, "Carried tiles read by a final render");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No edits since the changes were taken
+        assertTrue(scene.takeChanges().dirty().isEmpty(), "The boxes were not taken");
+    }
+}
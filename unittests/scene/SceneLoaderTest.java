@@ -0,0 +1,196 @@
+package unittests.scene;
+
+import geometries.Geometries;
+import geometries.Intersectable;
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+import scene.SceneLoader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link scene.SceneLoader} class.
+ *
+ * @author Raphael
+ */
+class SceneLoaderTest {
+
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    SceneLoaderTest() {
+    }
+
+    /**
+     * An XML description of a small scene
+     */
+    private static final String XML = """
+            <?xml version="1.0"?>
+            <scene name="small" background-color="10 20 30">
+              <ambient-light color="5 5 5"/>
+              <geometries>
+                <sphere center="0 0 -100" radius="50" emission="100 0 0" kd="0.5" ks="0.2 0.3 0.4" shininess="30"/>
+                <triangle p0="-100 0 -100" p1="0 100 -100" p2="-100 100 -100"/>
+                <polygon vertices="0 0 -200, 10 0 -200, 10 10 -200, 0 10 -200"/>
+                <plane point="0 -50 0" normal="0 1 0"/>
+                <cylinder origin="0 0 0" direction="0 0 1" radius="1" height="2"/>
+              </geometries>
+              <lights>
+                <point-light color="100 100 100" position="0 50 0" kl="0.001"/>
+                <directional-light color="50 50 50" direction="0 -1 0"/>
+              </lights>
+            </scene>
+            """;
+
+    /**
+     * The same scene described in JSON
+     */
+    private static final String JSON = """
+            {
+              "name": "small",
+              "background-color": [10, 20, 30],
+              "ambient-light": {"color": [5, 5, 5]},
+              "geometries": [
+                {"type": "sphere", "center": [0, 0, -100], "radius": 50, "emission": [100, 0, 0],
+                 "kd": 0.5, "ks": [0.2, 0.3, 0.4], "shininess": 30},
+                {"type": "triangle", "p0": [-100, 0, -100], "p1": [0, 100, -100], "p2": [-100, 100, -100]},
+                {"type": "polygon", "vertices": [[0, 0, -200], [10, 0, -200], [10, 10, -200], [0, 10, -200]]},
+                {"type": "plane", "point": [0, -50, 0], "normal": [0, 1, 0]},
+                {"type": "cylinder", "origin": [0, 0, 0], "direction": [0, 0, 1], "radius": 1, "height": 2}
+              ],
+              "lights": [
+                {"type": "point-light", "color": [100, 100, 100], "position": [0, 50, 0], "kl": 0.001},
+                {"type": "directional-light", "color": [50, 50, 50], "direction": [0, -1, 0]}
+              ]
+            }
+            """;
+
+    /**
+     * Loads an XML description
+     *
+     * @param loader the loader
+     * @param xml    the description
+     * @return the scene
+     * @throws IOException if the description cannot be read
+     */
+    private static Scene xml(SceneLoader loader, String xml) throws IOException {
+        return loader.loadXml(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), "test");
+    }
+
+    /**
+     * Checks the loaded small scene
+     *
+     * @param scene the scene
+     */
+    private static void checkSmall(Scene scene) {
+        assertEquals("small", scene.name, "Wrong scene name");
+        assertEquals(new Color(10, 20, 30), scene.background, "Wrong background");
+        assertEquals(new Color(5, 5, 5), scene.ambientLight.getIntensity(), "Wrong ambient light");
+        assertEquals(2, scene.lights.size(), "Wrong amount of lights");
+        List<Intersectable> geometries = ((Geometries) scene.geometries).getGeometries();
+        assertEquals(5, geometries.size(), "Wrong amount of geometries");
+        assertTrue(geometries.get(0) instanceof Sphere, "Geometries out of order");
+        Sphere sphere = (Sphere) geometries.get(0);
+        assertEquals(new Color(100, 0, 0), sphere.getEmission(), "Wrong emission");
+        assertEquals(30, sphere.getMaterial().nShininess, "Wrong shininess");
+        assertEquals(0.3, sphere.getMaterial().kS.d2(), 1e-9, "Wrong specular coefficient");
+        assertEquals(List.of(new Point(0, 0, -50), new Point(0, 0, -150)),
+                sphere.findIntersections(new Ray(new Point(0, 0, 0), new Vector(0, 0, -1))),
+                "Wrong sphere");
+        assertEquals(List.of(new Point(5, 5, -200)),
+                geometries.get(2).findIntersections(new Ray(new Point(5, 5, 0), new Vector(0, 0, -1))),
+                "Wrong polygon");
+    }
+
+    /**
+     * Test method for {@link scene.SceneLoader#loadXml(java.io.InputStream, String)}.
+     *
+     * @throws IOException if a description cannot be read
+     */
+    @Test
+    void testLoadXml() throws IOException {
+        SceneLoader loader = new SceneLoader();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: All the elements of a description
+        checkSmall(xml(loader, XML));
+
+        // TC02: Concave polygon rejected with its location
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> xml(loader,
+                        "<scene>\n<polygon vertices='0 0 1 1 0 0 0 1 0 0.5 0.25 0.5'/>\n</scene>"),
+                "Concave polygon accepted");
+        assertTrue(e.getMessage().contains("line 2"), "Location missing: " + e.getMessage());
+
+        // TC03: Trusted description - the polygon is not validated
+        assertDoesNotThrow(() -> xml(new SceneLoader().setTrusted(true),
+                "<scene><polygon vertices='0 0 1 1 0 0 0 1 0 0.5 0.25 0.5'/></scene>"), "Trusted polygon validated");
+
+        // TC04: Unknown element
+        assertThrows(IllegalArgumentException.class, () -> xml(loader, "<scene><cube size='1'/></scene>"),
+                "Unknown element accepted");
+
+        // TC05: Missing value
+        assertThrows(IllegalArgumentException.class, () -> xml(loader, "<scene><sphere radius='1'/></scene>"),
+                "Sphere without center accepted");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Empty scene, named by the caller
+        Scene empty = xml(loader, "<scene/>");
+        assertEquals("test", empty.name, "Scene not named by the caller");
+        assertTrue(((Geometries) empty.geometries).getGeometries().isEmpty(), "Empty scene has geometries");
+
+        // TC12: More geometries than a construction batch, in their order
+        StringBuilder big = new StringBuilder("<scene>");
+        for (int i = 0; i < 10_000; ++i)
+            big.append("<sphere center='").append(i).append(" 0 0' radius='0.5'/>");
+        List<Intersectable> spheres = ((Geometries) xml(new SceneLoader().setPool(new ForkJoinPool(3)),
+                big.append("</scene>").toString()).geometries).getGeometries();
+        assertEquals(10_000, spheres.size(), "Geometries lost");
+        assertEquals(9999.5, spheres.get(9999).getBoundingBox().maxX(), 1e-9, "Geometries out of order");
+    }
+
+    /**
+     * Test method for {@link scene.SceneLoader#loadJson(java.io.Reader, String)}.
+     *
+     * @throws IOException if a description cannot be read
+     */
+    @Test
+    void testLoadJson() throws IOException {
+        SceneLoader loader = new SceneLoader();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: All the elements of a description, as in XML
+        checkSmall(loader.loadJson(new StringReader(JSON), "test"));
+
+        // TC02: Malformed description rejected with its location
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> loader.loadJson(new StringReader("{\n\"geometries\": [\n{\"type\": \"sphere\", \"radius\": x}]}"),
+                        "test"), "Malformed description accepted");
+        assertTrue(e.getMessage().contains("line 3"), "Location missing: " + e.getMessage());
+
+        // TC03: Element without a type
+        assertThrows(IllegalArgumentException.class,
+                () -> loader.loadJson(new StringReader("{\"geometries\": [{\"radius\": 1}]}"), "test"),
+                "Element without a type accepted");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Empty object
+        assertEquals("test", loader.loadJson(new StringReader("{}"), "test").name, "Empty description failed");
+
+        // TC12: Empty arrays
+        assertTrue(((Geometries) loader.loadJson(new StringReader("{\"geometries\": [], \"lights\": []}"), "test")
+                .geometries).getGeometries().isEmpty(), "Empty arrays failed");
+    }
+}
@@ -0,0 +1,158 @@
+package unittests.scene;
+
+import geometries.BoundingVolumeHierarchy;
+import geometries.BoxCulled;
+import geometries.Csg;
+import geometries.Cylinder;
+import geometries.Geometries;
+import geometries.Intersectable;
+import geometries.LazyAggregate;
+import geometries.Plane;
+import geometries.Polygon;
+import geometries.Quadric;
+import geometries.Sphere;
+import geometries.Triangle;
+import geometries.TriangleMesh;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.DiscLight;
+import lighting.PointLight;
+import lighting.RectangleLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Color;
+import primitives.ContentHash;
+import primitives.Material;
+import primitives.MipmapTexture;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+import scene.SceneSnapshot;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link scene.SceneSnapshot} class.
+ *
+ * @author Raphael
+ */
+class SceneSnapshotTest {
+    /**
+     * Default constructor with Javadoc comment.
+     */
+    SceneSnapshotTest() {
+    }
+
+    /**
+     * Directory of the snapshot files
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Creates a scene with every kind of geometry and light
+     *
+     * @return the scene
+     */
+    private static Scene scene() {
+        Material shared = new Material().setKd(0.5).setKs(0.3).setShininess(20)
+                .setTexture(new MipmapTexture(2, 2, new float[]{1, 0, 0, 0, 1, 0, 0, 0, 1, 1, 1, 1}),
+                        new Vector(0.1, 0, 0), new Vector(0, 0.1, 0));
+        Random random = new Random(3);
+        List<Intersectable> triangles = new ArrayList<>();
+        for (int i = 0; i < 200; ++i) {
+            Point p = new Point(random.nextDouble() * 10, random.nextDouble() * 10, -10 - random.nextDouble() * 10);
+            triangles.add(new Triangle(p, p.add(new Vector(1, 0, 0)), p.add(new Vector(0, 1, 0.5)))
+                    .setMaterial(shared));
+        }
+        triangles.add(new Plane(new Point(0, -5, 0), new Vector(0, 1, 0)).setEmission(new Color(10, 20, 30)));
+        TriangleMesh mesh = new TriangleMesh(new float[]{0, 0, -5, 1, 0, -5, 1, 1, -5, 0, 1, -5},
+                new int[]{0, 1, 2, 0, 2, 3}).setMaterial(shared);
+        return new Scene("snapshot").setBackground(new Color(1, 2, 3))
+                .setAmbientLight(new AmbientLight(new Color(4, 5, 6)))
+                .setLights(new ArrayList<>(List.of(
+                        new PointLight(new Color(100, 100, 100), new Point(0, 10, 0)).setKl(0.01),
+                        new SpotLight(new Color(50, 0, 0), new Point(5, 10, 0), new Vector(0, -1, 0)).setKq(0.001),
+                        new DirectionalLight(new Color(20, 20, 20), new Vector(1, -1, -1)),
+                        new RectangleLight(new Color(30, 30, 30), new Point(0, 20, 0), new Vector(1, 0, 0),
+                                new Vector(0, 0, 1), 2, 3),
+                        new DiscLight(new Color(30, 30, 30), new Point(0, 20, 5), new Vector(0, -1, 0), 1.5))))
+                .setGeometries(new Geometries(
+                        new Sphere(new Point(0, 0, -50), 5).setMaterial(shared),
+                        new Polygon(new Point(-1, -1, -30), new Point(1, -1, -30), new Point(1, 1, -30),
+                                new Point(-1, 1, -30)),
+                        new Cylinder(new Ray(new Point(3, 0, -20), new Vector(0, 0, 1)), 1, 2),
+                        new BoxCulled(mesh), mesh.translate(new Vector(3, 0, 0)),
+                        new BoundingVolumeHierarchy(triangles), Quadric.ellipsoid(new Point(-4, 0, -40), 1, 2, 3),
+                        Csg.difference(new Sphere(new Point(6, 0, -40), 2), new Sphere(new Point(6, 1, -40), 1))));
+    }
+
+    /**
+     * Test method for {@link scene.SceneSnapshot#read(java.nio.file.Path)}.
+     *
+     * @throws IOException if a snapshot cannot be written or read
+     */
+    @Test
+    void testRead() throws IOException {
+        Scene scene = scene();
+        Path file = directory.resolve("scene.snap");
+        SceneSnapshot.write(scene, file);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The restored scene has the same content
+        Scene restored = SceneSnapshot.read(file);
+        assertEquals("snapshot", restored.name, "Wrong name");
+        assertEquals(5, restored.lights.size(), "Lights lost");
+        assertEquals(ContentHash.of(scene), ContentHash.of(restored), "Restored scene differs");
+
+        // TC02: The restored scene is intersected the same
+        Random random = new Random(5);
+        for (int i = 0; i < 200; ++i) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 10 - 2, random.nextDouble() * 10 - 2, 0),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+            assertEquals(scene.geometries.findIntersections(ray), restored.geometries.findIntersections(ray),
+                    "Restored scene intersected differently");
+        }
+
+        // TC03: A shared material is restored once
+        List<Intersectable> items = ((Geometries) restored.geometries).getGeometries();
+        assertSame(((Sphere) items.get(0)).getMaterial(), ((TriangleMesh) items.get(4)).getMaterial(),
+                "Shared material restored twice");
+
+        // TC04: Not a snapshot
+        Path text = Files.writeString(directory.resolve("text.snap"), "not a snapshot");
+        assertThrows(IOException.class, () -> SceneSnapshot.read(text), "Foreign file read");
+
+        // TC05: Unsupported geometry - nothing written
+        Path lazy = directory.resolve("lazy.snap");
+        Scene lazyScene = new Scene("lazy").setGeometries(new LazyAggregate(new Sphere(Point.ZERO, 1)));
+        assertThrows(IllegalStateException.class, () -> SceneSnapshot.write(lazyScene, lazy),
+                "Unsupported geometry written");
+        assertFalse(Files.exists(lazy), "Partial snapshot left");
+        assertFalse(Files.exists(directory.resolve("lazy.snap.tmp")), "Temporary snapshot left");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Truncated snapshot
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+        assertThrows(IOException.class, () -> SceneSnapshot.read(file), "Truncated snapshot read");
+
+        // TC12: Empty scene
+        Path empty = directory.resolve("empty.snap");
+        SceneSnapshot.write(new Scene("empty"), empty);
+        assertEquals(ContentHash.of(new Scene("empty")), ContentHash.of(SceneSnapshot.read(empty)),
+                "Empty scene differs");
+    }
+}